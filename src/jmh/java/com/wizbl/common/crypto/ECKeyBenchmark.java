@@ -0,0 +1,56 @@
+package com.wizbl.common.crypto;
+
+import com.wizbl.common.crypto.ECKey.ECDSASignature;
+import com.wizbl.common.utils.Sha256Hash;
+import java.security.SignatureException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * transaction과 block의 서명 검증에 사용하는 ECKey.signatureToAddress(public key 복원 + address 계산)의 비용을 측정함. <br/>
+ *  - base64 : base64로 인코딩된 서명을 사용(이전 방식) <br/>
+ *  - bytes : TransactionCapsule, BlockCapsule의 서명 검증과 같이 r(32) || s(32) || v(1) 형식의 서명을 사용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ECKeyBenchmark {
+
+  private byte[] messageHash;
+  private String signatureBase64;
+  private byte[] signatureBytes;
+
+  @Setup
+  public void setup() {
+    byte[] privateKey = new byte[32];
+    new Random(0).nextBytes(privateKey);
+    ECKey key = ECKey.fromPrivate(privateKey);
+    messageHash = Sha256Hash.of("benchmark".getBytes()).getBytes();
+    ECDSASignature signature = key.sign(messageHash);
+    signatureBase64 = signature.toBase64();
+    signatureBytes = signature.toByteArray();
+  }
+
+  @Benchmark
+  public byte[] base64() throws SignatureException {
+    return ECKey.signatureToAddress(messageHash, signatureBase64);
+  }
+
+  @Benchmark
+  public byte[] bytes() throws SignatureException {
+    return ECKey.signatureToAddress(messageHash, signatureBytes);
+  }
+}
@@ -0,0 +1,71 @@
+package com.wizbl.common.crypto;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.utils.Sha256Hash;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hash.sha3(keccak-256, VM의 SHA3 opcode와 address 계산)와 Sha256Hash.of(transaction id, block id, merkle tree)의
+ * 비용을 입력 크기 별로 측정함. <br/>
+ *  - size : 32(hash 한 개), 64(merkle node), 256(일반적인 transaction raw data), 4096 <br/>
+ * xxxByteString은 protobuf의 ByteString을 toByteArray()로 복사하는 경우와 복사 없이 hash하는 경우를 비교함.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+  @Param({"32", "64", "256", "4096"})
+  private int size;
+
+  private byte[] input;
+
+  private ByteString inputByteString;
+
+  @Setup
+  public void setup() {
+    input = new byte[size];
+    new Random(0).nextBytes(input);
+    inputByteString = ByteString.copyFrom(input);
+  }
+
+  @Benchmark
+  public byte[] sha3() {
+    return Hash.sha3(input);
+  }
+
+  @Benchmark
+  public Sha256Hash sha256() {
+    return Sha256Hash.of(input);
+  }
+
+  @Benchmark
+  public byte[] sha3ByteStringCopy() {
+    return Hash.sha3(inputByteString.toByteArray());
+  }
+
+  @Benchmark
+  public byte[] sha3ByteString() {
+    return Hash.sha3(inputByteString);
+  }
+
+  @Benchmark
+  public Sha256Hash sha256ByteString() {
+    return Sha256Hash.of(inputByteString);
+  }
+}
@@ -0,0 +1,239 @@
+package com.wizbl.common.runtime.vm;
+
+import com.wizbl.common.utils.ByteUtil;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * VM의 산술 opcode(ADD, SUB, MUL, DIV, MOD, EXP, ADDMOD, MULMOD)가 사용하는 DataWord 연산의 비용을 측정함. <br/>
+ * 연산은 피연산자를 변경하므로 매번 clone한 값에 적용함(VM에서 stack pop 후 연산하는 것과 같음). <br/>
+ *  - width : 피연산자의 유효 byte 수. 8이면 long 범위의 작은 값, 32이면 256bit 전체를 사용하는 값 <br/>
+ * xxxBigInteger 메소드는 UInt256 이전의 BigInteger 구현(value()로 변환 후 계산하고 32 byte 배열로 복사)을
+ * 같은 피연산자로 측정한 비교 기준임.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataWordBenchmark {
+
+  private static final int OPERANDS = 64;
+
+  @Param({"8", "32"})
+  private int width;
+
+  private DataWord[] left;
+  private DataWord[] right;
+  // mod, div의 피연산자. 결과가 0이 되지 않도록 left보다 짧게 만듦.
+  private DataWord[] divisor;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    left = new DataWord[OPERANDS];
+    right = new DataWord[OPERANDS];
+    divisor = new DataWord[OPERANDS];
+    for (int i = 0; i < OPERANDS; i++) {
+      left[i] = randomWord(random, width);
+      right[i] = randomWord(random, width);
+      divisor[i] = randomWord(random, Math.max(1, width / 2));
+    }
+  }
+
+  private static DataWord randomWord(Random random, int width) {
+    byte[] data = new byte[32];
+    byte[] value = new byte[width];
+    random.nextBytes(value);
+    value[0] |= 1;
+    System.arraycopy(value, 0, data, 32 - width, width);
+    return new DataWord(data);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long add() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.add(right[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long sub() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.sub(right[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long mul() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.mul(right[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long div() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.div(divisor[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long mod() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.mod(divisor[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long exp() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.exp(right[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long addmod() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.addmod(right[i], divisor[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long mulmod() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      DataWord word = left[i].clone();
+      word.mulmod(right[i], divisor[i]);
+      sum += word.getData()[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long subBigInteger() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      BigInteger result = left[i].value().subtract(right[i].value()).and(DataWord.MAX_VALUE);
+      sum += ByteUtil.copyToArray(result)[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long mulBigInteger() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      BigInteger result = left[i].value().multiply(right[i].value()).and(DataWord.MAX_VALUE);
+      sum += ByteUtil.copyToArray(result)[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long divBigInteger() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      BigInteger result = left[i].value().divide(divisor[i].value());
+      sum += ByteUtil.copyToArray(result)[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long modBigInteger() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      BigInteger result = left[i].value().mod(divisor[i].value());
+      sum += ByteUtil.copyToArray(result)[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long expBigInteger() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      BigInteger result = left[i].value().modPow(right[i].value(), DataWord._2_256);
+      sum += ByteUtil.copyToArray(result)[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long addmodBigInteger() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      BigInteger result = left[i].value().add(right[i].value()).mod(divisor[i].value());
+      sum += ByteUtil.copyToArray(result)[31];
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERANDS)
+  public long mulmodBigInteger() {
+    long sum = 0;
+    for (int i = 0; i < OPERANDS; i++) {
+      BigInteger result = left[i].value().multiply(right[i].value()).mod(divisor[i].value());
+      sum += ByteUtil.copyToArray(result)[31];
+    }
+    return sum;
+  }
+}
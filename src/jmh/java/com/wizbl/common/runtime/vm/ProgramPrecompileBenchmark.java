@@ -0,0 +1,64 @@
+package com.wizbl.common.runtime.vm;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wizbl.common.crypto.Hash;
+import com.wizbl.common.runtime.vm.program.ProgramPrecompile;
+import com.wizbl.core.db.ByteArrayWrapper;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Program 생성 시 호출되는 ProgramPrecompile.getInstance()의 cache hit 비용을 측정함. <br/>
+ * 매 호출마다 새로 읽은 code를 사용하는 것과 같도록 같은 내용의 다른 배열로 조회함. <br/>
+ *  - codeSize : contract code의 byte 수 <br/>
+ *  - sha3Key : 이전 구현(code 전체의 sha3를 key로 사용)으로 같은 cache를 조회하는 비교 기준 <br/>
+ *  - codeKey : 현재 구현(code를 그대로 key로 사용하고 일부 byte로 hash를 계산)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgramPrecompileBenchmark {
+
+  @Param({"1024", "8192", "24576"})
+  private int codeSize;
+
+  private byte[] code;
+
+  private final Cache<ByteArrayWrapper, ProgramPrecompile> sha3Cache = CacheBuilder.newBuilder()
+      .maximumSize(1024)
+      .build();
+
+  @Setup
+  public void setup() {
+    byte[] ops = new byte[codeSize];
+    new Random(0).nextBytes(ops);
+    ProgramPrecompile precompile = ProgramPrecompile.getInstance(ops);
+    sha3Cache.put(new ByteArrayWrapper(Hash.sha3(ops)), precompile);
+    code = ops.clone();
+  }
+
+  @Benchmark
+  public ProgramPrecompile sha3Key() {
+    return sha3Cache.getIfPresent(new ByteArrayWrapper(Hash.sha3(code)));
+  }
+
+  @Benchmark
+  public ProgramPrecompile codeKey() {
+    return ProgramPrecompile.getInstance(code);
+  }
+}
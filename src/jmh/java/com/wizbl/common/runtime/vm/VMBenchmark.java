@@ -0,0 +1,109 @@
+package com.wizbl.common.runtime.vm;
+
+import com.wizbl.common.runtime.vm.program.InternalTransaction;
+import com.wizbl.common.runtime.vm.program.InternalTransaction.TrxType;
+import com.wizbl.common.runtime.vm.program.Program;
+import com.wizbl.common.runtime.vm.program.invoke.ProgramInvokeMockImpl;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.exception.ContractValidateException;
+import com.wizbl.protos.Protocol.Transaction;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * VM.step으로 합성 contract(LOOPS 번 반복하는 loop)를 끝까지 실행하는 비용을 측정함. <br/>
+ * 결과는 contract 실행 한 번의 시간이며, Program 생성(jumpdest 분석 포함) 비용도 포함됨. <br/>
+ *  - arithmetic : DUP, MUL, ADD, DIV 등 stack 산술 연산 <br/>
+ *  - memory : MSTORE, MLOAD <br/>
+ *  - sha3 : 64 byte memory에 대한 SHA3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VMBenchmark {
+
+  private static final int LOOPS = 1_000;
+
+  @Param({"arithmetic", "memory", "sha3"})
+  private String contract;
+
+  private byte[] code;
+  private ProgramInvokeMockImpl invoke;
+  private InternalTransaction internalTransaction;
+  private VM vm;
+
+  @Setup
+  public void setup() throws ContractValidateException {
+    // CPU time limit 검사를 하지 않음
+    Args.getInstance().setDebug(true);
+    code = loop(body(contract));
+    invoke = new ProgramInvokeMockImpl();
+    invoke.setEnergyLimit(100_000_000L);
+    internalTransaction = new InternalTransaction(Transaction.getDefaultInstance(),
+        TrxType.TRX_UNKNOWN_TYPE);
+    vm = new VM();
+  }
+
+  @TearDown
+  public void destroy() {
+    Args.clearParam();
+  }
+
+  private static byte[] body(String contract) {
+    switch (contract) {
+      case "arithmetic":
+        // DUP1 DUP1 MUL PUSH1 7 ADD PUSH1 3 SWAP1 DIV POP
+        return new byte[]{(byte) 0x80, (byte) 0x80, 0x02, 0x60, 0x07, 0x01, 0x60, 0x03,
+            (byte) 0x90, 0x04, 0x50};
+      case "memory":
+        // DUP1 PUSH1 0 MSTORE PUSH1 0 MLOAD POP
+        return new byte[]{(byte) 0x80, 0x60, 0x00, 0x52, 0x60, 0x00, 0x51, 0x50};
+      case "sha3":
+        // DUP1 PUSH1 0 MSTORE PUSH1 0x40 PUSH1 0 SHA3 POP
+        return new byte[]{(byte) 0x80, 0x60, 0x00, 0x52, 0x60, 0x40, 0x60, 0x00, 0x20, 0x50};
+      default:
+        throw new IllegalArgumentException(contract);
+    }
+  }
+
+  /**
+   * stack top의 counter가 0이 될 때까지 body를 반복하는 code를 만듦. body는 stack을 그대로 유지해야 함.
+   */
+  private static byte[] loop(byte[] body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // PUSH2 LOOPS
+    out.write(0x61);
+    out.write(LOOPS >>> 8);
+    out.write(LOOPS);
+    // JUMPDEST (pc = 3)
+    out.write(0x5b);
+    out.write(body, 0, body.length);
+    // PUSH1 1 SWAP1 SUB DUP1 PUSH1 3 JUMPI STOP
+    out.write(new byte[]{0x60, 0x01, (byte) 0x90, 0x03, (byte) 0x80, 0x60, 0x03, 0x57, 0x00}, 0, 9);
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public Program run() {
+    Program program = new Program(code, invoke, internalTransaction);
+    while (!program.isStopped()) {
+      vm.step(program);
+    }
+    return program;
+  }
+}
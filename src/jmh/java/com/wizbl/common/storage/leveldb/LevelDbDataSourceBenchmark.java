@@ -0,0 +1,79 @@
+package com.wizbl.common.storage.leveldb;
+
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.Constant;
+import com.wizbl.core.config.args.Args;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnapshotManager.flush 시 store 별로 호출되는 LevelDbDataSourceImpl.updateByBatch의 비용을 batch 크기 별로 측정함. <br/>
+ * 매 호출마다 같은 key를 다른 값으로 덮어씀.
+ *  - batchSize : 한 번에 기록하는 key 수 <br/>
+ *  - valueSize : value의 byte 수(account는 수백 byte, block은 수십 KB)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelDbDataSourceBenchmark {
+
+  private static final String dbPath = "output_leveldb_benchmark";
+
+  @Param({"100", "1000", "10000"})
+  private int batchSize;
+
+  @Param({"128", "1024"})
+  private int valueSize;
+
+  private LevelDbDataSourceImpl dataSource;
+  private Map<byte[], byte[]> rows;
+  private Random random;
+
+  @Setup
+  public void setup() {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    dataSource = new LevelDbDataSourceImpl(dbPath, "leveldb-benchmark");
+    dataSource.initDB();
+    random = new Random(0);
+    rows = new HashMap<>(batchSize * 2);
+    for (int i = 0; i < batchSize; i++) {
+      byte[] key = new byte[32];
+      random.nextBytes(key);
+      rows.put(key, new byte[valueSize]);
+    }
+  }
+
+  @TearDown
+  public void destroy() {
+    dataSource.closeDB();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Benchmark
+  public void updateByBatch() {
+    for (byte[] value : rows.values()) {
+      random.nextBytes(value);
+    }
+    dataSource.updateByBatch(rows);
+  }
+}
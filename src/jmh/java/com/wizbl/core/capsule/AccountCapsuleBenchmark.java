@@ -0,0 +1,104 @@
+package com.wizbl.core.capsule;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.protos.Protocol.Account;
+import com.wizbl.protos.Protocol.AccountType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TransferContract 한 건을 처리할 때 owner account에 일어나는 변경(BandwidthProcessor.updateUsage, consume과
+ * TransferActuator.execute)을 재현하여 account 한 건당 처리량을 측정함. <br/>
+ *  - rebuildPerSetter : 기존 방식(setter마다 Account를 다시 build) <br/>
+ *  - deferredBuild : AccountCapsule(builder에 누적 후 getData()에서 한 번만 build) <br/>
+ * 할당량은 -prof gc 옵션으로 함께 측정함(gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountCapsuleBenchmark {
+
+  // 한 블록에서 처리하는 transfer 수
+  private static final int TRANSFERS = 1_000;
+
+  // account가 보유한 asset 수. asset map이 클수록 Account를 다시 build하는 비용이 커짐.
+  @Param({"0", "10", "50"})
+  private int assetCount;
+
+  private Account account;
+
+  @Setup
+  public void setup() {
+    Account.Builder builder = Account.newBuilder()
+        .setAddress(ByteString.copyFrom(new byte[21]))
+        .setType(AccountType.Normal)
+        .setBalance(Long.MAX_VALUE / 2);
+    for (int i = 0; i < assetCount; i++) {
+      String tokenId = String.valueOf(1_000_000 + i);
+      builder.putAssetV2(tokenId, 1_000L)
+          .putFreeAssetNetUsageV2(tokenId, 10L)
+          .putLatestAssetOperationTimeV2(tokenId, 1L);
+    }
+    account = builder.build();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSFERS)
+  public long rebuildPerSetter() {
+    long size = 0;
+    for (int i = 0; i < TRANSFERS; i++) {
+      Account a = account;
+      // updateUsage
+      a = a.toBuilder().setNetUsage(a.getNetUsage() + 1).build();
+      a = a.toBuilder().setFreeNetUsage(a.getFreeNetUsage() + 1).build();
+      for (String tokenId : a.getAssetV2Map().keySet()) {
+        a = a.toBuilder().putFreeAssetNetUsageV2(tokenId, i).build();
+      }
+      // consume (free net)
+      a = a.toBuilder().setFreeNetUsage(i).build();
+      a = a.toBuilder().setLatestConsumeFreeTime(i).build();
+      a = a.toBuilder().setLatestOprationTime(i).build();
+      // transfer
+      a = a.toBuilder().setBalance(a.getBalance() - 1).build();
+      size += a.toByteArray().length;
+    }
+    return size;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSFERS)
+  public long deferredBuild() {
+    long size = 0;
+    for (int i = 0; i < TRANSFERS; i++) {
+      AccountCapsule capsule = new AccountCapsule(account);
+      // updateUsage
+      capsule.setNetUsage(capsule.getNetUsage() + 1);
+      capsule.setFreeNetUsage(capsule.getFreeNetUsage() + 1);
+      for (String tokenId : capsule.getAssetMapV2().keySet()) {
+        capsule.putFreeAssetNetUsageV2(tokenId, i);
+      }
+      // consume (free net)
+      capsule.setFreeNetUsage(i);
+      capsule.setLatestConsumeFreeTime(i);
+      capsule.setLatestOperationTime(i);
+      // transfer
+      capsule.setBalance(capsule.getBalance() - 1);
+      size += capsule.getData().length;
+    }
+    return size;
+  }
+}
@@ -0,0 +1,109 @@
+package com.wizbl.core.capsule;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.config.Parameter.ChainConstant;
+import com.wizbl.core.exception.BadItemException;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.Block;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Manager.generateBlock의 transaction 추가 과정(block size 검사 + addTransaction)의 비용을 측정함. <br/>
+ *  - rebuildPerTransaction : 기존 방식(transaction마다 Block 객체를 다시 build하고 serialized size를 계산) <br/>
+ *  - incrementalAssembly : BlockCapsule.addTransaction(builder에 추가 + 누적 size) <br/>
+ * 서명까지 끝난 block의 serialize(BlockStore 저장, network 전송)와 parse(block 수신, BlockStore 조회) 비용도 측정함. <br/>
+ *  - serialize : BlockCapsule.getData <br/>
+ *  - parse : new BlockCapsule(byte[]) (Block parse + TransactionCapsule 생성)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockCapsuleBenchmark {
+
+  private static final ByteString WITNESS = ByteString.copyFrom("witness".getBytes());
+
+  @Param({"1000", "5000", "10000"})
+  private int transactionCount;
+
+  private List<TransactionCapsule> transactions;
+  private BlockCapsule sealedBlock;
+  private byte[] sealedData;
+
+  @Setup
+  public void setup() {
+    transactions = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; i++) {
+      TransferContract contract = TransferContract.newBuilder()
+          .setAmount(i + 1)
+          .setOwnerAddress(ByteString.copyFrom(new byte[21]))
+          .setToAddress(ByteString.copyFrom(Sha256Hash.of(new byte[]{(byte) i}).getBytes(), 0, 21))
+          .build();
+      transactions.add(new TransactionCapsule(contract, ContractType.TransferContract));
+    }
+
+    sealedBlock = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 0, WITNESS);
+    for (TransactionCapsule trx : transactions) {
+      if (fits(sealedBlock.getSerializedSize(), trx)) {
+        sealedBlock.addTransaction(trx);
+      }
+    }
+    sealedBlock.setMerkleRoot();
+    sealedBlock.sign(Sha256Hash.of("witness".getBytes()).getBytes());
+    sealedData = sealedBlock.getData();
+  }
+
+  private static boolean fits(long blockSize, TransactionCapsule trx) {
+    return blockSize + trx.getSerializedSize() + 3 <= ChainConstant.BLOCK_SIZE;
+  }
+
+  @Benchmark
+  public Block rebuildPerTransaction() {
+    BlockCapsule blockCapsule = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 0, WITNESS);
+    Block block = blockCapsule.getInstance();
+    for (TransactionCapsule trx : transactions) {
+      if (fits(block.getSerializedSize(), trx)) {
+        block = block.toBuilder().addTransactions(trx.getInstance()).build();
+      }
+    }
+    return block;
+  }
+
+  @Benchmark
+  public Block incrementalAssembly() {
+    BlockCapsule blockCapsule = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 0, WITNESS);
+    for (TransactionCapsule trx : transactions) {
+      if (fits(blockCapsule.getSerializedSize(), trx)) {
+        blockCapsule.addTransaction(trx);
+      }
+    }
+    return blockCapsule.getInstance();
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return sealedBlock.getData();
+  }
+
+  @Benchmark
+  public BlockCapsule parse() throws BadItemException {
+    return new BlockCapsule(sealedData);
+  }
+}
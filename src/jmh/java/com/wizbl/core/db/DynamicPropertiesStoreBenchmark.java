@@ -0,0 +1,107 @@
+package com.wizbl.core.db;
+
+import com.wizbl.common.application.Brte2ApplicationContext;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.Constant;
+import com.wizbl.core.capsule.BytesCapsule;
+import com.wizbl.core.config.DefaultConfig;
+import com.wizbl.core.config.args.Args;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * transaction 한 건을 처리할 때 BandwidthProcessor, EnergyProcessor가 읽는 property 조회 비용을 측정함. <br/>
+ *  - uncached : 기존 방식(revokingDB 조회 + BytesCapsule 생성 + ByteArray.toLong) <br/>
+ *  - cached : DynamicPropertiesStore의 getter(long cache 사용)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicPropertiesStoreBenchmark {
+
+  private static final String dbPath = "output_DynamicPropertiesStore_benchmark";
+
+  private static final byte[][] TRANSACTION_KEYS = {
+      "latest_block_header_timestamp".getBytes(),
+      "FREE_NET_LIMIT".getBytes(),
+      "PUBLIC_NET_LIMIT".getBytes(),
+      "PUBLIC_NET_USAGE".getBytes(),
+      "PUBLIC_NET_TIME".getBytes(),
+      "TOTAL_NET_WEIGHT".getBytes(),
+      "TOTAL_NET_LIMIT".getBytes(),
+      "CREATE_NEW_ACCOUNT_BANDWIDTH_RATE".getBytes(),
+      "TRANSACTION_FEE".getBytes(),
+      "TOTAL_ENERGY_WEIGHT".getBytes(),
+      "TOTAL_ENERGY_CURRENT_LIMIT".getBytes(),
+      "ENERGY_FEE".getBytes(),
+  };
+
+  private Brte2ApplicationContext context;
+  private DynamicPropertiesStore store;
+
+  @Setup
+  public void setup() {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new Brte2ApplicationContext(DefaultConfig.class);
+    store = context.getBean(DynamicPropertiesStore.class);
+  }
+
+  @TearDown
+  public void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Benchmark
+  public long uncached() {
+    long sum = 0;
+    for (byte[] key : TRANSACTION_KEYS) {
+      sum += Optional.ofNullable(store.getUnchecked(key))
+          .map(BytesCapsule::getData)
+          .map(ByteArray::toLong)
+          .orElseThrow(() -> new IllegalArgumentException("not found"));
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long cached() {
+    return store.getLatestBlockHeaderTimestamp()
+        + store.getFreeNetLimit()
+        + store.getPublicNetLimit()
+        + store.getPublicNetUsage()
+        + store.getPublicNetTime()
+        + store.getTotalNetWeight()
+        + store.getTotalNetLimit()
+        + store.getCreateNewAccountBandwidthRate()
+        + store.getTransactionFee()
+        + store.getTotalEnergyWeight()
+        + store.getTotalEnergyCurrentLimit()
+        + store.getEnergyFee();
+  }
+
+  // 매 블록마다 갱신되는 값을 쓰고 바로 읽는 경우(write-through)
+  @Benchmark
+  public long writeThenRead() {
+    store.saveLatestBlockHeaderNumber(store.getLatestBlockHeaderNumber() + 1);
+    return cached();
+  }
+}
@@ -0,0 +1,162 @@
+package com.wizbl.core.db;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.application.Brte2ApplicationContext;
+import com.wizbl.common.crypto.ECKey;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.Constant;
+import com.wizbl.core.capsule.AccountCapsule;
+import com.wizbl.core.capsule.AssetIssueCapsule;
+import com.wizbl.core.capsule.BlockCapsule;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.core.config.DefaultConfig;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db2.core.ISession;
+import com.wizbl.protos.Contract.AssetIssueContract;
+import com.wizbl.protos.Contract.TransferAssetContract;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.AccountType;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manager.processTransaction(TaPoS, 중복 검사, bandwidth, actuator 실행, TransactionStore 저장)의
+ * transaction 한 건당 비용을 측정함. <br/>
+ * 서명은 setup에서 미리 검증해 두므로 ECDSA 비용은 포함되지 않음(ECKeyBenchmark에서 측정). <br/>
+ * 매 호출은 revoking session 안에서 실행하고 종료 시 되돌리므로 같은 transaction을 반복해서 사용할 수 있음. <br/>
+ *  - transfer : TransferContract <br/>
+ *  - trc10 : TransferAssetContract
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessTransactionBenchmark {
+
+  private static final String dbPath = "output_ProcessTransaction_benchmark";
+
+  // 호출 한 번에 처리하는 transaction 수
+  private static final int TRANSACTIONS = 1_000;
+
+  private static final String ASSET_NAME = "benchmark";
+
+  @Param({"transfer", "trc10"})
+  private String type;
+
+  private Brte2ApplicationContext context;
+  private Manager dbManager;
+  private List<TransactionCapsule> transactions;
+  private ISession session;
+
+  @Setup
+  public void setup() throws Exception {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new Brte2ApplicationContext(DefaultConfig.class);
+    dbManager = context.getBean(Manager.class);
+
+    ECKey owner = ECKey.fromPrivate(Sha256Hash.of("owner".getBytes()).getBytes());
+    ByteString ownerAddress = ByteString.copyFrom(owner.getAddress());
+    ByteString toAddress = ByteString.copyFrom(
+        ECKey.fromPrivate(Sha256Hash.of("to".getBytes()).getBytes()).getAddress());
+
+    AccountCapsule ownerCapsule = new AccountCapsule(ownerAddress, AccountType.Normal);
+    ownerCapsule.setBalance(Long.MAX_VALUE / 2);
+    ownerCapsule.addAsset(ASSET_NAME.getBytes(), Long.MAX_VALUE / 2);
+    dbManager.getAccountStore().put(ownerAddress.toByteArray(), ownerCapsule);
+    AccountCapsule toCapsule = new AccountCapsule(toAddress, AccountType.Normal);
+    dbManager.getAccountStore().put(toAddress.toByteArray(), toCapsule);
+
+    long id = dbManager.getDynamicPropertiesStore().getTokenIdNum() + 1;
+    dbManager.getDynamicPropertiesStore().saveTokenIdNum(id);
+    AssetIssueCapsule assetIssueCapsule = new AssetIssueCapsule(AssetIssueContract.newBuilder()
+        .setOwnerAddress(ownerAddress)
+        .setName(ByteString.copyFrom(ByteArray.fromString(ASSET_NAME)))
+        .setId(Long.toString(id))
+        .setTotalSupply(Long.MAX_VALUE / 2)
+        .setTrxNum(1)
+        .setNum(1)
+        .build());
+    dbManager.getAssetIssueStore().put(assetIssueCapsule.createDbKey(), assetIssueCapsule);
+    String assetName = dbManager.getDynamicPropertiesStore().getAllowSameTokenName() == 1
+        ? Long.toString(id) : ASSET_NAME;
+
+    BlockCapsule genesis = dbManager.getGenesisBlock();
+    dbManager.updateRecentBlock(genesis);
+    long expiration = dbManager.getDynamicPropertiesStore().getLatestBlockHeaderTimestamp() + 60_000;
+
+    transactions = new ArrayList<>(TRANSACTIONS);
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      TransactionCapsule trx;
+      if ("transfer".equals(type)) {
+        trx = new TransactionCapsule(TransferContract.newBuilder()
+            .setOwnerAddress(ownerAddress)
+            .setToAddress(toAddress)
+            .setAmount(i + 1)
+            .build(), ContractType.TransferContract);
+      } else {
+        trx = new TransactionCapsule(TransferAssetContract.newBuilder()
+            .setAssetName(ByteString.copyFrom(ByteArray.fromString(assetName)))
+            .setOwnerAddress(ownerAddress)
+            .setToAddress(toAddress)
+            .setAmount(i + 1)
+            .build(), ContractType.TransferAssetContract);
+      }
+      trx.setReference(genesis.getNum(), genesis.getBlockId().getBytes());
+      trx.setExpiration(expiration);
+      trx.sign(owner.getPrivKeyBytes());
+      trx.validateSignature();
+      transactions.add(trx);
+    }
+  }
+
+  @TearDown
+  public void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Setup(Level.Invocation)
+  public void openSession() {
+    session = dbManager.getRevokingStore().buildSession();
+  }
+
+  @TearDown(Level.Invocation)
+  public void revokeSession() {
+    session.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSACTIONS)
+  public int process() throws Exception {
+    int processed = 0;
+    for (TransactionCapsule trx : transactions) {
+      if (dbManager.processTransaction(trx, null)) {
+        processed++;
+      }
+    }
+    return processed;
+  }
+}
@@ -0,0 +1,136 @@
+package com.wizbl.core.db;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.application.Brte2ApplicationContext;
+import com.wizbl.common.crypto.ECKey;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.Constant;
+import com.wizbl.core.capsule.AccountCapsule;
+import com.wizbl.core.capsule.BlockCapsule;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.core.config.DefaultConfig;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db2.core.ISession;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.AccountType;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manager.processBlock()과 같은 방식으로 StatePrefetcher.prefetch()를 제출한 뒤 transaction을 직렬로 실행하는
+ * 블록 한 개의 처리 시간을 측정함. <br/>
+ * 모든 transaction의 owner, to account가 서로 다르므로 account 조회가 prefetch의 대상이 됨. <br/>
+ *  - threads = 0 : prefetch 하지 않음(기존 처리 시간) <br/>
+ *  - threads > 0 : 해당 thread 수로 prefetch 하면서 실행. prefetch 완료는 기다리지 않음.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatePrefetchBenchmark {
+
+  private static final String dbPath = "output_StatePrefetch_benchmark";
+
+  // 블록 한 개에 포함되는 transaction 수
+  private static final int TRANSACTIONS = 2_000;
+
+  @Param({"0", "2", "4"})
+  private int threads;
+
+  private Brte2ApplicationContext context;
+  private Manager dbManager;
+  private StatePrefetcher statePrefetcher;
+  private List<TransactionCapsule> transactions;
+  private ISession session;
+
+  @Setup
+  public void setup() throws Exception {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new Brte2ApplicationContext(DefaultConfig.class);
+    dbManager = context.getBean(Manager.class);
+    statePrefetcher = new StatePrefetcher(dbManager, threads);
+
+    BlockCapsule genesis = dbManager.getGenesisBlock();
+    dbManager.updateRecentBlock(genesis);
+    long expiration = dbManager.getDynamicPropertiesStore().getLatestBlockHeaderTimestamp() + 60_000;
+
+    transactions = new ArrayList<>(TRANSACTIONS);
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      ECKey owner = ECKey.fromPrivate(Sha256Hash.of(("owner" + i).getBytes()).getBytes());
+      ByteString ownerAddress = ByteString.copyFrom(owner.getAddress());
+      ByteString toAddress = ByteString.copyFrom(
+          ECKey.fromPrivate(Sha256Hash.of(("to" + i).getBytes()).getBytes()).getAddress());
+
+      // session 밖에서 저장하므로 SnapshotRoot(LevelDB)에 바로 기록됨.
+      AccountCapsule ownerCapsule = new AccountCapsule(ownerAddress, AccountType.Normal);
+      ownerCapsule.setBalance(Long.MAX_VALUE / 2);
+      dbManager.getAccountStore().put(ownerAddress.toByteArray(), ownerCapsule);
+      dbManager.getAccountStore().put(toAddress.toByteArray(),
+          new AccountCapsule(toAddress, AccountType.Normal));
+
+      TransactionCapsule trx = new TransactionCapsule(TransferContract.newBuilder()
+          .setOwnerAddress(ownerAddress)
+          .setToAddress(toAddress)
+          .setAmount(1)
+          .build(), ContractType.TransferContract);
+      trx.setReference(genesis.getNum(), genesis.getBlockId().getBytes());
+      trx.setExpiration(expiration);
+      trx.sign(owner.getPrivKeyBytes());
+      trx.validateSignature();
+      transactions.add(trx);
+    }
+  }
+
+  @TearDown
+  public void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Setup(Level.Invocation)
+  public void openSession() {
+    session = dbManager.getRevokingStore().buildSession();
+  }
+
+  @TearDown(Level.Invocation)
+  public void revokeSession() {
+    session.close();
+  }
+
+  @Benchmark
+  public int processBlock() throws Exception {
+    StatePrefetcher.Prefetch prefetch = statePrefetcher.prefetch(transactions);
+    int processed = 0;
+    try {
+      for (TransactionCapsule trx : transactions) {
+        if (dbManager.processTransaction(trx, null)) {
+          processed++;
+        }
+      }
+    } finally {
+      prefetch.cancel();
+    }
+    return processed;
+  }
+}
@@ -0,0 +1,128 @@
+package com.wizbl.core.db2;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+import com.wizbl.common.storage.leveldb.LevelDbDataSourceImpl;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.Constant;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db.common.WrappedByteArray;
+import com.wizbl.core.db2.common.CheckpointJournal;
+import com.wizbl.core.db2.core.SnapshotManager;
+import org.iq80.leveldb.WriteOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnapshotManager.flush()에서 DEFAULT_MAX_FLUSH_COUNT(500)개의 snapshot을 checkpoint로 기록하는 비용을 측정함. <br/>
+ *  - levelDb : 이전 방식(tmp LevelDB 전체 삭제 후 batch 기록) <br/>
+ *  - journal : CheckpointJournal 기록 후 truncate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CheckpointBenchmark {
+
+  private static final String dbPath = "output_checkpoint_benchmark";
+  private static final String[] DB_NAMES = {"account", "properties", "trans", "block"};
+
+  @Param({"20", "100"})
+  private int keysPerSnapshot;
+
+  // snapshot 별 (dbName, key, value) 목록
+  private List<List<Object[]>> snapshots;
+  private LevelDbDataSourceImpl tmpLevelDbDataSource;
+  private CheckpointJournal journal;
+
+  @Setup
+  public void setup() throws IOException {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    Random random = new Random(0);
+    snapshots = new ArrayList<>(SnapshotManager.DEFAULT_MAX_FLUSH_COUNT);
+    for (int i = 0; i < SnapshotManager.DEFAULT_MAX_FLUSH_COUNT; i++) {
+      List<Object[]> entries = new ArrayList<>(keysPerSnapshot);
+      for (int j = 0; j < keysPerSnapshot; j++) {
+        byte[] key = new byte[32];
+        byte[] value = new byte[128];
+        random.nextBytes(key);
+        random.nextBytes(value);
+        entries.add(new Object[]{DB_NAMES[j % DB_NAMES.length], key, value});
+      }
+      snapshots.add(entries);
+    }
+
+    tmpLevelDbDataSource = new LevelDbDataSourceImpl(dbPath, "tmp");
+    tmpLevelDbDataSource.initDB();
+    journal = new CheckpointJournal(Paths.get(dbPath, "checkpoint", "checkpoint.journal"), false);
+    journal.open();
+  }
+
+  @TearDown
+  public void destroy() {
+    tmpLevelDbDataSource.closeDB();
+    journal.close();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Benchmark
+  public void levelDb() {
+    Map<byte[], byte[]> deletes = new HashMap<>();
+    if (!tmpLevelDbDataSource.allKeys().isEmpty()) {
+      for (Map.Entry<byte[], byte[]> e : tmpLevelDbDataSource) {
+        deletes.put(e.getKey(), null);
+      }
+    }
+    tmpLevelDbDataSource.updateByBatch(deletes, new WriteOptions());
+
+    Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+    for (List<Object[]> entries : snapshots) {
+      for (Object[] entry : entries) {
+        batch.put(WrappedByteArray.of(Bytes.concat(encode((String) entry[0]), (byte[]) entry[1])),
+            WrappedByteArray.of((byte[]) entry[2]));
+      }
+    }
+    Map<byte[], byte[]> rows = new HashMap<>();
+    batch.forEach((k, v) -> rows.put(k.getBytes(), v.getBytes()));
+    tmpLevelDbDataSource.updateByBatch(rows, new WriteOptions());
+  }
+
+  @Benchmark
+  public void journal() {
+    journal.begin();
+    for (List<Object[]> entries : snapshots) {
+      for (Object[] entry : entries) {
+        journal.append((String) entry[0], (byte[]) entry[1], (byte[]) entry[2]);
+      }
+    }
+    journal.commit();
+    journal.truncate();
+  }
+
+  private static byte[] encode(String s) {
+    return Bytes.concat(Ints.toByteArray(s.getBytes().length), s.getBytes());
+  }
+}
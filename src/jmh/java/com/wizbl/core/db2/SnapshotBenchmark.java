@@ -0,0 +1,137 @@
+package com.wizbl.core.db2;
+
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.Constant;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db2.core.Snapshot;
+import com.wizbl.core.db2.core.SnapshotRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnapshotImpl.get의 비용을 snapshot 깊이(root 위의 SnapshotImpl 계층 수) 별로 측정함. <br/>
+ * 깊이는 아직 flush되지 않은 block 수에 해당함(최대 SnapshotManager.DEFAULT_STACK_MAX_SIZE). <br/>
+ *  - head : 가장 최근 계층에 있는 key <br/>
+ *  - bottom : root 바로 위 계층에 있는 key(모든 계층을 탐색) <br/>
+ *  - root : LevelDB(root)에만 있는 key <br/>
+ *  - missing : 어디에도 없는 key
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+  private static final String dbPath = "output_snapshot_benchmark";
+  private static final int KEYS_PER_LAYER = 32;
+  private static final int ROOT_KEYS = 10_000;
+  private static final int LOOKUPS = KEYS_PER_LAYER;
+
+  @Param({"1", "16", "64", "256"})
+  private int depth;
+
+  private SnapshotRoot root;
+  private Snapshot head;
+  private byte[][] headKeys;
+  private byte[][] bottomKeys;
+  private byte[][] rootKeys;
+  private byte[][] missingKeys;
+
+  @Setup
+  public void setup() {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    Random random = new Random(0);
+    root = new SnapshotRoot(dbPath, "snapshot-benchmark");
+    rootKeys = new byte[LOOKUPS][];
+    for (int i = 0; i < ROOT_KEYS; i++) {
+      byte[] key = randomBytes(random, 32);
+      root.put(key, randomBytes(random, 64));
+      if (i < LOOKUPS) {
+        rootKeys[i] = key;
+      }
+    }
+
+    head = root;
+    for (int d = 0; d < depth; d++) {
+      head = head.advance();
+      byte[][] keys = new byte[KEYS_PER_LAYER][];
+      for (int i = 0; i < KEYS_PER_LAYER; i++) {
+        keys[i] = randomBytes(random, 32);
+        head.put(keys[i], randomBytes(random, 64));
+      }
+      if (d == 0) {
+        bottomKeys = keys;
+      }
+      headKeys = keys;
+    }
+
+    missingKeys = new byte[LOOKUPS][];
+    for (int i = 0; i < LOOKUPS; i++) {
+      missingKeys[i] = randomBytes(random, 32);
+    }
+  }
+
+  @TearDown
+  public void destroy() {
+    root.close();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static byte[] randomBytes(Random random, int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  private int getAll(byte[][] keys) {
+    int found = 0;
+    for (byte[] key : keys) {
+      if (head.get(key) != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public int head() {
+    return getAll(headKeys);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public int bottom() {
+    return getAll(bottomKeys);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public int root() {
+    return getAll(rootKeys);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public int missing() {
+    return getAll(missingKeys);
+  }
+}
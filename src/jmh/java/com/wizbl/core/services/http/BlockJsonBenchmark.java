@@ -0,0 +1,154 @@
+package com.wizbl.core.services.http;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.wizbl.api.GrpcAPI.BlockList;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.capsule.BlockCapsule;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.Block;
+import com.wizbl.protos.Protocol.Transaction;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * GetBlockByLimitNextServlet 등이 block 목록을 json으로 출력하는 비용을 측정함. <br/>
+ *  - legacy : 기존 방식(JsonFormat.printToString -> JSONObject.parseObject -> 값 교체 -> toJSONString) <br/>
+ *  - streamToString : JsonStreamWriter로 StringBuilder에 출력 (Util.printBlockList) <br/>
+ *  - streamToWriter : JsonStreamWriter로 servlet처럼 Writer(UTF-8, 출력은 버림)에 바로 출력 <br/>
+ * block에는 TransferContract transaction만 들어있으므로 legacy의 contract 해석도 TransferContract만 처리함.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockJsonBenchmark {
+
+  private static final ByteString WITNESS = ByteString.copyFrom(new byte[21]);
+
+  @Param({"1", "100"})
+  private int blockCount;
+
+  @Param({"10", "200"})
+  private int transactionsPerBlock;
+
+  private BlockList blockList;
+
+  private Writer writer;
+
+  @Setup
+  public void setup() {
+    BlockList.Builder builder = BlockList.newBuilder();
+    for (int n = 0; n < blockCount; n++) {
+      BlockCapsule blockCapsule = new BlockCapsule(n + 1, Sha256Hash.ZERO_HASH, n * 3000L, WITNESS);
+      for (int i = 0; i < transactionsPerBlock; i++) {
+        TransferContract contract = TransferContract.newBuilder()
+            .setAmount(i + 1)
+            .setOwnerAddress(WITNESS)
+            .setToAddress(ByteString.copyFrom(Sha256Hash.of(new byte[]{(byte) i}).getBytes(), 0, 21))
+            .build();
+        Transaction transaction = new TransactionCapsule(contract, ContractType.TransferContract)
+            .getInstance().toBuilder().addSignature(ByteString.copyFrom(new byte[65])).build();
+        blockCapsule.addTransaction(new TransactionCapsule(transaction));
+      }
+      blockCapsule.setMerkleRoot();
+      blockCapsule.sign(Sha256Hash.of("witness".getBytes()).getBytes());
+      builder.addBlock(blockCapsule.getInstance());
+    }
+    blockList = builder.build();
+
+    writer = new OutputStreamWriter(new OutputStream() {
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+      }
+    }, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public String legacy() {
+    JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(blockList));
+    JSONArray jsonArray = new JSONArray();
+    blockList.getBlockList().forEach(block -> jsonArray.add(legacyBlockToJSON(block)));
+    jsonObject.put("block", jsonArray);
+    return jsonObject.toJSONString();
+  }
+
+  @Benchmark
+  public String streamToString() {
+    return Util.printBlockList(blockList);
+  }
+
+  @Benchmark
+  public void streamToWriter(Blackhole blackhole) throws IOException {
+    Util.printBlockList(blockList, writer);
+    writer.flush();
+    blackhole.consume(writer);
+  }
+
+  private static JSONObject legacyBlockToJSON(Block block) {
+    BlockCapsule blockCapsule = new BlockCapsule(block);
+    String blockID = ByteArray.toHexString(blockCapsule.getBlockId().getBytes());
+    JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(block));
+    jsonObject.put("blockID", blockID);
+    if (!blockCapsule.getTransactions().isEmpty()) {
+      JSONArray transactions = new JSONArray();
+      blockCapsule.getTransactions()
+          .forEach(trx -> transactions.add(legacyTransactionToJSON(trx.getInstance())));
+      jsonObject.put("transactions", transactions);
+    }
+    jsonObject.put("size", blockCapsule.getTransactions().toString().getBytes().length);
+    return jsonObject;
+  }
+
+  private static JSONObject legacyTransactionToJSON(Transaction transaction) {
+    JSONObject jsonTransaction = JSONObject.parseObject(JsonFormat.printToString(transaction));
+    JSONArray contracts = new JSONArray();
+    transaction.getRawData().getContractList().forEach(contract -> {
+      try {
+        TransferContract transferContract = contract.getParameter().unpack(TransferContract.class);
+        JSONObject parameter = new JSONObject();
+        parameter.put("value", JSONObject.parseObject(JsonFormat.printToString(transferContract)));
+        parameter.put("type_url", contract.getParameterOrBuilder().getTypeUrl());
+        JSONObject jsonContract = new JSONObject();
+        jsonContract.put("parameter", parameter);
+        jsonContract.put("type", contract.getType());
+        contracts.add(jsonContract);
+      } catch (InvalidProtocolBufferException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    JSONObject rawData = JSONObject.parseObject(jsonTransaction.get("raw_data").toString());
+    rawData.put("contract", contracts);
+    jsonTransaction.put("raw_data", rawData);
+    jsonTransaction.put("txID",
+        ByteArray.toHexString(Sha256Hash.hash(transaction.getRawData().toByteArray())));
+    return jsonTransaction;
+  }
+}
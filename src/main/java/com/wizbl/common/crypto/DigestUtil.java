@@ -0,0 +1,88 @@
+package com.wizbl.common.crypto;
+
+import com.google.protobuf.ByteOutput;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+/**
+ * MessageDigest에 ByteBuffer, ByteString을 byte[]로 복사하지 않고 입력하기 위한 utility <br/>
+ * cryptohash의 DigestEngine(Keccak)은 MessageDigest.update(ByteBuffer)가 사용하는 engineUpdate를
+ * 구현하지 않으므로, 모든 입력을 update(byte[], int, int)로 전달함.
+ */
+public final class DigestUtil {
+
+  private static final int CHUNK_SIZE = 4096;
+
+  // direct buffer를 읽을 때 사용하는 thread별 임시 buffer
+  private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE]);
+
+  private DigestUtil() {
+  }
+
+  /**
+   * buffer의 position부터 limit까지를 digest에 입력함. 호출 후 buffer의 position은 limit으로 이동함.
+   * heap buffer는 내부 배열을 그대로 사용하고, direct buffer는 CHUNK_SIZE 단위로 나눠서 읽음.
+   */
+  public static void update(MessageDigest digest, ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      digest.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+      return;
+    }
+    byte[] chunk = CHUNK.get();
+    while (buffer.hasRemaining()) {
+      int length = Math.min(chunk.length, buffer.remaining());
+      buffer.get(chunk, 0, length);
+      digest.update(chunk, 0, length);
+    }
+  }
+
+  /**
+   * ByteString의 내부 배열을 digest에 직접 입력함. (rope인 경우 조각 단위로 입력)
+   */
+  public static void update(MessageDigest digest, ByteString data) {
+    try {
+      UnsafeByteOperations.unsafeWriteTo(data, new DigestByteOutput(digest));
+    } catch (IOException e) {
+      // DigestByteOutput은 IOException을 던지지 않음
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class DigestByteOutput extends ByteOutput {
+
+    private final MessageDigest digest;
+
+    private DigestByteOutput(MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    @Override
+    public void write(byte value) {
+      digest.update(value);
+    }
+
+    @Override
+    public void write(byte[] value, int offset, int length) {
+      digest.update(value, offset, length);
+    }
+
+    @Override
+    public void writeLazy(byte[] value, int offset, int length) {
+      digest.update(value, offset, length);
+    }
+
+    @Override
+    public void write(ByteBuffer value) {
+      update(digest, value);
+    }
+
+    @Override
+    public void writeLazy(ByteBuffer value) {
+      update(digest, value);
+    }
+  }
+}
@@ -416,6 +416,32 @@ public class ECKey implements Serializable {
             (byte) (signatureEncoded[0] & 0xFF)));
   }
 
+  /**
+   * Recover the public key from a raw signature without the Base64 round-trip.
+   *
+   * @param messageHash 32-byte hash of message
+   * @param signature 65-byte signature laid out as r(32) || s(32) || v(1), v may be recId or 27+
+   * @return 65-byte uncompressed public key
+   */
+  public static byte[] signatureToKeyBytes(byte[] messageHash, byte[] signature)
+      throws SignatureException {
+    if (signature.length < 65) {
+      throw new SignatureException("Signature truncated, expected 65 " +
+          "bytes and got " + signature.length);
+    }
+    byte v = signature[64];
+    if (v < 27) {
+      v += 27; //revId -> v
+    }
+
+    return signatureToKeyBytes(
+        messageHash,
+        ECDSASignature.fromComponents(
+            Arrays.copyOfRange(signature, 0, 32),
+            Arrays.copyOfRange(signature, 32, 64),
+            v));
+  }
+
   public static byte[] signatureToKeyBytes(byte[] messageHash,
       ECDSASignature sig) throws
       SignatureException {
@@ -455,6 +481,18 @@ public class ECKey implements Serializable {
         signatureBase64));
   }
 
+  /**
+   * Compute the address of the key that signed the given signature.
+   *
+   * @param messageHash 32-byte hash of message
+   * @param signature 65-byte signature laid out as r(32) || s(32) || v(1)
+   * @return 20-byte address
+   */
+  public static byte[] signatureToAddress(byte[] messageHash, byte[] signature)
+      throws SignatureException {
+    return computeAddress(signatureToKeyBytes(messageHash, signature));
+  }
+
   /**
    * Compute the address of the key that signed the given signature.
    *
@@ -18,13 +18,14 @@
 
 package com.wizbl.common.crypto;
 
+import com.google.protobuf.ByteString;
+import com.wizbl.common.crypto.cryptohash.Keccak256;
+import com.wizbl.common.crypto.cryptohash.Keccak512;
 import com.wizbl.common.crypto.jce.AcornCastleProvider;
 import com.wizbl.core.Wallet;
 import lombok.extern.slf4j.Slf4j;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.Provider;
+import java.nio.ByteBuffer;
 import java.security.Security;
 
 import static java.util.Arrays.copyOfRange;
@@ -32,42 +33,33 @@ import static java.util.Arrays.copyOfRange;
 @Slf4j
 public class Hash {
 
-  private static final Provider CRYPTO_PROVIDER;
-
-  private static final String HASH_256_ALGORITHM_NAME;
-  private static final String HASH_512_ALGORITHM_NAME;
+  /**
+   * thread마다 재사용하는 keccak digest <br/>
+   * JCA provider 조회(MessageDigest.getInstance) 없이 cryptohash 구현을 직접 사용함.
+   * digest()를 호출하면 상태가 초기화되며, 이전 호출이 예외로 중단된 경우에 대비해 사용 전에 reset()함.
+   */
+  private static final ThreadLocal<Keccak256> KECCAK_256 = ThreadLocal.withInitial(Keccak256::new);
+  private static final ThreadLocal<Keccak512> KECCAK_512 = ThreadLocal.withInitial(Keccak512::new);
 
   static {
     Security.addProvider(AcornCastleProvider.getInstance());
-    CRYPTO_PROVIDER = Security.getProvider("SC");
-    HASH_256_ALGORITHM_NAME = "ACORN-KECCAK-256";
-    HASH_512_ALGORITHM_NAME = "ACORN-KECCAK-512";
   }
 
-  public static byte[] sha3(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME, CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+  private static Keccak256 keccak256() {
+    Keccak256 digest = KECCAK_256.get();
+    digest.reset();
+    return digest;
+  }
 
+  public static byte[] sha3(byte[] input) {
+    return sha3(input, 0, input.length);
   }
 
   public static byte[] sha3(byte[] input1, byte[] input2) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME, CRYPTO_PROVIDER);
-      digest.update(input1, 0, input1.length);
-      digest.update(input2, 0, input2.length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    Keccak256 digest = keccak256();
+    digest.update(input1, 0, input1.length);
+    digest.update(input2, 0, input2.length);
+    return digest.digest();
   }
 
   /**
@@ -79,29 +71,34 @@ public class Hash {
    * @return - keccak hash of the chunk
    */
   public static byte[] sha3(byte[] input, int start, int length) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input, start, length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    Keccak256 digest = keccak256();
+    digest.update(input, start, length);
+    return digest.digest();
+  }
+
+  /**
+   * buffer의 position부터 limit까지를 hash함. 호출 후 buffer의 position은 limit으로 이동함.
+   */
+  public static byte[] sha3(ByteBuffer input) {
+    Keccak256 digest = keccak256();
+    DigestUtil.update(digest, input);
+    return digest.digest();
+  }
+
+  /**
+   * ByteString을 toByteArray()로 복사하지 않고 hash함.
+   */
+  public static byte[] sha3(ByteString input) {
+    Keccak256 digest = keccak256();
+    DigestUtil.update(digest, input);
+    return digest.digest();
   }
 
   public static byte[] sha512(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_512_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error("Can't find such algorithm", e);
-      throw new RuntimeException(e);
-    }
+    Keccak512 digest = KECCAK_512.get();
+    digest.reset();
+    digest.update(input, 0, input.length);
+    return digest.digest();
   }
 
   /**
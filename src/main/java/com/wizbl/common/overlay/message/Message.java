@@ -1,9 +1,10 @@
 package com.wizbl.common.overlay.message;
 
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnsafeByteOperations;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.util.Arrays;
-import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.wizbl.common.utils.Sha256Hash;
@@ -28,8 +29,20 @@ public abstract class Message {
     this.data = packed;
   }
 
+  /**
+   * 수신한 data를 복사하지 않고 parse하기 위한 CodedInputStream을 만듦. <br/>
+   * parse 결과의 bytes field는 data를 그대로 참조하므로, message 생성 후 data를 변경하면 안됨. <br/>
+   * parse 결과 중 일부만 오래 보관되면 data 전체가 GC되지 않으므로, 객체 하나만 담긴 message(TRX, BLOCK)에만 사용함.
+   * 여러 transaction, block이 담긴 TRXS, BLOCKS는 복사하여 parse함.
+   */
+  protected static CodedInputStream newAliasedInput(byte[] data) {
+    CodedInputStream input = UnsafeByteOperations.unsafeWrap(data).newCodedInput();
+    input.enableAliasing(true);
+    return input;
+  }
+
   public ByteBuf getSendData() {
-    return Unpooled.wrappedBuffer(ArrayUtils.add(this.getData(), 0, type));
+    return Unpooled.wrappedBuffer(new byte[]{type}, this.getData());
   }
 
   public Sha256Hash getMessageId() {
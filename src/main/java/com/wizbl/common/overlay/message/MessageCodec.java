@@ -21,11 +21,15 @@ public class MessageCodec extends ByteToMessageDecoder {
 
   @Override
   protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out) throws Exception {
+    // frame은 type 1byte + message data로 구성됨.
+    // type은 ByteBuf에서 바로 읽고, data만 한 번 복사하여 factory에서 다시 잘라내지 않도록 함.
+    // frame을 읽는 중의 오류(빈 frame 등)도 processException으로 처리되도록 try 안에서 읽음.
     int length = buffer.readableBytes();
-    byte[] encoded = new byte[length];
-    buffer.readBytes(encoded);
     try {
-      Message msg = createMessage(encoded);
+      byte type = buffer.readByte();
+      byte[] rawData = new byte[length - 1];
+      buffer.readBytes(rawData);
+      Message msg = createMessage(type, rawData);
       channel.getNodeStatistics().tcpFlow.add(length);
       out.add(msg);
     } catch (Exception e) {
@@ -37,15 +41,14 @@ public class MessageCodec extends ByteToMessageDecoder {
     this.channel = channel;
   }
 
-  private Message createMessage(byte[] encoded) throws Exception {
-    byte type = encoded[0];
+  private Message createMessage(byte type, byte[] rawData) throws Exception {
     if (MessageTypes.inP2pRange(type)) {
-      return p2pMessageFactory.create(encoded);
+      return p2pMessageFactory.create(type, rawData);
     }
     if (MessageTypes.inBrte2Range(type)) {
-      return brte2MessageFactory.create(encoded);
+      return brte2MessageFactory.create(type, rawData);
     }
-    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + encoded[0]);
+    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + type);
   }
 
 }
\ No newline at end of file
@@ -19,4 +19,9 @@ public abstract class MessageFactory {
 
   protected abstract Message create(byte[] data) throws Exception;
 
+  /**
+   * type과 data가 이미 분리된 경우(MessageCodec) 사용함.
+   */
+  protected abstract Message create(byte type, byte[] rawData) throws Exception;
+
 }
@@ -1,9 +1,14 @@
 package com.wizbl.common.overlay.server;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.wizbl.common.overlay.message.Message;
 import com.wizbl.common.overlay.message.PingMessage;
 import com.wizbl.common.overlay.message.PongMessage;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.core.net.message.InventoryMessage;
+import com.wizbl.core.net.message.MessageTypes;
 import com.wizbl.core.net.message.TransactionsMessage;
 import com.wizbl.protos.Protocol.Inventory.InventoryType;
 import com.wizbl.protos.Protocol.ReasonCode;
@@ -14,8 +19,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 @Scope("prototype")
@@ -23,11 +32,38 @@ public class MessageQueue {
 
   private static final Logger logger = LoggerFactory.getLogger("MessageQueue");
 
+  // activate된 MessageQueue 목록. 전체 peer의 전송 대기 msg 수(net.messageQueue.pending)를 계산할 때 사용함.
+  private static final Set<MessageQueue> activeQueues = ConcurrentHashMap.newKeySet();
+
+  // 한 번의 drain에서 write할 최대 msg 수. 같은 event loop를 쓰는 다른 channel이 오래 기다리지 않도록 제한함.
+  private static final int MAX_BATCH_SIZE = 64;
+
+  // msg를 queue에 추가할 때의 queue 길이(peer 별 backlog)
+  private static final Histogram backlogHistogram = MetricsUtil.histogram("net.messageQueue.backlog");
+
+  // 한 번의 flush로 전송한 msg 수
+  private static final Histogram batchSizeHistogram = MetricsUtil.histogram("net.messageQueue.batchSize");
+
+  // channel이 writable 하지 않아 전송을 미룬 횟수
+  private static final Meter unwritableMeter = MetricsUtil.meter("net.messageQueue.unwritable");
+
+  static {
+    MetricsUtil.gauge("net.messageQueue.pending", (Gauge<Integer>) () -> activeQueues.stream()
+        .mapToInt(MessageQueue::getBacklog).sum());
+    MetricsUtil.gauge("net.messageQueue.maxBacklog", (Gauge<Integer>) () -> activeQueues.stream()
+        .mapToInt(MessageQueue::getBacklog).max().orElse(0));
+    MetricsUtil.gauge("net.messageQueue.activeCount", (Gauge<Integer>) activeQueues::size);
+  }
+
   private volatile boolean sendMsgFlag = false;
 
   private volatile long sendTime;
 
-  private Thread sendMsgThread;
+  // drain 작업이 event loop에 등록되어 있는지 여부
+  private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+  // 이 peer의 backlog gauge 이름 (net.messageQueue.peer.{address}.backlog)
+  private String backlogGaugeName;
 
   private Channel channel;
 
@@ -36,10 +72,14 @@ public class MessageQueue {
   private Queue<MessageRoundtrip> requestQueue = new ConcurrentLinkedQueue<>();
 
   // msgQueue는 sendMessage()메소드에 의해서 msgQueue에 데이터가 저장이 됨.
-  // msgQueue는 HandshakeHandler의 handshaking이 정상적으로 종료되면, activate() 호출이 이뤄지면서 별도의 쓰레드에 의해서 msgQueue에 저장된
-  // msg 정보들이 외부로 전달됨.
+  // msgQueue는 HandshakeHandler의 handshaking이 정상적으로 종료되면, activate() 호출이 이뤄지면서 channel의 event loop에서
+  // 여러 msg를 write한 뒤 한 번에 flush하는 방식으로 외부로 전달됨.
+  // block 관련 msg가 transaction 관련 msg에 밀리지 않도록 transaction 관련 msg는 trxMsgQueue에 따로 저장하고,
+  // msgQueue를 먼저 비움.
   private BlockingQueue<Message> msgQueue = new LinkedBlockingQueue<>();
 
+  private BlockingQueue<Message> trxMsgQueue = new LinkedBlockingQueue<>();
+
   private static ScheduledExecutorService sendTimer = Executors.
       newSingleThreadScheduledExecutor(r -> new Thread(r, "sendTimer"));
 
@@ -47,7 +87,8 @@ public class MessageQueue {
 
 
   /**
-   * sendMsgThread에 의해서 msgQueue에 저장된 msg가 외부로 전파됨.
+   * activate 이후 queue에 저장된 msg가 channel의 event loop에서 외부로 전파됨. <br/>
+   * sendTimer는 요청 msg의 재전송과 함께, channel이 다시 writable 해졌을 때 남은 msg의 전송을 재개하는 역할을 함.
    * @param ctx
    */
   public void activate(ChannelHandlerContext ctx) {
@@ -55,38 +96,38 @@ public class MessageQueue {
     this.ctx = ctx;
 
     sendMsgFlag = true;
+    activeQueues.add(this);
+    backlogGaugeName = "net.messageQueue.peer." + toPeerName(ctx.channel().remoteAddress())
+        + ".backlog";
+    MetricsUtil.gauge(backlogGaugeName, (Gauge<Integer>) this::getBacklog);
 
     sendTask = sendTimer.scheduleAtFixedRate(() -> {
       try {
         if (sendMsgFlag) {
           send();
+          scheduleDrain();
         }
       } catch (Exception e) {
         logger.error("Unhandled exception", e);
       }
     }, 10, 10, TimeUnit.MILLISECONDS);
 
-    sendMsgThread = new Thread(() -> {
-      while (sendMsgFlag) {
-        try {
-          if (msgQueue.isEmpty()) {
-            Thread.sleep(10);
-            continue;
-          }
-          Message msg = msgQueue.take();
-          ctx.writeAndFlush(msg.getSendData()).addListener((ChannelFutureListener) future -> {
-            if (!future.isSuccess()) {
-              logger.error("Fail send to {}, {}", ctx.channel().remoteAddress(), msg);
-            }
-          });
-        } catch (Exception e) {
-          logger.error("Fail send to {}, error info: {}", ctx.channel().remoteAddress(),
-              e.getMessage());
-        }
-      }
-    });
-    sendMsgThread.setName("sendMsgThread-" + ctx.channel().remoteAddress());
-    sendMsgThread.start();
+    scheduleDrain();
+  }
+
+  private static String toPeerName(SocketAddress address) {
+    if (address instanceof InetSocketAddress) {
+      InetSocketAddress inetAddress = (InetSocketAddress) address;
+      return inetAddress.getAddress().getHostAddress() + ":" + inetAddress.getPort();
+    }
+    return String.valueOf(address);
+  }
+
+  /**
+   * 전송 대기 중인 msg 수
+   */
+  public int getBacklog() {
+    return msgQueue.size() + trxMsgQueue.size();
   }
 
   public void setChannel(Channel channel) {
@@ -110,7 +151,13 @@ public class MessageQueue {
     if (msg.getAnswerMessage() != null) { // PingMessage, SyncBlockchainMessage의 getAnswerMessage()만이 null을 반환하지 않음.
       requestQueue.add(new MessageRoundtrip(msg));
     } else {
-      msgQueue.offer(msg);    // msg를 msgQueue의 끝에 add 함.
+      if (isTrxMessage(msg)) {
+        trxMsgQueue.offer(msg);
+      } else {
+        msgQueue.offer(msg);    // msg를 msgQueue의 끝에 add 함.
+      }
+      backlogHistogram.update(getBacklog());
+      scheduleDrain();
     }
     return true;
   }
@@ -129,17 +176,85 @@ public class MessageQueue {
 
   public void close() {
     sendMsgFlag = false;
+    activeQueues.remove(this);
     if (sendTask != null && !sendTask.isCancelled()) {
       sendTask.cancel(false);
       sendTask = null;
     }
-    if (sendMsgThread != null) {
-      try {
-        sendMsgThread.join(20);
-        sendMsgThread = null;
-      } catch (Exception e) {
-        logger.warn("Join send thread failed, peer {}", ctx.channel().remoteAddress());
+    if (backlogGaugeName != null) {
+      MetricsUtil.remove(backlogGaugeName);
+    }
+  }
+
+  /**
+   * transaction 관련 msg 여부. block 관련 msg보다 나중에 전송됨.
+   */
+  private boolean isTrxMessage(Message msg) {
+    MessageTypes type = msg.getType();
+    if (type == MessageTypes.TRX || type == MessageTypes.TRXS
+        || type == MessageTypes.TRX_INVENTORY) {
+      return true;
+    }
+    return msg instanceof InventoryMessage
+        && ((InventoryMessage) msg).getInventoryType().equals(InventoryType.TRX);
+  }
+
+  /**
+   * drain 작업을 channel의 event loop에 등록함. 이미 등록되어 있으면 아무것도 하지 않음.
+   */
+  private void scheduleDrain() {
+    if (!sendMsgFlag || ctx == null || getBacklog() == 0) {
+      return;
+    }
+    if (drainScheduled.compareAndSet(false, true)) {
+      ctx.executor().execute(this::drain);
+    }
+  }
+
+  /**
+   * event loop에서 실행되며, channel이 writable 한 동안 최대 MAX_BATCH_SIZE개의 msg를 write하고 한 번만 flush함. <br/>
+   * channel이 writable 하지 않으면 남은 msg는 다음 sendTimer 주기에 다시 전송을 시도함.
+   */
+  private void drain() {
+    drainScheduled.set(false);
+    if (!sendMsgFlag) {
+      return;
+    }
+    int count = 0;
+    while (count < MAX_BATCH_SIZE) {
+      if (!ctx.channel().isWritable()) {
+        unwritableMeter.mark();
+        break;
+      }
+      Message msg = msgQueue.poll();
+      if (msg == null) {
+        msg = trxMsgQueue.poll();
+      }
+      if (msg == null) {
+        break;
       }
+      write(msg);
+      count++;
+    }
+    if (count > 0) {
+      ctx.flush();
+      batchSizeHistogram.update(count);
+    }
+    if (count == MAX_BATCH_SIZE) {
+      scheduleDrain();
+    }
+  }
+
+  private void write(Message msg) {
+    try {
+      ctx.write(msg.getSendData()).addListener((ChannelFutureListener) future -> {
+        if (!future.isSuccess()) {
+          logger.error("Fail send to {}, {}", ctx.channel().remoteAddress(), msg);
+        }
+      });
+    } catch (Exception e) {
+      logger.error("Fail send to {}, error info: {}", ctx.channel().remoteAddress(),
+          e.getMessage());
     }
   }
 
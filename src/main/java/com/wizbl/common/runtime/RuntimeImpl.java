@@ -320,7 +320,7 @@ public class RuntimeImpl implements Runtime {
     if (ExecutorType.ET_NORMAL_TYPE == executorType) {
       // self witness generates block
       if (this.blockCap != null && blockCap.generatedByMyself &&
-          this.blockCap.getInstance().getBlockHeader().getWitnessSignature().isEmpty()) {
+          this.blockCap.getInstanceForHeader().getBlockHeader().getWitnessSignature().isEmpty()) {
         cpuLimitRatio = 1.0;
       } else {
         // self witness or other witness or fullnode verifies block
@@ -423,7 +423,7 @@ public class RuntimeImpl implements Runtime {
       long vmShouldEndInUs = vmStartInUs + thisTxCPULimitInUs;
       ProgramInvoke programInvoke = programInvokeFactory
           .createProgramInvoke(TrxType.TRX_CONTRACT_CREATION_TYPE, executorType, trx,
-              tokenValue, tokenId, blockCap.getInstance(), deposit, vmStartInUs,
+              tokenValue, tokenId, blockCap.getInstanceForHeader(), deposit, vmStartInUs,
               vmShouldEndInUs, energyLimit);
       this.vm = new VM(config);
       this.program = new Program(ops, programInvoke, rootInternalTransaction, config,
@@ -531,7 +531,7 @@ public class RuntimeImpl implements Runtime {
       long vmShouldEndInUs = vmStartInUs + thisTxCPULimitInUs;
       ProgramInvoke programInvoke = programInvokeFactory
           .createProgramInvoke(TrxType.TRX_CONTRACT_CALL_TYPE, executorType, trx,
-              tokenValue, tokenId, blockCap.getInstance(), deposit, vmStartInUs,
+              tokenValue, tokenId, blockCap.getInstanceForHeader(), deposit, vmStartInUs,
               vmShouldEndInUs, energyLimit);
       if (isStaticCall) {
         programInvoke.setStaticCall();
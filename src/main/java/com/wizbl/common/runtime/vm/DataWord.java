@@ -221,23 +221,22 @@ public class DataWord implements Comparable<DataWord> {
     }
 
     public void bnot() {
-        if (this.isZero()) {
-            this.data = ByteUtil.copyToArray(MAX_VALUE);
-            return;
+        byte[] value = data;
+        byte[] result = target();
+        for (int i = 0; i < 32; ++i) {
+            result[i] = (byte) (i < 32 - value.length ? ~0 : ~value[i - 32 + value.length]);
         }
-        this.data = ByteUtil.copyToArray(MAX_VALUE.subtract(this.value()));
     }
 
-    // By   : Holger
-    // From : http://stackoverflow.com/a/24023466/459349
+    // 산술 연산은 UInt256(long 4개)으로 계산한 결과를 data에 그대로 기록함.
+    // BigInteger 구현(value(), sValue() 사용)과 결과가 같음을 DataWordArithmeticTest에서 검증함.
+
     public void add(DataWord word) {
-        byte[] result = new byte[32];
-        for (int i = 31, overflow = 0; i >= 0; i--) {
-            int v = (this.data[i] & 0xff) + (word.data[i] & 0xff) + overflow;
-            result[i] = (byte) v;
-            overflow = v >>> 8;
-        }
-        this.data = result;
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        UInt256.add(s.a, s.b, s.r);
+        UInt256.store(s.r, target());
     }
 
     // old add-method with BigInteger quick hack
@@ -246,15 +245,14 @@ public class DataWord implements Comparable<DataWord> {
         this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
     }
 
-    // TODO: mul can be done in more efficient way
-    // TODO:     with shift left shift right trick
-    // TODO      without BigInteger quick hack
     public void mul(DataWord word) {
-        BigInteger result = value().multiply(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        UInt256.mul(s.a, s.b, s.r);
+        UInt256.store(s.r, target());
     }
 
-    // TODO: improve with no BigInteger
     public void div(DataWord word) {
 
         if (word.isZero()) {
@@ -262,11 +260,14 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().divide(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        UInt256.divide(s.a, UInt256.LIMBS, s.b, s.r, null, s);
+        UInt256.store(s.r, target());
     }
 
-    // TODO: improve with no BigInteger
+    // 0 방향으로 버림. -2^255 / -1 은 -2^255
     public void sDiv(DataWord word) {
 
         if (word.isZero()) {
@@ -274,23 +275,35 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = sValue().divide(word.sValue());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        boolean negative = UInt256.isNegative(s.a) != UInt256.isNegative(s.b);
+        abs(s.a);
+        abs(s.b);
+        UInt256.divide(s.a, UInt256.LIMBS, s.b, s.r, null, s);
+        if (negative) {
+            UInt256.negate(s.r);
+        }
+        UInt256.store(s.r, target());
     }
 
-    // TODO: improve with no BigInteger
     public void sub(DataWord word) {
-        BigInteger result = value().subtract(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        UInt256.sub(s.a, s.b, s.r);
+        UInt256.store(s.r, target());
     }
 
-    // TODO: improve with no BigInteger
     public void exp(DataWord word) {
-        BigInteger result = value().modPow(word.value(), _2_256);
-        this.data = ByteUtil.copyToArray(result);
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        UInt256.exp(s.a, s.b, s.r, s);
+        UInt256.store(s.r, target());
     }
 
-    // TODO: improve with no BigInteger
     public void mod(DataWord word) {
 
         if (word.isZero()) {
@@ -298,10 +311,14 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().mod(word.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        UInt256.divide(s.a, UInt256.LIMBS, s.b, null, s.r, s);
+        UInt256.store(s.r, target());
     }
 
+    // 결과의 부호는 피제수의 부호를 따름
     public void sMod(DataWord word) {
 
         if (word.isZero()) {
@@ -309,10 +326,17 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = sValue().abs().mod(word.sValue().abs());
-        result = (sValue().signum() == -1) ? result.negate() : result;
-
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word.data, s.b);
+        boolean negative = UInt256.isNegative(s.a);
+        abs(s.a);
+        abs(s.b);
+        UInt256.divide(s.a, UInt256.LIMBS, s.b, null, s.r, s);
+        if (negative) {
+            UInt256.negate(s.r);
+        }
+        UInt256.store(s.r, target());
     }
 
     public void addmod(DataWord word1, DataWord word2) {
@@ -321,8 +345,14 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().add(word1.value()).mod(word2.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word1.data, s.b);
+        UInt256.load(word2.data, s.c);
+        UInt256.setZero(s.wide);
+        s.wide[UInt256.LIMBS] = UInt256.add(s.a, s.b, s.wide);
+        UInt256.divide(s.wide, UInt256.LIMBS + 1, s.c, null, s.r, s);
+        UInt256.store(s.r, target());
     }
 
     public void mulmod(DataWord word1, DataWord word2) {
@@ -332,8 +362,29 @@ public class DataWord implements Comparable<DataWord> {
             return;
         }
 
-        BigInteger result = value().multiply(word1.value()).mod(word2.value());
-        this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+        UInt256.Scratch s = UInt256.scratch();
+        UInt256.load(data, s.a);
+        UInt256.load(word1.data, s.b);
+        UInt256.load(word2.data, s.c);
+        UInt256.mulFull(s.a, s.b, s.wide);
+        UInt256.divide(s.wide, UInt256.LIMBS * 2, s.c, null, s.r, s);
+        UInt256.store(s.r, target());
+    }
+
+    private static void abs(long[] value) {
+        if (UInt256.isNegative(value)) {
+            UInt256.negate(value);
+        }
+    }
+
+    // 연산 결과를 기록할 32 byte 배열. data가 32 byte가 아니면(ZERO_EMPTY_ARRAY 등) 새로 만듦.
+    /**
+     * 연산 결과를 기록할 새 배열. DataWord(byte[])는 32 byte 배열을 복사하지 않고 그대로 사용하므로
+     * (예: Sha256Hash, BlockId의 내부 배열) 기존 data에 덮어쓰지 않음.
+     */
+    private byte[] target() {
+        data = new byte[32];
+        return data;
     }
 
     @JsonValue
@@ -391,10 +442,20 @@ public class DataWord implements Comparable<DataWord> {
         return (int) Math.signum(result);
     }
 
+    /**
+     * 2의 보수(signed)로 비교함. sValue().compareTo()와 같음
+     */
+    public int sCompareTo(DataWord o) {
+        if (isNegative() != o.isNegative()) {
+            return isNegative() ? -1 : 1;
+        }
+        return compareTo(o);
+    }
+
     public void signExtend(byte k) {
         if (0 > k || k > 31)
             throw new IndexOutOfBoundsException();
-        byte mask = this.sValue().testBit((k * 8) + 7) ? (byte) 0xff : 0;
+        byte mask = (this.data[31 - k] & 0x80) != 0 ? (byte) 0xff : 0;
         for (int i = 31; i > k; i--) {
             this.data[31 - i] = mask;
         }
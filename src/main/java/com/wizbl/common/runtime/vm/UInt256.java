@@ -0,0 +1,409 @@
+package com.wizbl.common.runtime.vm;
+
+/**
+ * DataWord의 256bit 정수 연산을 BigInteger 없이 수행함. <br/>
+ * 값은 long 4개(little-endian, limb[0]이 최하위 64bit)로 다루며 결과는 호출자가 넘긴 배열에 기록하므로
+ * 연산 중에 객체를 생성하지 않음. 작업 배열은 thread 별로 재사용함(Scratch). <br/>
+ * 나눗셈은 32bit digit 단위의 Knuth Algorithm D(Hacker's Delight, divmnu)를 사용함.
+ */
+final class UInt256 {
+
+  static final int LIMBS = 4;
+
+  private static final long DIGIT_MASK = 0xFFFFFFFFL;
+
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+  /**
+   * 연산에 사용하는 작업 배열. 한 thread 안에서 DataWord 연산은 중첩되지 않으므로 재사용할 수 있음.
+   */
+  static final class Scratch {
+
+    final long[] a = new long[LIMBS];
+    final long[] b = new long[LIMBS];
+    final long[] c = new long[LIMBS];
+    final long[] r = new long[LIMBS];
+    final long[] t = new long[LIMBS];
+    // 곱셈(512bit), 덧셈(257bit) 결과
+    final long[] wide = new long[LIMBS * 2];
+
+    // 나눗셈용 32bit digit
+    private final int[] u = new int[LIMBS * 4];
+    private final int[] v = new int[LIMBS * 2];
+    private final int[] q = new int[LIMBS * 4];
+    private final int[] rem = new int[LIMBS * 2];
+    private final int[] un = new int[LIMBS * 4 + 1];
+    private final int[] vn = new int[LIMBS * 2];
+  }
+
+  private UInt256() {
+  }
+
+  static Scratch scratch() {
+    return SCRATCH.get();
+  }
+
+  /**
+   * big-endian byte 배열(32 byte 이하, 짧으면 앞을 0으로 봄)을 limb로 읽음.
+   */
+  static void load(byte[] src, long[] dst) {
+    if (src.length == 32) {
+      dst[3] = readLong(src, 0);
+      dst[2] = readLong(src, 8);
+      dst[1] = readLong(src, 16);
+      dst[0] = readLong(src, 24);
+      return;
+    }
+    int offset = src.length - 32;
+    for (int i = 0; i < LIMBS; i++) {
+      int start = offset + (LIMBS - 1 - i) * 8;
+      long value = 0;
+      for (int k = start; k < start + 8; k++) {
+        value = (value << 8) | (k >= 0 ? src[k] & 0xFF : 0);
+      }
+      dst[i] = value;
+    }
+  }
+
+  /**
+   * limb를 32 byte big-endian 배열에 기록함.
+   */
+  static void store(long[] src, byte[] dst) {
+    writeLong(src[3], dst, 0);
+    writeLong(src[2], dst, 8);
+    writeLong(src[1], dst, 16);
+    writeLong(src[0], dst, 24);
+  }
+
+  private static long readLong(byte[] src, int offset) {
+    return (src[offset] & 0xFFL) << 56
+        | (src[offset + 1] & 0xFFL) << 48
+        | (src[offset + 2] & 0xFFL) << 40
+        | (src[offset + 3] & 0xFFL) << 32
+        | (src[offset + 4] & 0xFFL) << 24
+        | (src[offset + 5] & 0xFFL) << 16
+        | (src[offset + 6] & 0xFFL) << 8
+        | (src[offset + 7] & 0xFFL);
+  }
+
+  private static void writeLong(long value, byte[] dst, int offset) {
+    dst[offset] = (byte) (value >>> 56);
+    dst[offset + 1] = (byte) (value >>> 48);
+    dst[offset + 2] = (byte) (value >>> 40);
+    dst[offset + 3] = (byte) (value >>> 32);
+    dst[offset + 4] = (byte) (value >>> 24);
+    dst[offset + 5] = (byte) (value >>> 16);
+    dst[offset + 6] = (byte) (value >>> 8);
+    dst[offset + 7] = (byte) value;
+  }
+
+  static void setZero(long[] x) {
+    for (int i = 0; i < x.length; i++) {
+      x[i] = 0;
+    }
+  }
+
+  static boolean isNegative(long[] x) {
+    return x[LIMBS - 1] < 0;
+  }
+
+  /**
+   * r = a + b (mod 2^256). r은 a, b와 같은 배열이어도 됨.
+   *
+   * @return 2^256을 넘은 경우 1
+   */
+  static long add(long[] a, long[] b, long[] r) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      long x = a[i];
+      long sum = x + b[i];
+      long carry1 = Long.compareUnsigned(sum, x) < 0 ? 1 : 0;
+      long sum2 = sum + carry;
+      long carry2 = Long.compareUnsigned(sum2, sum) < 0 ? 1 : 0;
+      r[i] = sum2;
+      carry = carry1 | carry2;
+    }
+    return carry;
+  }
+
+  /**
+   * r = a - b (mod 2^256). r은 a, b와 같은 배열이어도 됨.
+   */
+  static void sub(long[] a, long[] b, long[] r) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      long x = a[i];
+      long y = b[i];
+      long diff = x - y;
+      long borrow1 = Long.compareUnsigned(x, y) < 0 ? 1 : 0;
+      long borrow2 = Long.compareUnsigned(diff, borrow) < 0 ? 1 : 0;
+      r[i] = diff - borrow;
+      borrow = borrow1 | borrow2;
+    }
+  }
+
+  /**
+   * x = -x (2의 보수)
+   */
+  static void negate(long[] x) {
+    long carry = 1;
+    for (int i = 0; i < LIMBS; i++) {
+      long value = ~x[i] + carry;
+      carry = (carry == 1 && value == 0) ? 1 : 0;
+      x[i] = value;
+    }
+  }
+
+  /**
+   * 부호 없는 64bit 곱의 상위 64bit (Java 8에는 Math.multiplyHigh가 없음)
+   */
+  static long multiplyHighUnsigned(long x, long y) {
+    long x0 = x & DIGIT_MASK;
+    long x1 = x >>> 32;
+    long y0 = y & DIGIT_MASK;
+    long y1 = y >>> 32;
+    long w0 = x0 * y0;
+    long t = x1 * y0 + (w0 >>> 32);
+    long w1 = (t & DIGIT_MASK) + x0 * y1;
+    return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+  }
+
+  /**
+   * r = a * b (mod 2^256). r은 a, b와 다른 배열이어야 함.
+   */
+  static void mul(long[] a, long[] b, long[] r) {
+    setZero(r);
+    for (int i = 0; i < LIMBS; i++) {
+      long x = a[i];
+      if (x == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; i + j < LIMBS - 1; j++) {
+        carry = multiplyAdd(x, b[j], carry, r, i + j);
+      }
+      // 최상위 limb는 2^256을 넘는 부분을 버리므로 하위 64bit만 더함
+      r[LIMBS - 1] += x * b[LIMBS - 1 - i] + carry;
+    }
+  }
+
+  /**
+   * r = a * b (512bit). r은 limb 8개이며 a, b와 다른 배열이어야 함.
+   */
+  static void mulFull(long[] a, long[] b, long[] r) {
+    setZero(r);
+    for (int i = 0; i < LIMBS; i++) {
+      long x = a[i];
+      if (x == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; j < LIMBS; j++) {
+        carry = multiplyAdd(x, b[j], carry, r, i + j);
+      }
+      r[i + LIMBS] = carry;
+    }
+  }
+
+  /**
+   * r[index] += x * y + carry 후 상위 64bit(다음 carry)를 반환함.
+   * (2^64 - 1)^2 + 2 * (2^64 - 1) < 2^128 이므로 carry는 넘치지 않음.
+   */
+  private static long multiplyAdd(long x, long y, long carry, long[] r, int index) {
+    long low = x * y;
+    long high = multiplyHighUnsigned(x, y);
+    long sum = r[index] + low;
+    if (Long.compareUnsigned(sum, low) < 0) {
+      high++;
+    }
+    long sum2 = sum + carry;
+    if (Long.compareUnsigned(sum2, sum) < 0) {
+      high++;
+    }
+    r[index] = sum2;
+    return high;
+  }
+
+  /**
+   * r = base ^ exponent (mod 2^256). r은 base, exponent와 다른 배열이어야 함.
+   */
+  static void exp(long[] base, long[] exponent, long[] r, Scratch scratch) {
+    long[] square = scratch.c;
+    long[] product = scratch.t;
+    setZero(r);
+    r[0] = 1;
+    int bits = bitLength(exponent);
+    if (bits == 0) {
+      return;
+    }
+    System.arraycopy(base, 0, square, 0, LIMBS);
+    for (int i = 0; i < bits; i++) {
+      if ((exponent[i >>> 6] >>> (i & 63) & 1) != 0) {
+        mul(r, square, product);
+        System.arraycopy(product, 0, r, 0, LIMBS);
+      }
+      if (i + 1 < bits) {
+        mul(square, square, product);
+        System.arraycopy(product, 0, square, 0, LIMBS);
+      }
+    }
+  }
+
+  static int bitLength(long[] x) {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      if (x[i] != 0) {
+        return i * 64 + 64 - Long.numberOfLeadingZeros(x[i]);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * u(limb uLimbs개)를 v로 나눔. 몫은 q(하위 256bit), 나머지는 r에 기록함.
+   * q, r은 null이면 기록하지 않으며 u, v와 다른 배열이어야 함. v는 0이 아니어야 함.
+   */
+  static void divide(long[] u, int uLimbs, long[] v, long[] q, long[] r, Scratch scratch) {
+    int m = digitLength(u, uLimbs);
+    int n = digitLength(v, LIMBS);
+    if (n == 0) {
+      throw new ArithmeticException("division by zero");
+    }
+
+    if (m < n) {
+      if (q != null) {
+        setZero(q);
+      }
+      if (r != null) {
+        System.arraycopy(u, 0, r, 0, LIMBS);
+      }
+      return;
+    }
+
+    if (m <= 2) {
+      // 64bit 안에 들어가는 값
+      if (q != null) {
+        setZero(q);
+        q[0] = Long.divideUnsigned(u[0], v[0]);
+      }
+      if (r != null) {
+        setZero(r);
+        r[0] = Long.remainderUnsigned(u[0], v[0]);
+      }
+      return;
+    }
+
+    int[] ud = scratch.u;
+    int[] vd = scratch.v;
+    int[] qd = scratch.q;
+    int[] rd = scratch.rem;
+    toDigits(u, m, ud);
+    toDigits(v, n, vd);
+
+    if (n == 1) {
+      long divisor = vd[0] & DIGIT_MASK;
+      long remainder = 0;
+      for (int j = m - 1; j >= 0; j--) {
+        long current = (remainder << 32) | (ud[j] & DIGIT_MASK);
+        qd[j] = (int) Long.divideUnsigned(current, divisor);
+        remainder = Long.remainderUnsigned(current, divisor);
+      }
+      rd[0] = (int) remainder;
+    } else {
+      divideKnuth(ud, m, vd, n, qd, rd, scratch);
+    }
+
+    if (q != null) {
+      fromDigits(qd, m - n + 1, q);
+    }
+    if (r != null) {
+      fromDigits(rd, n, r);
+    }
+  }
+
+  private static void divideKnuth(int[] ud, int m, int[] vd, int n, int[] qd, int[] rd,
+      Scratch scratch) {
+    int[] un = scratch.un;
+    int[] vn = scratch.vn;
+
+    // 제수의 최상위 digit의 최상위 bit가 1이 되도록 정규화
+    int shift = Integer.numberOfLeadingZeros(vd[n - 1]);
+    for (int i = n - 1; i > 0; i--) {
+      vn[i] = (int) (((vd[i] & DIGIT_MASK) << shift) | ((vd[i - 1] & DIGIT_MASK) >>> (32 - shift)));
+    }
+    vn[0] = vd[0] << shift;
+    un[m] = (int) ((ud[m - 1] & DIGIT_MASK) >>> (32 - shift));
+    for (int i = m - 1; i > 0; i--) {
+      un[i] = (int) (((ud[i] & DIGIT_MASK) << shift) | ((ud[i - 1] & DIGIT_MASK) >>> (32 - shift)));
+    }
+    un[0] = ud[0] << shift;
+
+    long vTop = vn[n - 1] & DIGIT_MASK;
+    long vNext = vn[n - 2] & DIGIT_MASK;
+    for (int j = m - n; j >= 0; j--) {
+      // 몫의 digit 추정
+      long numerator = ((un[j + n] & DIGIT_MASK) << 32) | (un[j + n - 1] & DIGIT_MASK);
+      long qhat = Long.divideUnsigned(numerator, vTop);
+      long rhat = Long.remainderUnsigned(numerator, vTop);
+      while (qhat > DIGIT_MASK || Long.compareUnsigned(qhat * vNext,
+          (rhat << 32) | (un[j + n - 2] & DIGIT_MASK)) > 0) {
+        qhat--;
+        rhat += vTop;
+        if (rhat > DIGIT_MASK) {
+          break;
+        }
+      }
+
+      // un[j..j+n] -= qhat * vn
+      long borrow = 0;
+      long t;
+      for (int i = 0; i < n; i++) {
+        long p = qhat * (vn[i] & DIGIT_MASK);
+        t = (un[i + j] & DIGIT_MASK) - borrow - (p & DIGIT_MASK);
+        un[i + j] = (int) t;
+        borrow = (p >>> 32) - (t >> 32);
+      }
+      t = (un[j + n] & DIGIT_MASK) - borrow;
+      un[j + n] = (int) t;
+
+      qd[j] = (int) qhat;
+      if (t < 0) {
+        // 추정이 1 컸으므로 되돌림
+        qd[j]--;
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+          t = (un[i + j] & DIGIT_MASK) + (vn[i] & DIGIT_MASK) + carry;
+          un[i + j] = (int) t;
+          carry = t >>> 32;
+        }
+        un[j + n] += (int) carry;
+      }
+    }
+
+    for (int i = 0; i < n; i++) {
+      rd[i] = (int) (((un[i] & DIGIT_MASK) >>> shift) | ((un[i + 1] & DIGIT_MASK) << (32 - shift)));
+    }
+  }
+
+  private static int digitLength(long[] x, int limbs) {
+    for (int i = limbs - 1; i >= 0; i--) {
+      if (x[i] != 0) {
+        return i * 2 + ((x[i] >>> 32) != 0 ? 2 : 1);
+      }
+    }
+    return 0;
+  }
+
+  private static void toDigits(long[] x, int digits, int[] dst) {
+    for (int i = 0; i < digits; i++) {
+      dst[i] = (int) (x[i >>> 1] >>> ((i & 1) << 5));
+    }
+  }
+
+  private static void fromDigits(int[] src, int digits, long[] dst) {
+    for (int i = 0; i < LIMBS; i++) {
+      long low = 2 * i < digits ? src[2 * i] & DIGIT_MASK : 0;
+      long high = 2 * i + 1 < digits ? src[2 * i + 1] & DIGIT_MASK : 0;
+      dst[i] = (high << 32) | low;
+    }
+  }
+}
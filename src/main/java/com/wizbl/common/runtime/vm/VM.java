@@ -28,6 +28,9 @@ import com.wizbl.common.runtime.vm.program.Stack;
 public class VM {
 
   private static final BigInteger _32_ = BigInteger.valueOf(32);
+  // MSTORE, MSTORE8, MLOAD의 memory 크기 계산용(읽기 전용)
+  private static final DataWord WORD_SIZE = new DataWord(32);
+  private static final DataWord BYTE_SIZE = new DataWord(1);
   private static final String ENERGY_LOG_FORMATE = "{}    Op: [{}]  Energy: [{}] Deep: [{}]  Hint: [{}]";
 
   // 3MB
@@ -145,17 +148,17 @@ public class VM {
         // These all operate on memory and therefore potentially expand it:
         case MSTORE:
           energyCost = calcMemEnergy(energyCosts, oldMemSize,
-              memNeeded(stack.peek(), new DataWord(32)),
+              memNeeded(stack.peek(), WORD_SIZE),
               0, op);
           break;
         case MSTORE8:
           energyCost = calcMemEnergy(energyCosts, oldMemSize,
-              memNeeded(stack.peek(), new DataWord(1)),
+              memNeeded(stack.peek(), BYTE_SIZE),
               0, op);
           break;
         case MLOAD:
           energyCost = calcMemEnergy(energyCosts, oldMemSize,
-              memNeeded(stack.peek(), new DataWord(32)),
+              memNeeded(stack.peek(), WORD_SIZE),
               0, op);
           break;
         case RETURN:
@@ -296,6 +299,7 @@ public class VM {
 
           word1.add(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
 
         }
@@ -310,6 +314,7 @@ public class VM {
 
           word1.mul(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -323,6 +328,7 @@ public class VM {
 
           word1.sub(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -336,6 +342,7 @@ public class VM {
 
           word1.div(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -349,6 +356,7 @@ public class VM {
 
           word1.sDiv(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -362,6 +370,7 @@ public class VM {
 
           word1.mod(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -375,6 +384,7 @@ public class VM {
 
           word1.sMod(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -388,6 +398,7 @@ public class VM {
 
           word1.exp(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -403,6 +414,7 @@ public class VM {
             word2.signExtend(k.byteValue());
             program.stackPush(word2);
           }
+          stack.recycle(word1);
           program.step();
         }
         break;
@@ -419,7 +431,6 @@ public class VM {
         }
         break;
         case LT: {
-          // TODO: can be improved by not using BigInteger
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
@@ -427,18 +438,18 @@ public class VM {
             hint = word1.value() + " < " + word2.value();
           }
 
-          if (word1.value().compareTo(word2.value()) < 0) {
+          if (word1.compareTo(word2) < 0) {
             word1.and(DataWord.ZERO);
             word1.getData()[31] = 1;
           } else {
             word1.and(DataWord.ZERO);
           }
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
         case SLT: {
-          // TODO: can be improved by not using BigInteger
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
@@ -446,18 +457,18 @@ public class VM {
             hint = word1.sValue() + " < " + word2.sValue();
           }
 
-          if (word1.sValue().compareTo(word2.sValue()) < 0) {
+          if (word1.sCompareTo(word2) < 0) {
             word1.and(DataWord.ZERO);
             word1.getData()[31] = 1;
           } else {
             word1.and(DataWord.ZERO);
           }
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
         case SGT: {
-          // TODO: can be improved by not using BigInteger
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
@@ -465,18 +476,18 @@ public class VM {
             hint = word1.sValue() + " > " + word2.sValue();
           }
 
-          if (word1.sValue().compareTo(word2.sValue()) > 0) {
+          if (word1.sCompareTo(word2) > 0) {
             word1.and(DataWord.ZERO);
             word1.getData()[31] = 1;
           } else {
             word1.and(DataWord.ZERO);
           }
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
         case GT: {
-          // TODO: can be improved by not using BigInteger
           DataWord word1 = program.stackPop();
           DataWord word2 = program.stackPop();
 
@@ -484,13 +495,14 @@ public class VM {
             hint = word1.value() + " > " + word2.value();
           }
 
-          if (word1.value().compareTo(word2.value()) > 0) {
+          if (word1.compareTo(word2) > 0) {
             word1.and(DataWord.ZERO);
             word1.getData()[31] = 1;
           } else {
             word1.and(DataWord.ZERO);
           }
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -509,6 +521,7 @@ public class VM {
             word1.and(DataWord.ZERO);
           }
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -542,6 +555,7 @@ public class VM {
 
           word1.and(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -555,6 +569,7 @@ public class VM {
 
           word1.or(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -568,6 +583,7 @@ public class VM {
 
           word1.xor(word2);
           program.stackPush(word1);
+          stack.recycle(word2);
           program.step();
         }
         break;
@@ -581,7 +597,8 @@ public class VM {
             word2.getData()[31] = tmp;
             result = word2;
           } else {
-            result = new DataWord();
+            word2.and(DataWord.ZERO);
+            result = word2;
           }
 
           if (logger.isDebugEnabled()) {
@@ -589,6 +606,7 @@ public class VM {
           }
 
           program.stackPush(result);
+          stack.recycle(word1);
           program.step();
         }
         break;
@@ -598,6 +616,8 @@ public class VM {
           DataWord word3 = program.stackPop();
           word1.addmod(word2, word3);
           program.stackPush(word1);
+          stack.recycle(word2);
+          stack.recycle(word3);
           program.step();
         }
         break;
@@ -607,6 +627,8 @@ public class VM {
           DataWord word3 = program.stackPop();
           word1.mulmod(word2, word3);
           program.stackPush(word1);
+          stack.recycle(word2);
+          stack.recycle(word3);
           program.step();
         }
         break;
@@ -622,6 +644,8 @@ public class VM {
 
           byte[] encoded = sha3(buffer);
           DataWord word = new DataWord(encoded);
+          stack.recycle(memOffsetData);
+          stack.recycle(lengthData);
 
           if (logger.isDebugEnabled()) {
             hint = word.toString();
@@ -928,7 +952,7 @@ public class VM {
         }
         break;
         case POP: {
-          program.stackPop();
+          stack.recycle(program.stackPop());
           program.step();
         }
         break;
@@ -951,7 +975,7 @@ public class VM {
 
           int n = op.val() - OpCode.DUP1.val() + 1;
           DataWord word_1 = stack.get(stack.size() - n);
-          program.stackPush(word_1.clone());
+          program.stackPush(stack.copyOf(word_1));
           program.step();
 
         }
@@ -1022,6 +1046,7 @@ public class VM {
           }
 
           program.stackPush(data);
+          stack.recycle(addr);
           program.step();
         }
         break;
@@ -1034,6 +1059,8 @@ public class VM {
           }
 
           program.memorySave(addr, value);
+          stack.recycle(addr);
+          stack.recycle(value);
           program.step();
         }
         break;
@@ -1042,6 +1069,8 @@ public class VM {
           DataWord value = program.stackPop();
           byte[] byteVal = {value.getData()[31]};
           program.memorySave(addr.intValueSafe(), byteVal);
+          stack.recycle(addr);
+          stack.recycle(value);
           program.step();
         }
         break;
@@ -1082,6 +1111,7 @@ public class VM {
         case JUMP: {
           DataWord pos = program.stackPop();
           int nextPC = program.verifyJumpDest(pos);
+          stack.recycle(pos);
 
           if (logger.isDebugEnabled()) {
             hint = "~> " + nextPC;
@@ -1094,8 +1124,10 @@ public class VM {
         case JUMPI: {
           DataWord pos = program.stackPop();
           DataWord cond = program.stackPop();
+          boolean jump = !cond.isZero();
+          stack.recycle(cond);
 
-          if (!cond.isZero()) {
+          if (jump) {
             int nextPC = program.verifyJumpDest(pos);
 
             if (logger.isDebugEnabled()) {
@@ -1106,7 +1138,7 @@ public class VM {
           } else {
             program.step();
           }
-
+          stack.recycle(pos);
         }
         break;
         case PC: {
@@ -1179,13 +1211,14 @@ public class VM {
           program.step();
           int nPush = op.val() - PUSH1.val() + 1;
 
-          byte[] data = program.sweep(nPush);
+          DataWord word = stack.newWord();
+          program.sweep(nPush, word.getData());
 
           if (logger.isDebugEnabled()) {
-            hint = "" + Hex.toHexString(data);
+            hint = "" + Hex.toHexString(word.getData(), DataWord.DATAWORD_UNIT_SIZE - nPush, nPush);
           }
 
-          program.stackPush(data);
+          program.stackPush(word);
         }
         break;
         case JUMPDEST: {
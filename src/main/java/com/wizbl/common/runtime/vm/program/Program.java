@@ -70,7 +70,7 @@ public class Program {
 
   private static final int MAX_DEPTH = 64;
   //Max size for stack checks
-  private static final int MAX_STACK_SIZE = 1024;
+  private static final int MAX_STACK_SIZE = Stack.MAX_SIZE;
 
   private final BlockCapsule blockCap;
 
@@ -156,7 +156,7 @@ public class Program {
 
   public ProgramPrecompile getProgramPrecompile() {
     if (programPrecompile == null) {
-      programPrecompile = ProgramPrecompile.compile(ops);
+      programPrecompile = ProgramPrecompile.getInstance(ops);
     }
     return programPrecompile;
   }
@@ -296,6 +296,23 @@ public class Program {
     return data;
   }
 
+  /**
+   * sweep(n)과 같으나 code를 새 배열 대신 target(32 byte)의 끝 n byte에 복사함. 나머지는 0이어야 함.
+   */
+  public void sweep(int n, byte[] target) {
+
+    if (pc + n > ops.length) {
+      stop();
+    }
+
+    int length = Math.max(0, Math.min(n, ops.length - pc));
+    System.arraycopy(ops, pc, target, target.length - n, length);
+    pc += n;
+    if (pc >= ops.length) {
+      stop();
+    }
+  }
+
   public DataWord stackPop() {
     return stack.pop();
   }
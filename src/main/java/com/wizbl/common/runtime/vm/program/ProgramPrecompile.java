@@ -17,8 +17,16 @@
  */
 package com.wizbl.common.runtime.vm.program;
 
-import java.util.HashSet;
-import java.util.Set;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.wizbl.common.utils.MetricsUtil;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.BitSet;
 import lombok.extern.slf4j.Slf4j;
 import com.wizbl.common.runtime.vm.DataWord;
 import com.wizbl.common.runtime.vm.OpCode;
@@ -30,7 +38,52 @@ import com.wizbl.common.runtime.vm.OpCode;
  */
 public class ProgramPrecompile {
 
-  private Set<Integer> jumpdest = new HashSet<>();
+  // 분석 결과 cache의 최대 크기(key에 복사한 code와 분석 결과의 byte 수 합계 기준)
+  private static final long CACHE_MAX_BYTES = 64L * 1024 * 1024;
+
+  // CodeKey, ProgramPrecompile, BitSet 객체 자체의 대략적인 크기
+  private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+  /**
+   * code 내용을 key로 하는 분석 결과 cache <br/>
+   * key는 code를 그대로 감싼 CodeKey로, 조회 시 sha3를 계산하지 않고 code 전체의 SipHash와 byte 비교만 함. <br/>
+   * code 내용으로 key를 만들기 때문에 contract 생성, 삭제(suicide)나 block revoke로 무효화할 필요가 없으며
+   * 모든 RuntimeImpl, Program이 공유함.
+   */
+  private static final Cache<CodeKey, ProgramPrecompile> CACHE = CacheBuilder.newBuilder()
+      .maximumWeight(CACHE_MAX_BYTES)
+      .weigher((CodeKey key, ProgramPrecompile value) -> key.code.length + value.weight())
+      .recordStats()
+      .build();
+
+  private static final Meter CACHE_HIT = MetricsUtil.meter("vm.precompile.hit");
+  private static final Meter CACHE_MISS = MetricsUtil.meter("vm.precompile.miss");
+
+  static {
+    MetricsUtil.gauge("vm.precompile.size", (Gauge<Long>) CACHE::size);
+    MetricsUtil.gauge("vm.precompile.hitRate", (Gauge<Double>) () -> CACHE.stats().hitRate());
+  }
+
+  private final BitSet jumpdest = new BitSet();
+
+  /**
+   * code의 분석 결과를 반환함. 같은 code를 이미 분석한 적이 있으면 cache된 결과를 재사용함.
+   */
+  public static ProgramPrecompile getInstance(byte[] ops) {
+    if (ops.length == 0) {
+      return compile(ops);
+    }
+    ProgramPrecompile ret = CACHE.getIfPresent(new CodeKey(ops));
+    if (ret != null) {
+      CACHE_HIT.mark();
+      return ret;
+    }
+    CACHE_MISS.mark();
+    ret = compile(ops);
+    // 호출자가 이후에 ops를 변경해도 key가 바뀌지 않도록 복사본을 저장함.
+    CACHE.put(new CodeKey(ops.clone()), ret);
+    return ret;
+  }
 
   public static ProgramPrecompile compile(byte[] ops) {
     ProgramPrecompile ret = new ProgramPrecompile();
@@ -42,8 +95,8 @@ public class ProgramPrecompile {
       }
 
       if (op.equals(OpCode.JUMPDEST)) {
-        logger.debug("JUMPDEST:" + i);
-        ret.jumpdest.add(i);
+        logger.debug("JUMPDEST:{}", i);
+        ret.jumpdest.set(i);
       }
 
       if (op.asInt() >= OpCode.PUSH1.asInt() && op.asInt() <= OpCode.PUSH32.asInt()) {
@@ -83,6 +136,54 @@ public class ProgramPrecompile {
   }
 
   public boolean hasJumpDest(int pc) {
-    return jumpdest.contains(pc);
+    return pc >= 0 && jumpdest.get(pc);
+  }
+
+  /**
+   * cache에서 차지하는 대략적인 byte 수. jumpdest BitSet의 word 배열과 객체 크기를 더함.
+   */
+  private int weight() {
+    return jumpdest.size() / Byte.SIZE + ENTRY_OVERHEAD_BYTES;
+  }
+
+  /**
+   * code를 감싼 cache key <br/>
+   * hashCode는 code 전체를 process마다 임의로 고른 key의 SipHash-2-4로 계산하므로, 같은 bucket에 모이는 code를
+   * 미리 만들어 배포하는 방식(HashDoS)으로 cache 조회를 느리게 할 수 없음.
+   * 충돌하더라도 equals에서 전체 byte를 비교하므로 결과는 정확함.
+   */
+  private static final class CodeKey {
+
+    private static final HashFunction HASH;
+
+    static {
+      SecureRandom random = new SecureRandom();
+      HASH = Hashing.sipHash24(random.nextLong(), random.nextLong());
+    }
+
+    private final byte[] code;
+    private final long hash;
+
+    private CodeKey(byte[] code) {
+      this.code = code;
+      this.hash = HASH.hashBytes(code).asLong();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof CodeKey)) {
+        return false;
+      }
+      CodeKey key = (CodeKey) other;
+      return hash == key.hash && Arrays.equals(code, key.code);
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (hash ^ (hash >>> 32));
+    }
   }
 }
@@ -17,12 +17,30 @@
  */
 package com.wizbl.common.runtime.vm.program;
 
-import java.util.Objects;
 import com.wizbl.common.runtime.vm.DataWord;
 import com.wizbl.common.runtime.vm.program.listener.ProgramListener;
 import com.wizbl.common.runtime.vm.program.listener.ProgramListenerAware;
+import java.util.EmptyStackException;
+import java.util.Objects;
+
+/**
+ * VM의 operand stack <br/>
+ * 최대 MAX_SIZE개의 DataWord를 고정 크기 배열에 보관함. Program은 한 thread에서만 실행되므로 동기화하지 않음. <br/>
+ * 연산 후 더 이상 참조되지 않는 DataWord는 recycle로 반환하고 PUSH, DUP은 newWord로 이를 재사용하므로
+ * opcode 실행 중에 DataWord가 거의 생성되지 않음.
+ */
+public class Stack implements ProgramListenerAware {
+
+  public static final int MAX_SIZE = 1024;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+  // 재사용을 위해 보관하는 DataWord의 최대 수
+  private static final int POOL_SIZE = 32;
+
+  private final DataWord[] words = new DataWord[MAX_SIZE];
+  private int size;
+
+  private final DataWord[] pool = new DataWord[POOL_SIZE];
+  private int poolSize;
 
   private transient ProgramListener programListener;
 
@@ -31,20 +49,52 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
     this.programListener = listener;
   }
 
-  @Override
-  public synchronized DataWord pop() {
+  public DataWord pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
     if (programListener != null) {
       programListener.onStackPop();
     }
-    return super.pop();
+    DataWord item = words[--size];
+    words[size] = null;
+    return item;
   }
 
-  @Override
   public DataWord push(DataWord item) {
+    if (size == MAX_SIZE) {
+      throw new IllegalStateException("Stack overflow, max size: " + MAX_SIZE);
+    }
     if (programListener != null) {
       programListener.onStackPush(item);
     }
-    return super.push(item);
+    words[size++] = item;
+    return item;
+  }
+
+  public DataWord peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return words[size - 1];
+  }
+
+  /**
+   * @param index 0이 stack의 가장 아래
+   */
+  public DataWord get(int index) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return words[index];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
   }
 
   public void swap(int from, int to) {
@@ -52,13 +102,48 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
       if (programListener != null) {
         programListener.onStackSwap(from, to);
       }
-      DataWord tmp = get(from);
-      set(from, set(to, tmp));
+      DataWord tmp = words[from];
+      words[from] = words[to];
+      words[to] = tmp;
+    }
+  }
+
+  /**
+   * 값이 0인 DataWord를 반환함. recycle된 DataWord가 있으면 재사용함.
+   */
+  public DataWord newWord() {
+    if (poolSize == 0) {
+      return new DataWord();
+    }
+    DataWord word = pool[--poolSize];
+    pool[poolSize] = null;
+    word.and(DataWord.ZERO);
+    return word;
+  }
+
+  /**
+   * word와 같은 값의 DataWord를 반환함(DUP). recycle된 DataWord가 있으면 재사용함.
+   */
+  public DataWord copyOf(DataWord word) {
+    DataWord copy = newWord();
+    byte[] data = word.getData();
+    System.arraycopy(data, 0, copy.getData(), DataWord.DATAWORD_UNIT_SIZE - data.length,
+        data.length);
+    return copy;
+  }
+
+  /**
+   * pop 이후 더 이상 참조되지 않는 DataWord를 반환함. 반환한 DataWord를 계속 사용하면 안 됨.
+   * stack, storage, log 등 다른 곳에서 참조하는 DataWord는 반환하면 안 됨.
+   */
+  public void recycle(DataWord word) {
+    if (poolSize < POOL_SIZE && word.getData().length == DataWord.DATAWORD_UNIT_SIZE) {
+      pool[poolSize++] = word;
     }
   }
 
   private boolean isAccessible(int from) {
-    return from >= 0 && from < size();
+    return from >= 0 && from < size;
   }
 
   @Override
@@ -72,16 +157,24 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
     if (o.getClass() != this.getClass()) {
       return false;
     }
-    if (!super.equals(o)) {
+    Stack dataWords = (Stack) o;
+    if (size != dataWords.size) {
       return false;
     }
-    Stack dataWords = (Stack) o;
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(words[i], dataWords.words[i])) {
+        return false;
+      }
+    }
     return Objects.equals(programListener, dataWords.programListener);
   }
 
-
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), programListener);
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + Objects.hashCode(words[i]);
+    }
+    return Objects.hash(result, programListener);
   }
 }
@@ -46,7 +46,8 @@ public class ProgramTraceListener extends ProgramListenerAdaptor {
 
     @Override
     public void onStackPush(DataWord value) {
-        if (enabled) actions.addStackPush(value);
+        // stack의 DataWord는 연산 중에 변경되거나 재사용되므로 push 시점의 값을 복사해 둠
+        if (enabled) actions.addStackPush(value.clone());
     }
 
     @Override
@@ -17,6 +17,8 @@
  */
 package com.wizbl.common.storage;
 
+import com.wizbl.core.db.common.iterator.DBIterator;
+import java.util.Map;
 import java.util.Set;
 
 
@@ -43,4 +45,10 @@ public interface DbSourceInter<V> extends BatchSourceInter<byte[], V> {
 
   long getTotal() throws RuntimeException;
 
+  Set<V> getlatestValues(long limit);
+
+  Map<byte[], V> getNext(byte[] key, long limit);
+
+  DBIterator iterator();
+
 }
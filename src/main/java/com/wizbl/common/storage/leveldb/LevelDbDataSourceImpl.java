@@ -17,6 +17,7 @@ package com.wizbl.common.storage.leveldb;
 
 import static org.fusesource.leveldbjni.JniDBFactory.factory;
 
+import com.codahale.metrics.Timer;
 import com.google.common.collect.Sets;
 import java.io.File;
 import java.io.IOException;
@@ -44,6 +45,7 @@ import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.WriteOptions;
 import com.wizbl.common.storage.DbSourceInter;
 import com.wizbl.common.utils.FileUtil;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.core.config.args.Args;
 import com.wizbl.core.db.common.iterator.StoreIterator;
 
@@ -61,6 +63,11 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   boolean alive;
   private String parentName;
   private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+  // db 별 latency. metric 이름 : db.{dataBaseName}.get/put/delete/batch
+  private Timer getTimer;
+  private Timer putTimer;
+  private Timer deleteTimer;
+  private Timer batchTimer;
 
   /**
    * constructor.
@@ -90,6 +97,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
       }
 
       Options dbOptions = Args.getInstance().getStorage().getOptionsByDbName(dataBaseName);
+      initMetrics();
 
       try {
         openDatabase(dbOptions);
@@ -102,6 +110,14 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  private void initMetrics() {
+    String prefix = "db." + dataBaseName + ".";
+    getTimer = MetricsUtil.timer(prefix + "get");
+    putTimer = MetricsUtil.timer(prefix + "put");
+    deleteTimer = MetricsUtil.timer(prefix + "delete");
+    batchTimer = MetricsUtil.timer(prefix + "batch");
+  }
+
   /**
    * levelDB를 dbPath 및 dbOption 설정에 맞춰서 open함.
    * @param dbOptions
@@ -197,7 +213,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   @Override
   public byte[] getData(byte[] key) {
     resetDbLock.readLock().lock();
-    try {
+    try (Timer.Context ignored = getTimer.time()) {
       return database.get(key);
     } catch (DBException e) {
       logger.debug(e.getMessage(), e);
@@ -211,7 +227,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   @Override
   public void putData(byte[] key, byte[] value) {
     resetDbLock.readLock().lock();
-    try {
+    try (Timer.Context ignored = putTimer.time()) {
       database.put(key, value);
     } finally {
       resetDbLock.readLock().unlock();
@@ -222,7 +238,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   @Override
   public void putData(byte[] key, byte[] value, WriteOptions options) {
     resetDbLock.readLock().lock();
-    try {
+    try (Timer.Context ignored = putTimer.time()) {
       database.put(key, value, options);
     } finally {
       resetDbLock.readLock().unlock();
@@ -233,7 +249,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   @Override
   public void deleteData(byte[] key) {
     resetDbLock.readLock().lock();
-    try {
+    try (Timer.Context ignored = deleteTimer.time()) {
       database.delete(key);
     } finally {
       resetDbLock.readLock().unlock();
@@ -244,7 +260,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   @Override
   public void deleteData(byte[] key, WriteOptions options) {
     resetDbLock.readLock().lock();
-    try {
+    try (Timer.Context ignored = deleteTimer.time()) {
       database.delete(key, options);
     } finally {
       resetDbLock.readLock().unlock();
@@ -417,7 +433,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   @Override
   public void updateByBatch(Map<byte[], byte[]> rows) {
     resetDbLock.readLock().lock();
-    try {
+    try (Timer.Context ignored = batchTimer.time()) {
       updateByBatchInner(rows);
     } catch (Exception e) {
       try {
@@ -433,7 +449,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   @Override
   public void updateByBatch(Map<byte[], byte[]> rows, WriteOptions options) {
     resetDbLock.readLock().lock();
-    try {
+    try (Timer.Context ignored = batchTimer.time()) {
       updateByBatchInner(rows, options);
     } catch (Exception e) {
       try {
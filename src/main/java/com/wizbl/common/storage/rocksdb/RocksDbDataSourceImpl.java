@@ -0,0 +1,470 @@
+package com.wizbl.common.storage.rocksdb;
+
+import com.google.common.collect.Sets;
+import com.wizbl.common.storage.DbSourceInter;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db.common.iterator.DBIterator;
+import com.wizbl.core.db.common.iterator.RockStoreIterator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.CompressionType;
+import org.rocksdb.IndexType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * RocksDbDataSourceImpl 클래스는 LevelDbDataSourceImpl과 같은 DbSourceInter를 RocksDB로 구현한 클래스임. <br/>
+ * storage.properties에 engine = "ROCKSDB"로 설정된 database에 사용됨. <br/>
+ *  - 모든 RocksDB database는 storage.rocksdb.blockCacheSize 크기의 LRU block cache 하나를 공유함. <br/>
+ *  - index/filter block은 partitioned(two level index)로 구성하여 block cache 안에서 관리하고, top level index만 고정함. <br/>
+ *  - 압축은 database의 compressionType 설정을 따르며, L0/L1은 압축하지 않고 그 이하 level은 LZ4, 마지막 level은 ZSTD를 사용함.
+ */
+@Slf4j
+@NoArgsConstructor
+public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
+    Iterable<Map.Entry<byte[], byte[]>> {
+
+  private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+  private static final int NUM_LEVELS = 7;
+  private static volatile Cache blockCache;
+
+  static {
+    RocksDB.loadLibrary();
+  }
+
+  String dataBaseName;
+  RocksDB database;
+  boolean alive;
+  private String parentName;
+  private Options options;
+  private ReadOptions readOptions;
+  // options가 참조하는 native 객체. closeDB에서 options와 함께 해제함.
+  private BloomFilter bloomFilter;
+  private BlockBasedTableConfig tableConfig;
+  private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+
+  /**
+   * constructor.
+   */
+  public RocksDbDataSourceImpl(String parentName, String name) {
+    this.dataBaseName = name;
+    this.parentName = Paths.get(parentName, Args.getInstance().getStorage().getDbDirectory()).toString();
+  }
+
+  private static Cache getBlockCache() {
+    if (blockCache == null) {
+      synchronized (RocksDbDataSourceImpl.class) {
+        if (blockCache == null) {
+          blockCache = new LRUCache(Args.getInstance().getStorage().getRocksDbBlockCacheSize());
+        }
+      }
+    }
+    return blockCache;
+  }
+
+  /**
+   * leveldb Options로 설정된 database 별 설정을 RocksDB Options로 변환함. <br/>
+   * 생성한 bloom filter와 table 설정은 field로 보관하며 closeDB에서 해제함.
+   */
+  private Options createOptions(org.iq80.leveldb.Options dbOptions) {
+    bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+    tableConfig = new BlockBasedTableConfig();
+    tableConfig.setBlockSize(dbOptions.blockSize());
+    tableConfig.setBlockCache(getBlockCache());
+    tableConfig.setFilter(bloomFilter);
+    tableConfig.setIndexType(IndexType.kTwoLevelIndexSearch);
+    tableConfig.setPartitionFilters(true);
+    tableConfig.setCacheIndexAndFilterBlocks(true);
+    tableConfig.setPinTopLevelIndexAndFilter(true);
+    tableConfig.setPinL0FilterAndIndexBlocksInCache(true);
+
+    Options options = new Options();
+    options.setCreateIfMissing(dbOptions.createIfMissing());
+    options.setParanoidChecks(dbOptions.paranoidChecks());
+    options.setMaxOpenFiles(dbOptions.maxOpenFiles());
+    options.setWriteBufferSize(dbOptions.writeBufferSize());
+    options.setNumLevels(NUM_LEVELS);
+    options.setLevelCompactionDynamicLevelBytes(true);
+    options.setIncreaseParallelism(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    options.setTableFormatConfig(tableConfig);
+
+    if (dbOptions.compressionType() == org.iq80.leveldb.CompressionType.NONE) {
+      options.setCompressionType(CompressionType.NO_COMPRESSION);
+    } else {
+      List<CompressionType> compressionPerLevel = new ArrayList<>(NUM_LEVELS);
+      for (int level = 0; level < NUM_LEVELS; level++) {
+        compressionPerLevel.add(level < 2 ? CompressionType.NO_COMPRESSION
+            : CompressionType.LZ4_COMPRESSION);
+      }
+      options.setCompressionPerLevel(compressionPerLevel);
+      options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+    }
+    return options;
+  }
+
+  @Override
+  public void initDB() {
+    resetDbLock.writeLock().lock();
+    try {
+      logger.debug("~> RocksDbDataSourceImpl.initDB(): " + dataBaseName);
+
+      if (isAlive()) {
+        return;
+      }
+
+      if (dataBaseName == null) {
+        throw new NullPointerException("no name set to the dbStore");
+      }
+
+      org.iq80.leveldb.Options dbOptions = Args.getInstance().getStorage()
+          .getOptionsByDbName(dataBaseName);
+      options = createOptions(dbOptions);
+      readOptions = new ReadOptions().setVerifyChecksums(dbOptions.verifyChecksums());
+
+      try {
+        openDatabase();
+        alive = true;
+      } catch (IOException | RocksDBException e) {
+        throw new RuntimeException("Can't initialize database", e);
+      }
+    } finally {
+      resetDbLock.writeLock().unlock();
+    }
+  }
+
+  private void openDatabase() throws IOException, RocksDBException {
+    final Path dbPath = getDbPath();
+    if (!Files.isSymbolicLink(dbPath.getParent())) {
+      Files.createDirectories(dbPath.getParent());
+    }
+    try {
+      database = RocksDB.open(options, dbPath.toString());
+    } catch (RocksDBException e) {
+      if (e.getMessage() != null && e.getMessage().contains("Corruption:")) {
+        RocksDB.repairDB(dbPath.toString(), options);
+        database = RocksDB.open(options, dbPath.toString());
+      } else {
+        throw e;
+      }
+    }
+  }
+
+  // only for test
+  BlockBasedTableConfig getTableConfig() {
+    return tableConfig;
+  }
+
+  // only for test
+  BloomFilter getBloomFilter() {
+    return bloomFilter;
+  }
+
+  public Path getDbPath() {
+    return Paths.get(parentName, dataBaseName);
+  }
+
+  /**
+   * reset database.
+   */
+  @Override
+  public void resetDb() {
+    closeDB();
+    FileUtil.recursiveDelete(getDbPath().toString());
+    initDB();
+  }
+
+  @Override
+  public boolean isAlive() {
+    return alive;
+  }
+
+  @Override
+  public String getDBName() {
+    return dataBaseName;
+  }
+
+  @Override
+  public void setDBName(String name) {
+    this.dataBaseName = name;
+  }
+
+  @Override
+  public byte[] getData(byte[] key) {
+    resetDbLock.readLock().lock();
+    try {
+      return database.get(readOptions, key);
+    } catch (RocksDBException e) {
+      logger.debug(e.getMessage(), e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+    return null;
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value) {
+    resetDbLock.readLock().lock();
+    try {
+      database.put(key, value);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value, org.iq80.leveldb.WriteOptions options) {
+    resetDbLock.readLock().lock();
+    try (WriteOptions writeOptions = toWriteOptions(options)) {
+      database.put(writeOptions, key, value);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void deleteData(byte[] key) {
+    resetDbLock.readLock().lock();
+    try {
+      database.delete(key);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void deleteData(byte[] key, org.iq80.leveldb.WriteOptions options) {
+    resetDbLock.readLock().lock();
+    try (WriteOptions writeOptions = toWriteOptions(options)) {
+      database.delete(writeOptions, key);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Deprecated
+  @Override
+  public Set<byte[]> allKeys() {
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(readOptions)) {
+      Set<byte[]> result = Sets.newHashSet();
+      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+        result.add(iterator.key());
+      }
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Deprecated
+  @Override
+  public Set<byte[]> allValues() {
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(readOptions)) {
+      Set<byte[]> result = Sets.newHashSet();
+      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+        result.add(iterator.value());
+      }
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Set<byte[]> getlatestValues(long limit) {
+    if (limit <= 0) {
+      return Sets.newHashSet();
+    }
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(readOptions)) {
+      Set<byte[]> result = Sets.newHashSet();
+      long i = 0;
+      for (iterator.seekToLast(); iterator.isValid() && i++ < limit; iterator.prev()) {
+        result.add(iterator.value());
+      }
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public Set<byte[]> getValuesNext(byte[] key, long limit) {
+    if (limit <= 0) {
+      return Sets.newHashSet();
+    }
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(readOptions)) {
+      Set<byte[]> result = Sets.newHashSet();
+      long i = 0;
+      for (iterator.seek(key); iterator.isValid() && i++ < limit; iterator.next()) {
+        result.add(iterator.value());
+      }
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Map<byte[], byte[]> getNext(byte[] key, long limit) {
+    if (limit <= 0) {
+      return Collections.emptyMap();
+    }
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(readOptions)) {
+      Map<byte[], byte[]> result = new HashMap<>();
+      long i = 0;
+      for (iterator.seek(key); iterator.isValid() && i++ < limit; iterator.next()) {
+        result.put(iterator.key(), iterator.value());
+      }
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public Set<byte[]> getValuesPrev(byte[] key, long limit) {
+    if (limit <= 0) {
+      return Sets.newHashSet();
+    }
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(readOptions)) {
+      Set<byte[]> result = Sets.newHashSet();
+      long i = 0;
+      byte[] data = getData(key);
+      if (Objects.nonNull(data)) {
+        result.add(data);
+        i++;
+      }
+      // key보다 작은 첫 번째 entry로 이동함.
+      iterator.seek(key);
+      if (iterator.isValid()) {
+        iterator.prev();
+      } else {
+        iterator.seekToLast();
+      }
+      for (; iterator.isValid() && i++ < limit; iterator.prev()) {
+        result.add(iterator.value());
+      }
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public long getTotal() throws RuntimeException {
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(readOptions)) {
+      long total = 0;
+      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+        total++;
+      }
+      return total;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  private void updateByBatchInner(Map<byte[], byte[]> rows, WriteOptions options)
+      throws RocksDBException {
+    try (WriteBatch batch = new WriteBatch()) {
+      for (Map.Entry<byte[], byte[]> row : rows.entrySet()) {
+        if (row.getValue() == null) {
+          batch.delete(row.getKey());
+        } else {
+          batch.put(row.getKey(), row.getValue());
+        }
+      }
+      database.write(options, batch);
+    }
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows) {
+    updateByBatch(rows, new org.iq80.leveldb.WriteOptions());
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows, org.iq80.leveldb.WriteOptions options) {
+    resetDbLock.readLock().lock();
+    try (WriteOptions writeOptions = toWriteOptions(options)) {
+      try {
+        updateByBatchInner(rows, writeOptions);
+      } catch (RocksDBException e) {
+        try {
+          updateByBatchInner(rows, writeOptions);
+        } catch (RocksDBException e1) {
+          throw new RuntimeException(e);
+        }
+      }
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  private static WriteOptions toWriteOptions(org.iq80.leveldb.WriteOptions options) {
+    return new WriteOptions().setSync(options.sync());
+  }
+
+  @Override
+  public boolean flush() {
+    return false;
+  }
+
+  @Override
+  public void closeDB() {
+    resetDbLock.writeLock().lock();
+    try {
+      if (!isAlive()) {
+        return;
+      }
+      database.close();
+      readOptions.close();
+      options.close();
+      bloomFilter.close();
+      bloomFilter = null;
+      tableConfig = null;
+      alive = false;
+    } finally {
+      resetDbLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public DBIterator iterator() {
+    return new RockStoreIterator(database.newIterator(readOptions));
+  }
+}
@@ -0,0 +1,88 @@
+package com.wizbl.common.utils;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * node 전체에서 공유하는 MetricRegistry <br/>
+ * block, transaction 처리와 DB, network 경로의 timer, histogram 등을 이곳에 등록하며
+ * GetMetricsServlet(http)과 JMX(domain : brte2)로 조회할 수 있음. <br/>
+ * metric 이름은 "영역.대상.항목" 형식을 사용함. (예: blockchain.pushBlock, db.account.get)
+ */
+@Slf4j
+public class MetricsUtil {
+
+  public static final String JMX_DOMAIN = "brte2";
+
+  private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+  private static JmxReporter jmxReporter;
+
+  private MetricsUtil() {
+  }
+
+  public static MetricRegistry getRegistry() {
+    return REGISTRY;
+  }
+
+  public static Timer timer(String name) {
+    return REGISTRY.timer(name);
+  }
+
+  public static Histogram histogram(String name) {
+    return REGISTRY.histogram(name);
+  }
+
+  public static Counter counter(String name) {
+    return REGISTRY.counter(name);
+  }
+
+  public static Meter meter(String name) {
+    return REGISTRY.meter(name);
+  }
+
+  /**
+   * gauge를 등록함. 같은 이름의 gauge가 이미 있으면 교체함(store 재생성 등).
+   */
+  public static <T> void gauge(String name, Gauge<T> gauge) {
+    REGISTRY.remove(name);
+    REGISTRY.register(name, gauge);
+  }
+
+  /**
+   * metric을 제거함. peer 별 gauge처럼 대상이 사라지는 metric에 사용함.
+   */
+  public static void remove(String name) {
+    REGISTRY.remove(name);
+  }
+
+  /**
+   * registry의 metric을 JMX MBean으로 노출함. 여러 번 호출해도 한 번만 시작됨.
+   */
+  public static synchronized void startJmxReporter() {
+    if (jmxReporter != null) {
+      return;
+    }
+    jmxReporter = JmxReporter.forRegistry(REGISTRY)
+        .inDomain(JMX_DOMAIN)
+        .convertRatesTo(TimeUnit.SECONDS)
+        .convertDurationsTo(TimeUnit.MILLISECONDS)
+        .build();
+    jmxReporter.start();
+    logger.info("Metrics are exposed through JMX, domain: {}", JMX_DOMAIN);
+  }
+
+  public static synchronized void stopJmxReporter() {
+    if (jmxReporter != null) {
+      jmxReporter.stop();
+      jmxReporter = null;
+    }
+  }
+}
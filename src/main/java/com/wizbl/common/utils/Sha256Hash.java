@@ -23,11 +23,13 @@ import com.google.common.io.ByteStreams;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
+import com.wizbl.common.crypto.DigestUtil;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -43,6 +45,9 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
   public static final int LENGTH = 32; // bytes
   public static final Sha256Hash ZERO_HASH = wrap(new byte[LENGTH]);
 
+  // thread마다 재사용하는 SHA-256 digest. 사용 전에 항상 reset()함.
+  private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(Sha256Hash::newDigest);
+
   private final byte[] bytes;
 
   private byte[] generateBlockId(long blockNum, Sha256Hash blockHash) {
@@ -116,6 +121,14 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
     return wrap(hash(contents));
   }
 
+  /**
+   * Creates a new instance containing the calculated (one-time) hash of the given bytes, without
+   * copying them out of the ByteString.
+   */
+  public static Sha256Hash of(ByteString contents) {
+    return wrap(hash(contents));
+  }
+
   /**
    * Creates a new instance containing the calculated (one-time) hash of the given file's contents.
    * The file contents are read fully into memory, so this method should only be used with small
@@ -164,6 +177,16 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
     }
   }
 
+  /**
+   * Returns the SHA-256 MessageDigest reused by the calling thread, in its initial state. The
+   * returned instance must not be kept or shared with other threads.
+   */
+  private static MessageDigest threadDigest() {
+    MessageDigest digest = DIGEST.get();
+    digest.reset();
+    return digest;
+  }
+
   /**
    * Calculates the SHA-256 hash of the given bytes.
    *
@@ -183,11 +206,36 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the hash (in big-endian order)
    */
   public static byte[] hash(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = threadDigest();
     digest.update(input, offset, length);
     return digest.digest();
   }
 
+  /**
+   * Calculates the SHA-256 hash of the remaining bytes of the given buffer. The buffer position is
+   * moved to its limit.
+   *
+   * @param input the buffer to hash
+   * @return the hash (in big-endian order)
+   */
+  public static byte[] hash(ByteBuffer input) {
+    MessageDigest digest = threadDigest();
+    DigestUtil.update(digest, input);
+    return digest.digest();
+  }
+
+  /**
+   * Calculates the SHA-256 hash of the given bytes without copying them out of the ByteString.
+   *
+   * @param input the bytes to hash
+   * @return the hash (in big-endian order)
+   */
+  public static byte[] hash(ByteString input) {
+    MessageDigest digest = threadDigest();
+    DigestUtil.update(digest, input);
+    return digest.digest();
+  }
+
   /**
    * Calculates the SHA-256 hash of the given bytes, and then hashes the resulting hash again.
    *
@@ -207,7 +255,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the double-hash (in big-endian order)
    */
   public static byte[] hashTwice(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = threadDigest();
     digest.update(input, offset, length);
     return digest.digest(digest.digest());
   }
@@ -218,7 +266,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    */
   public static byte[] hashTwice(byte[] input1, int offset1, int length1,
       byte[] input2, int offset2, int length2) {
-    MessageDigest digest = newDigest();
+    MessageDigest digest = threadDigest();
     digest.update(input1, offset1, length1);
     digest.update(input2, offset2, length2);
     return digest.digest(digest.digest());
@@ -28,6 +28,7 @@ import com.wizbl.protos.Contract.AccountCreateContract;
 import com.wizbl.protos.Contract.AccountUpdateContract;
 import com.wizbl.protos.Protocol.Account;
 import com.wizbl.protos.Protocol.Account.AccountResource;
+import com.wizbl.protos.Protocol.AccountOrBuilder;
 import com.wizbl.protos.Protocol.Account.Frozen;
 import com.wizbl.protos.Protocol.AccountType;
 import com.wizbl.protos.Protocol.Vote;
@@ -35,8 +36,14 @@ import com.wizbl.protos.Protocol.Vote;
 @Slf4j
 public class AccountCapsule implements ProtoCapsule<Account>, Comparable<AccountCapsule> {
 
+  // 마지막으로 build된 Account. dirty이면 builder의 변경 내용이 반영되지 않은 상태임.
   private Account account;
 
+  // setter에서 변경하는 builder. 변경할 때마다 Account를 다시 build하지 않고
+  // getInstance(), getData()에서 한 번만 build함.
+  private Account.Builder builder;
+
+  private boolean dirty;
 
   @Override
   public int compareTo(AccountCapsule otherObject) {
@@ -137,20 +144,44 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public byte[] getData() {
-    return this.account.toByteArray();
+    return getInstance().toByteArray();
   }
 
   @Override
   public Account getInstance() {
+    if (dirty) {
+      this.account = builder.build();
+      dirty = false;
+    }
     return this.account;
   }
 
   public void setInstance(Account account) {
     this.account = account;
+    this.builder = null;
+    this.dirty = false;
+  }
+
+  /**
+   * 읽기용. 변경 중이면 builder에서 바로 읽으므로 Account를 build하지 않음.
+   */
+  private AccountOrBuilder current() {
+    return dirty ? builder : this.account;
+  }
+
+  /**
+   * 쓰기용. builder는 build() 이후에도 재사용하며, 한 번 만든 builder는 capsule이 유지되는 동안 계속 사용함.
+   */
+  private Account.Builder builder() {
+    if (builder == null) {
+      builder = this.account.toBuilder();
+    }
+    dirty = true;
+    return builder;
   }
 
   public ByteString getAddress() {
-    return this.account.getAddress();
+    return current().getAddress();
   }
 
   public byte[] createDbKey() {
@@ -162,126 +193,114 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public AccountType getType() {
-    return this.account.getType();
+    return current().getType();
   }
 
   public ByteString getAccountName() {
-    return this.account.getAccountName();
+    return current().getAccountName();
   }
 
   public ByteString getAccountId() {
-    return this.account.getAccountId();
+    return current().getAccountId();
   }
 
   public long getBalance() {
-    return this.account.getBalance();
+    return current().getBalance();
   }
 
   public long getLatestOperationTime() {
-    return this.account.getLatestOprationTime();
+    return current().getLatestOprationTime();
   }
 
   public void setLatestOperationTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestOprationTime(latest_time).build();
+    builder().setLatestOprationTime(latest_time);
   }
 
   public long getLatestConsumeTime() {
-    return this.account.getLatestConsumeTime();
+    return current().getLatestConsumeTime();
   }
 
   public void setLatestConsumeTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestConsumeTime(latest_time).build();
+    builder().setLatestConsumeTime(latest_time);
   }
 
   public long getLatestConsumeFreeTime() {
-    return this.account.getLatestConsumeFreeTime();
+    return current().getLatestConsumeFreeTime();
   }
 
   public void setLatestConsumeFreeTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestConsumeFreeTime(latest_time).build();
+    builder().setLatestConsumeFreeTime(latest_time);
   }
 
   public long getLatestSpendTime() {
-    return this.account.getLatestSpendTime();
+    return current().getLatestSpendTime();
   }
 
   public void setLatestSpendTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestSpendTime(latest_time).build();
+    builder().setLatestSpendTime(latest_time);
   }
 
   public void setBalance(long balance) {
-    this.account = this.account.toBuilder().setBalance(balance).build();
+    builder().setBalance(balance);
   }
 
   public void addDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder().setDelegatedFrozenBalanceForBandwidth(
-        this.account.getDelegatedFrozenBalanceForBandwidth() + balance).build();
+    builder().setDelegatedFrozenBalanceForBandwidth(
+        current().getDelegatedFrozenBalanceForBandwidth() + balance);
   }
 
 
   public long getAcquiredDelegatedFrozenBalanceForBandwidth() {
-    return this.account.getAcquiredDelegatedFrozenBalanceForBandwidth();
+    return current().getAcquiredDelegatedFrozenBalanceForBandwidth();
   }
 
 
   public void setAcquiredDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder().setAcquiredDelegatedFrozenBalanceForBandwidth(balance)
-        .build();
+    builder().setAcquiredDelegatedFrozenBalanceForBandwidth(balance);
   }
 
   public void addAcquiredDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder().setAcquiredDelegatedFrozenBalanceForBandwidth(
-        this.account.getAcquiredDelegatedFrozenBalanceForBandwidth() + balance)
-        .build();
+    builder().setAcquiredDelegatedFrozenBalanceForBandwidth(
+        current().getAcquiredDelegatedFrozenBalanceForBandwidth() + balance);
   }
 
   public long getAcquiredDelegatedFrozenBalanceForEnergy() {
-    return getAccountResource().getAcquiredDelegatedFrozenBalanceForEnergy();
+    return current().getAccountResourceOrBuilder().getAcquiredDelegatedFrozenBalanceForEnergy();
   }
 
   public long getDelegatedFrozenBalanceForEnergy() {
-    return getAccountResource().getDelegatedFrozenBalanceForEnergy();
+    return current().getAccountResourceOrBuilder().getDelegatedFrozenBalanceForEnergy();
   }
 
   public long getDelegatedFrozenBalanceForBandwidth() {
-    return this.account.getDelegatedFrozenBalanceForBandwidth();
+    return current().getDelegatedFrozenBalanceForBandwidth();
   }
 
   public void setDelegatedFrozenBalanceForBandwidth(long balance) {
-    this.account = this.account.toBuilder()
-        .setDelegatedFrozenBalanceForBandwidth(balance)
-        .build();
+    builder().setDelegatedFrozenBalanceForBandwidth(balance);
   }
 
   public void addAcquiredDelegatedFrozenBalanceForEnergy(long balance) {
-    AccountResource newAccountResource = getAccountResource().toBuilder()
-        .setAcquiredDelegatedFrozenBalanceForEnergy(
-            getAccountResource().getAcquiredDelegatedFrozenBalanceForEnergy() + balance).build();
-
-    this.account = this.account.toBuilder()
-        .setAccountResource(newAccountResource)
-        .build();
+    AccountResource.Builder accountResource = builder().getAccountResourceBuilder();
+    accountResource.setAcquiredDelegatedFrozenBalanceForEnergy(
+        accountResource.getAcquiredDelegatedFrozenBalanceForEnergy() + balance);
   }
 
   public void addDelegatedFrozenBalanceForEnergy(long balance) {
-    AccountResource newAccountResource = getAccountResource().toBuilder()
-        .setDelegatedFrozenBalanceForEnergy(
-            getAccountResource().getDelegatedFrozenBalanceForEnergy() + balance).build();
-
-    this.account = this.account.toBuilder()
-        .setAccountResource(newAccountResource)
-        .build();
+    AccountResource.Builder accountResource = builder().getAccountResourceBuilder();
+    accountResource.setDelegatedFrozenBalanceForEnergy(
+        accountResource.getDelegatedFrozenBalanceForEnergy() + balance);
   }
 
 
   public void setAllowance(long allowance) {
-    this.account = this.account.toBuilder().setAllowance(allowance).build();
+    builder().setAllowance(allowance);
   }
 
 
   @Override
   public String toString() {
-    return this.account.toString();
+    return getInstance().toString();
   }
 
 
@@ -289,41 +308,31 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * set votes.
    */
   public void addVotes(ByteString voteAddress, long voteAdd) {
-    this.account = this.account.toBuilder()
-        .addVotes(Vote.newBuilder().setVoteAddress(voteAddress).setVoteCount(voteAdd).build())
-        .build();
+    builder().addVotes(Vote.newBuilder().setVoteAddress(voteAddress).setVoteCount(voteAdd).build());
   }
 
   public void clearAssetV2() {
-    this.account = this.account.toBuilder()
-        .clearAssetV2()
-        .build();
+    builder().clearAssetV2();
   }
 
   public void clearLatestAssetOperationTimeV2() {
-    this.account = this.account.toBuilder()
-        .clearLatestAssetOperationTimeV2()
-        .build();
+    builder().clearLatestAssetOperationTimeV2();
   }
 
   public void clearFreeAssetNetUsageV2() {
-    this.account = this.account.toBuilder()
-        .clearFreeAssetNetUsageV2()
-        .build();
+    builder().clearFreeAssetNetUsageV2();
   }
 
   public void clearVotes() {
-    this.account = this.account.toBuilder()
-        .clearVotes()
-        .build();
+    builder().clearVotes();
   }
 
   /**
    * get votes.
    */
   public List<Vote> getVotesList() {
-    if (this.account.getVotesList() != null) {
-      return this.account.getVotesList();
+    if (current().getVotesList() != null) {
+      return current().getVotesList();
     } else {
       return Lists.newArrayList();
     }
@@ -331,14 +340,15 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
   //tp:Brte2_Power
   public long getBrte2Power() {
+    AccountOrBuilder account = current();
     long tp = 0;
     for (int i = 0; i < account.getFrozenCount(); ++i) {
       tp += account.getFrozen(i).getFrozenBalance();
     }
 
-    tp += account.getAccountResource().getFrozenBalanceForEnergy().getFrozenBalance();
+    tp += account.getAccountResourceOrBuilder().getFrozenBalanceForEnergy().getFrozenBalance();
     tp += account.getDelegatedFrozenBalanceForBandwidth();
-    tp += account.getAccountResource().getDelegatedFrozenBalanceForEnergy();
+    tp += account.getAccountResourceOrBuilder().getDelegatedFrozenBalanceForEnergy();
     return tp;
   }
 
@@ -346,7 +356,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * asset balance enough
    */
   public boolean assetBalanceEnough(byte[] key, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     Long currentAmount = assetMap.get(nameKey);
 
@@ -358,12 +368,12 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
     String nameKey;
     Long currentAmount;
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 0) {
-      assetMap = this.account.getAssetMap();
+      assetMap = current().getAssetMap();
       nameKey = ByteArray.toStr(key);
       currentAmount = assetMap.get(nameKey);
     } else {
       String tokenID = ByteArray.toStr(key);
-      assetMap = this.account.getAssetV2Map();
+      assetMap = current().getAssetV2Map();
       currentAmount = assetMap.get(tokenID);
     }
 
@@ -375,12 +385,11 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * reduce asset amount.
    */
   public boolean reduceAssetAmount(byte[] key, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     Long currentAmount = assetMap.get(nameKey);
     if (amount > 0 && null != currentAmount && amount <= currentAmount) {
-      this.account = this.account.toBuilder()
-          .putAsset(nameKey, Math.subtractExact(currentAmount, amount)).build();
+      builder().putAsset(nameKey, Math.subtractExact(currentAmount, amount));
       return true;
     }
 
@@ -393,28 +402,24 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   public boolean reduceAssetAmountV2(byte[] key, long amount, Manager manager) {
     //key is token name
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 0) {
-      Map<String, Long> assetMap = this.account.getAssetMap();
+      Map<String, Long> assetMap = current().getAssetMap();
       AssetIssueCapsule assetIssueCapsule = manager.getAssetIssueStore().get(key);
       String tokenID = assetIssueCapsule.getId();
       String nameKey = ByteArray.toStr(key);
       Long currentAmount = assetMap.get(nameKey);
       if (amount > 0 && null != currentAmount && amount <= currentAmount) {
-        this.account = this.account.toBuilder()
-            .putAsset(nameKey, Math.subtractExact(currentAmount, amount))
-            .putAssetV2(tokenID, Math.subtractExact(currentAmount, amount))
-            .build();
+        builder().putAsset(nameKey, Math.subtractExact(currentAmount, amount))
+            .putAssetV2(tokenID, Math.subtractExact(currentAmount, amount));
         return true;
       }
     }
     //key is token id
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 1) {
       String tokenID = ByteArray.toStr(key);
-      Map<String, Long> assetMapV2 = this.account.getAssetV2Map();
+      Map<String, Long> assetMapV2 = current().getAssetV2Map();
       Long currentAmount = assetMapV2.get(tokenID);
       if (amount > 0 && null != currentAmount && amount <= currentAmount) {
-        this.account = this.account.toBuilder()
-            .putAssetV2(tokenID, Math.subtractExact(currentAmount, amount))
-            .build();
+        builder().putAssetV2(tokenID, Math.subtractExact(currentAmount, amount));
         return true;
       }
     }
@@ -426,14 +431,13 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * add asset amount.
    */
   public boolean addAssetAmount(byte[] key, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     Long currentAmount = assetMap.get(nameKey);
     if (currentAmount == null) {
       currentAmount = 0L;
     }
-    this.account = this.account.toBuilder().putAsset(nameKey, Math.addExact(currentAmount, amount))
-        .build();
+    builder().putAsset(nameKey, Math.addExact(currentAmount, amount));
     return true;
   }
 
@@ -443,7 +447,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   public boolean addAssetAmountV2(byte[] key, long amount, Manager manager) {
     //key is token name
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 0) {
-      Map<String, Long> assetMap = this.account.getAssetMap();
+      Map<String, Long> assetMap = current().getAssetMap();
       AssetIssueCapsule assetIssueCapsule = manager.getAssetIssueStore().get(key);
       String tokenID = assetIssueCapsule.getId();
       String nameKey = ByteArray.toStr(key);
@@ -451,22 +455,18 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
       if (currentAmount == null) {
         currentAmount = 0L;
       }
-      this.account = this.account.toBuilder()
-          .putAsset(nameKey, Math.addExact(currentAmount, amount))
-          .putAssetV2(tokenID, Math.addExact(currentAmount, amount))
-          .build();
+      builder().putAsset(nameKey, Math.addExact(currentAmount, amount))
+          .putAssetV2(tokenID, Math.addExact(currentAmount, amount));
     }
     //key is token id
     if (manager.getDynamicPropertiesStore().getAllowSameTokenName() == 1) {
       String tokenIDStr = ByteArray.toStr(key);
-      Map<String, Long> assetMapV2 = this.account.getAssetV2Map();
+      Map<String, Long> assetMapV2 = current().getAssetV2Map();
       Long currentAmount = assetMapV2.get(tokenIDStr);
       if (currentAmount == null) {
         currentAmount = 0L;
       }
-      this.account = this.account.toBuilder()
-          .putAssetV2(tokenIDStr, Math.addExact(currentAmount, amount))
-          .build();
+      builder().putAssetV2(tokenIDStr, Math.addExact(currentAmount, amount));
     }
     return true;
   }
@@ -475,41 +475,39 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * set account name
    */
   public void setAccountName(byte[] name) {
-    this.account = this.account.toBuilder().setAccountName(ByteString.copyFrom(name)).build();
+    builder().setAccountName(ByteString.copyFrom(name));
   }
 
   /**
    * set account id
    */
   public void setAccountId(byte[] id) {
-    this.account = this.account.toBuilder().setAccountId(ByteString.copyFrom(id)).build();
+    builder().setAccountId(ByteString.copyFrom(id));
   }
 
   /**
    * add asset.
    */
   public boolean addAsset(byte[] key, long value) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     String nameKey = ByteArray.toStr(key);
     if (!assetMap.isEmpty() && assetMap.containsKey(nameKey)) {
       return false;
     }
 
-    this.account = this.account.toBuilder().putAsset(nameKey, value).build();
+    builder().putAsset(nameKey, value);
 
     return true;
   }
 
   public boolean addAssetV2(byte[] key, long value) {
     String tokenID = ByteArray.toStr(key);
-    Map<String, Long> assetV2Map = this.account.getAssetV2Map();
+    Map<String, Long> assetV2Map = current().getAssetV2Map();
     if (!assetV2Map.isEmpty() && assetV2Map.containsKey(tokenID)) {
       return false;
     }
 
-    this.account = this.account.toBuilder()
-        .putAssetV2(tokenID, value)
-        .build();
+    builder().putAssetV2(tokenID, value);
     return true;
   }
 
@@ -517,13 +515,13 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * add asset.
    */
   public boolean addAssetMapV2(Map<String, Long> assetMap) {
-    this.account = this.account.toBuilder().putAllAssetV2(assetMap).build();
+    builder().putAllAssetV2(assetMap);
     return true;
   }
 
 
   public Map<String, Long> getAssetMap() {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = current().getAssetMap();
     if (assetMap.isEmpty()) {
       assetMap = Maps.newHashMap();
     }
@@ -532,7 +530,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public Map<String, Long> getAssetMapV2() {
-    Map<String, Long> assetMap = this.account.getAssetV2Map();
+    Map<String, Long> assetMap = current().getAssetV2Map();
     if (assetMap.isEmpty()) {
       assetMap = Maps.newHashMap();
     }
@@ -541,40 +539,40 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public boolean addAllLatestAssetOperationTimeV2(Map<String, Long> map) {
-    this.account = this.account.toBuilder().putAllLatestAssetOperationTimeV2(map).build();
+    builder().putAllLatestAssetOperationTimeV2(map);
     return true;
   }
 
   public Map<String, Long> getLatestAssetOperationTimeMap() {
-    return this.account.getLatestAssetOperationTimeMap();
+    return current().getLatestAssetOperationTimeMap();
   }
 
   public Map<String, Long> getLatestAssetOperationTimeMapV2() {
-    return this.account.getLatestAssetOperationTimeV2Map();
+    return current().getLatestAssetOperationTimeV2Map();
   }
 
   public long getLatestAssetOperationTime(String assetName) {
-    return this.account.getLatestAssetOperationTimeOrDefault(assetName, 0);
+    return current().getLatestAssetOperationTimeOrDefault(assetName, 0);
   }
 
   public long getLatestAssetOperationTimeV2(String assetName) {
-    return this.account.getLatestAssetOperationTimeV2OrDefault(assetName, 0);
+    return current().getLatestAssetOperationTimeV2OrDefault(assetName, 0);
   }
 
   public void putLatestAssetOperationTimeMap(String key, Long value) {
-    this.account = this.account.toBuilder().putLatestAssetOperationTime(key, value).build();
+    builder().putLatestAssetOperationTime(key, value);
   }
 
   public void putLatestAssetOperationTimeMapV2(String key, Long value) {
-    this.account = this.account.toBuilder().putLatestAssetOperationTimeV2(key, value).build();
+    builder().putLatestAssetOperationTimeV2(key, value);
   }
 
   public int getFrozenCount() {
-    return getInstance().getFrozenCount();
+    return current().getFrozenCount();
   }
 
   public List<Frozen> getFrozenList() {
-    return getInstance().getFrozenList();
+    return current().getFrozenList();
   }
 
   public long getFrozenBalance() {
@@ -590,11 +588,11 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public int getFrozenSupplyCount() {
-    return getInstance().getFrozenSupplyCount();
+    return current().getFrozenSupplyCount();
   }
 
   public List<Frozen> getFrozenSupplyList() {
-    return getInstance().getFrozenSupplyList();
+    return current().getFrozenSupplyList();
   }
 
   public long getFrozenSupplyBalance() {
@@ -606,45 +604,45 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public ByteString getAssetIssuedName() {
-    return getInstance().getAssetIssuedName();
+    return current().getAssetIssuedName();
   }
 
   public void setAssetIssuedName(byte[] nameKey) {
     ByteString assetIssuedName = ByteString.copyFrom(nameKey);
-    this.account = this.account.toBuilder().setAssetIssuedName(assetIssuedName).build();
+    builder().setAssetIssuedName(assetIssuedName);
   }
 
   public ByteString getAssetIssuedID() {
-    return getInstance().getAssetIssuedID();
+    return current().getAssetIssuedID();
   }
 
   public void setAssetIssuedID(byte[] id) {
     ByteString assetIssuedID = ByteString.copyFrom(id);
-    this.account = this.account.toBuilder().setAssetIssuedID(assetIssuedID).build();
+    builder().setAssetIssuedID(assetIssuedID);
   }
 
   public long getAllowance() {
-    return getInstance().getAllowance();
+    return current().getAllowance();
   }
 
   public long getLatestWithdrawTime() {
-    return getInstance().getLatestWithdrawTime();
+    return current().getLatestWithdrawTime();
   }
 
   public boolean getIsWitness() {
-    return getInstance().getIsWitness();
+    return current().getIsWitness();
   }
 
   public void setIsWitness(boolean isWitness) {
-    this.account = this.account.toBuilder().setIsWitness(isWitness).build();
+    builder().setIsWitness(isWitness);
   }
 
   public boolean getIsCommittee() {
-    return getInstance().getIsCommittee();
+    return current().getIsCommittee();
   }
 
   public void setIsCommittee(boolean isCommittee) {
-    this.account = this.account.toBuilder().setIsCommittee(isCommittee).build();
+    builder().setIsCommittee(isCommittee);
   }
 
   public void setFrozenForBandwidth(long frozenBalance, long expireTime) {
@@ -655,14 +653,9 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
     long frozenCount = getFrozenCount();
     if (frozenCount == 0) {
-      setInstance(getInstance().toBuilder()
-          .addFrozen(newFrozen)
-          .build());
+      builder().addFrozen(newFrozen);
     } else {
-      setInstance(getInstance().toBuilder()
-          .setFrozen(0, newFrozen)
-          .build()
-      );
+      builder().setFrozen(0, newFrozen);
     }
   }
 
@@ -674,29 +667,24 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
         .setExpireTime(expireTime)
         .build();
 
-    this.account = this.account.toBuilder()
-        .addFrozen(newFrozen)
-        .build();
+    builder().addFrozen(newFrozen);
   }
 
   //for test only
   public void setLatestWithdrawTime(long latestWithdrawTime) {
-    this.account = this.account.toBuilder()
-        .setLatestWithdrawTime(latestWithdrawTime)
-        .build();
+    builder().setLatestWithdrawTime(latestWithdrawTime);
   }
 
   public long getNetUsage() {
-    return this.account.getNetUsage();
+    return current().getNetUsage();
   }
 
   public void setNetUsage(long netUsage) {
-    this.account = this.account.toBuilder()
-        .setNetUsage(netUsage).build();
+    builder().setNetUsage(netUsage);
   }
 
   public AccountResource getAccountResource() {
-    return this.account.getAccountResource();
+    return current().getAccountResource();
   }
 
 
@@ -706,21 +694,16 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
         .setExpireTime(time)
         .build();
 
-    AccountResource newAccountResource = getAccountResource().toBuilder()
-        .setFrozenBalanceForEnergy(newFrozenForEnergy).build();
-
-    this.account = this.account.toBuilder()
-        .setAccountResource(newAccountResource)
-        .build();
+    builder().getAccountResourceBuilder().setFrozenBalanceForEnergy(newFrozenForEnergy);
   }
 
 
   public long getEnergyFrozenBalance() {
-    return this.account.getAccountResource().getFrozenBalanceForEnergy().getFrozenBalance();
+    return current().getAccountResourceOrBuilder().getFrozenBalanceForEnergy().getFrozenBalance();
   }
 
   public long getEnergyUsage() {
-    return this.account.getAccountResource().getEnergyUsage();
+    return current().getAccountResourceOrBuilder().getEnergyUsage();
   }
 
   public long getAllFrozenBalanceForEnergy() {
@@ -729,100 +712,80 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
 
   public void setEnergyUsage(long energyUsage) {
-    this.account = this.account.toBuilder()
-        .setAccountResource(
-            this.account.getAccountResource().toBuilder().setEnergyUsage(energyUsage).build())
-        .build();
+    builder().getAccountResourceBuilder().setEnergyUsage(energyUsage);
   }
 
   public void setLatestConsumeTimeForEnergy(long latest_time) {
-    this.account = this.account.toBuilder()
-        .setAccountResource(
-            this.account.getAccountResource().toBuilder().setLatestConsumeTimeForEnergy(latest_time)
-                .build()).build();
+    builder().getAccountResourceBuilder().setLatestConsumeTimeForEnergy(latest_time);
   }
 
   public long getLatestConsumeTimeForEnergy() {
-    return this.account.getAccountResource().getLatestConsumeTimeForEnergy();
+    return current().getAccountResourceOrBuilder().getLatestConsumeTimeForEnergy();
   }
 
   public long getFreeNetUsage() {
-    return this.account.getFreeNetUsage();
+    return current().getFreeNetUsage();
   }
 
   public void setFreeNetUsage(long freeNetUsage) {
-    this.account = this.account.toBuilder()
-        .setFreeNetUsage(freeNetUsage).build();
+    builder().setFreeNetUsage(freeNetUsage);
   }
 
   public long getManaUsage() {
-    return this.account.getAccountResource().toBuilder().getManaUsage();
+    return current().getAccountResourceOrBuilder().getManaUsage();
   }
 
   public void setManaUsage(long manaUsage) {
-    this.account = this.account.toBuilder()
-        .setAccountResource(
-          this.account.getAccountResource().toBuilder().setManaUsage(manaUsage)
-              .build()).build();
+    builder().getAccountResourceBuilder().setManaUsage(manaUsage);
   }
 
   public long getTotalManaUsage() {
-    return this.account.getAccountResource().toBuilder().getTotalManaUsage();
+    return current().getAccountResourceOrBuilder().getTotalManaUsage();
   }
 
   public void setTotalManaUsage(long totalManaUsage) {
-    this.account = this.account.toBuilder()
-    	.setAccountResource(
-        	this.account.getAccountResource().toBuilder().setTotalManaUsage(totalManaUsage)
-  	        	.build()).build();
+    builder().getAccountResourceBuilder().setTotalManaUsage(totalManaUsage);
   }
 
   public boolean addAllFreeAssetNetUsageV2(Map<String, Long> map) {
-    this.account = this.account.toBuilder().putAllFreeAssetNetUsageV2(map).build();
+    builder().putAllFreeAssetNetUsageV2(map);
     return true;
   }
 
   public long getFreeAssetNetUsage(String assetName) {
-    return this.account.getFreeAssetNetUsageOrDefault(assetName, 0);
+    return current().getFreeAssetNetUsageOrDefault(assetName, 0);
   }
 
   public long getFreeAssetNetUsageV2(String assetName) {
-    return this.account.getFreeAssetNetUsageV2OrDefault(assetName, 0);
+    return current().getFreeAssetNetUsageV2OrDefault(assetName, 0);
   }
 
   public Map<String, Long> getAllFreeAssetNetUsage() {
-    return this.account.getFreeAssetNetUsageMap();
+    return current().getFreeAssetNetUsageMap();
   }
 
   public Map<String, Long> getAllFreeAssetNetUsageV2() {
-    return this.account.getFreeAssetNetUsageV2Map();
+    return current().getFreeAssetNetUsageV2Map();
   }
 
   public void putFreeAssetNetUsage(String s, long freeAssetNetUsage) {
-    this.account = this.account.toBuilder()
-        .putFreeAssetNetUsage(s, freeAssetNetUsage).build();
+    builder().putFreeAssetNetUsage(s, freeAssetNetUsage);
   }
 
   public void putFreeAssetNetUsageV2(String s, long freeAssetNetUsage) {
-    this.account = this.account.toBuilder()
-        .putFreeAssetNetUsageV2(s, freeAssetNetUsage).build();
+    builder().putFreeAssetNetUsageV2(s, freeAssetNetUsage);
   }
 
   public long getStorageLimit() {
-    return this.account.getAccountResource().getStorageLimit();
+    return current().getAccountResourceOrBuilder().getStorageLimit();
   }
 
   public void setStorageLimit(long limit) {
-    AccountResource accountResource = this.account.getAccountResource();
-    accountResource = accountResource.toBuilder().setStorageLimit(limit).build();
-
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    builder().getAccountResourceBuilder().setStorageLimit(limit);
   }
 
   public long getStorageUsage() {
-    return this.account.getAccountResource().getStorageUsage();
+    return current().getAccountResourceOrBuilder().getStorageUsage();
   }
 
   public long getStorageLeft() {
@@ -830,37 +793,22 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void setStorageUsage(long usage) {
-    AccountResource accountResource = this.account.getAccountResource();
-    accountResource = accountResource.toBuilder().setStorageUsage(usage).build();
-
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    builder().getAccountResourceBuilder().setStorageUsage(usage);
   }
 
   public long getLatestExchangeStorageTime() {
-    return this.account.getAccountResource().getLatestExchangeStorageTime();
+    return current().getAccountResourceOrBuilder().getLatestExchangeStorageTime();
   }
 
   public void setLatestExchangeStorageTime(long time) {
-    AccountResource accountResource = this.account.getAccountResource();
-    accountResource = accountResource.toBuilder().setLatestExchangeStorageTime(time).build();
-
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    builder().getAccountResourceBuilder().setLatestExchangeStorageTime(time);
   }
 
   public void addStorageUsage(long storageUsage) {
     if (storageUsage <= 0) {
       return;
     }
-    AccountResource accountResource = this.account.getAccountResource();
-    accountResource = accountResource.toBuilder()
-        .setStorageUsage(accountResource.getStorageUsage() + storageUsage).build();
-
-    this.account = this.account.toBuilder()
-        .setAccountResource(accountResource)
-        .build();
+    AccountResource.Builder accountResource = builder().getAccountResourceBuilder();
+    accountResource.setStorageUsage(accountResource.getStorageUsage() + storageUsage);
   }
 }
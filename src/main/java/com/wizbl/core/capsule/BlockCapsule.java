@@ -29,16 +29,21 @@ import com.wizbl.protos.Protocol.BlockHeader;
 import com.wizbl.protos.Protocol.Transaction;
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 
+import java.io.IOException;
 import java.security.SignatureException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 public class BlockCapsule implements ProtoCapsule<Block> {
@@ -119,7 +124,13 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   private BlockId blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
 
   private Block block;
+  // block 생성(generateBlock) 중 transaction을 추가하는 builder. null이 아니면 block에 아직 반영되지 않은 transaction이 있음.
+  private Block.Builder assemblyBuilder;
+  // assemblyBuilder를 build했을 때의 serialized size
+  private int assemblySize;
   public boolean generatedByMyself = false;
+  // transaction 서명을 미리 검증한 block(SolidityNode). generatedByMyself여도 검증 결과(isVerified)를 그대로 사용함.
+  public boolean transactionsPreVerified = false;
   private List<TransactionCapsule> transactions = new ArrayList<>();
 
   /**
@@ -189,14 +200,99 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   }
 
   /**
-   * Block 객체에 transaction 저장
+   * 직렬화된 block에서 transaction은 건너뛰고 block_header만 parse함. <br/>
+   * block을 peer에 그대로 전송하는 경우처럼 block id, timestamp만 필요할 때 사용함.
+   */
+  public static BlockHeader parseHeader(byte[] data) throws BadItemException {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(data);
+      BlockHeader.Builder header = BlockHeader.newBuilder();
+      int tag;
+      while ((tag = input.readTag()) != 0) {
+        if (WireFormat.getTagFieldNumber(tag) == Block.BLOCK_HEADER_FIELD_NUMBER) {
+          input.readMessage(header, ExtensionRegistryLite.getEmptyRegistry());
+        } else if (!input.skipField(tag)) {
+          break;
+        }
+      }
+      return header.build();
+    } catch (IOException e) {
+      throw new BadItemException("Block proto data parse exception");
+    }
+  }
+
+  /**
+   * 직렬화된 block의 transaction 개수를 transaction을 parse하지 않고 셈.
+   */
+  public static int countTransactions(byte[] data) throws BadItemException {
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(data);
+      int count = 0;
+      int tag;
+      while ((tag = input.readTag()) != 0) {
+        if (WireFormat.getTagFieldNumber(tag) == Block.TRANSACTIONS_FIELD_NUMBER) {
+          count++;
+        }
+        if (!input.skipField(tag)) {
+          break;
+        }
+      }
+      return count;
+    } catch (IOException e) {
+      throw new BadItemException("Block proto data parse exception");
+    }
+  }
+
+  /**
+   * getBlockId()와 같은 방식으로 block header의 block id를 계산함.
+   */
+  public static BlockId getBlockId(BlockHeader header) {
+    return new BlockId(Sha256Hash.of(header.getRawData().toByteArray()),
+        header.getRawData().getNumber());
+  }
+
+  /**
+   * Block 객체에 transaction 저장 <br/>
+   * transaction마다 Block 객체를 다시 만들지 않고 builder에 추가한 후, Block 객체가 필요할 때(setMerkleRoot, sign 등) 한 번만 build함.
    * @param pendingTrx
    */
   public void addTransaction(TransactionCapsule pendingTrx) {
-    this.block = this.block.toBuilder().addTransactions(pendingTrx.getInstance()).build();
+    if (assemblyBuilder == null) {
+      assemblyBuilder = this.block.toBuilder();
+      assemblySize = this.block.getSerializedSize();
+    }
+    Transaction trx = pendingTrx.getInstance();
+    assemblyBuilder.addTransactions(trx);
+    assemblySize += CodedOutputStream.computeMessageSize(Block.TRANSACTIONS_FIELD_NUMBER, trx);
     getTransactions().add(pendingTrx);
   }
 
+  /**
+   * 추가된 transaction을 Block 객체에 반영함.
+   */
+  private Block seal() {
+    if (assemblyBuilder != null) {
+      this.block = assemblyBuilder.build();
+      assemblyBuilder = null;
+    }
+    return this.block;
+  }
+
+  /**
+   * Block 객체의 serialized size. block 생성 중에는 Block 객체를 build하지 않고 누적된 크기를 반환함.
+   */
+  public int getSerializedSize() {
+    return assemblyBuilder == null ? this.block.getSerializedSize() : assemblySize;
+  }
+
+  /**
+   * block header만 읽는 경우에 사용함. block 생성 중에도 Block 객체를 build하지 않으므로
+   * 반환된 Block의 transaction 목록은 최신이 아닐 수 있음.
+   */
+  public Block getInstanceForHeader() {
+    return this.block;
+  }
+
   public List<TransactionCapsule> getTransactions() {
     return transactions;
   }
@@ -219,7 +315,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
     BlockHeader blockHeader = this.block.getBlockHeader().toBuilder().setWitnessSignature(sig).build();
 
-    this.block = this.block.toBuilder().setBlockHeader(blockHeader).build();
+    this.block = seal().toBuilder().setBlockHeader(blockHeader).build();
   }
 
   private Sha256Hash getRawHash() {
@@ -230,8 +326,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     try {
       return Arrays
           .equals(ECKey.signatureToAddress(getRawHash().getBytes(),
-              TransactionCapsule
-                  .getBase64FromByteString(block.getBlockHeader().getWitnessSignature())),
+              block.getBlockHeader().getWitnessSignature().toByteArray()),
               block.getBlockHeader().getRawData().getWitnessAddress().toByteArray());
     } catch (SignatureException e) {
       throw new ValidateSignatureException(e.getMessage());
@@ -246,18 +341,32 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   }
 
   public Sha256Hash calcMerkleRoot() {
-    List<Transaction> transactionsList = this.block.getTransactionsList();
+    List<Transaction> transactionsList = seal().getTransactionsList();
 
     if (CollectionUtils.isEmpty(transactionsList)) {
       return Sha256Hash.ZERO_HASH;
     }
 
-    Vector<Sha256Hash> ids = transactionsList.stream()
-        .map(TransactionCapsule::new)
-        .map(TransactionCapsule::getMerkleHash)
-        .collect(Collectors.toCollection(Vector::new));
+    IntStream indexes = IntStream.range(0, transactionsList.size());
+    if (transactionsList.size() >= MerkleTree.PARALLEL_THRESHOLD) {
+      indexes = indexes.parallel();
+    }
+    List<Sha256Hash> ids = indexes
+        .mapToObj(i -> getMerkleHash(transactionsList.get(i), i))
+        .collect(Collectors.toList());
 
-    return MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    return MerkleTree.computeRoot(ids);
+  }
+
+  /**
+   * transactions의 TransactionCapsule이 block의 transaction을 그대로 가지고 있으면 capsule에 저장된 hash를 재사용함.
+   * 처리 중에 capsule의 ret 등이 바뀐 경우에는 block의 transaction으로 다시 계산함.
+   */
+  private Sha256Hash getMerkleHash(Transaction trx, int index) {
+    if (index < transactions.size() && transactions.get(index).getInstance() == trx) {
+      return transactions.get(index).getMerkleHash();
+    }
+    return new TransactionCapsule(trx).getMerkleHash();
   }
 
   /**
@@ -268,7 +377,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
         this.block.getBlockHeader().getRawData().toBuilder()
             .setTxTrieRoot(calcMerkleRoot().getByteString()).build();
 
-    this.block = this.block.toBuilder().setBlockHeader(
+    this.block = seal().toBuilder().setBlockHeader(
         this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
   }
   /* only for genisis */
@@ -277,7 +386,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
         this.block.getBlockHeader().getRawData().toBuilder().setWitnessAddress(
             ByteString.copyFrom(witness.getBytes())).build();
 
-    this.block = this.block.toBuilder().setBlockHeader(
+    this.block = seal().toBuilder().setBlockHeader(
         this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
   }
 
@@ -291,12 +400,12 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
   @Override
   public byte[] getData() {
-    return this.block.toByteArray();
+    return seal().toByteArray();
   }
 
   @Override
   public Block getInstance() {
-    return this.block;
+    return seal();
   }
 
   public Sha256Hash getParentHash() {
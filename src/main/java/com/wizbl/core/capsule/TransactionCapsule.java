@@ -32,6 +32,8 @@ import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
 import com.wizbl.protos.Protocol.Transaction.Result;
 import com.wizbl.protos.Protocol.Transaction.Result.contractResult;
 import com.wizbl.protos.Protocol.Transaction.raw;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -53,7 +55,13 @@ import java.lang.Exception;
 @Slf4j
 public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
+  private static final Cache<ByteString, byte[]> RECOVERED_ADDRESS_CACHE = CacheBuilder
+      .newBuilder().maximumSize(100_000).build();
+
   private Transaction transaction;
+  // transaction이 바뀌기 전까지 재사용하는 hash. transaction을 바꿀 때는 update()를 사용함.
+  private Sha256Hash id;
+  private Sha256Hash merkleHash;
   @Setter
   private boolean isVerified = false;
 
@@ -61,6 +69,11 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   @Getter
   private long blockNum = -1;
 
+  // block 안에서 transaction의 위치. TransactionStore의 locator에 blockNum과 함께 저장함.
+  @Setter
+  @Getter
+  private int indexInBlock = -1;
+
   @Getter
   @Setter
   private TransactionTrace trxTrace;
@@ -147,13 +160,13 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
   public void resetResult() {
     if (this.getInstance().getRetCount() > 0) {
-      this.transaction = this.getInstance().toBuilder().clearRet().build();
+      update(this.getInstance().toBuilder().clearRet().build());
     }
   }
 
   public void setResult(TransactionResultCapsule transactionResultCapsule) {
-    this.transaction = this.getInstance().toBuilder().addRet(transactionResultCapsule.getInstance())
-        .build();
+    update(this.getInstance().toBuilder().addRet(transactionResultCapsule.getInstance())
+        .build());
   }
 
   public void setReference(long blockNum, byte[] blockHash) {
@@ -162,7 +175,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         .setRefBlockHash(ByteString.copyFrom(ByteArray.subArray(blockHash, 8, 16)))
         .setRefBlockBytes(ByteString.copyFrom(ByteArray.subArray(refBlockNum, 6, 8)))
         .build();
-    this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    update(this.transaction.toBuilder().setRawData(rawData).build());
   }
 
   /**
@@ -171,7 +184,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public void setExpiration(long expiration) {
     Transaction.raw rawData = this.transaction.getRawData().toBuilder().setExpiration(expiration)
         .build();
-    this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    update(this.transaction.toBuilder().setRawData(rawData).build());
   }
 
   public long getExpiration() {
@@ -182,7 +195,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     Transaction.raw rawData = this.transaction.getRawData().toBuilder()
         .setTimestamp(System.currentTimeMillis())
         .build();
-    this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    update(this.transaction.toBuilder().setRawData(rawData).build());
   }
 
   public long getTimestamp() {
@@ -208,16 +221,30 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     Transaction.raw.Builder transactionBuilder = Transaction.raw.newBuilder().addContract(
         Transaction.Contract.newBuilder().setType(contractType).setParameter(
             Any.pack(message)).build());
-    transaction = Transaction.newBuilder().setRawData(transactionBuilder.build()).build();
+    update(Transaction.newBuilder().setRawData(transactionBuilder.build()).build());
+  }
+
+  private void update(Transaction transaction) {
+    this.transaction = transaction;
+    this.id = null;
+    this.merkleHash = null;
   }
 
+  /**
+   * transaction 전체(signature, ret 포함)의 hash. merkle tree의 leaf로 사용함.
+   */
   public Sha256Hash getMerkleHash() {
-    byte[] transBytes = this.transaction.toByteArray();
-    return Sha256Hash.of(transBytes);
+    if (merkleHash == null) {
+      merkleHash = Sha256Hash.of(this.transaction.toByteArray());
+    }
+    return merkleHash;
   }
 
   private Sha256Hash getRawHash() {
-    return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    if (id == null) {
+      id = Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    }
+    return id;
   }
 
   /**
@@ -251,7 +278,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     ECKey ecKey = ECKey.fromPrivate(privateKey);
     ECDSASignature signature = ecKey.sign(getRawHash().getBytes());
     ByteString sig = ByteString.copyFrom(signature.toByteArray());
-    this.transaction = this.transaction.toBuilder().addSignature(sig).build();
+    update(this.transaction.toBuilder().addSignature(sig).build());
   }
 
   // todo mv this static function to capsule util
@@ -445,6 +472,21 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   }
 
 
+  /**
+   * 서명에서 주소를 복원함. <br/>
+   * broadcast 시점에 검증된 transaction이 블록으로 다시 들어왔을 때 복원 작업을 반복하지 않도록
+   * (rawHash, signature)를 key로 결과를 cache 함.
+   */
+  private static byte[] recoverAddress(byte[] hash, ByteString sign) throws SignatureException {
+    ByteString key = ByteString.copyFrom(hash).concat(sign);
+    byte[] address = RECOVERED_ADDRESS_CACHE.getIfPresent(key);
+    if (address == null) {
+      address = ECKey.signatureToAddress(hash, sign.toByteArray());
+      RECOVERED_ADDRESS_CACHE.put(key, address);
+    }
+    return address;
+  }
+
   /**
    * validate signature
    */
@@ -459,11 +501,12 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     }
 
     List<Transaction.Contract> listContract = this.transaction.getRawData().getContractList();
+    byte[] hash = getRawHash().getBytes();
     for (int i = 0; i < this.transaction.getSignatureCount(); ++i) {
       try {
         Transaction.Contract contract = listContract.get(i);
         byte[] owner = getOwner(contract);
-        byte[] address = ECKey.signatureToAddress(getRawHash().getBytes(), getBase64FromByteString(this.transaction.getSignature(i)));
+        byte[] address = recoverAddress(hash, this.transaction.getSignature(i));
         if (!Arrays.equals(owner, address)) {
           isVerified = false;
           throw new ValidateSignatureException("sig error");
@@ -614,10 +657,10 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     if (this.transaction.getRetCount() > 0) {
       ret = this.transaction.getRet(0).toBuilder().setContractRet(code).build();
 
-      this.transaction = transaction.toBuilder().setRet(0, ret).build();
+      update(transaction.toBuilder().setRet(0, ret).build());
       return;
     }
-    this.transaction = transaction.toBuilder().addRet(ret).build();
+    update(transaction.toBuilder().addRet(ret).build());
   }
 
   public contractResult getContractRet() {
@@ -182,8 +182,8 @@ public class TransactionInfoCapsule implements ProtoCapsule<TransactionInfo> {
     builder.addAllLog(logList);
 
     if (Objects.nonNull(block)) {
-      builder.setBlockNumber(block.getInstance().getBlockHeader().getRawData().getNumber());
-      builder.setBlockTimeStamp(block.getInstance().getBlockHeader().getRawData().getTimestamp());
+      builder.setBlockNumber(block.getInstanceForHeader().getBlockHeader().getRawData().getNumber());
+      builder.setBlockTimeStamp(block.getInstanceForHeader().getBlockHeader().getRawData().getTimestamp());
     }
 
     builder.setReceipt(traceReceipt.getReceipt());
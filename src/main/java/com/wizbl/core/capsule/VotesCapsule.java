@@ -66,6 +66,14 @@ public class VotesCapsule implements ProtoCapsule<Votes> {
         .build();
   }
 
+  public long getEpoch() {
+    return this.votes.getEpoch();
+  }
+
+  public void setEpoch(long epoch) {
+    this.votes = this.votes.toBuilder().setEpoch(epoch).build();
+  }
+
   public byte[] createDbKey() {
     return getAddress().toByteArray();
   }
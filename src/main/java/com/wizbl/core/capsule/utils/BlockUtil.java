@@ -16,16 +16,25 @@
 package com.wizbl.core.capsule.utils;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 import com.wizbl.common.utils.ByteArray;
 import com.wizbl.core.capsule.BlockCapsule;
 import com.wizbl.core.config.args.Args;
 import com.wizbl.core.config.args.GenesisBlock;
+import com.wizbl.protos.Protocol.Block;
 import com.wizbl.protos.Protocol.Transaction;
 
 public class BlockUtil {
 
+  // Block.transactions(field 1, length-delimited)의 tag
+  private static final int TRANSACTIONS_TAG =
+      (Block.TRANSACTIONS_FIELD_NUMBER << 3) | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
   /**
    * create genesis block from transactions. <br/>
    * conf파일의 genesis.block 항목에 설정되어 있는 값을 기초로 하여 신규 genesis block을 생성한 후
@@ -64,4 +73,39 @@ public class BlockUtil {
   public static boolean isParentOf(BlockCapsule blockCapsule1, BlockCapsule blockCapsule2) {
     return blockCapsule1.getBlockId().equals(blockCapsule2.getParentHash());
   }
+
+  /**
+   * 직렬화된 Block에서 index 번째 transaction만 읽음. <br/>
+   * 다른 transaction과 block header는 decode하지 않고 건너뜀.
+   *
+   * @return index 번째 transaction. block에 transaction이 index 개 이하이면 null
+   */
+  public static Transaction parseTransaction(byte[] blockData, int index)
+      throws InvalidProtocolBufferException {
+    if (index < 0) {
+      return null;
+    }
+    try {
+      CodedInputStream input = CodedInputStream.newInstance(blockData);
+      int count = 0;
+      int tag;
+      while ((tag = input.readTag()) != 0) {
+        if (tag != TRANSACTIONS_TAG) {
+          input.skipField(tag);
+          continue;
+        }
+        if (count++ < index) {
+          input.skipField(tag);
+          continue;
+        }
+        int length = input.readRawVarint32();
+        return Transaction.parser().parseFrom(blockData, input.getTotalBytesRead(), length);
+      }
+      return null;
+    } catch (InvalidProtocolBufferException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new InvalidProtocolBufferException(e.getMessage());
+    }
+  }
 }
@@ -1,7 +1,10 @@
 package com.wizbl.core.capsule.utils;
 
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import lombok.Getter;
@@ -9,6 +12,12 @@ import com.wizbl.common.utils.Sha256Hash;
 
 @Getter
 public class MerkleTree {
+
+    // parent 수가 이 값 이상인 level은 ForkJoinPool에서 나누어 계산함.
+    public static final int PARALLEL_THRESHOLD = 512;
+    // ForkJoin task 하나가 순차적으로 계산하는 parent 수
+    private static final int TASK_SIZE = 128;
+
     private static volatile MerkleTree instance;
     private List<Sha256Hash> hashList;
     private List<Leaf> leaves;
@@ -25,17 +34,102 @@ public class MerkleTree {
         return instance;
     }
 
+    /**
+     * Leaf 구조를 포함한 tree를 새로 만들어 반환함. 호출마다 새 객체를 사용하므로 여러 thread에서 호출해도 됨. <br/>
+     * root hash만 필요한 경우에는 {@link #computeRoot(List)}를 사용함.
+     */
     public MerkleTree createTree(List<Sha256Hash> hashList) {
-        this.leaves = new ArrayList<>();
-        this.hashList = hashList;
-        List<Leaf> leaves = createLeaves(hashList);
+        MerkleTree tree = new MerkleTree();
+        tree.leaves = new ArrayList<>();
+        tree.hashList = hashList;
+        List<Leaf> leaves = tree.createLeaves(hashList);
 
         while (leaves.size() > 1) {
-            leaves = createParentLeaves(leaves);
+            leaves = tree.createParentLeaves(leaves);
+        }
+
+        tree.root = leaves.get(0);
+        return tree;
+    }
+
+    /**
+     * createTree(hashList).getRoot().getHash()와 같은 root hash를 Leaf 객체 없이 배열 위에서 계산함. <br/>
+     * 각 level은 배열 앞쪽에 덮어쓰며, parent 수가 PARALLEL_THRESHOLD 이상인 level은 ForkJoinPool에서 병렬로 계산함.
+     * 상태를 갖지 않으므로 thread-safe 함.
+     *
+     * @return root hash. hashList가 비어있으면 Sha256Hash.ZERO_HASH
+     */
+    public static Sha256Hash computeRoot(List<Sha256Hash> hashList) {
+        if (hashList.isEmpty()) {
+            return Sha256Hash.ZERO_HASH;
+        }
+        Sha256Hash[] level = hashList.toArray(new Sha256Hash[0]);
+        Sha256Hash[] scratch = null;
+        MessageDigest digest = null;
+        int size = level.length;
+        while (size > 1) {
+            int parents = (size + 1) >>> 1;
+            if (parents >= PARALLEL_THRESHOLD) {
+                // 병렬 계산 중에는 다른 task가 읽을 child를 덮어쓸 수 있으므로 별도 배열에 쓰고 교체함.
+                if (scratch == null) {
+                    scratch = new Sha256Hash[parents];
+                }
+                ForkJoinPool.commonPool().invoke(new LevelTask(level, scratch, size, 0, parents));
+                Sha256Hash[] tmp = level;
+                level = scratch;
+                scratch = tmp;
+            } else {
+                if (digest == null) {
+                    digest = Sha256Hash.newDigest();
+                }
+                for (int i = 0; i < parents; i++) {
+                    level[i] = parent(digest, level, size, i);
+                }
+            }
+            size = parents;
         }
+        return level[0];
+    }
+
+    private static Sha256Hash parent(MessageDigest digest, Sha256Hash[] level, int size, int index) {
+        int left = index << 1;
+        if (left + 1 >= size) {
+            return level[left];
+        }
+        digest.update(level[left].getBytes());
+        digest.update(level[left + 1].getBytes());
+        return Sha256Hash.wrap(digest.digest());
+    }
+
+    private static final class LevelTask extends RecursiveAction {
+
+        private final Sha256Hash[] children;
+        private final Sha256Hash[] parents;
+        private final int size;
+        private final int from;
+        private final int to;
 
-        this.root = leaves.get(0);
-        return this;
+        private LevelTask(Sha256Hash[] children, Sha256Hash[] parents, int size, int from, int to) {
+            this.children = children;
+            this.parents = parents;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_SIZE) {
+                MessageDigest digest = Sha256Hash.newDigest();
+                for (int i = from; i < to; i++) {
+                    parents[i] = parent(digest, children, size, i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new LevelTask(children, parents, size, from, mid),
+                    new LevelTask(children, parents, size, mid, to));
+        }
     }
 
     private List<Leaf> createParentLeaves(List<Leaf> leaves) {
@@ -79,7 +173,7 @@ public class MerkleTree {
     }
 
     private Sha256Hash computeHash(Sha256Hash leftHash, Sha256Hash rightHash) {
-        return Sha256Hash.of(leftHash.getByteString().concat(rightHash.getByteString()).toByteArray());
+        return Sha256Hash.of(leftHash.getByteString().concat(rightHash.getByteString()));
     }
 
     @Getter
@@ -124,6 +124,7 @@ public interface Parameter {
     long MAX_TRX_PER_PEER = 200L;
     int NET_MAX_INV_SIZE_IN_MINUTES = 2;
     int MSG_CACHE_DURATION_IN_BLOCKS = 5;
+    double INVENTORY_FILTER_FPP = 0.000_001;
   }
 
 }
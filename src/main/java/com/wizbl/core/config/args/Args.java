@@ -274,6 +274,26 @@ public class Args {
   @Parameter(names = {"--validate-sign-thread"}, description = "Num of validate thread")
   private int validateSignThreadNum;
 
+  @Getter
+  @Setter
+  private int statePrefetchThreadNum;
+
+  @Getter
+  @Setter
+  private boolean voteTallyVerification;
+
+  @Getter
+  @Setter
+  private int solidityFetchWindow;
+
+  @Getter
+  @Setter
+  private boolean solidityValidateSign;
+
+  @Getter
+  @Setter
+  private boolean metricsJmxEnable;
+
   @Getter
   @Setter
   private long maintenanceTimeInterval; // (ms)
@@ -552,6 +572,9 @@ public class Args {
       .orElse(Storage.getTransactionHistoreSwitchFromConfig(config)));
 
 
+    INSTANCE.storage.setRocksDbBlockCacheSize(Storage.getRocksDbBlockCacheSizeFromConfig(config));
+    INSTANCE.storage.setSnapshotKeyFilterSize(Storage.getSnapshotKeyFilterSizeFromConfig(config));
+
     INSTANCE.storage.setPropertyMapFromConfig(config);
 
     INSTANCE.seedNode = new SeedNode();
@@ -733,6 +756,21 @@ public class Args {
     INSTANCE.validateSignThreadNum = config.hasPath("node.validateSignThreadNum") ? config
         .getInt("node.validateSignThreadNum") : Runtime.getRuntime().availableProcessors() / 2;
 
+    INSTANCE.statePrefetchThreadNum = config.hasPath("node.statePrefetchThreadNum") ? config
+        .getInt("node.statePrefetchThreadNum") : Runtime.getRuntime().availableProcessors() / 2;
+
+    INSTANCE.voteTallyVerification = config.hasPath("node.voteTallyVerification") && config
+        .getBoolean("node.voteTallyVerification");
+
+    INSTANCE.solidityFetchWindow = config.hasPath("node.solidityFetchWindow") ? config
+        .getInt("node.solidityFetchWindow") : 16;
+
+    INSTANCE.solidityValidateSign = config.hasPath("node.solidityValidateSign") && config
+        .getBoolean("node.solidityValidateSign");
+
+    INSTANCE.metricsJmxEnable = !config.hasPath("node.metricsJmxEnable") || config
+        .getBoolean("node.metricsJmxEnable");
+
     INSTANCE.walletExtensionApi =
         config.hasPath("node.walletExtensionApi") && config.getBoolean("node.walletExtensionApi");
 
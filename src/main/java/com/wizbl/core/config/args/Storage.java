@@ -47,6 +47,8 @@ public class Storage {
   private static final String INDEX_SWITCH_CONFIG_KEY = "storage.index.switch";
   private static final String TRANSACTIONHISTORY_SWITCH_CONFIG_KEY = "storage.transHistory.switch";
   private static final String PROPERTIES_CONFIG_KEY = "storage.properties";
+  private static final String ROCKSDB_BLOCK_CACHE_SIZE_CONFIG_KEY = "storage.rocksdb.blockCacheSize";
+  private static final String SNAPSHOT_KEY_FILTER_SIZE_CONFIG_KEY = "storage.snapshot.keyFilterSize";
   private static final String DEFAULT_TRANSACTIONHISTORY_SWITCH = "on";
 
   private static final String NAME_CONFIG_KEY = "name";
@@ -59,6 +61,13 @@ public class Storage {
   private static final String WRITE_BUFFER_SIZE_CONFIG_KEY = "writeBufferSize";
   private static final String CACHE_SIZE_CONFIG_KEY = "cacheSize";
   private static final String MAX_OPEN_FILES_CONFIG_KEY = "maxOpenFiles";
+  private static final String ENGINE_CONFIG_KEY = "engine";
+
+  /**
+   * Database engines
+   */
+  public static final String LEVELDB_ENGINE = "LEVELDB";
+  public static final String ROCKSDB_ENGINE = "ROCKSDB";
 
   /**
    * Default values of directory
@@ -84,6 +93,16 @@ public class Storage {
   private static final long DEFAULT_CACHE_SIZE = 10 * 1024 * 1024L;
   private static final int DEFAULT_MAX_OPEN_FILES = 100;
 
+  /**
+   * DEFAULT_ROCKSDB_BLOCK_CACHE_SIZE: 512 MB, LRU block cache shared by all RocksDB databases
+   */
+  private static final long DEFAULT_ROCKSDB_BLOCK_CACHE_SIZE = 512 * 1024 * 1024L;
+
+  /**
+   * DEFAULT_SNAPSHOT_KEY_FILTER_SIZE: expected number of keys in the bloom filter over the snapshot layers of a database
+   */
+  private static final int DEFAULT_SNAPSHOT_KEY_FILTER_SIZE = 1 << 17;
+
   /**
    * Database storage directory: /path/to/{dbDirectory}
    */
@@ -114,6 +133,14 @@ public class Storage {
   @Setter
   private String transactionHistoreSwitch;
 
+  @Getter
+  @Setter
+  private long rocksDbBlockCacheSize;
+
+  @Getter
+  @Setter
+  private int snapshotKeyFilterSize = DEFAULT_SNAPSHOT_KEY_FILTER_SIZE;
+
   /**
    * Other custom database configurations
    */
@@ -122,6 +149,7 @@ public class Storage {
   private static class Property {
     private String name;
     private String path;
+    private String engine = LEVELDB_ENGINE;
     private Options dbOptions;
   }
 
@@ -156,6 +184,16 @@ public class Storage {
         config.getString(INDEX_SWITCH_CONFIG_KEY) : DEFAULT_INDEX_SWTICH;
   }
 
+  public static long getRocksDbBlockCacheSizeFromConfig(final Config config) {
+    return config.hasPath(ROCKSDB_BLOCK_CACHE_SIZE_CONFIG_KEY) ?
+        config.getLong(ROCKSDB_BLOCK_CACHE_SIZE_CONFIG_KEY) : DEFAULT_ROCKSDB_BLOCK_CACHE_SIZE;
+  }
+
+  public static int getSnapshotKeyFilterSizeFromConfig(final Config config) {
+    return config.hasPath(SNAPSHOT_KEY_FILTER_SIZE_CONFIG_KEY) ?
+        config.getInt(SNAPSHOT_KEY_FILTER_SIZE_CONFIG_KEY) : DEFAULT_SNAPSHOT_KEY_FILTER_SIZE;
+  }
+
   public static String getTransactionHistoreSwitchFromConfig(final Config config) {
     return config.hasPath(TRANSACTIONHISTORY_SWITCH_CONFIG_KEY)?
       config.getString(TRANSACTIONHISTORY_SWITCH_CONFIG_KEY) : DEFAULT_TRANSACTIONHISTORY_SWITCH;
@@ -200,6 +238,19 @@ public class Storage {
     return createDefaultDbOptions();
   }
 
+  /**
+   * Get database engine by name of database
+   *
+   * @param dbName name of database
+   * @return LEVELDB_ENGINE or ROCKSDB_ENGINE
+   */
+  public String getEngineByDbName(String dbName) {
+    if (hasProperty(dbName)) {
+      return getProperty(dbName).getEngine();
+    }
+    return LEVELDB_ENGINE;
+  }
+
   /**
    * Only for unit test on db
    */
@@ -253,6 +304,14 @@ public class Storage {
       property.setPath(path);
     }
 
+    if (conf.containsKey(ENGINE_CONFIG_KEY)) {
+      String engine = conf.get(ENGINE_CONFIG_KEY).unwrapped().toString().toUpperCase();
+      if (!LEVELDB_ENGINE.equals(engine) && !ROCKSDB_ENGINE.equals(engine)) {
+        throw new IllegalArgumentException("[storage.properties] engine must be LEVELDB or ROCKSDB.");
+      }
+      property.setEngine(engine);
+    }
+
     // Check, get and set fields of Options
     Options dbOptions = createDefaultDbOptions();
 
@@ -18,6 +18,7 @@ package com.wizbl.core.db;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +28,7 @@ import com.wizbl.common.utils.Sha256Hash;
 import com.wizbl.core.capsule.BlockCapsule;
 import com.wizbl.core.capsule.BlockCapsule.BlockId;
 import com.wizbl.core.exception.BadItemException;
+import com.wizbl.core.exception.ItemNotFoundException;
 
 @Slf4j
 @Component
@@ -37,6 +39,22 @@ public class BlockStore extends Brte2StoreWithRevoking<BlockCapsule> {
     super(dbName);
   }
 
+  /**
+   * block을 decode하지 않고 저장된 데이터를 그대로 반환함.
+   */
+  public byte[] getData(Sha256Hash hash) throws ItemNotFoundException {
+    return revokingDB.get(hash.getBytes());
+  }
+
+  /**
+   * blockNum 이상인 첫 번째 block의 직렬화된 데이터를 decode하지 않고 반환함. 없으면 null
+   */
+  public byte[] getDataByNum(long blockNum) {
+    BlockId startBlockId = new BlockId(Sha256Hash.ZERO_HASH, blockNum);
+    Set<byte[]> values = revokingDB.getValuesNext(startBlockId.getBytes(), 1);
+    return values.isEmpty() ? null : values.iterator().next();
+  }
+
   public List<BlockCapsule> getLimitNumber(long startNumber, long limit) {
     BlockId startBlockId = new BlockId(Sha256Hash.ZERO_HASH, startNumber);
     return revokingDB.getValuesNext(startBlockId.getBytes(), limit).stream()
@@ -2,7 +2,6 @@ package com.wizbl.core.db;
 
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Streams;
 import com.google.common.reflect.TypeToken;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -112,6 +111,13 @@ public abstract class Brte2StoreWithRevoking<T extends ProtoCapsule> implements
     return revokingDB.has(key);
   }
 
+  /**
+   * key에 해당하는 값을 persisted layer에서 미리 읽어 DB cache를 채움. 상태 변경은 발생하지 않음.
+   */
+  public void prefetch(byte[] key) {
+    revokingDB.prefetch(key);
+  }
+
   @Override
   public String getName() {
     return getClass().getSimpleName();
@@ -139,7 +145,7 @@ public abstract class Brte2StoreWithRevoking<T extends ProtoCapsule> implements
   }
 
   public long size() {
-    return Streams.stream(revokingDB.iterator()).count();
+    return revokingDB.size();
   }
 
   public void setMode(boolean mode) {
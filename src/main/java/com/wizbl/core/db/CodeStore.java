@@ -1,6 +1,5 @@
 package com.wizbl.core.db;
 
-import com.google.common.collect.Streams;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,7 +21,7 @@ public class CodeStore extends Brte2StoreWithRevoking<CodeCapsule> {
   }
 
   public long getTotalCodes() {
-    return Streams.stream(revokingDB.iterator()).count();
+    return revokingDB.size();
   }
 
   private static CodeStore instance;
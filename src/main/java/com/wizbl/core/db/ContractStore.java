@@ -1,6 +1,5 @@
 package com.wizbl.core.db;
 
-import com.google.common.collect.Streams;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +26,7 @@ public class ContractStore extends Brte2StoreWithRevoking<ContractCapsule> {
    * get total transaction.
    */
   public long getTotalContracts() {
-    return Streams.stream(revokingDB.iterator()).count();
+    return revokingDB.size();
   }
 
   private static ContractStore instance;
@@ -6,7 +6,10 @@ import com.wizbl.core.capsule.BytesCapsule;
 import com.wizbl.core.config.Parameter;
 import com.wizbl.core.config.Parameter.ChainConstant;
 import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db.common.WrappedByteArray;
+import com.wizbl.core.db2.core.RevokingDBWithCachingNewValue;
 import com.google.protobuf.ByteString;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +17,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 
 /**
@@ -130,6 +137,9 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   //This value is only allowed to be 0, 1, -1
   private static final byte[] REMOVE_THE_POWER_OF_THE_GR = "REMOVE_THE_POWER_OF_THE_GR".getBytes();
 
+  // VotesStore의 entry가 기록된 maintenance 주기. maintenance마다 1씩 증가함.
+  private static final byte[] VOTE_EPOCH = "VOTE_EPOCH".getBytes();
+
   //This value is only allowed to be 0, 1, -1
   private static final byte[] ALLOW_DELEGATE_RESOURCE = "ALLOW_DELEGATE_RESOURCE".getBytes();
 
@@ -155,6 +165,20 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   //This value is only allowed to be 0, 1, -1
   private static final byte[] ALLOW_TVM_TRANSFER_TRC10 = "ALLOW_TVM_TRANSFER_TRC10".getBytes();
 
+  /**
+   * long, int 형식으로 읽은 property 값의 cache. <br/>
+   *  - put, delete 시 revoking layer에 먼저 쓰고 cache를 갱신함(write-through). <br/>
+   *  - revoke, pop, fork 전환으로 head가 되돌아가면 revokeVersion이 바뀌므로 이전 version의 값은 사용하지 않음. <br/>
+   *  - db version 1 및 solidity mode에서는 cache를 사용하지 않음.
+   */
+  private final Map<WrappedByteArray, CachedLong> longCache = new ConcurrentHashMap<>();
+
+  @AllArgsConstructor
+  private static class CachedLong {
+
+    private final long revokeVersion;
+    private final long value;
+  }
 
   @Autowired
   private DynamicPropertiesStore(@Value("properties") String dbName) {
@@ -548,9 +572,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTokenIdNum() {
-    return Optional.ofNullable(getUnchecked(TOKEN_ID_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOKEN_ID_NUM)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOKEN_ID_NUM"));
   }
@@ -561,9 +583,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTokenUpdateDone() {
-    return Optional.ofNullable(getUnchecked(TOKEN_UPDATE_DONE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOKEN_UPDATE_DONE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOKEN_UPDATE_DONE"));
   }
@@ -576,9 +596,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public int getBlockFilledSlotsIndex() {
-    return Optional.ofNullable(getUnchecked(BLOCK_FILLED_SLOTS_INDEX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(BLOCK_FILLED_SLOTS_INDEX)
         .orElseThrow(
             () -> new IllegalArgumentException("not found BLOCK_FILLED_SLOTS_INDEX"));
   }
@@ -590,9 +608,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public int getMaxFrozenTime() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(MAX_FROZEN_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found MAX_FROZEN_TIME"));
   }
@@ -604,9 +620,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public int getMinFrozenTime() {
-    return Optional.ofNullable(getUnchecked(MIN_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(MIN_FROZEN_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found MIN_FROZEN_TIME"));
   }
@@ -618,9 +632,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public int getMaxFrozenSupplyNumber() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(MAX_FROZEN_SUPPLY_NUMBER)
         .orElseThrow(
             () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_NUMBER"));
   }
@@ -632,9 +644,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public int getMaxFrozenSupplyTime() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(MAX_FROZEN_SUPPLY_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_TIME"));
   }
@@ -646,9 +656,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public int getMinFrozenSupplyTime() {
-    return Optional.ofNullable(getUnchecked(MIN_FROZEN_SUPPLY_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(MIN_FROZEN_SUPPLY_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found MIN_FROZEN_SUPPLY_TIME"));
   }
@@ -660,9 +668,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public int getWitnessAllowanceFrozenTime() {
-    return Optional.ofNullable(getUnchecked(WITNESS_ALLOWANCE_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(WITNESS_ALLOWANCE_FROZEN_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found WITNESS_ALLOWANCE_FROZEN_TIME"));
   }
@@ -674,9 +680,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getMaintenanceTimeInterval() {
-    return Optional.ofNullable(getUnchecked(MAINTENANCE_TIME_INTERVAL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(MAINTENANCE_TIME_INTERVAL)
         .orElseThrow(
             () -> new IllegalArgumentException("not found MAINTENANCE_TIME_INTERVAL"));
   }
@@ -688,9 +692,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getAccountUpgradeCost() {
-    return Optional.ofNullable(getUnchecked(ACCOUNT_UPGRADE_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ACCOUNT_UPGRADE_COST)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ACCOUNT_UPGRADE_COST"));
   }
@@ -702,9 +704,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getWitnessPayPerBlock() {
-    return Optional.ofNullable(getUnchecked(WITNESS_PAY_PER_BLOCK))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(WITNESS_PAY_PER_BLOCK)
         .orElseThrow(
             () -> new IllegalArgumentException("not found WITNESS_PAY_PER_BLOCK"));
   }
@@ -716,9 +716,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getWitnessStandbyAllowance() {
-    return Optional.ofNullable(getUnchecked(WITNESS_STANDBY_ALLOWANCE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(WITNESS_STANDBY_ALLOWANCE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found WITNESS_STANDBY_ALLOWANCE"));
   }
@@ -729,9 +727,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getOneDayNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.ONE_DAY_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.ONE_DAY_NET_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ONE_DAY_NET_LIMIT"));
   }
@@ -742,9 +738,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getPublicNetUsage() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_USAGE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.PUBLIC_NET_USAGE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found PUBLIC_NET_USAGE"));
   }
@@ -755,9 +749,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getPublicNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.PUBLIC_NET_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found PUBLIC_NET_LIMIT"));
   }
@@ -768,9 +760,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getPublicNetTime() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.PUBLIC_NET_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found PUBLIC_NET_TIME"));
   }
@@ -781,9 +771,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getFreeNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.FREE_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.FREE_NET_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found FREE_NET_LIMIT"));
   }
@@ -794,9 +782,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalNetWeight() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_NET_WEIGHT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_NET_WEIGHT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_NET_WEIGHT"));
   }
@@ -807,9 +793,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyWeight() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_WEIGHT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_ENERGY_WEIGHT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_ENERGY_WEIGHT"));
   }
@@ -821,9 +805,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_NET_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_NET_LIMIT"));
   }
@@ -846,9 +828,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_ENERGY_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_ENERGY_LIMIT"));
   }
@@ -859,9 +839,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyCurrentLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_CURRENT_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_ENERGY_CURRENT_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_ENERGY_CURRENT_LIMIT"));
   }
@@ -872,9 +850,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyTargetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_TARGET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_ENERGY_TARGET_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_ENERGY_TARGET_LIMIT"));
   }
@@ -885,9 +861,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyAverageUsage() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_USAGE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_USAGE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_ENERGY_AVERAGE_USAGE"));
   }
@@ -898,9 +872,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyAverageTime() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_NET_AVERAGE_TIME"));
   }
@@ -912,9 +884,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getEnergyFee() {
-    return Optional.ofNullable(getUnchecked(ENERGY_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ENERGY_FEE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ENERGY_FEE"));
   }
@@ -925,9 +895,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getManaFee() {
-    return Optional.ofNullable(getUnchecked(MANA_FEE))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
+    return getCachedLong(MANA_FEE)
             .orElseThrow(
                     () -> new IllegalArgumentException("not found MANA_FEE"));
   }
@@ -938,9 +906,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getFreeManaLimit() {
-    return Optional.ofNullable(getUnchecked(FREE_MANA_LIMIT))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
+    return getCachedLong(FREE_MANA_LIMIT)
             .orElseThrow(
                     () -> new IllegalArgumentException("not found FREE_MANA_LIMIT"));
   }
@@ -951,9 +917,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getMaxCpuTimeOfOneTx() {
-    return Optional.ofNullable(getUnchecked(MAX_CPU_TIME_OF_ONE_TX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(MAX_CPU_TIME_OF_ONE_TX)
         .orElseThrow(
             () -> new IllegalArgumentException("not found MAX_CPU_TIME_OF_ONE_TX"));
   }
@@ -964,9 +928,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getCreateAccountFee() {
-    return Optional.ofNullable(getUnchecked(CREATE_ACCOUNT_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(CREATE_ACCOUNT_FEE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found CREATE_ACCOUNT_FEE"));
   }
@@ -978,9 +940,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getCreateNewAccountFeeInSystemContract() {
-    return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT)
         .orElseThrow(
             () -> new IllegalArgumentException(
                 "not found CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT"));
@@ -992,9 +952,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getCreateNewAccountBandwidthRate() {
-    return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_BANDWIDTH_RATE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(CREATE_NEW_ACCOUNT_BANDWIDTH_RATE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found CREATE_NsEW_ACCOUNT_BANDWIDTH_RATE2"));
   }
@@ -1005,9 +963,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTransactionFee() {
-    return Optional.ofNullable(getUnchecked(TRANSACTION_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TRANSACTION_FEE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TRANSACTION_FEE"));
   }
@@ -1018,9 +974,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getAssetIssueFee() {
-    return Optional.ofNullable(getUnchecked(ASSET_ISSUE_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ASSET_ISSUE_FEE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ASSET_ISSUE_FEE"));
   }
@@ -1031,9 +985,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getExchangeCreateFee() {
-    return Optional.ofNullable(getUnchecked(EXCHANGE_CREATE_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(EXCHANGE_CREATE_FEE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found EXCHANGE_CREATE_FEE"));
   }
@@ -1044,9 +996,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getExchangeBalanceLimit() {
-    return Optional.ofNullable(getUnchecked(EXCHANGE_BALANCE_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(EXCHANGE_BALANCE_LIMIT)
         .orElseThrow(
             () -> new IllegalArgumentException("not found EXCHANGE_BALANCE_LIMIT"));
   }
@@ -1057,9 +1007,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalTransactionCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_TRANSACTION_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOTAL_TRANSACTION_COST)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_TRANSACTION_COST"));
   }
@@ -1070,9 +1018,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalCreateAccountCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_CREATE_ACCOUNT_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOTAL_CREATE_ACCOUNT_COST)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_CREATE_ACCOUNT_COST"));
   }
@@ -1083,9 +1029,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalCreateWitnessCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_CREATE_WITNESS_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOTAL_CREATE_WITNESS_COST)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_CREATE_WITNESS_COST"));
   }
@@ -1096,9 +1040,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalStoragePool() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_POOL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOTAL_STORAGE_POOL)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_STORAGE_POOL"));
   }
@@ -1109,9 +1051,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalStorageTax() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_TAX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOTAL_STORAGE_TAX)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_STORAGE_TAX"));
   }
@@ -1122,9 +1062,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalStorageReserved() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_RESERVED))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(TOTAL_STORAGE_RESERVED)
         .orElseThrow(
             () -> new IllegalArgumentException("not found TOTAL_STORAGE_RESERVED"));
   }
@@ -1135,9 +1073,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getStorageExchangeTaxRate() {
-    return Optional.ofNullable(getUnchecked(STORAGE_EXCHANGE_TAX_RATE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(STORAGE_EXCHANGE_TAX_RATE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found STORAGE_EXCHANGE_TAX_RATE"));
   }
@@ -1148,22 +1084,29 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getRemoveThePowerOfTheGr() {
-    return Optional.ofNullable(getUnchecked(REMOVE_THE_POWER_OF_THE_GR))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(REMOVE_THE_POWER_OF_THE_GR)
         .orElseThrow(
             () -> new IllegalArgumentException("not found REMOVE_THE_POWER_OF_THE_GR"));
   }
 
+  public void saveVoteEpoch(long epoch) {
+    this.put(VOTE_EPOCH,
+        new BytesCapsule(ByteArray.fromLong(epoch)));
+  }
+
+  public long getVoteEpoch() {
+    return getCachedLong(VOTE_EPOCH)
+        .orElseThrow(
+            () -> new IllegalArgumentException("not found VOTE_EPOCH"));
+  }
+
   public void saveAllowDelegateResource(long value) {
     this.put(ALLOW_DELEGATE_RESOURCE,
         new BytesCapsule(ByteArray.fromLong(value)));
   }
 
   public long getAllowDelegateResource() {
-    return Optional.ofNullable(getUnchecked(ALLOW_DELEGATE_RESOURCE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ALLOW_DELEGATE_RESOURCE)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ALLOW_DELEGATE_RESOURCE"));
   }
@@ -1174,9 +1117,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowAdaptiveEnergy() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ADAPTIVE_ENERGY))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ALLOW_ADAPTIVE_ENERGY)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ALLOW_ADAPTIVE_ENERGY"));
   }
@@ -1187,9 +1128,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowTvmTransferTrc10() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_TRANSFER_TRC10))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ALLOW_TVM_TRANSFER_TRC10)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ALLOW_TVM_TRANSFER_TRC10"));
   }
@@ -1204,9 +1143,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowUpdateAccountName() {
-    return Optional.ofNullable(getUnchecked(ALLOW_UPDATE_ACCOUNT_NAME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ALLOW_UPDATE_ACCOUNT_NAME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ALLOW_UPDATE_ACCOUNT_NAME"));
   }
@@ -1217,9 +1154,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowSameTokenName() {
-    return Optional.ofNullable(getUnchecked(ALLOW_SAME_TOKEN_NAME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ALLOW_SAME_TOKEN_NAME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ALLOW_SAME_TOKEN_NAME"));
   }
@@ -1230,9 +1165,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowCreationOfContracts() {
-    return Optional.ofNullable(getUnchecked(ALLOW_CREATION_OF_CONTRACTS))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(ALLOW_CREATION_OF_CONTRACTS)
         .orElseThrow(
             () -> new IllegalArgumentException("not found ALLOW_CREATION_OF_CONTRACTS"));
   }
@@ -1279,9 +1212,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
 
 
   public long getLatestSolidifiedBlockNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_SOLIDIFIED_BLOCK_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(LATEST_SOLIDIFIED_BLOCK_NUM)
         .orElseThrow(
             () -> new IllegalArgumentException("not found latest SOLIDIFIED_BLOCK_NUM"));
   }
@@ -1291,9 +1222,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getLatestProposalNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_PROPOSAL_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(LATEST_PROPOSAL_NUM)
         .orElseThrow(
             () -> new IllegalArgumentException("not found latest PROPOSAL_NUM"));
   }
@@ -1303,9 +1232,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
   }
 
   public long getLatestExchangeNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_EXCHANGE_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(LATEST_EXCHANGE_NUM)
         .orElseThrow(
             () -> new IllegalArgumentException("not found latest EXCHANGE_NUM"));
   }
@@ -1314,9 +1241,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
    * get timestamp of creating global latest block.
    */
   public long getLatestBlockHeaderTimestamp() {
-    return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_TIMESTAMP))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(LATEST_BLOCK_HEADER_TIMESTAMP)
         .orElseThrow(() -> new IllegalArgumentException("not found latest block header timestamp"));
   }
 
@@ -1324,16 +1249,12 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
    * get number of global latest block.
    */
   public long getLatestBlockHeaderNumber() {
-    return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(LATEST_BLOCK_HEADER_NUMBER)
         .orElseThrow(() -> new IllegalArgumentException("not found latest block header number"));
   }
 
   public int getStateFlag() {
-    return Optional.ofNullable(getUnchecked(STATE_FLAG))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
+    return getCachedInt(STATE_FLAG)
         .orElseThrow(() -> new IllegalArgumentException("not found maintenance flag"));
   }
 
@@ -1381,9 +1302,7 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
 
 
   public long getNextMaintenanceTime() {
-    return Optional.ofNullable(getUnchecked(NEXT_MAINTENANCE_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
+    return getCachedLong(NEXT_MAINTENANCE_TIME)
         .orElseThrow(
             () -> new IllegalArgumentException("not found NEXT_MAINTENANCE_TIME"));
   }
@@ -1460,4 +1379,90 @@ public class DynamicPropertiesStore extends Brte2StoreWithRevoking<BytesCapsule>
     byte[] value = revokingDB.getUnchecked(FORK_CONTROLLER);
     return value == null ? Boolean.FALSE : Boolean.valueOf(new String(value));
   }
+
+  @Override
+  public void put(byte[] key, BytesCapsule item) {
+    RevokingDBWithCachingNewValue db = getCacheableDB();
+    if (db == null) {
+      super.put(key, item);
+      return;
+    }
+
+    synchronized (db) {
+      super.put(key, item);
+      WrappedByteArray cacheKey = WrappedByteArray.of(key);
+      // long 값으로 읽힌 적이 있는 key만 cache에 유지함.
+      if (longCache.containsKey(cacheKey)) {
+        if (item == null || item.getData() == null) {
+          longCache.remove(cacheKey);
+        } else {
+          longCache.put(WrappedByteArray.copyOf(key),
+              new CachedLong(db.getRevokeVersion(), ByteArray.toLong(item.getData())));
+        }
+      }
+    }
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    RevokingDBWithCachingNewValue db = getCacheableDB();
+    if (db == null) {
+      super.delete(key);
+      return;
+    }
+
+    synchronized (db) {
+      super.delete(key);
+      longCache.remove(WrappedByteArray.of(key));
+    }
+  }
+
+  private OptionalInt getCachedInt(byte[] key) {
+    OptionalLong value = getCachedLong(key);
+    return value.isPresent() ? OptionalInt.of((int) value.getAsLong()) : OptionalInt.empty();
+  }
+
+  /**
+   * key의 값을 long으로 반환함. 값이 없으면 OptionalLong.empty()를 반환함. <br/>
+   * cache에 현재 revokeVersion의 값이 있으면 revokingDB 조회와 BytesCapsule 생성을 생략함.
+   */
+  private OptionalLong getCachedLong(byte[] key) {
+    RevokingDBWithCachingNewValue db = getCacheableDB();
+    if (db == null) {
+      return readLong(key);
+    }
+
+    // cache의 값을 읽은 뒤 version을 확인함. retreat(), reset()은 head를 되돌리기 전에 version을 증가시키므로
+    // 여기서 같은 version을 읽었다면 그 시점까지 head는 되돌아가지 않았고 cache의 값이 현재 값임.
+    WrappedByteArray cacheKey = WrappedByteArray.of(key);
+    CachedLong cached = longCache.get(cacheKey);
+    if (cached != null && cached.revokeVersion == db.getRevokeVersion()) {
+      return OptionalLong.of(cached.value);
+    }
+
+    // put, retreat와 같은 monitor를 잡고 읽어야 이전 값이 cache에 들어가지 않음.
+    synchronized (db) {
+      OptionalLong value = readLong(key);
+      if (value.isPresent()) {
+        longCache.put(cacheKey, new CachedLong(db.getRevokeVersion(), value.getAsLong()));
+      } else {
+        longCache.remove(cacheKey);
+      }
+      return value;
+    }
+  }
+
+  private OptionalLong readLong(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return value == null ? OptionalLong.empty() : OptionalLong.of(ByteArray.toLong(value));
+  }
+
+  private RevokingDBWithCachingNewValue getCacheableDB() {
+    if (!(revokingDB instanceof RevokingDBWithCachingNewValue)) {
+      return null;
+    }
+
+    RevokingDBWithCachingNewValue db = (RevokingDBWithCachingNewValue) revokingDB;
+    return db.isSolidityMode() ? null : db;
+  }
 }
@@ -1,5 +1,7 @@
 package com.wizbl.core.db;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.wizbl.common.overlay.discover.node.Node;
 import com.wizbl.common.runtime.config.VMConfig;
 import com.wizbl.common.utils.*;
@@ -77,6 +79,8 @@ public class Manager {
     @Autowired
     private VotesStore votesStore;
     @Autowired
+    private VoteDeltaStore voteDeltaStore;
+    @Autowired
     private ProposalStore proposalStore;
     @Autowired
     private ExchangeStore exchangeStore;
@@ -133,7 +137,18 @@ public class Manager {
     @Setter
     private ProposalController proposalController;
 
-    private ExecutorService validateSignService;
+    @Autowired
+    private SignatureVerifier signatureVerifier;
+
+    private StatePrefetcher statePrefetcher;
+
+    private final Timer pushBlockTimer = MetricsUtil.timer("blockchain.pushBlock");
+
+    private final Histogram pushBlockTransactions = MetricsUtil.histogram("blockchain.pushBlock.transactions");
+
+    private final Timer processTransactionTimer = MetricsUtil.timer("blockchain.processTransaction");
+
+    private final Timer preValidateSignTimer = MetricsUtil.timer("blockchain.preValidateTransactionSign");
 
     private Thread repushThread;
 
@@ -192,6 +207,10 @@ public class Manager {
         return this.votesStore;
     }
 
+    public VoteDeltaStore getVoteDeltaStore() {
+        return this.voteDeltaStore;
+    }
+
     public ProposalStore getProposalStore() {
         return this.proposalStore;
     }
@@ -336,6 +355,7 @@ public class Manager {
         this.repushTransactions = new LinkedBlockingQueue<>();
 
         this.initGenesis();
+        this.witnessController.initVoteTally();
         try {
             this.khaosDb.start(getBlockById(getDynamicPropertiesStore().getLatestBlockHeaderHash()));
         } catch (ItemNotFoundException e) {
@@ -363,7 +383,7 @@ public class Manager {
         }
 
         revokingStore.enable();   // db가 사용가능하도록 활성화
-        validateSignService = Executors.newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
+        statePrefetcher = new StatePrefetcher(this, Args.getInstance().getStatePrefetchThreadNum());
         repushThread = new Thread(repushLoop);
         repushThread.start();
     }
@@ -849,7 +869,9 @@ public class Manager {
             ReceiptCheckErrException, VMIllegalException {
 
         long start = System.currentTimeMillis();
-        try (PendingManager pm = new PendingManager(this)) {
+        pushBlockTransactions.update(block.getTransactions().size());
+        try (Timer.Context ignored = pushBlockTimer.time();
+             PendingManager pm = new PendingManager(this)) {
 
             if (!block.generatedByMyself) {
                 if (!block.validateSignature()) {
@@ -1055,6 +1077,15 @@ public class Manager {
         return this.khaosDb.containBlock(hash) ? this.khaosDb.getBlock(hash) : blockStore.get(hash.getBytes());
     }
 
+    /**
+     * getBlockById와 같은 block을 BlockCapsule로 decode하지 않고 직렬화된 데이터로 반환함. <br/>
+     * khaosDb에 있는 block은 이미 decode된 capsule의 데이터를 사용함.
+     */
+    public byte[] getBlockDataById(final Sha256Hash hash) throws ItemNotFoundException {
+        BlockCapsule block = this.khaosDb.getBlock(hash);
+        return block != null ? block.getData() : blockStore.getData(hash);
+    }
+
 
     /**
      * judge has blocks.
@@ -1080,6 +1111,16 @@ public class Manager {
             return false;
         }
 
+        try (Timer.Context ignored = processTransactionTimer.time()) {
+            return executeTransaction(trxCap, blockCap);
+        }
+    }
+
+    private boolean executeTransaction(final TransactionCapsule trxCap, BlockCapsule blockCap)
+            throws ValidateSignatureException, ContractValidateException, ContractExeException,
+            AccountResourceInsufficientException, TransactionExpirationException, TooBigTransactionException, TooBigTransactionResultException,
+            DupTransactionException, TaposException, ReceiptCheckErrException, VMIllegalException {
+
         // 1. TaPoS 검증
         validateTapos(trxCap);
         // 2. transaction size, expiration time 검증
@@ -1112,7 +1153,7 @@ public class Manager {
 
         if (Objects.nonNull(blockCap)) {
             trace.setResult();
-            if (!blockCap.getInstance().getBlockHeader().getWitnessSignature().isEmpty()) {
+            if (!blockCap.getInstanceForHeader().getBlockHeader().getWitnessSignature().isEmpty()) {
                 if (trace.checkNeedRetry()) {
                     String txId = Hex.toHexString(trxCap.getTransactionId().getBytes());
                     logger.info("Retry for tx id: {}", txId);
@@ -1237,7 +1278,7 @@ public class Manager {
 
             // 4-2. check the block size
             // TODO +3은 무슨 의미인 것인가???
-            if ((blockCapsule.getInstance().getSerializedSize() + trx.getSerializedSize() + 3) > ChainConstant.BLOCK_SIZE) {
+            if ((blockCapsule.getSerializedSize() + trx.getSerializedSize() + 3) > ChainConstant.BLOCK_SIZE) {
                 postponedTrxCount++;
                 continue;
             }
@@ -1364,12 +1405,20 @@ public class Manager {
             throw new ValidateScheduleException("validateWitnessSchedule error");
         }
 
-        for (TransactionCapsule transactionCapsule : block.getTransactions()) {
-            transactionCapsule.setBlockNum(block.getNum());
-            if (block.generatedByMyself) {
-                transactionCapsule.setVerified(true);
+        // transaction 실행과 동시에 접근 대상 account 정보를 다른 thread에서 미리 읽어 둠. 완료를 기다리지 않음.
+        StatePrefetcher.Prefetch prefetch = statePrefetcher.prefetch(block.getTransactions());
+        try {
+            int indexInBlock = 0;
+            for (TransactionCapsule transactionCapsule : block.getTransactions()) {
+                transactionCapsule.setBlockNum(block.getNum());
+                transactionCapsule.setIndexInBlock(indexInBlock++);
+                if (block.generatedByMyself && !block.transactionsPreVerified) {
+                    transactionCapsule.setVerified(true);
+                }
+                processTransaction(transactionCapsule, block);
             }
-            processTransaction(transactionCapsule, block);
+        } finally {
+            prefetch.cancel();
         }
 
         boolean needMaint = needMaintenance(block.getTimeStamp());
@@ -1633,6 +1682,7 @@ public class Manager {
         closeOneStore(recentBlockStore);
         closeOneStore(transactionHistoryStore);
         closeOneStore(votesStore);
+        closeOneStore(voteDeltaStore);
         closeOneStore(delegatedResourceStore);
         closeOneStore(assetIssueV2Store);
         closeOneStore(exchangeV2Store);
@@ -1664,31 +1714,9 @@ public class Manager {
         return false;
     }
 
-    private static class ValidateSignTask implements Callable<Boolean> {
-
-        private TransactionCapsule trx;
-        private CountDownLatch countDownLatch;
-
-        ValidateSignTask(TransactionCapsule trx, CountDownLatch countDownLatch) {
-            this.trx = trx;
-            this.countDownLatch = countDownLatch;
-        }
-
-        @Override
-        public Boolean call() throws ValidateSignatureException {
-            try {
-                trx.validateSignature();
-            } catch (ValidateSignatureException e) {
-                throw e;
-            } finally {
-                countDownLatch.countDown();
-            }
-            return true;
-        }
-    }
-
     /**
-     * validateTransactionSign을 진행하는 메소드, CountDownLatch, Future를 이용하고는 있지만 구체적으로 이 부분이 어떻게 작동하는지는 확인이 필요함.
+     * 블록에 포함된 transaction의 서명을 SignatureVerifier를 통해 병렬로 검증함. <br/>
+     * 잘못된 서명이 하나라도 있으면 나머지 검증을 중단하고 ValidateSignatureException을 던짐.
      * @param block
      * @throws InterruptedException
      * @throws ValidateSignatureException
@@ -1696,22 +1724,8 @@ public class Manager {
     public synchronized void preValidateTransactionSign(BlockCapsule block) throws InterruptedException, ValidateSignatureException {
         logger.info("PreValidate Transaction Sign, size:" + block.getTransactions().size() + ",block num:" + block.getNum());
 
-        int transSize = block.getTransactions().size();
-        CountDownLatch countDownLatch = new CountDownLatch(transSize);
-        List<Future<Boolean>> futures = new ArrayList<>(transSize);
-
-        for (TransactionCapsule transaction : block.getTransactions()) {
-            Future<Boolean> future = validateSignService.submit(new ValidateSignTask(transaction, countDownLatch));
-            futures.add(future);
-        }
-        countDownLatch.await(); // TODO -  await()메소드의 위치가 왜 여기에 오는지 모르겠음.
-
-        for (Future<Boolean> future : futures) {
-            try {
-                future.get();
-            } catch (ExecutionException e) {
-                throw new ValidateSignatureException(e.getCause().getMessage());
-            }
+        try (Timer.Context ignored = preValidateSignTimer.time()) {
+            signatureVerifier.verify(block.getTransactions());
         }
     }
 
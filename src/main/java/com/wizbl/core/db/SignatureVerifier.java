@@ -0,0 +1,122 @@
+package com.wizbl.core.db;
+
+import com.codahale.metrics.Timer;
+import com.wizbl.common.utils.MetricsUtil;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.exception.ValidateSignatureException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * transaction 서명 검증을 위한 공용 서비스 <br/>
+ *  - 블록 검증(Manager.preValidateTransactionSign)과 네트워크로 수신한 transaction(TrxHandler)이 같은 pool을 사용함. <br/>
+ *  - 서명 목록을 chunk 단위로 나누어 work-stealing pool에서 검증하며, 잘못된 서명이 발견되면 남은 chunk는 취소함.
+ */
+@Slf4j
+@Component
+public class SignatureVerifier {
+
+  // worker 당 chunk 수. chunk가 작을수록 work-stealing으로 부하가 고르게 분산됨.
+  private static final int CHUNKS_PER_THREAD = 4;
+  private static final int MIN_CHUNK_SIZE = 8;
+
+  private ForkJoinPool verifyPool;
+
+  // 요청 후 chunk의 검증이 시작될 때까지의 대기 시간
+  @Getter
+  private final Timer queueTimer = MetricsUtil.timer("signature.queue");
+  // chunk 하나의 검증 시간
+  @Getter
+  private final Timer chunkTimer = MetricsUtil.timer("signature.chunk");
+  // verify() 호출 전체의 소요 시간
+  @Getter
+  private final Timer batchTimer = MetricsUtil.timer("signature.batch");
+
+  @PostConstruct
+  private void init() {
+    int threadNum = Math.max(1, Args.getInstance().getValidateSignThreadNum());
+    verifyPool = new ForkJoinPool(threadNum, pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("validate-sign-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+  }
+
+  /**
+   * 모든 transaction의 서명을 검증함. 검증된 transaction은 isVerified가 true로 설정되므로
+   * 이후 pushTransaction 등에서 다시 검증하지 않음.
+   *
+   * @throws ValidateSignatureException 하나라도 서명이 잘못된 경우
+   */
+  public void verify(List<TransactionCapsule> transactions)
+      throws InterruptedException, ValidateSignatureException {
+    if (transactions.isEmpty()) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    try (Timer.Context ignored = batchTimer.time()) {
+      AtomicBoolean failed = new AtomicBoolean(false);
+      AtomicReference<ValidateSignatureException> failure = new AtomicReference<>();
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+      int chunkSize = Math.max(MIN_CHUNK_SIZE,
+          (transactions.size() + verifyPool.getParallelism() * CHUNKS_PER_THREAD - 1)
+              / (verifyPool.getParallelism() * CHUNKS_PER_THREAD));
+      for (int from = 0; from < transactions.size(); from += chunkSize) {
+        List<TransactionCapsule> chunk = transactions
+            .subList(from, Math.min(from + chunkSize, transactions.size()));
+        tasks.add(verifyPool.submit(() -> verifyChunk(chunk, start, failed, failure)));
+      }
+
+      for (ForkJoinTask<?> task : tasks) {
+        if (failed.get()) {
+          task.cancel(false);
+          continue;
+        }
+        try {
+          task.get();
+        } catch (CancellationException e) {
+          // 다른 chunk의 실패로 취소됨
+        } catch (ExecutionException e) {
+          failed.set(true);
+          failure.compareAndSet(null, new ValidateSignatureException(e.getCause().getMessage()));
+        }
+      }
+
+      if (failure.get() != null) {
+        throw failure.get();
+      }
+    }
+  }
+
+  private void verifyChunk(List<TransactionCapsule> chunk, long submitTime, AtomicBoolean failed,
+      AtomicReference<ValidateSignatureException> failure) {
+    queueTimer.update(System.nanoTime() - submitTime, TimeUnit.NANOSECONDS);
+    try (Timer.Context ignored = chunkTimer.time()) {
+      for (TransactionCapsule trx : chunk) {
+        if (failed.get()) {
+          return;
+        }
+        trx.validateSignature();
+      }
+    } catch (ValidateSignatureException e) {
+      failure.compareAndSet(null, e);
+      failed.set(true);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.wizbl.core.db;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.protos.Contract.TriggerSmartContract;
+import com.wizbl.protos.Protocol.Transaction;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 블록에 포함된 transaction이 접근하는 account, contract 정보를 병렬로 미리 읽어서 DB cache를 채우는 클래스 <br/>
+ * transaction을 병렬로 실행하는 것이 아니며, 실행은 기존과 동일하게 Manager.processTransaction()에서
+ * 블록 순서대로 직렬로 진행됨. <br/>
+ * prefetch 작업은 SnapshotRoot(LevelDB)만을 읽고 결과를 버리기 때문에 state root, receipt에는 영향이 없음. <br/>
+ * prefetch()는 작업을 제출만 하고 기다리지 않으므로 Manager lock을 잡은 상태에서 호출해도 블록 처리가 지연되지 않음.
+ */
+@Slf4j
+public class StatePrefetcher {
+
+  // transaction 수가 이보다 적은 블록은 prefetch 하지 않음.
+  private static final int MIN_TRANSACTIONS = 32;
+
+  private final Manager dbManager;
+  private final int threadNum;
+  private final ExecutorService prefetchService;
+
+  public StatePrefetcher(Manager dbManager, int threadNum) {
+    this.dbManager = dbManager;
+    this.threadNum = threadNum;
+    this.prefetchService = threadNum <= 0 ? null : Executors.newFixedThreadPool(threadNum,
+        new ThreadFactoryBuilder().setNameFormat("state-prefetch-%d").setDaemon(true).build());
+  }
+
+  /**
+   * transaction이 읽거나 쓰는 account address 목록을 반환함. <br/>
+   * owner, to address 및 TriggerSmartContract의 contract address가 포함됨.
+   */
+  public static List<byte[]> getAccessedAddresses(Transaction.Contract contract) {
+    List<byte[]> addresses = new ArrayList<>(3);
+    byte[] owner = TransactionCapsule.getOwner(contract);
+    if (owner != null) {
+      addresses.add(owner);
+    }
+    byte[] to = TransactionCapsule.getToAddress(contract);
+    if (to != null) {
+      addresses.add(to);
+    }
+    byte[] contractAddress = getContractAddress(contract);
+    if (contractAddress != null) {
+      addresses.add(contractAddress);
+    }
+    return addresses;
+  }
+
+  public static byte[] getContractAddress(Transaction.Contract contract) {
+    if (contract.getType() != ContractType.TriggerSmartContract) {
+      return null;
+    }
+    try {
+      return contract.getParameter().unpack(TriggerSmartContract.class).getContractAddress()
+          .toByteArray();
+    } catch (InvalidProtocolBufferException e) {
+      return null;
+    }
+  }
+
+  /**
+   * transaction 목록을 thread 수만큼 나누어 접근 대상 account, contract, code를 읽는 작업을 제출하고 바로 반환함. <br/>
+   * 블록 처리가 끝나면 반환된 Prefetch의 cancel()을 호출해 아직 읽지 않은 transaction은 건너뛰도록 해야 함.
+   */
+  public Prefetch prefetch(List<TransactionCapsule> transactions) {
+    if (prefetchService == null || transactions.size() < MIN_TRANSACTIONS) {
+      return Prefetch.NONE;
+    }
+
+    Prefetch prefetch = new Prefetch();
+    long start = System.currentTimeMillis();
+    int chunkSize = (transactions.size() + threadNum - 1) / threadNum;
+    for (List<TransactionCapsule> chunk : Lists.partition(transactions, chunkSize)) {
+      prefetchService.execute(() -> {
+        for (TransactionCapsule trx : chunk) {
+          if (prefetch.isCancelled()) {
+            return;
+          }
+          try {
+            prefetchOne(trx);
+          } catch (Exception e) {
+            // cache를 채우지 못해도 실행 thread가 직접 읽으므로 무시함.
+            logger.debug("prefetch state failed: {}", e.getMessage());
+          }
+        }
+        logger.debug("prefetch state of {} transactions cost:{}ms", chunk.size(),
+            System.currentTimeMillis() - start);
+      });
+    }
+    return prefetch;
+  }
+
+  private void prefetchOne(TransactionCapsule trx) {
+    for (Transaction.Contract contract : trx.getInstance().getRawData().getContractList()) {
+      getAccessedAddresses(contract).forEach(dbManager.getAccountStore()::prefetch);
+      byte[] contractAddress = getContractAddress(contract);
+      if (contractAddress != null) {
+        dbManager.getContractStore().prefetch(contractAddress);
+        dbManager.getCodeStore().prefetch(contractAddress);
+      }
+    }
+  }
+
+  /**
+   * 제출된 prefetch 작업의 취소 상태
+   */
+  public static class Prefetch {
+
+    // 제출한 작업이 없는 경우. 모든 블록이 공유하므로 cancel()을 호출해도 상태가 바뀌지 않음.
+    public static final Prefetch NONE = new Prefetch(null);
+
+    private final AtomicBoolean cancelled;
+
+    public Prefetch() {
+      this(new AtomicBoolean(false));
+    }
+
+    private Prefetch(AtomicBoolean cancelled) {
+      this.cancelled = cancelled;
+    }
+
+    public void cancel() {
+      if (cancelled != null) {
+        cancelled.set(true);
+      }
+    }
+
+    public boolean isCancelled() {
+      return cancelled != null && cancelled.get();
+    }
+  }
+}
@@ -1,5 +1,11 @@
 package com.wizbl.core.db;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.List;
 import java.util.Objects;
 
@@ -12,9 +18,11 @@ import com.wizbl.common.utils.ByteArray;
 import com.wizbl.common.utils.Sha256Hash;
 import com.wizbl.core.capsule.BlockCapsule;
 import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.core.capsule.utils.BlockUtil;
 import com.wizbl.core.db.KhaosDatabase.KhaosBlock;
 import com.wizbl.core.exception.BadItemException;
 import com.wizbl.core.exception.StoreException;
+import com.wizbl.protos.Protocol.Transaction;
 
 @Slf4j
 @Component
@@ -26,6 +34,15 @@ public class TransactionStore extends Brte2StoreWithRevoking<TransactionCapsule>
   @Autowired
   private KhaosDatabase khaosDatabase;
 
+  // blockNum(8 byte) + index(4 byte)
+  private static final int LOCATOR_LENGTH = Long.BYTES + Integer.BYTES;
+
+  private static final int BLOCK_CACHE_SIZE = 64;
+
+  // 최근에 decode한 block. 다른 fork의 block일 수 있으므로 transaction id를 확인한 후 사용함.
+  private final Cache<Long, BlockCapsule> blockCache = CacheBuilder.newBuilder()
+      .maximumSize(BLOCK_CACHE_SIZE).build();
+
   @Autowired
   private TransactionStore(@Value("trans") String dbName) {
     super(dbName);
@@ -35,8 +52,11 @@ public class TransactionStore extends Brte2StoreWithRevoking<TransactionCapsule>
   public void put(byte[] key, TransactionCapsule item) {
     if (Objects.isNull(item) || item.getBlockNum() == -1) {
       super.put(key, item);
-    } else {
+    } else if (item.getIndexInBlock() < 0) {
       revokingDB.put(key, ByteArray.fromLong(item.getBlockNum()));
+    } else {
+      revokingDB.put(key, Bytes.concat(Longs.toByteArray(item.getBlockNum()),
+          Ints.toByteArray(item.getIndexInBlock())));
     }
 
     if (Objects.nonNull(indexHelper)) {
@@ -44,30 +64,84 @@ public class TransactionStore extends Brte2StoreWithRevoking<TransactionCapsule>
     }
   }
 
-  private TransactionCapsule getTransactionFromBlockStore(byte[] key, long blockNum) {
-    List<BlockCapsule> blocksList = blockStore.getLimitNumber(blockNum, 1);
-    if (blocksList.size() != 0) {
-      for (TransactionCapsule e : blocksList.get(0).getTransactions()) {
-        if (e.getTransactionId().equals(Sha256Hash.wrap(key))) {
-          return e;
-        }
+  /**
+   * block에서 id에 해당하는 transaction을 찾음. index 위치의 transaction이 일치하면 나머지는 hash하지 않음.
+   */
+  private static TransactionCapsule findTransaction(BlockCapsule block, Sha256Hash id, int index) {
+    List<TransactionCapsule> transactions = block.getTransactions();
+    if (index >= 0 && index < transactions.size()
+        && transactions.get(index).getTransactionId().equals(id)) {
+      return transactions.get(index);
+    }
+    for (TransactionCapsule e : transactions) {
+      if (e.getTransactionId().equals(id)) {
+        return e;
       }
     }
     return null;
   }
 
-  private TransactionCapsule getTransactionFromKhaosDatabase(byte[] key, long high) {
+  private TransactionCapsule getTransactionFromBlockStore(byte[] key, long blockNum, int index) {
+    Sha256Hash id = Sha256Hash.wrap(key);
+    BlockCapsule cachedBlock = blockCache.getIfPresent(blockNum);
+    if (cachedBlock != null) {
+      TransactionCapsule transactionCapsule = findTransaction(cachedBlock, id, index);
+      if (transactionCapsule != null) {
+        // cache의 block이 가진 객체를 공유하지 않도록 복사하여 반환함.
+        return new TransactionCapsule(transactionCapsule.getInstance());
+      }
+    }
+
+    byte[] blockData = blockStore.getDataByNum(blockNum);
+    if (blockData == null) {
+      return null;
+    }
+
+    if (index >= 0) {
+      try {
+        Transaction transaction = BlockUtil.parseTransaction(blockData, index);
+        if (transaction != null) {
+          TransactionCapsule transactionCapsule = new TransactionCapsule(transaction);
+          if (transactionCapsule.getTransactionId().equals(id)) {
+            return transactionCapsule;
+          }
+        }
+      } catch (InvalidProtocolBufferException e) {
+        logger.debug("Failed to read transaction {} of block {}: {}", index, blockNum,
+            e.getMessage());
+      }
+    }
+
+    // locator에 index가 없거나(이전 형식) index의 transaction이 다르면 block 전체를 decode함.
+    BlockCapsule block;
+    try {
+      block = new BlockCapsule(blockData);
+    } catch (BadItemException e) {
+      return null;
+    }
+    blockCache.put(block.getNum(), block);
+    TransactionCapsule transactionCapsule = findTransaction(block, id, -1);
+    return transactionCapsule == null ? null
+        : new TransactionCapsule(transactionCapsule.getInstance());
+  }
+
+  private TransactionCapsule getTransactionFromKhaosDatabase(byte[] key, long high, int index) {
     List<KhaosBlock> khaosBlocks = khaosDatabase.getMiniStore().getBlockByNum(high);
     for (KhaosBlock bl : khaosBlocks) {
-      for (TransactionCapsule e : bl.blk.getTransactions()) {
-        if (e.getTransactionId().equals(Sha256Hash.wrap(key))) {
-          return e;
-        }
+      TransactionCapsule transactionCapsule = findTransaction(bl.blk, Sha256Hash.wrap(key), index);
+      if (transactionCapsule != null) {
+        return transactionCapsule;
       }
     }
     return null;
   }
 
+  /**
+   * value는 다음 중 하나임. <br/>
+   *  - 8 byte : blockNum(이전 형식) <br/>
+   *  - 12 byte : blockNum + block 안에서의 index <br/>
+   *  - 그 외 : 직렬화된 transaction
+   */
   @Override
   public TransactionCapsule get(byte[] key) throws BadItemException {
     byte[] value = revokingDB.getUnchecked(key);
@@ -75,11 +149,13 @@ public class TransactionStore extends Brte2StoreWithRevoking<TransactionCapsule>
       return null;
     }
     TransactionCapsule transactionCapsule = null;
-    if (value.length == 8) {
-      long blockHigh = ByteArray.toLong(value);
-      transactionCapsule = getTransactionFromBlockStore(key, blockHigh);
+    if (value.length == Long.BYTES || value.length == LOCATOR_LENGTH) {
+      long blockHigh = Longs.fromByteArray(value);
+      int index = value.length == LOCATOR_LENGTH
+          ? Ints.fromBytes(value[8], value[9], value[10], value[11]) : -1;
+      transactionCapsule = getTransactionFromBlockStore(key, blockHigh, index);
       if (transactionCapsule == null) {
-        transactionCapsule = getTransactionFromKhaosDatabase(key, blockHigh);
+        transactionCapsule = getTransactionFromKhaosDatabase(key, blockHigh, index);
       }
     }
 
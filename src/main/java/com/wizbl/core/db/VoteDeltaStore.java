@@ -0,0 +1,100 @@
+package com.wizbl.core.db;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.core.capsule.BytesCapsule;
+import com.wizbl.core.capsule.VotesCapsule;
+import com.wizbl.protos.Protocol.Vote;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 현재 maintenance 주기 동안 witness 별로 변경된 투표 수의 합계(vote tally)를 저장하는 store <br/>
+ * key : witness address, value : 변경된 투표 수(long) <br/>
+ * VotesStore에 투표가 기록될 때마다 갱신되므로 maintenance 시에는 witness 수 만큼만 읽으면 됨.
+ */
+@Slf4j
+@Component
+public class VoteDeltaStore extends Brte2StoreWithRevoking<BytesCapsule> {
+
+  @Autowired
+  public VoteDeltaStore(@Value("vote-delta") String dbName) {
+    super(dbName);
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = revokingDB.getUnchecked(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  public long getVoteCount(ByteString witness) {
+    BytesCapsule capsule = get(witness.toByteArray());
+    return capsule == null ? 0 : ByteArray.toLong(capsule.getData());
+  }
+
+  /**
+   * 변화량이 0이어도 기록함. 이번 주기에 투표 대상이 된 witness는 모두 maintenance에 포함되어야 함.
+   */
+  public void addVoteCount(ByteString witness, long voteCount) {
+    long total = getVoteCount(witness) + voteCount;
+    put(witness.toByteArray(), new BytesCapsule(ByteArray.fromLong(total)));
+  }
+
+  /**
+   * VotesStore의 이전 값(previous)을 current로 바꿀 때 생기는 witness 별 투표 수의 변화를 반영함.
+   */
+  public void applyVotes(VotesCapsule previous, VotesCapsule current) {
+    Map<ByteString, Long> delta = new HashMap<>();
+    if (previous != null) {
+      addAll(delta, previous, -1);
+    }
+    addAll(delta, current, 1);
+    delta.forEach(this::addVoteCount);
+  }
+
+  /**
+   * VotesStore에서 entry(previous)가 삭제될 때 해당 투표로 인한 witness 별 투표 수의 변화를 되돌림.
+   */
+  public void revertVotes(VotesCapsule previous) {
+    Map<ByteString, Long> delta = new HashMap<>();
+    addAll(delta, previous, -1);
+    delta.forEach(this::addVoteCount);
+  }
+
+  // sign * (newVotes - oldVotes)
+  private static void addAll(Map<ByteString, Long> delta, VotesCapsule votes, long sign) {
+    for (Vote vote : votes.getOldVotes()) {
+      delta.merge(vote.getVoteAddress(), -sign * vote.getVoteCount(), Long::sum);
+    }
+    for (Vote vote : votes.getNewVotes()) {
+      delta.merge(vote.getVoteAddress(), sign * vote.getVoteCount(), Long::sum);
+    }
+  }
+
+  /**
+   * 이번 주기의 witness 별 투표 수 변화를 반환함.
+   */
+  public Map<ByteString, Long> getAllVoteCounts() {
+    Map<ByteString, Long> counts = new HashMap<>();
+    forEach(e -> counts.put(ByteString.copyFrom(e.getKey()),
+        ByteArray.toLong(e.getValue().getData())));
+    return counts;
+  }
+
+  /**
+   * maintenance에서 tally를 반영한 후 호출함. witness 수 만큼만 삭제함.
+   */
+  public void clear() {
+    List<byte[]> keys = new ArrayList<>();
+    forEach(e -> keys.add(e.getKey()));
+    keys.forEach(this::delete);
+  }
+}
@@ -1,14 +1,30 @@
 package com.wizbl.core.db;
 
+import com.google.common.collect.Iterators;
+import java.util.Iterator;
+import java.util.Map.Entry;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import com.wizbl.core.capsule.VotesCapsule;
 
+/**
+ * 계정 별 투표 내용을 저장하는 store <br/>
+ * 현재 vote epoch에 기록된 entry만 유효하며, 이전 maintenance 주기의 entry는 없는 것으로 취급함. <br/>
+ * 이전 주기의 entry는 따로 삭제하지 않고 get, iterator에서 제외하며, 해당 계정이 다시 투표하면 put으로 덮어씀.
+ * (maintenance에서 전체 entry를 scan하지 않음) <br/>
+ * put, delete 할 때마다 witness 별 투표 수의 변화를 VoteDeltaStore에 반영함.
+ */
 @Component
 public class VotesStore extends Brte2StoreWithRevoking<VotesCapsule> {
 
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Autowired
+  private VoteDeltaStore voteDeltaStore;
+
   @Autowired
   public VotesStore(@Value("votes") String dbName) {
     super(dbName);
@@ -16,7 +32,68 @@ public class VotesStore extends Brte2StoreWithRevoking<VotesCapsule> {
 
   @Override
   public VotesCapsule get(byte[] key) {
+    VotesCapsule votesCapsule = getIgnoreEpoch(key);
+    return votesCapsule == null || votesCapsule.getEpoch() != getCurrentEpoch() ? null
+        : votesCapsule;
+  }
+
+  /**
+   * vote epoch와 관계없이 저장된 entry를 반환함. vote tally를 다시 계산할 때만 사용함.
+   */
+  public VotesCapsule getIgnoreEpoch(byte[] key) {
     byte[] value = revokingDB.getUnchecked(key);
     return ArrayUtils.isEmpty(value) ? null : new VotesCapsule(value);
   }
-}
\ No newline at end of file
+
+  @Override
+  public boolean has(byte[] key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public void put(byte[] key, VotesCapsule item) {
+    if (key == null || item == null) {
+      return;
+    }
+
+    item.setEpoch(getCurrentEpoch());
+    voteDeltaStore.applyVotes(get(key), item);
+    super.put(key, item);
+  }
+
+  /**
+   * 현재 주기의 entry를 삭제하면 해당 투표로 인한 변화량을 VoteDeltaStore에서 되돌림.
+   */
+  @Override
+  public void delete(byte[] key) {
+    if (key == null) {
+      return;
+    }
+
+    VotesCapsule previous = get(key);
+    if (previous != null) {
+      voteDeltaStore.revertVotes(previous);
+    }
+    super.delete(key);
+  }
+
+  /**
+   * 현재 vote epoch에 기록된 entry만 반환함.
+   */
+  @Override
+  public Iterator<Entry<byte[], VotesCapsule>> iterator() {
+    long epoch = getCurrentEpoch();
+    return Iterators.filter(super.iterator(), e -> e.getValue().getEpoch() == epoch);
+  }
+
+  /**
+   * VOTE_EPOCH가 저장되기 전(genesis 초기화 및 migration 이전)에는 0으로 취급함.
+   */
+  public long getCurrentEpoch() {
+    try {
+      return dynamicPropertiesStore.getVoteEpoch();
+    } catch (IllegalArgumentException e) {
+      return 0;
+    }
+  }
+}
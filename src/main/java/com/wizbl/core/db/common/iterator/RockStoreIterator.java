@@ -0,0 +1,60 @@
+package com.wizbl.core.db.common.iterator;
+
+import com.google.common.collect.Maps;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksIterator;
+
+@Slf4j
+public final class RockStoreIterator implements DBIterator {
+
+  private RocksIterator dbIterator;
+  private boolean first = true;
+  private boolean closed = false;
+
+  public RockStoreIterator(RocksIterator dbIterator) {
+    this.dbIterator = dbIterator;
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      dbIterator.close();
+      closed = true;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+    // true is first item
+    if (first) {
+      dbIterator.seekToFirst();
+      first = false;
+    }
+
+    boolean hasNext = dbIterator.isValid();
+    if (!hasNext) { // false is last item
+      close();
+    }
+    return hasNext;
+  }
+
+  @Override
+  public Entry<byte[], byte[]> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Entry<byte[], byte[]> entry = Maps.immutableEntry(dbIterator.key(), dbIterator.value());
+    dbIterator.next();
+    return entry;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,319 @@
+package com.wizbl.core.db2.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SnapshotManager의 flush 과정에서 사용하는 append-only checkpoint journal <br/>
+ * 파일 구성 : header(MAGIC, generation, state, crc) + frame(length, crc, generation, type, payload)... <br/>
+ *  - begin()으로 generation을 증가시킨 후 append()로 record를 순차적으로 기록하고, commit()에서 END frame과
+ *    COMMITTED 상태의 header를 기록함. <br/>
+ *  - truncate()는 header의 상태만 EMPTY로 바꾸므로 기록된 데이터의 양과 관계없이 O(1)임. <br/>
+ *  - replay()는 header가 COMMITTED이고 같은 generation의 END frame까지 모든 frame의 crc가 맞는 경우에만 record를 반환함. <br/>
+ * 파일을 다시 mapping 하거나 close 할 때 이전 MappedByteBuffer를 명시적으로 unmap 하므로 GC 시점까지 mapping이 남지 않음.
+ */
+@Slf4j
+public class CheckpointJournal implements Closeable {
+
+  private static final int MAGIC = 0x434b5054; // "CKPT"
+  private static final int HEADER_SIZE = 4 + 8 + 1 + 4;
+  // length, crc, generation, type
+  private static final int FRAME_HEADER_SIZE = 4 + 4 + 8 + 1;
+  private static final int INITIAL_CAPACITY = 4 * 1024 * 1024;
+
+  private static final byte STATE_EMPTY = 0;
+  private static final byte STATE_COMMITTED = 1;
+
+  private static final byte TYPE_RECORD = 1;
+  private static final byte TYPE_END = 2;
+
+  @Getter
+  private final Path path;
+  private final boolean sync;
+  private RandomAccessFile file;
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private long generation;
+  private byte state;
+  private int position;
+  @Getter
+  private int recordCount;
+
+  @AllArgsConstructor
+  @Getter
+  public static class Record {
+
+    private final String dbName;
+    private final byte[] key;
+    private final byte[] value;
+  }
+
+  public CheckpointJournal(Path path, boolean sync) {
+    this.path = path;
+    this.sync = sync;
+  }
+
+  public void open() throws IOException {
+    Files.createDirectories(path.getParent());
+    file = new RandomAccessFile(path.toFile(), "rw");
+    channel = file.getChannel();
+    map(Math.max(INITIAL_CAPACITY, (int) channel.size()));
+
+    if (!readHeader()) {
+      // header가 없거나 손상된 경우에는 이전 generation과 겹치지 않도록 시간을 generation으로 사용함.
+      generation = System.currentTimeMillis();
+      state = STATE_EMPTY;
+      writeHeader();
+    }
+  }
+
+  public boolean isEmpty() {
+    return state == STATE_EMPTY;
+  }
+
+  /**
+   * 새로운 checkpoint 기록을 시작함. 이전 checkpoint는 무효가 됨.
+   */
+  public synchronized void begin() {
+    ++generation;
+    position = HEADER_SIZE;
+    recordCount = 0;
+  }
+
+  public synchronized void append(String dbName, byte[] key, byte[] value) {
+    byte[] name = dbName.getBytes(StandardCharsets.UTF_8);
+    int payloadSize = 4 + name.length + 4 + key.length + value.length;
+    int start = beginFrame(TYPE_RECORD, payloadSize);
+    buffer.putInt(name.length);
+    buffer.put(name);
+    buffer.putInt(key.length);
+    buffer.put(key);
+    buffer.put(value);
+    endFrame(start);
+    ++recordCount;
+  }
+
+  /**
+   * END frame을 기록하고 header를 COMMITTED로 변경함. header는 frame이 모두 기록된 이후에 변경됨.
+   */
+  public synchronized void commit() {
+    int start = beginFrame(TYPE_END, 4);
+    buffer.putInt(recordCount);
+    endFrame(start);
+    force();
+
+    state = STATE_COMMITTED;
+    writeHeader();
+  }
+
+  /**
+   * checkpoint의 반영(refresh)이 끝난 후 호출함. header만 변경함.
+   */
+  public synchronized void truncate() {
+    if (state == STATE_EMPTY) {
+      return;
+    }
+    state = STATE_EMPTY;
+    writeHeader();
+  }
+
+  /**
+   * commit된 checkpoint의 record를 기록된 순서대로 반환함. 완전하지 않은 checkpoint인 경우에는 빈 목록을 반환함.
+   */
+  public synchronized List<Record> replay() {
+    List<Record> records = new ArrayList<>();
+    if (state != STATE_COMMITTED) {
+      return records;
+    }
+
+    int pos = HEADER_SIZE;
+    CRC32 crc32 = new CRC32();
+    while (pos + FRAME_HEADER_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(pos);
+      int crc = buffer.getInt(pos + 4);
+      if (length < 8 + 1 || pos + 8 + length > buffer.capacity()) {
+        break;
+      }
+
+      ByteBuffer frame = buffer.duplicate();
+      frame.position(pos + 8);
+      frame.limit(pos + 8 + length);
+      crc32.reset();
+      crc32.update(frame.duplicate());
+      if ((int) crc32.getValue() != crc || frame.getLong() != generation) {
+        break;
+      }
+
+      byte type = frame.get();
+      if (type == TYPE_END) {
+        if (frame.getInt() == records.size()) {
+          return records;
+        }
+        break;
+      }
+      if (type != TYPE_RECORD) {
+        break;
+      }
+
+      byte[] name = new byte[frame.getInt()];
+      frame.get(name);
+      byte[] key = new byte[frame.getInt()];
+      frame.get(key);
+      byte[] value = new byte[frame.remaining()];
+      frame.get(value);
+      records.add(new Record(new String(name, StandardCharsets.UTF_8), key, value));
+      pos += 8 + length;
+    }
+
+    logger.warn("checkpoint journal {} is incomplete, generation:{}", path, generation);
+    return new ArrayList<>();
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      if (channel != null) {
+        force();
+        channel.close();
+      }
+      if (file != null) {
+        file.close();
+      }
+    } catch (IOException e) {
+      logger.error(e.getMessage(), e);
+    } finally {
+      unmap(buffer);
+      buffer = null;
+      channel = null;
+      file = null;
+    }
+  }
+
+  private int beginFrame(byte type, int payloadSize) {
+    int length = 8 + 1 + payloadSize;
+    ensureCapacity(position + 8 + length);
+    int start = position;
+    buffer.position(start);
+    buffer.putInt(length);
+    buffer.putInt(0); // crc
+    buffer.putLong(generation);
+    buffer.put(type);
+    return start;
+  }
+
+  private void endFrame(int start) {
+    int end = buffer.position();
+    ByteBuffer frame = buffer.duplicate();
+    frame.position(start + 8);
+    frame.limit(end);
+    CRC32 crc32 = new CRC32();
+    crc32.update(frame);
+    buffer.putInt(start + 4, (int) crc32.getValue());
+    position = end;
+  }
+
+  private boolean readHeader() {
+    if (buffer.getInt(0) != MAGIC) {
+      return false;
+    }
+    CRC32 crc32 = new CRC32();
+    ByteBuffer header = buffer.duplicate();
+    header.position(0);
+    header.limit(HEADER_SIZE - 4);
+    crc32.update(header);
+    if ((int) crc32.getValue() != buffer.getInt(HEADER_SIZE - 4)) {
+      return false;
+    }
+    generation = buffer.getLong(4);
+    state = buffer.get(12);
+    return true;
+  }
+
+  private void writeHeader() {
+    buffer.putInt(0, MAGIC);
+    buffer.putLong(4, generation);
+    buffer.put(12, state);
+    CRC32 crc32 = new CRC32();
+    ByteBuffer header = buffer.duplicate();
+    header.position(0);
+    header.limit(HEADER_SIZE - 4);
+    crc32.update(header);
+    buffer.putInt(HEADER_SIZE - 4, (int) crc32.getValue());
+    force();
+  }
+
+  private void ensureCapacity(int required) {
+    if (required <= buffer.capacity()) {
+      return;
+    }
+    int capacity = buffer.capacity();
+    while (capacity < required) {
+      capacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : capacity * 2;
+    }
+    force();
+    map(capacity);
+  }
+
+  private void map(int capacity) {
+    MappedByteBuffer previous = buffer;
+    try {
+      buffer = channel.map(MapMode.READ_WRITE, 0, capacity);
+    } catch (IOException e) {
+      throw new IllegalStateException("failed to map checkpoint journal " + path, e);
+    }
+    unmap(previous);
+  }
+
+  /**
+   * MappedByteBuffer의 mapping을 바로 해제함. 해제 후에는 해당 buffer에 접근하면 안 됨. <br/>
+   * java 9 이상은 Unsafe.invokeCleaner(), java 8은 DirectByteBuffer.cleaner()를 사용하며,
+   * 둘 다 사용할 수 없으면 GC에 맡김.
+   */
+  static void unmap(MappedByteBuffer mapped) {
+    if (mapped == null) {
+      return;
+    }
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      try {
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), mapped);
+        return;
+      } catch (NoSuchMethodException e) {
+        // java 8
+      }
+      Method cleaner = mapped.getClass().getMethod("cleaner");
+      cleaner.setAccessible(true);
+      Object cleanerObject = cleaner.invoke(mapped);
+      if (cleanerObject != null) {
+        cleanerObject.getClass().getMethod("clean").invoke(cleanerObject);
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.warn("failed to unmap checkpoint journal buffer: {}", e.getMessage());
+    }
+  }
+
+  private void force() {
+    if (sync) {
+      buffer.force();
+    }
+  }
+}
@@ -1,39 +1,470 @@
 package com.wizbl.core.db2.common;
 
-import java.util.HashMap;
+import com.google.common.collect.Maps;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BinaryOperator;
 
+/**
+ * SnapshotImpl 한 계층의 변경 내용을 저장하는 open addressing(linear probing) hash table <br/>
+ *  - key는 arena(byte[])에 이어서 기록하고, slot에는 hash, arena offset, 길이와 Value만 저장함. <br/>
+ *  - get(byte[]) / put(byte[], Value)는 Key 객체를 생성하지 않으며, put은 key를 arena로 한 번만 복사함. <br/>
+ *  - 삭제는 tombstone 없이 backward shift로 처리함. 삭제로 생긴 arena의 빈 공간이 사용 중인 공간의 절반을 넘으면
+ *    arena를 다시 만들어 정리함. <br/>
+ *  - 쓰기(put, remove, merge)는 write lock을 잡음. get은 optimistic read로 읽고, 그 사이에 쓰기가 있었으면
+ *    read lock을 잡고 다시 읽으므로 backward shift 중인 slot을 보고 key를 놓치지 않음. <br/>
+ *  - iterator는 entry 단위로 read lock을 잡으며, 순회 중의 쓰기는 HashMap과 마찬가지로 반영이 보장되지 않음.
+ */
 public class HashDB implements DB<Key, Value> {
-  private Map<Key, Value> db = new HashMap<>();
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int INITIAL_ARENA_SIZE = 1024;
+  // size / capacity가 3/4를 넘으면 resize함.
+  private static final int LOAD_FACTOR_NUMERATOR = 3;
+  private static final int LOAD_FACTOR_DENOMINATOR = 4;
+  // 삭제로 생긴 arena의 빈 공간이 이 크기와 사용 중인 공간의 절반을 모두 넘으면 arena를 정리함.
+  private static final int MIN_COMPACT_BYTES = INITIAL_ARENA_SIZE;
+
+  /**
+   * slot 배열과 arena를 한 번에 교체하기 위한 묶음. read는 항상 같은 Table의 배열만 사용함.
+   */
+  private static final class Table {
+
+    final int[] hashes;
+    final int[] offsets;
+    final int[] lengths;
+    final Value[] values;
+    final byte[] arena;
+
+    Table(int capacity, int arenaSize) {
+      this(new int[capacity], new int[capacity], new int[capacity], new Value[capacity],
+          new byte[arenaSize]);
+    }
+
+    Table(int[] hashes, int[] offsets, int[] lengths, Value[] values, byte[] arena) {
+      this.hashes = hashes;
+      this.offsets = offsets;
+      this.lengths = lengths;
+      this.values = values;
+      this.arena = arena;
+    }
+  }
+
+  private final StampedLock lock = new StampedLock();
+  private volatile Table table = new Table(INITIAL_CAPACITY, INITIAL_ARENA_SIZE);
+  private volatile int size;
+  private int arenaPosition;
+  // 삭제된 key가 차지하고 있는 arena의 byte 수
+  private int deadBytes;
+
+  static int hash(byte[] key, int offset, int length) {
+    int h = 1;
+    for (int i = offset; i < offset + length; i++) {
+      h = 31 * h + key[i];
+    }
+    // murmur3 fmix32
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  private static int indexOf(Table t, byte[] key, int keyOffset, int keyLength, int hash) {
+    Value[] values = t.values;
+    int mask = values.length - 1;
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      if (values[i] == null) {
+        return -1;
+      }
+      if (t.hashes[i] == hash && equals(t, i, key, keyOffset, keyLength)) {
+        return i;
+      }
+    }
+  }
+
+  private static boolean equals(Table t, int slot, byte[] key, int keyOffset, int keyLength) {
+    int length = t.lengths[slot];
+    if (length != keyLength) {
+      return false;
+    }
+    int offset = t.offsets[slot];
+    byte[] arena = t.arena;
+    if (offset + length > arena.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (arena[offset + i] != key[keyOffset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public Value get(byte[] key) {
+    int hash = hash(key, 0, key.length);
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        Value value = getUnlocked(key, hash);
+        if (lock.validate(stamp)) {
+          return value;
+        }
+      } catch (RuntimeException e) {
+        // 쓰기 도중의 배열을 읽은 경우. 아래에서 read lock을 잡고 다시 읽음.
+      }
+    }
+
+    stamp = lock.readLock();
+    try {
+      return getUnlocked(key, hash);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private Value getUnlocked(byte[] key, int hash) {
+    Table t = table;
+    int i = indexOf(t, key, 0, key.length, hash);
+    return i < 0 ? null : t.values[i];
+  }
+
+  /**
+   * key를 arena로 복사하여 저장함. 호출자는 이후에 key 배열을 변경해도 됨.
+   */
+  public void put(byte[] key, Value value) {
+    if (value == null) {
+      throw new NullPointerException("value in HashDB is not null.");
+    }
+    int hash = hash(key, 0, key.length);
+    long stamp = lock.writeLock();
+    try {
+      put(key, 0, key.length, hash, value);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void put(byte[] key, int keyOffset, int keyLength, int hash, Value value) {
+    Table t = table;
+    int i = indexOf(t, key, keyOffset, keyLength, hash);
+    if (i >= 0) {
+      t.values[i] = value;
+      return;
+    }
+
+    if ((size + 1) * LOAD_FACTOR_DENOMINATOR > t.values.length * LOAD_FACTOR_NUMERATOR) {
+      t = rehash(t.values.length << 1, keyLength);
+    } else if (arenaPosition + keyLength > t.arena.length) {
+      t = growArena(t, keyLength);
+    }
+
+    int mask = t.values.length - 1;
+    i = hash & mask;
+    while (t.values[i] != null) {
+      i = (i + 1) & mask;
+    }
+    System.arraycopy(key, keyOffset, t.arena, arenaPosition, keyLength);
+    t.hashes[i] = hash;
+    t.offsets[i] = arenaPosition;
+    t.lengths[i] = keyLength;
+    t.values[i] = value;
+    arenaPosition += keyLength;
+    ++size;
+  }
+
+  public void remove(byte[] key) {
+    int hash = hash(key, 0, key.length);
+    long stamp = lock.writeLock();
+    try {
+      remove(key, 0, key.length, hash);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private void remove(byte[] key, int keyOffset, int keyLength, int hash) {
+    Table t = table;
+    int i = indexOf(t, key, keyOffset, keyLength, hash);
+    if (i < 0) {
+      return;
+    }
+    deadBytes += t.lengths[i];
+
+    // backward shift deletion
+    Value[] values = t.values;
+    int mask = values.length - 1;
+    int hole = i;
+    for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+      int home = t.hashes[j] & mask;
+      // j의 원래 위치(home)가 (hole, j] 구간 밖이면 hole로 옮길 수 있음.
+      if (hole <= j ? (home <= hole || home > j) : (home <= hole && home > j)) {
+        t.hashes[hole] = t.hashes[j];
+        t.offsets[hole] = t.offsets[j];
+        t.lengths[hole] = t.lengths[j];
+        values[hole] = values[j];
+        hole = j;
+      }
+    }
+    values[hole] = null;
+    --size;
+
+    if (deadBytes > MIN_COMPACT_BYTES && deadBytes * 2 > arenaPosition) {
+      rehash(values.length, 0);
+    }
+  }
+
+  /**
+   * from의 모든 entry를 덮어씀. Key/Value 객체를 새로 만들지 않음.
+   */
+  public void merge(HashDB from) {
+    merge(from, (previous, value) -> value);
+  }
+
+  /**
+   * from의 entry를 추가함. 양쪽에 모두 있는 key는 merger(기존 값, from의 값)의 결과로 교체하며,
+   * 결과가 null이면 해당 key를 삭제함.
+   */
+  public void merge(HashDB from, BinaryOperator<Value> merger) {
+    long stamp = lock.writeLock();
+    long fromStamp = from.lock.readLock();
+    try {
+      Table t = from.table;
+      for (int i = 0; i < t.values.length; i++) {
+        if (t.values[i] == null) {
+          continue;
+        }
+        Table current = table;
+        int j = indexOf(current, t.arena, t.offsets[i], t.lengths[i], t.hashes[i]);
+        if (j < 0) {
+          put(t.arena, t.offsets[i], t.lengths[i], t.hashes[i], t.values[i]);
+          continue;
+        }
+        Value value = merger.apply(current.values[j], t.values[i]);
+        if (value != null) {
+          current.values[j] = value;
+        } else {
+          remove(t.arena, t.offsets[i], t.lengths[i], t.hashes[i]);
+        }
+      }
+    } finally {
+      from.lock.unlockRead(fromStamp);
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private Table growArena(Table t, int required) {
+    if (deadBytes > MIN_COMPACT_BYTES && deadBytes * 2 > arenaPosition) {
+      return rehash(t.values.length, required);
+    }
+    int arenaSize = t.arena.length;
+    while (arenaPosition + required > arenaSize) {
+      arenaSize <<= 1;
+    }
+    // arena만 교체하므로 offset은 그대로 유효함.
+    table = new Table(t.hashes, t.offsets, t.lengths, t.values,
+        Arrays.copyOf(t.arena, arenaSize));
+    return table;
+  }
+
+  private Table rehash(int capacity, int required) {
+    Table old = table;
+    int live = 0;
+    for (int i = 0; i < old.values.length; i++) {
+      if (old.values[i] != null) {
+        live += old.lengths[i];
+      }
+    }
+    int arenaSize = INITIAL_ARENA_SIZE;
+    while (arenaSize < (live + required) * 2) {
+      arenaSize <<= 1;
+    }
+
+    Table t = new Table(capacity, arenaSize);
+    int mask = capacity - 1;
+    int position = 0;
+    for (int i = 0; i < old.values.length; i++) {
+      if (old.values[i] == null) {
+        continue;
+      }
+      int j = old.hashes[i] & mask;
+      while (t.values[j] != null) {
+        j = (j + 1) & mask;
+      }
+      System.arraycopy(old.arena, old.offsets[i], t.arena, position, old.lengths[i]);
+      t.hashes[j] = old.hashes[i];
+      t.offsets[j] = position;
+      t.lengths[j] = old.lengths[i];
+      t.values[j] = old.values[i];
+      position += old.lengths[i];
+    }
+    arenaPosition = position;
+    deadBytes = 0;
+    table = t;
+    return t;
+  }
 
   @Override
   public Value get(Key key) {
-    return db.get(key);
+    return get(key.getRawBytes());
   }
 
   @Override
   public void put(Key key, Value value) {
-    db.put(key, value);
+    put(key.getRawBytes(), value);
   }
 
   @Override
   public long size() {
-    return db.size();
+    return size;
+  }
+
+  // only for test
+  public int getArenaPosition() {
+    long stamp = lock.readLock();
+    try {
+      return arenaPosition;
+    } finally {
+      lock.unlockRead(stamp);
+    }
   }
 
   @Override
   public boolean isEmpty() {
-    return db.isEmpty();
+    return size == 0;
   }
 
   @Override
   public void remove(Key key) {
-    db.remove(key);
+    remove(key.getRawBytes());
+  }
+
+  /**
+   * key 순서(unsigned lexicographic, LevelDB의 기본 comparator와 같음)로 entry를 반환함. <br/>
+   * 정렬에는 slot 번호 배열만 사용하고, key는 entry를 반환할 때 복사함.
+   */
+  public Iterator<Map.Entry<byte[], Value>> sortedIterator() {
+    final Table t;
+    final int[] slots;
+    final int count;
+    long stamp = lock.readLock();
+    try {
+      t = table;
+      slots = new int[size];
+      int n = 0;
+      for (int i = 0; i < t.values.length && n < slots.length; i++) {
+        if (t.values[i] != null) {
+          slots[n++] = i;
+        }
+      }
+      count = n;
+      sort(t, slots, new int[count], 0, count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+
+    return new Iterator<Map.Entry<byte[], Value>>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public Map.Entry<byte[], Value> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int i = slots[next++];
+        long stamp = lock.readLock();
+        try {
+          return Maps.immutableEntry(
+              Arrays.copyOfRange(t.arena, t.offsets[i], t.offsets[i] + t.lengths[i]), t.values[i]);
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+    };
+  }
+
+  // slots[from, to)를 key 순서로 정렬하는 merge sort
+  private static void sort(Table t, int[] slots, int[] tmp, int from, int to) {
+    if (to - from < 2) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    sort(t, slots, tmp, from, mid);
+    sort(t, slots, tmp, mid, to);
+    if (compare(t, slots[mid - 1], slots[mid]) <= 0) {
+      return;
+    }
+    System.arraycopy(slots, from, tmp, from, to - from);
+    int i = from;
+    int j = mid;
+    for (int k = from; k < to; k++) {
+      if (j >= to || (i < mid && compare(t, tmp[i], tmp[j]) <= 0)) {
+        slots[k] = tmp[i++];
+      } else {
+        slots[k] = tmp[j++];
+      }
+    }
+  }
+
+  private static int compare(Table t, int slot1, int slot2) {
+    byte[] arena = t.arena;
+    int offset1 = t.offsets[slot1];
+    int offset2 = t.offsets[slot2];
+    int length1 = t.lengths[slot1];
+    int length2 = t.lengths[slot2];
+    int length = Math.min(length1, length2);
+    for (int i = 0; i < length; i++) {
+      int c = (arena[offset1 + i] & 0xff) - (arena[offset2 + i] & 0xff);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return length1 - length2;
   }
 
   @Override
-  public Iterator<Map.Entry<Key,Value>> iterator() {
-    return db.entrySet().iterator();
+  public Iterator<Map.Entry<Key, Value>> iterator() {
+    final Table t = table;
+    return new Iterator<Map.Entry<Key, Value>>() {
+      private int next = advance(0);
+
+      private int advance(int from) {
+        while (from < t.values.length && t.values[from] == null) {
+          ++from;
+        }
+        return from;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next < t.values.length;
+      }
+
+      @Override
+      public Map.Entry<Key, Value> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        long stamp = lock.readLock();
+        try {
+          int i = next;
+          next = advance(i + 1);
+          return Maps.immutableEntry(
+              Key.of(Arrays.copyOfRange(t.arena, t.offsets[i], t.offsets[i] + t.lengths[i])),
+              t.values[i]);
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+    };
   }
 }
@@ -15,12 +15,18 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
 
   byte[] getUnchecked(byte[] key);
 
+  // read from the persisted layer only, to warm the underlying db cache
+  void prefetch(byte[] key);
+
   void close();
 
   void reset();
 
   void setMode(boolean mode);
 
+  // number of keys, without a full scan where the implementation allows it
+  long size();
+
   // for blockstore
   Set<byte[]> getlatestValues(long limit);
 
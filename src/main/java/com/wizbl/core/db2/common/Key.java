@@ -21,6 +21,13 @@ public final class Key {
     return new Key(WrappedByteArray.of(bytes));
   }
 
+  /**
+   * 복사하지 않은 key를 반환함. HashDB에서만 사용함.
+   */
+  byte[] getRawBytes() {
+    return data.getBytes();
+  }
+
   public byte[] getBytes() {
     byte[] key = data.getBytes();
     if (key == null) {
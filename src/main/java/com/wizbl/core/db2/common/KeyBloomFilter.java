@@ -0,0 +1,94 @@
+package com.wizbl.core.db2.common;
+
+/**
+ * SnapshotRoot 위의 SnapshotImpl 계층들에 기록된 key의 bloom filter <br/>
+ *  - mightContain()이 false이면 어느 SnapshotImpl에도 해당 key가 없으므로 바로 SnapshotRoot에서 읽을 수 있음. <br/>
+ *  - 계층이 없어져도 bit를 지우지 않으므로 항상 실제 key 집합의 상위 집합을 유지함. flush 이후 다시 생성함. <br/>
+ *  - 예상한 key 수를 넘으면 saturated 상태가 되어 항상 true를 반환함. <br/>
+ *  - thread-safe하지 않으므로 add와 rebuild는 store lock 안에서만 수행함.
+ */
+public class KeyBloomFilter {
+
+  private static final int BITS_PER_KEY = 10;
+  private static final int NUM_HASHES = 3;
+  private static final int MIN_BITS = 1 << 16;
+  private static final int MAX_BITS = 1 << 26;
+
+  private final long[] bits;
+  private final int mask;
+  private final int maxKeys;
+  private int count;
+  private boolean saturated;
+
+  public KeyBloomFilter(int expectedKeys) {
+    long required = (long) expectedKeys * BITS_PER_KEY;
+    int size = MIN_BITS;
+    while (size < required && size < MAX_BITS) {
+      size <<= 1;
+    }
+    bits = new long[size >>> 6];
+    mask = size - 1;
+    maxKeys = size / BITS_PER_KEY;
+  }
+
+  private static long hash64(byte[] key) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : key) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    // murmur3 fmix64
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  public void add(byte[] key) {
+    if (saturated) {
+      return;
+    }
+    long h = hash64(key);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32) | 1;
+    boolean changed = false;
+    for (int i = 0; i < NUM_HASHES; i++) {
+      int bit = (h1 + i * h2) & mask;
+      long word = bits[bit >>> 6];
+      long updated = word | (1L << bit);
+      if (word != updated) {
+        bits[bit >>> 6] = updated;
+        changed = true;
+      }
+    }
+    if (changed && ++count > maxKeys) {
+      saturated = true;
+    }
+  }
+
+  public boolean mightContain(byte[] key) {
+    if (saturated) {
+      return true;
+    }
+    long h = hash64(key);
+    int h1 = (int) h;
+    int h2 = (int) (h >>> 32) | 1;
+    for (int i = 0; i < NUM_HASHES; i++) {
+      int bit = (h1 + i * h2) & mask;
+      if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public boolean isSaturated() {
+    return saturated;
+  }
+}
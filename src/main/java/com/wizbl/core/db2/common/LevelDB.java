@@ -5,19 +5,27 @@ import java.util.HashMap;
 import java.util.Map;
 import lombok.Getter;
 import org.iq80.leveldb.WriteOptions;
+import com.wizbl.common.storage.DbSourceInter;
 import com.wizbl.common.storage.leveldb.LevelDbDataSourceImpl;
+import com.wizbl.common.storage.rocksdb.RocksDbDataSourceImpl;
 import com.wizbl.core.config.args.Args;
+import com.wizbl.core.config.args.Storage;
 import com.wizbl.core.db.common.WrappedByteArray;
 import com.wizbl.core.db.common.iterator.DBIterator;
 
 public class LevelDB implements DB<byte[], byte[]> {
   @Getter
-  private LevelDbDataSourceImpl db;
+  private DbSourceInter<byte[]> db;
   private WriteOptions writeOptions = new WriteOptions()
       .sync(Args.getInstance().getStorage().isDbSync());
 
   public LevelDB(String parentName, String name) {
-    db = new LevelDbDataSourceImpl(parentName, name);
+    // storage.properties의 engine 설정에 따라 LevelDB 또는 RocksDB를 사용함.
+    if (Storage.ROCKSDB_ENGINE.equals(Args.getInstance().getStorage().getEngineByDbName(name))) {
+      db = new RocksDbDataSourceImpl(parentName, name);
+    } else {
+      db = new LevelDbDataSourceImpl(parentName, name);
+    }
     db.initDB();
   }
 
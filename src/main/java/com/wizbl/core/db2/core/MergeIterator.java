@@ -0,0 +1,92 @@
+package com.wizbl.core.db2.core;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedBytes;
+import com.wizbl.core.db2.common.Value;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * SnapshotImpl 계층들과 SnapshotRoot의 정렬된 iterator를 k-way merge하여 key 순서로 반환함. <br/>
+ *  - 같은 key가 여러 계층에 있으면 가장 최근 계층의 값만 사용하고, DELETE(값이 null)인 key는 건너뜀. <br/>
+ *  - 각 iterator의 현재 entry만 유지하므로 전체 dirty key를 미리 모으지 않음.
+ */
+final class MergeIterator extends AbstractIterator<Map.Entry<byte[], byte[]>> {
+
+  private static final Comparator<byte[]> KEY_COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+  private static final class Cursor {
+
+    // 작을수록 최근 계층임. root는 가장 큼.
+    private final int rank;
+    private final Iterator<? extends Map.Entry<byte[], ?>> iterator;
+    private byte[] key;
+    private Object value;
+
+    private Cursor(int rank, Iterator<? extends Map.Entry<byte[], ?>> iterator) {
+      this.rank = rank;
+      this.iterator = iterator;
+    }
+
+    private boolean advance() {
+      if (!iterator.hasNext()) {
+        return false;
+      }
+      Map.Entry<byte[], ?> entry = iterator.next();
+      key = entry.getKey();
+      value = entry.getValue();
+      return true;
+    }
+
+    private byte[] getBytes() {
+      return value instanceof Value ? ((Value) value).getBytes() : (byte[]) value;
+    }
+  }
+
+  private final PriorityQueue<Cursor> queue;
+
+  /**
+   * @param layers 최근 계층부터 순서대로 나열한 계층별 정렬 iterator
+   * @param root SnapshotRoot의 iterator
+   */
+  MergeIterator(List<Iterator<Map.Entry<byte[], Value>>> layers,
+      Iterator<Map.Entry<byte[], byte[]>> root) {
+    queue = new PriorityQueue<>(layers.size() + 1, (c1, c2) -> {
+      int c = KEY_COMPARATOR.compare(c1.key, c2.key);
+      return c != 0 ? c : Integer.compare(c1.rank, c2.rank);
+    });
+    int rank = 0;
+    for (Iterator<Map.Entry<byte[], Value>> layer : layers) {
+      offer(new Cursor(rank++, layer));
+    }
+    offer(new Cursor(rank, root));
+  }
+
+  private void offer(Cursor cursor) {
+    if (cursor.advance()) {
+      queue.add(cursor);
+    }
+  }
+
+  @Override
+  protected Map.Entry<byte[], byte[]> computeNext() {
+    while (!queue.isEmpty()) {
+      Cursor top = queue.poll();
+      byte[] key = top.key;
+      byte[] value = top.getBytes();
+      offer(top);
+      // 같은 key를 가진 이전 계층의 entry는 가려지므로 건너뜀.
+      while (!queue.isEmpty() && KEY_COMPARATOR.compare(queue.peek().key, key) == 0) {
+        offer(queue.poll());
+      }
+      if (value != null) {
+        return Maps.immutableEntry(key, value);
+      }
+    }
+    return endOfData();
+  }
+}
@@ -28,12 +28,17 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
   //true:fullnode, false:soliditynode
   private ThreadLocal<Boolean> mode = new ThreadLocal<>();
   private Snapshot head;
+  // reset() 전까지 head가 바뀌어도 root는 같음. prefetch()가 lock 없이 읽을 수 있도록 따로 보관함.
+  private volatile SnapshotRoot root;
   @Getter
   private String dbName;
+  // revoke, pop, reset 등으로 head의 값이 이전 상태로 되돌아갈 때마다 증가함. 값 cache의 유효성 확인에 사용됨.
+  @Getter
+  private volatile long revokeVersion = 0;
 
   public RevokingDBWithCachingNewValue(String dbName) {
     this.dbName = dbName;
-    head = new SnapshotRoot(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName);
+    head = root = new SnapshotRoot(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName);
     mode.set(true);
   }
 
@@ -58,6 +63,29 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     this.head = head;
   }
 
+  /**
+   * flush 이후 남은 계층으로 SnapshotRoot의 key filter를 다시 생성함. <br/>
+   * flush thread에서 호출되므로 store lock을 잡아 블록 처리 thread의 put/remove(markKey)와 겹치지 않게 함.
+   */
+  public synchronized void rebuildKeyFilter() {
+    root.rebuildKeyFilter(head);
+  }
+
+  /**
+   * revokeVersion을 증가시키고 head를 이전 snapshot으로 되돌림. <br/>
+   * lock 없이 cache를 확인하는 쪽(DynamicPropertiesStore)이 이전 version을 읽었다면 아직 head가 되돌아가기 전이어야 하므로,
+   * head를 바꾸기 전에 version을 먼저 증가시킴.
+   */
+  public synchronized void retreat() {
+    ++revokeVersion;
+    setHead(getHead().retreat());
+  }
+
+  // solidity mode에서는 head가 아닌 solidity snapshot을 읽음.
+  public boolean isSolidityMode() {
+    return mode.get() != null && !mode.get();
+  }
+
   /**
    * close the database.
    */
@@ -68,9 +96,11 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 
   @Override
   public synchronized void reset() {
+    // retreat()와 같이 head를 바꾸기 전에 version을 먼저 증가시킴.
+    ++revokeVersion;
     head().reset();
     head().close();
-    head = new SnapshotRoot(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName);
+    head = root = new SnapshotRoot(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName);
   }
 
   @Override
@@ -98,6 +128,15 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     return head().get(key);
   }
 
+  /**
+   * SnapshotImpl 계층을 거치지 않고 SnapshotRoot에서만 값을 읽음. 읽은 값은 사용하지 않음. <br/>
+   * store lock을 잡지 않고 head도 읽지 않으므로 다른 thread에서 호출해도 블록 처리 thread와 경쟁하지 않음.
+   */
+  @Override
+  public void prefetch(byte[] key) {
+    root.get(key);
+  }
+
   @Override
   public synchronized boolean has(byte[] key) {
     return getUnchecked(key) != null;
@@ -108,6 +147,20 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
     return head().iterator();
   }
 
+  /**
+   * root에 저장된 key의 수에 각 SnapshotImpl 계층의 key 수 증감(sizeDelta)을 더함. <br/>
+   * root의 key 수는 처음 한 번만 세고 이후에는 flush 시 증감으로 갱신하므로, 계층 수에 비례하는 비용만 듦.
+   */
+  @Override
+  public synchronized long size() {
+    Snapshot head = head();
+    long size = ((SnapshotRoot) head.getRoot()).size();
+    for (Snapshot snapshot = head; Snapshot.isImpl(snapshot); snapshot = snapshot.getPrevious()) {
+      size += ((SnapshotImpl) snapshot).getSizeDelta();
+    }
+    return size;
+  }
+
   //for blockstore
   @Override
   public Set<byte[]> getlatestValues(long limit) {
@@ -76,6 +76,11 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
     }
   }
 
+  @Override
+  public void prefetch(byte[] key) {
+    dbSource.getData(key);
+  }
+
   @Override
   public void close() {
     dbSource.closeDB();
@@ -114,6 +119,11 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
     }
   }
 
+  @Override
+  public long size() {
+    return dbSource.getTotal();
+  }
+
   @Override
   public Iterator<Map.Entry<byte[], byte[]>> iterator() {
     return dbSource.iterator();
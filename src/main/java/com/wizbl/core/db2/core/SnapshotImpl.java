@@ -1,8 +1,6 @@
 package com.wizbl.core.db2.core;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterators;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import lombok.Getter;
 import com.wizbl.core.db.common.WrappedByteArray;
@@ -10,21 +8,24 @@ import com.wizbl.core.db2.common.HashDB;
 import com.wizbl.core.db2.common.Key;
 import com.wizbl.core.db2.common.Value;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   @Getter
   protected Snapshot root;
+  private final HashDB hashDB;
+  // 이 계층의 기록으로 인한 key 수의 증감. CREATE는 +1, DELETE는 -1, MODIFY는 0으로 계산함.
+  @Getter
+  private long sizeDelta;
 
   SnapshotImpl(Snapshot snapshot) {
     root = snapshot.getRoot();
     previous = snapshot;
     snapshot.setNext(this);
-    db = new HashDB();
+    db = hashDB = new HashDB();
   }
 
   @Override
@@ -37,20 +38,69 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     Preconditions.checkNotNull(key, "key in db is not null.");
     Preconditions.checkNotNull(value, "value in db is not null.");
 
-    db.put(Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+    // 이전 계층 또는 root에 있던 key이면 MODIFY, 없던 key이면 CREATE로 기록함.
+    Value previous = hashDB.get(key);
+    Value.Operator operator = existedBelow(key, previous) ? Value.Operator.MODIFY
+        : Value.Operator.CREATE;
+    // HashDB가 key를 arena로 복사하므로 Key 객체를 만들지 않음.
+    hashDB.put(key, Value.copyOf(operator, value));
+    sizeDelta += sizeOf(operator) - sizeOf(previous);
+    ((SnapshotRoot) root).markKey(key);
   }
 
+  /**
+   * 이전 계층 또는 root에 있던 key이면 DELETE로 기록하고, 이 계층에서 생성된 key이면 entry를 지움.
+   */
   @Override
   public void remove(byte[] key) {
     Preconditions.checkNotNull(key, "key in db is not null.");
-    db.put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+    Value previous = hashDB.get(key);
+    if (existedBelow(key, previous)) {
+      hashDB.put(key, Value.of(Value.Operator.DELETE, null));
+      sizeDelta += sizeOf(Value.Operator.DELETE) - sizeOf(previous);
+      ((SnapshotRoot) root).markKey(key);
+    } else if (previous != null) {
+      hashDB.remove(key);
+      sizeDelta -= sizeOf(previous);
+    }
+  }
+
+  /**
+   * 이 계층 아래(이전 계층 또는 root)에 key가 있는지 확인함. 이 계층에 이미 기록된 key는 기록된 operator로 판단하므로
+   * 계층마다 key를 처음 기록할 때만 아래 계층을 읽음.
+   */
+  private boolean existedBelow(byte[] key, Value current) {
+    if (current != null) {
+      return current.getOperator() != Value.Operator.CREATE;
+    }
+    return get(previous, key) != null;
+  }
+
+  private static long sizeOf(Value value) {
+    return value == null ? 0 : sizeOf(value.getOperator());
+  }
+
+  private static long sizeOf(Value.Operator operator) {
+    switch (operator) {
+      case CREATE:
+        return 1;
+      case DELETE:
+        return -1;
+      default:
+        return 0;
+    }
   }
 
   private byte[] get(Snapshot head, byte[] key) {
+    // 어느 계층에도 기록되지 않은 key는 계층 탐색 없이 root에서 읽음.
+    if (!((SnapshotRoot) root).mightContainInChain(key)) {
+      return root.get(key);
+    }
+
     Snapshot snapshot = head;
     Value value;
     while (Snapshot.isImpl(snapshot)) {
-      if ((value = ((SnapshotImpl) snapshot).db.get(Key.of(key))) != null) {
+      if ((value = ((SnapshotImpl) snapshot).hashDB.get(key)) != null) {
         return value.getBytes();
       }
 
@@ -75,7 +125,16 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   @Override
   public void merge(Snapshot from) {
     SnapshotImpl fromImpl = (SnapshotImpl) from;
-    Streams.stream(fromImpl.db).forEach(e -> db.put(e.getKey(), e.getValue()));
+    // 양쪽에 있는 key는 이 계층 아래에 있었는지(기존 operator)와 from의 최종 값으로 operator를 다시 정함.
+    hashDB.merge(fromImpl.hashDB, (previous, value) -> {
+      boolean existed = previous.getOperator() != Value.Operator.CREATE;
+      if (value.getOperator() == Value.Operator.DELETE) {
+        return existed ? value : null;
+      }
+      return Value.of(existed ? Value.Operator.MODIFY : Value.Operator.CREATE, value.getBytes());
+    });
+    // 두 계층의 증감은 각각 바로 아래 상태 기준이므로 합하면 merge된 계층의 증감과 같음.
+    sizeDelta += fromImpl.sizeDelta;
   }
 
   // we have a 4x4 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -150,18 +209,16 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     return root.getSolidity();
   }
 
+  /**
+   * 이 snapshot부터 root까지의 계층을 key 순서로 merge하여 반환함. DELETE된 key는 포함하지 않음.
+   */
   @Override
   public Iterator<Map.Entry<byte[],byte[]>> iterator() {
-    Map<WrappedByteArray, WrappedByteArray> all = new HashMap<>();
-    collect(all);
-    Set<WrappedByteArray> keys = new HashSet<>(all.keySet());
-    all.entrySet()
-        .removeIf(entry -> entry.getValue() == null || entry.getValue().getBytes() == null);
-    return Iterators.concat(
-        Iterators.transform(all.entrySet().iterator(),
-            e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes())),
-        Iterators.filter(getRoot().iterator(),
-            e -> !keys.contains(WrappedByteArray.of(e.getKey()))));
+    List<Iterator<Map.Entry<byte[], Value>>> layers = new ArrayList<>();
+    for (Snapshot snapshot = this; Snapshot.isImpl(snapshot); snapshot = snapshot.getPrevious()) {
+      layers.add(((SnapshotImpl) snapshot).hashDB.sortedIterator());
+    }
+    return new MergeIterator(layers, getRoot().iterator());
   }
 
   void collect(Map<WrappedByteArray, WrappedByteArray> all) {
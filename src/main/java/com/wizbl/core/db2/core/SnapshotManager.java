@@ -1,7 +1,8 @@
 package com.wizbl.core.db2.core;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.Maps;
-import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -9,6 +10,9 @@ import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -24,11 +28,12 @@ import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.iq80.leveldb.WriteOptions;
 import com.wizbl.common.storage.leveldb.LevelDbDataSourceImpl;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.core.config.args.Args;
 import com.wizbl.core.db.RevokingDatabase;
-import com.wizbl.core.db.common.WrappedByteArray;
+import com.wizbl.core.db2.common.CheckpointJournal;
 import com.wizbl.core.db2.common.DB;
 import com.wizbl.core.db2.common.IRevokingDB;
 import com.wizbl.core.db2.common.Key;
@@ -45,6 +50,8 @@ public class SnapshotManager implements RevokingDatabase {
     private static final int DEFAULT_STACK_MAX_SIZE = 256;
     public static final int DEFAULT_MAX_FLUSH_COUNT = 500;
     public static final int DEFAULT_MIN_FLUSH_COUNT = 1;
+    private static final String CHECKPOINT_DB_NAME = "checkpoint";
+    private static final String CHECKPOINT_FILE_NAME = "checkpoint.journal";
     @Getter
     private List<RevokingDBWithCachingNewValue> dbs = new ArrayList<>();
     @Getter
@@ -65,11 +72,20 @@ public class SnapshotManager implements RevokingDatabase {
 
     @Setter
     @Getter
-    private LevelDbDataSourceImpl tmpLevelDbDataSource;
+    private CheckpointJournal checkpointJournal;
 
     @Setter
     private volatile int maxFlushCount = DEFAULT_MIN_FLUSH_COUNT;
 
+    private final Timer flushTimer = MetricsUtil.timer("db.snapshot.flush");
+
+    private final Timer checkpointTimer = MetricsUtil.timer("db.snapshot.checkpoint");
+
+    private final Timer refreshTimer = MetricsUtil.timer("db.snapshot.refresh");
+
+    // flush 한 번에 root로 merge한 snapshot 수
+    private final Histogram flushSnapshots = MetricsUtil.histogram("db.snapshot.flushCount");
+
     public ISession buildSession() {
         return buildSession(false);
     }
@@ -124,7 +140,7 @@ public class SnapshotManager implements RevokingDatabase {
     }
 
     private void retreat() {
-        dbs.forEach(db -> db.setHead(db.getHead().retreat()));
+        dbs.forEach(RevokingDBWithCachingNewValue::retreat);
         --size;
     }
 
@@ -138,7 +154,9 @@ public class SnapshotManager implements RevokingDatabase {
         }
 
         dbs.forEach(db -> db.getHead().getPrevious().merge(db.getHead()));
-        retreat();
+        // merge 후에는 읽히는 값이 바뀌지 않으므로 revokeVersion을 증가시키지 않음.
+        dbs.forEach(db -> db.setHead(db.getHead().retreat()));
+        --size;
         --activeSession;
     }
 
@@ -231,7 +249,10 @@ public class SnapshotManager implements RevokingDatabase {
             System.out.println(e.getMessage() + e);
             Thread.currentThread().interrupt();
         }
-        tmpLevelDbDataSource.closeDB();
+        // check()가 호출되기 전에 종료되면 journal이 열려 있지 않음.
+        if (checkpointJournal != null) {
+            checkpointJournal.close();
+        }
         System.err.println("******** end to pop revokingDb ********");
     }
 
@@ -247,7 +268,7 @@ public class SnapshotManager implements RevokingDatabase {
         return flushCount >= maxFlushCount;
     }
 
-    private void refresh() {
+    private boolean refresh() {
         List<ListenableFuture<?>> futures = new ArrayList<>(dbs.size());
         for (RevokingDBWithCachingNewValue db : dbs) {
             futures.add(flushServices.get(db.getDbName()).submit(() -> refreshOne(db)));
@@ -255,11 +276,13 @@ public class SnapshotManager implements RevokingDatabase {
         Future<?> future = Futures.allAsList(futures);
         try {
             future.get();
+            return true;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } catch (ExecutionException e) {
             logger.error(e.getMessage(), e);
         }
+        return false;
     }
 
     private void refreshOne(RevokingDBWithCachingNewValue db) {
@@ -285,6 +308,7 @@ public class SnapshotManager implements RevokingDatabase {
             next.getNext().setPrevious(root);
             root.setNext(next.getNext());
         }
+        db.rebuildKeyFilter();
     }
 
     public void flush() {
@@ -293,59 +317,59 @@ public class SnapshotManager implements RevokingDatabase {
         }
 
         if (shouldBeRefreshed()) {
-            long start = System.currentTimeMillis();
-            deleteCheckPoint();
-            createCheckPoint();
-            long checkPointEnd = System.currentTimeMillis();
-            refresh();
-            flushCount = 0;
-            logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}",
-                    System.currentTimeMillis() - start,
-                    checkPointEnd - start,
-                    System.currentTimeMillis() - checkPointEnd
-            );
+            Timer.Context flushContext = flushTimer.time();
+            try {
+                long start = System.currentTimeMillis();
+                try (Timer.Context ignored = checkpointTimer.time()) {
+                    createCheckPoint();
+                }
+                long checkPointEnd = System.currentTimeMillis();
+                // refresh가 실패하면 다음 기동 시 replay 할 수 있도록 checkpoint를 남겨둠.
+                boolean refreshed;
+                try (Timer.Context ignored = refreshTimer.time()) {
+                    refreshed = refresh();
+                }
+                if (refreshed) {
+                    checkpointJournal.truncate();
+                }
+                flushSnapshots.update(flushCount);
+                flushCount = 0;
+                logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}",
+                        System.currentTimeMillis() - start,
+                        checkPointEnd - start,
+                        System.currentTimeMillis() - checkPointEnd
+                );
+            } finally {
+                flushContext.stop();
+            }
         }
     }
 
+    /**
+     * flush 대상 snapshot의 변경 내용을 checkpoint journal에 순차적으로 기록함. <br/>
+     * 같은 key가 여러 snapshot에 있으면 뒤에 기록된 값이 replay 시 적용됨.
+     */
     private void createCheckPoint() {
-        Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
         for (RevokingDBWithCachingNewValue db : dbs) {
-            Snapshot head = db.getHead();
-            if (Snapshot.isRoot(head)) {
+            if (Snapshot.isRoot(db.getHead())) {
                 return;
             }
+        }
 
+        checkpointJournal.begin();
+        for (RevokingDBWithCachingNewValue db : dbs) {
             String dbName = db.getDbName();
-            Snapshot next = head.getRoot();
+            Snapshot next = db.getHead().getRoot();
             for (int i = 0; i < flushCount; ++i) {
                 next = next.getNext();
                 SnapshotImpl snapshot = (SnapshotImpl) next;
                 DB<Key, Value> keyValueDB = snapshot.getDb();
                 for (Map.Entry<Key, Value> e : keyValueDB) {
-                    Key k = e.getKey();
-                    Value v = e.getValue();
-                    batch.put(WrappedByteArray.of(Bytes.concat(simpleEncode(dbName), k.getBytes())),
-                            WrappedByteArray.of(v.encode()));
+                    checkpointJournal.append(dbName, e.getKey().getBytes(), e.getValue().encode());
                 }
             }
         }
-
-        tmpLevelDbDataSource.updateByBatch(batch.entrySet().stream()
-                        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-                        .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll),
-                new WriteOptions().sync(Args.getInstance().getStorage().isDbSync()));
-    }
-
-    private void deleteCheckPoint() {
-        Map<byte[], byte[]> hmap = new HashMap<byte[], byte[]>();
-        if (!tmpLevelDbDataSource.allKeys().isEmpty()) {
-            for (Map.Entry<byte[], byte[]> e : tmpLevelDbDataSource) {
-                hmap.put(e.getKey(), null);
-            }
-        }
-
-        tmpLevelDbDataSource.updateByBatch(hmap, new WriteOptions()
-                .sync(Args.getInstance().getStorage().isDbSync()));
+        checkpointJournal.commit();
     }
 
     // ensure run this method first after process start.
@@ -361,46 +385,77 @@ public class SnapshotManager implements RevokingDatabase {
             }
         }
 
-        tmpLevelDbDataSource = new LevelDbDataSourceImpl(Args.getInstance().getOutputDirectoryByDbName("tmp"), "tmp");
-        tmpLevelDbDataSource.initDB();
-        // tmp DB에 기존에 처리되지 않은 데이터가 존재하는 경우에만 실행됨.
-        if (!tmpLevelDbDataSource.allKeys().isEmpty()) {
-            Map<String, RevokingDBWithCachingNewValue> dbMap = dbs.stream()
-                    .map(db -> Maps.immutableEntry(db.getDbName(), db))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-            advance();
-            for (Map.Entry<byte[], byte[]> e : tmpLevelDbDataSource) {
-                byte[] key = e.getKey();
-                byte[] value = e.getValue();
-                String db = simpleDecode(key);
-                if (dbMap.get(db) == null) {
-                    continue;
-                }
-                byte[] realKey = Arrays.copyOfRange(key, db.getBytes().length + 4, key.length);
+        Map<String, RevokingDBWithCachingNewValue> dbMap = dbs.stream()
+                .map(db -> Maps.immutableEntry(db.getDbName(), db))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-                byte[] realValue = value.length == 1 ? null : Arrays.copyOfRange(value, 1, value.length);
-                if (realValue != null) {
-                    dbMap.get(db).getHead().put(realKey, realValue);
-                } else {
-                    dbMap.get(db).getHead().remove(realKey);
-                }
+        // 이전 버전의 tmp LevelDB checkpoint가 남아 있으면 먼저 반영한 후 삭제함.
+        checkLegacyCheckPoint(dbMap);
 
+        if (checkpointJournal == null) {
+            checkpointJournal = new CheckpointJournal(
+                    Paths.get(Args.getInstance().getOutputDirectoryByDbName(CHECKPOINT_DB_NAME),
+                            Args.getInstance().getStorage().getDbDirectory(), CHECKPOINT_DB_NAME,
+                            CHECKPOINT_FILE_NAME),
+                    Args.getInstance().getStorage().isDbSync());
+            try {
+                checkpointJournal.open();
+            } catch (IOException e) {
+                throw new IllegalStateException("failed to open checkpoint journal", e);
             }
+        }
 
+        // journal에 처리되지 않은 checkpoint가 존재하는 경우에만 실행됨.
+        List<CheckpointJournal.Record> records = checkpointJournal.replay();
+        if (!records.isEmpty()) {
+            advance();
+            for (CheckpointJournal.Record record : records) {
+                replayOne(dbMap.get(record.getDbName()), record.getKey(), record.getValue());
+            }
             dbs.forEach(db -> db.getHead().getRoot().merge(db.getHead()));
             retreat();
         }
+        checkpointJournal.truncate();
 
         unChecked = false;
     }
 
-    private byte[] simpleEncode(String s) {
-        byte[] bytes = s.getBytes();
-        byte[] length = Ints.toByteArray(bytes.length);
-        byte[] r = new byte[4 + bytes.length];
-        System.arraycopy(length, 0, r, 0, 4);
-        System.arraycopy(bytes, 0, r, 4, bytes.length);
-        return r;
+    private void replayOne(RevokingDBWithCachingNewValue db, byte[] key, byte[] value) {
+        if (db == null) {
+            return;
+        }
+
+        byte[] realValue = value.length == 1 ? null : Arrays.copyOfRange(value, 1, value.length);
+        if (realValue != null) {
+            db.getHead().put(key, realValue);
+        } else {
+            db.getHead().remove(key);
+        }
+    }
+
+    private void checkLegacyCheckPoint(Map<String, RevokingDBWithCachingNewValue> dbMap) {
+        File legacyDir = Paths.get(Args.getInstance().getOutputDirectoryByDbName("tmp"),
+                Args.getInstance().getStorage().getDbDirectory(), "tmp").toFile();
+        if (!legacyDir.exists()) {
+            return;
+        }
+
+        LevelDbDataSourceImpl tmpLevelDbDataSource =
+                new LevelDbDataSourceImpl(Args.getInstance().getOutputDirectoryByDbName("tmp"), "tmp");
+        tmpLevelDbDataSource.initDB();
+        if (!tmpLevelDbDataSource.allKeys().isEmpty()) {
+            advance();
+            for (Map.Entry<byte[], byte[]> e : tmpLevelDbDataSource) {
+                byte[] key = e.getKey();
+                String db = simpleDecode(key);
+                byte[] realKey = Arrays.copyOfRange(key, db.getBytes().length + 4, key.length);
+                replayOne(dbMap.get(db), realKey, e.getValue());
+            }
+            dbs.forEach(db -> db.getHead().getRoot().merge(db.getHead()));
+            retreat();
+        }
+        tmpLevelDbDataSource.closeDB();
+        FileUtil.deleteDir(legacyDir);
     }
 
     /**
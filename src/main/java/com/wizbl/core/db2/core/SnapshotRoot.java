@@ -9,20 +9,70 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.Getter;
+import com.wizbl.core.config.args.Args;
 import com.wizbl.core.db.common.WrappedByteArray;
+import com.wizbl.core.db2.common.Key;
+import com.wizbl.core.db2.common.KeyBloomFilter;
 import com.wizbl.core.db2.common.LevelDB;
+import com.wizbl.core.db2.common.Value;
 
 /**
  * SnapshotRoot 클래스는 LevelDB로 구현되어 있는 개별 DB를 제어하기 위한 클래스임. <br/>
  */
 public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
+  private static final int MAX_EXPECTED_KEYS = 1 << 24;
+
   @Getter
   private Snapshot solidity;
 
+  // LevelDB에 저장된 key의 수. 처음 요청될 때 한 번 세고, 이후에는 flush한 계층의 증감(sizeDelta)으로 갱신함.
+  // -1이면 아직 세지 않았음.
+  private long size = -1;
+
+  // keyFilter의 최소 크기. storage.snapshot.keyFilterSize에서 시작하며, filter가 saturated되면 다음 rebuild에서 두 배로 늘림.
+  private int expectedKeys;
+
+  // 이 root 위의 SnapshotImpl 계층들에 기록된 key. SnapshotImpl.get에서 계층 탐색을 건너뛰는 데 사용함.
+  private volatile KeyBloomFilter keyFilter;
+
   public SnapshotRoot(String parentName, String name) {
     db = new LevelDB(parentName, name);
     solidity = this;
+    expectedKeys = Args.getInstance().getStorage().getSnapshotKeyFilterSize();
+    keyFilter = new KeyBloomFilter(expectedKeys);
+  }
+
+  void markKey(byte[] key) {
+    keyFilter.add(key);
+  }
+
+  boolean mightContainInChain(byte[] key) {
+    return keyFilter.mightContain(key);
+  }
+
+  /**
+   * flush 이후 head부터 root까지 남아 있는 SnapshotImpl 계층의 key로 filter를 다시 생성함. <br/>
+   * markKey와 계층의 HashDB 변경은 store lock 안에서만 일어나므로 반드시 store lock을 잡고 호출해야 함.
+   * (RevokingDBWithCachingNewValue.rebuildKeyFilter)
+   */
+  void rebuildKeyFilter(Snapshot head) {
+    long total = 0;
+    for (Snapshot snapshot = head; Snapshot.isImpl(snapshot); snapshot = snapshot.getPrevious()) {
+      total += ((SnapshotImpl) snapshot).getDb().size();
+    }
+
+    if (keyFilter.isSaturated()) {
+      expectedKeys = Math.min(MAX_EXPECTED_KEYS, expectedKeys * 2);
+    }
+    KeyBloomFilter filter = new KeyBloomFilter(
+        (int) Math.min(Integer.MAX_VALUE, Math.max(expectedKeys, total * 2)));
+    for (Snapshot snapshot = head; Snapshot.isImpl(snapshot); snapshot = snapshot.getPrevious()) {
+      for (Map.Entry<Key, Value> e : ((SnapshotImpl) snapshot).getDb()) {
+        filter.add(e.getKey().getBytes());
+      }
+    }
+    keyFilter = filter;
   }
 
   @Override
@@ -30,37 +80,68 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
     return db.get(key);
   }
 
+  /**
+   * LevelDB에 저장된 key의 수. 처음 호출할 때만 전체를 셈.
+   */
+  public synchronized long size() {
+    if (size < 0) {
+      size = db.size();
+    }
+    return size;
+  }
+
+  // 기록과 key 수 갱신 사이에 size()가 전체를 세지 않도록 같은 lock 안에서 처리함.
+  // 아직 세지 않았으면 처음 size()를 호출할 때 세므로 갱신하지 않음.
+  private synchronized void flush(Map<WrappedByteArray, WrappedByteArray> batch, long sizeDelta) {
+    ((LevelDB) db).flush(batch);
+    if (size >= 0) {
+      size += sizeDelta;
+    }
+  }
+
+  /**
+   * SnapshotImpl 계층 없이 root에 바로 쓰는 경우(session 밖의 쓰기). key 수를 센 이후에는 기존 key인지 확인하여 갱신함.
+   */
   @Override
-  public void put(byte[] key, byte[] value) {
+  public synchronized void put(byte[] key, byte[] value) {
+    boolean counted = size >= 0 && db.get(key) == null;
     db.put(key, value);
+    if (counted) {
+      size++;
+    }
   }
 
   @Override
-  public void remove(byte[] key) {
+  public synchronized void remove(byte[] key) {
+    boolean counted = size >= 0 && db.get(key) != null;
     db.remove(key);
+    if (counted) {
+      size--;
+    }
   }
 
   @Override
   public void merge(Snapshot from) {
-    LevelDB levelDB = (LevelDB) db;
     SnapshotImpl snapshot = (SnapshotImpl) from;
     Map<WrappedByteArray, WrappedByteArray> batch = Streams.stream(snapshot.db)
         .map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
             WrappedByteArray.of(e.getValue().getBytes())))
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    levelDB.flush(batch);
+    flush(batch, snapshot.getSizeDelta());
   }
 
   public void merge(List<Snapshot> snapshots) {
     Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+    long sizeDelta = 0;
     for (Snapshot snapshot : snapshots) {
       SnapshotImpl from = (SnapshotImpl) snapshot;
+      sizeDelta += from.getSizeDelta();
       Streams.stream(from.db)
           .map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
               WrappedByteArray.of(e.getValue().getBytes())))
           .forEach(e -> batch.put(e.getKey(), e.getValue()));
     }
-    ((LevelDB) db).flush(batch);
+    flush(batch, sizeDelta);
   }
 
   @Override
@@ -86,6 +167,9 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   @Override
   public void reset() {
     ((LevelDB) db).reset();
+    synchronized (this) {
+      size = -1;
+    }
   }
 
   @Override
@@ -4,29 +4,79 @@ import com.wizbl.common.utils.Sha256Hash;
 import com.wizbl.core.capsule.BlockCapsule;
 import com.wizbl.core.capsule.BlockCapsule.BlockId;
 import com.wizbl.core.exception.BadItemException;
+import com.wizbl.protos.Protocol.Block;
+import com.wizbl.protos.Protocol.BlockHeader;
+import java.io.IOException;
 
 public class BlockMessage extends Brte2Message {
 
-  private BlockCapsule block;
+  // ofStoredData로 만든 경우 getBlockCapsule()을 처음 호출할 때 parse함.
+  private volatile BlockCapsule block;
+
+  private final BlockId blockId;
+
+  private final long timeStamp;
+
+  private final int transactionCount;
 
   public BlockMessage(byte[] data) throws BadItemException {
     this.type = MessageTypes.BLOCK.asByte();
     this.data = data;
-    this.block = new BlockCapsule(data);
+    try {
+      this.block = new BlockCapsule(Block.parseFrom(newAliasedInput(data)));
+    } catch (IOException e) {
+      throw new BadItemException("Block proto data parse exception");
+    }
+    this.blockId = block.getBlockId();
+    this.timeStamp = block.getTimeStamp();
+    this.transactionCount = block.getTransactions().size();
   }
 
   public BlockMessage(BlockCapsule block) {
     data = block.getData();
     this.type = MessageTypes.BLOCK.asByte();
     this.block = block;
+    this.blockId = block.getBlockId();
+    this.timeStamp = block.getTimeStamp();
+    this.transactionCount = block.getTransactions().size();
+  }
+
+  private BlockMessage(byte[] data, BlockHeader header, int transactionCount) {
+    this.type = MessageTypes.BLOCK.asByte();
+    this.data = data;
+    this.blockId = BlockCapsule.getBlockId(header);
+    this.timeStamp = header.getRawData().getTimestamp();
+    this.transactionCount = transactionCount;
+  }
+
+  /**
+   * BlockStore에 저장된 block 데이터를 peer에 그대로 전송하기 위한 message를 만듦. <br/>
+   * block_header만 parse하며, transaction을 포함한 block 전체는 getBlockCapsule()이 필요할 때 parse함.
+   */
+  public static BlockMessage ofStoredData(byte[] data) throws BadItemException {
+    return new BlockMessage(data, BlockCapsule.parseHeader(data),
+        BlockCapsule.countTransactions(data));
   }
 
   public BlockId getBlockId() {
-    return getBlockCapsule().getBlockId();
+    return blockId;
+  }
+
+  public long getTimeStamp() {
+    return timeStamp;
   }
 
   public BlockCapsule getBlockCapsule() {
-    return block;
+    BlockCapsule capsule = block;
+    if (capsule == null) {
+      try {
+        capsule = new BlockCapsule(data);
+      } catch (BadItemException e) {
+        throw new IllegalStateException("stored block " + blockId.getString() + " is broken", e);
+      }
+      block = capsule;
+    }
+    return capsule;
   }
 
   @Override
@@ -36,7 +86,7 @@ public class BlockMessage extends Brte2Message {
 
   @Override
   public Sha256Hash getMessageId() {
-    return getBlockCapsule().getBlockId();
+    return blockId;
   }
 
   @Override
@@ -51,7 +101,7 @@ public class BlockMessage extends Brte2Message {
 
   @Override
   public String toString() {
-    return new StringBuilder().append(super.toString()).append(block.getBlockId().getString())
-        .append(", trx size: ").append(block.getTransactions().size()).append("\n").toString();
+    return new StringBuilder().append(super.toString()).append(blockId.getString())
+        .append(", trx size: ").append(transactionCount).append("\n").toString();
   }
 }
@@ -1,31 +1,43 @@
 package com.wizbl.core.net.message;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.List;
-import org.apache.commons.collections4.CollectionUtils;
+import com.wizbl.core.exception.P2pException;
 import com.wizbl.protos.Protocol.Block;
 import com.wizbl.protos.Protocol.Items;
 
 public class BlocksMessage extends Brte2Message {
 
-  private List<Block> blocks;
+  // 수신한 block 목록은 getBlocks()를 처음 호출할 때 parse함.
+  private volatile List<Block> blocks;
+
+  private volatile boolean parsed;
 
   public BlocksMessage(byte[] data) throws Exception {
     this.type = MessageTypes.BLOCKS.asByte();
     this.data = data;
-    Items items = Items.parseFrom(data);
-    if (items.getType() == Items.ItemType.BLOCK) {
-      blocks = items.getBlocksList();
-    }
   }
 
-  public List<Block> getBlocks() {
+  public List<Block> getBlocks() throws P2pException {
+    if (!parsed) {
+      try {
+        // 각 block은 따로 보관되므로 frame 전체를 참조하지 않도록 복사하여 parse함.
+        Items items = Items.parseFrom(data);
+        if (items.getType() == Items.ItemType.BLOCK) {
+          blocks = items.getBlocksList();
+        }
+      } catch (InvalidProtocolBufferException e) {
+        throw new P2pException(P2pException.TypeEnum.PARSE_MESSAGE_FAILED,
+            "type=" + getType() + ", len=" + data.length);
+      }
+      parsed = true;
+    }
     return blocks;
   }
 
   @Override
   public String toString() {
-    return super.toString() + "size: " + (CollectionUtils.isNotEmpty(blocks) ? blocks
-        .size() : 0);
+    return super.toString() + "len: " + data.length;
   }
 
   @Override
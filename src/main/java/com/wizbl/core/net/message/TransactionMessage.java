@@ -4,13 +4,18 @@ import com.wizbl.common.utils.Sha256Hash;
 import com.wizbl.core.capsule.TransactionCapsule;
 import com.wizbl.core.exception.BadItemException;
 import com.wizbl.protos.Protocol.Transaction;
+import java.io.IOException;
 
 public class TransactionMessage extends Brte2Message {
 
   private TransactionCapsule transactionCapsule;
 
   public TransactionMessage(byte[] data) throws BadItemException {
-    this.transactionCapsule = new TransactionCapsule(data);
+    try {
+      this.transactionCapsule = new TransactionCapsule(Transaction.parseFrom(newAliasedInput(data)));
+    } catch (IOException e) {
+      throw new BadItemException("Transaction proto data parse exception");
+    }
     this.data = data;
     this.type = MessageTypes.TRX.asByte();
   }
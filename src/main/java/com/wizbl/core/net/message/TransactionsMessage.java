@@ -20,6 +20,7 @@ public class TransactionsMessage extends Brte2Message {
   public TransactionsMessage(byte[] data) throws Exception {
     this.type = MessageTypes.TRXS.asByte();
     this.data = data;
+    // 각 transaction은 TrxCache, pending 목록 등에 따로 보관되므로 frame 전체를 참조하지 않도록 복사하여 parse함.
     this.transactions = Protocol.Transactions.parseFrom(data);
   }
 
@@ -1,6 +1,11 @@
 package com.wizbl.core.net.node;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.wizbl.common.overlay.message.Message;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.common.utils.Sha256Hash;
 import com.wizbl.core.capsule.BlockCapsule;
 import com.wizbl.core.capsule.BlockCapsule.BlockId;
@@ -27,8 +32,24 @@ import static com.wizbl.core.config.Parameter.ChainConstant.BLOCK_SIZE;
 @Slf4j
 public class NodeDelegateImpl implements NodeDelegate {
 
+    // peer에 전송한 block message를 보관하는 cache의 최대 크기(직렬화된 block의 byte 수 합계 기준)
+    private static final long SERVED_BLOCK_CACHE_BYTES = 64L * 1024 * 1024;
+
     private Manager dbManager;
 
+    /**
+     * 최근 peer에 전송한(FetchInvData 요청을 받은) block message. <br/>
+     * 여러 peer가 sync 중에 같은 block을 요청하는 경우 BlockStore 조회와 header parse를 반복하지 않음.
+     * block id로 찾기 때문에 fork가 바뀌어도 무효화할 필요가 없음.
+     */
+    private final Cache<Sha256Hash, BlockMessage> servedBlockCache = CacheBuilder.newBuilder()
+            .maximumWeight(SERVED_BLOCK_CACHE_BYTES)
+            .weigher((Sha256Hash key, BlockMessage value) -> value.getData().length)
+            .build();
+
+    private final Meter servedBlockHit = MetricsUtil.meter("net.servedBlockCache.hit");
+    private final Meter servedBlockMiss = MetricsUtil.meter("net.servedBlockCache.miss");
+
     /**
      * NodeDelegateImpl 객체 생성
      *
@@ -36,6 +57,7 @@ public class NodeDelegateImpl implements NodeDelegate {
      */
     public NodeDelegateImpl(Manager dbManager) {
         this.dbManager = dbManager;
+        MetricsUtil.gauge("net.servedBlockCache.size", (Gauge<Long>) servedBlockCache::size);
     }
 
     /**
@@ -287,7 +309,16 @@ public class NodeDelegateImpl implements NodeDelegate {
             throws StoreException {
         switch (type) {
             case BLOCK:
-                return new BlockMessage(dbManager.getBlockById(hash));
+                // 저장된 block 데이터를 decode/encode 없이 그대로 전송함. (header만 parse)
+                BlockMessage blockMessage = servedBlockCache.getIfPresent(hash);
+                if (blockMessage != null) {
+                    servedBlockHit.mark();
+                    return blockMessage;
+                }
+                servedBlockMiss.mark();
+                blockMessage = BlockMessage.ofStoredData(dbManager.getBlockDataById(hash));
+                servedBlockCache.put(hash, blockMessage);
+                return blockMessage;
             case TRX:
                 TransactionCapsule tx = dbManager.getTransactionStore().get(hash.getBytes());
                 if (tx != null) {
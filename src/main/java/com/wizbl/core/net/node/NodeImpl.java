@@ -1,10 +1,12 @@
 package com.wizbl.core.net.node;
 
+import com.codahale.metrics.Gauge;
 import com.wizbl.common.overlay.discover.node.statistics.MessageCount;
 import com.wizbl.common.overlay.message.Message;
 import com.wizbl.common.overlay.server.Channel.Brte2State;
 import com.wizbl.common.overlay.server.SyncPool;
 import com.wizbl.common.utils.ExecutorLoop;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.common.utils.Sha256Hash;
 import com.wizbl.common.utils.SlidingWindowCounter;
 import com.wizbl.common.utils.Time;
@@ -18,6 +20,7 @@ import com.wizbl.core.config.args.Args;
 import com.wizbl.core.exception.*;
 import com.wizbl.core.exception.P2pException.TypeEnum;
 import com.wizbl.core.net.message.*;
+import com.wizbl.core.net.peer.InventoryFilter;
 import com.wizbl.core.net.peer.PeerConnection;
 import com.wizbl.core.net.peer.PeerConnectionDelegate;
 import com.wizbl.core.services.WitnessProductBlockService;
@@ -28,7 +31,6 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import javafx.util.Pair;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +43,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.wizbl.core.config.Parameter.ChainConstant.BLOCK_PRODUCED_INTERVAL;
 import static com.wizbl.core.config.Parameter.NetConstants.MAX_TRX_PER_PEER;
@@ -88,9 +91,6 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
 
     private final Object syncBlock = new Object();
     private final ScheduledExecutorService logExecutor = Executors.newSingleThreadScheduledExecutor();
-    private final ExecutorService trxsHandlePool = Executors.newFixedThreadPool(
-            Args.getInstance().getValidateSignThreadNum(),
-            new ThreadFactoryBuilder().setNameFormat("TrxsHandlePool-%d").build());
     private final Queue<BlockId> freshBlockId = new ConcurrentLinkedQueue<BlockId>() {
         @Override
         public boolean offer(BlockId blockId) {
@@ -111,6 +111,8 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
     private final ConcurrentHashMap<Sha256Hash, InventoryType> advObjToSpread = new ConcurrentHashMap<>();
     private final HashMap<Sha256Hash, Long> advObjWeRequested = new HashMap<>();
     private final ConcurrentHashMap<Sha256Hash, PriorItem> advObjToFetch = new ConcurrentHashMap<Sha256Hash, PriorItem>();
+    // 어느 peer에게든 spread한 transaction. onHandleInventoryMessage에서 peer 별 filter를 모두 확인하지 않도록 함.
+    private final InventoryFilter trxWeSpread = PeerConnection.newTrxInventoryFilter();
     private final ExecutorService broadPool = Executors.newFixedThreadPool(2, new ThreadFactory() {
         @Override
         public Thread newThread(Runnable r) {
@@ -217,9 +219,27 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
         trxHandler.init(this);
         isAdvertiseActive = true;
         isFetchActive = true;
+        registerInventoryFilterMetrics();
         activeBrte2Pump();
     }
 
+    /**
+     * transaction inventory filter(전역 + active peer 별)의 메모리 사용량, 저장된 hash 수, false positive 확률 추정치
+     */
+    private void registerInventoryFilterMetrics() {
+        MetricsUtil.gauge("net.inventoryFilter.memory", (Gauge<Long>) () -> inventoryFilters()
+                .mapToLong(InventoryFilter::memorySize).sum());
+        MetricsUtil.gauge("net.inventoryFilter.elements", (Gauge<Long>) () -> inventoryFilters()
+                .mapToLong(InventoryFilter::approximateElementCount).sum());
+        MetricsUtil.gauge("net.inventoryFilter.expectedFpp", (Gauge<Double>) () -> inventoryFilters()
+                .mapToDouble(InventoryFilter::expectedFpp).max().orElse(0));
+    }
+
+    private Stream<InventoryFilter> inventoryFilters() {
+        return Stream.concat(Stream.of(trxWeSpread), getActivePeer().stream()
+                .flatMap(peer -> Stream.of(peer.getTrxSpreadToUs(), peer.getTrxWeSpread())));
+    }
+
     @Override
     public void close() {
         getActivePeer().forEach(peer -> disconnectPeer(peer, ReasonCode.REQUESTED));
@@ -366,7 +386,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
                 return;
             }
             filterActivePeer.stream()
-                    .filter(peer -> peer.getAdvObjSpreadToUs().containsKey(hash)
+                    .filter(peer -> idToFetch.isAdvertisedBy(peer)
                             && sendPackage.getSize(peer) < MAX_TRX_PER_PEER)
                     .sorted(Comparator.comparingInt(peer -> sendPackage.getSize(peer)))
                     .findFirst().ifPresent(peer -> {
@@ -407,12 +427,17 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
                 .forEach(peer ->
                         spread.entrySet().stream()
                                 .filter(idToSpread ->
-                                        !peer.getAdvObjSpreadToUs().containsKey(idToSpread.getKey())
-                                                && !peer.getAdvObjWeSpread().containsKey(idToSpread.getKey()))
+                                        !peer.isAdvObjSpreadToUs(idToSpread.getKey(), idToSpread.getValue())
+                                                && !peer.isAdvObjWeSpread(idToSpread.getKey(), idToSpread.getValue()))
                                 .forEach(idToSpread -> {
-                                    peer.getAdvObjWeSpread().put(idToSpread.getKey(), Time.getCurrentMillis());
+                                    peer.addAdvObjWeSpread(idToSpread.getKey(), idToSpread.getValue());
                                     sendPackage.add(idToSpread, peer);
                                 }));
+        spread.forEach((id, type) -> {
+            if (type == InventoryType.TRX) {
+                trxWeSpread.put(id);
+            }
+        });
         sendPackage.sendInv();
     }
 
@@ -533,13 +558,17 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
             if (msg.getInventoryType().equals(InventoryType.TRX) && TrxCache.getIfPresent(id) != null) {
                 continue;
             }
-            final boolean[] spreaded = {false};
+            // transaction은 peer 별 filter를 모두 확인하지 않고 전역 filter(trxWeSpread)로 확인함.
+            final boolean[] spreaded = {msg.getInventoryType().equals(InventoryType.TRX)
+                    && trxWeSpread.mightContain(id)};
             final boolean[] requested = {false};
+            Item item = new Item(id, msg.getInventoryType());
             getActivePeer().forEach(p -> {
-                if (p.getAdvObjWeSpread().containsKey(id)) {
+                if (!spreaded[0] && msg.getInventoryType().equals(InventoryType.BLOCK)
+                        && p.isAdvObjWeSpread(id, InventoryType.BLOCK)) {
                     spreaded[0] = true;
                 }
-                if (p.getAdvObjWeRequested().containsKey(new Item(id, msg.getInventoryType()))) {
+                if (p.getAdvObjWeRequested().containsKey(item)) {
                     requested[0] = true;
                 }
             });
@@ -548,23 +577,18 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
                     && !peer.isNeedSyncFromPeer()
                     && !peer.isNeedSyncFromUs()) {
 
-                //avoid WBL flood attack here.
-//        if (msg.getInventoryType().equals(InventoryType.WBL)
-//            && (peer.isAdvInvFull() || isFlooded())) {
-//          logger.warn("A peer is flooding us, stop handle inv, the peer is: " + peer);
-//          return;
-//        }
-
-                peer.getAdvObjSpreadToUs().put(id, System.currentTimeMillis());
+                peer.addAdvObjSpreadToUs(id, msg.getInventoryType());
                 if (!requested[0]) {
                     PriorItem targetPriorItem = this.advObjToFetch.get(id);
                     if (targetPriorItem != null) {
                         //another peer tell this trx to us, refresh its time.
+                        targetPriorItem.addAdvertiser(peer);
                         targetPriorItem.refreshTime();
                     } else {
                         fetchWaterLine.increase();
-                        this.advObjToFetch.put(id, new PriorItem(new Item(id, msg.getInventoryType()),
-                                fetchSequenceCounter.incrementAndGet()));
+                        targetPriorItem = new PriorItem(item, fetchSequenceCounter.incrementAndGet());
+                        targetPriorItem.addAdvertiser(peer);
+                        this.advObjToFetch.put(id, targetPriorItem);
                     }
                 }
             }
@@ -664,7 +688,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
                     // activePeer에서 peer에 blockId가 포함되어 있으며 peer에게 해당 block은 상호 보유하고 있는 블록으로 설정함.
                     // TODO - blockWeBothHave 관련된 내용은 향후 데이터 전송관련해서 불필요 데이터를 전송하는 오버헤드를 줄여주는 용도로 사용될 것으로 보여짐.
                     getActivePeer().stream()
-                            .filter(p -> p.getAdvObjSpreadToUs().containsKey(block.getBlockId()))
+                            .filter(p -> p.isAdvObjSpreadToUs(block.getBlockId(), InventoryType.BLOCK))
                             .forEach(p -> updateBlockWeBothHave(p, block));
 
                     broadcast(new BlockMessage(block));
@@ -885,7 +909,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
                 return false;
             }
             for (Sha256Hash hash : fetchInvDataMsg.getHashList()) {
-                if (!peer.getAdvObjWeSpread().containsKey(hash)) {
+                if (!peer.isAdvObjWeSpread(hash, InventoryType.TRX)) {
                     logger.warn("Check FetchInvDataMsg failed: Peer {} get trx {} we not spread.", peer.getInetAddress(), hash);
                     return false;
                 }
@@ -893,7 +917,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
         } else {
             boolean isAdv = true;
             for (Sha256Hash hash : fetchInvDataMsg.getHashList()) {
-                if (!peer.getAdvObjWeSpread().containsKey(hash)) {
+                if (!peer.isAdvObjWeSpread(hash, InventoryType.BLOCK)) {
                     isAdv = false;
                     break;
                 }
@@ -949,7 +973,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
         }
 
         MessageTypes type = fetchInvDataMsg.getInvMessageType();
-        BlockCapsule block = null;
+        BlockMessage block = null;
         List<Protocol.Transaction> transactions = Lists.newArrayList();
 
         int size = 0;
@@ -976,7 +1000,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
             }
 
             if (type.equals(MessageTypes.BLOCK)) {
-                block = ((BlockMessage) msg).getBlockCapsule();
+                block = (BlockMessage) msg;
                 peer.sendMessage(msg);
             } else {
                 transactions.add(((TransactionMessage) msg).getTransactionCapsule().getInstance());
@@ -991,7 +1015,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
         }
 
         if (block != null) {
-            updateBlockWeBothHave(peer, block);
+            updateBlockWeBothHave(peer, block.getBlockId(), block.getTimeStamp());
         }
         if (transactions.size() > 0) {
             peer.sendMessage(new TransactionsMessage(transactions));
@@ -1218,22 +1242,22 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
     }
 
     private void updateBlockWeBothHave(PeerConnection peer, BlockCapsule block) {
-        logger.info("update peer {} block both we have {}", peer.getNode().getHost(), block.getBlockId().getString());
-        peer.setHeadBlockWeBothHave(block.getBlockId());
-        peer.setHeadBlockTimeWeBothHave(block.getTimeStamp());
-        peer.setLastBlockUpdateTime(System.currentTimeMillis());
+        updateBlockWeBothHave(peer, block.getBlockId(), block.getTimeStamp());
     }
 
-    private void updateBlockWeBothHave(PeerConnection peer, BlockId blockId) throws StoreException {
-        logger.info("update peer {} block both we have, {}", peer.getNode().getHost(),
-                blockId.getString());
+    private void updateBlockWeBothHave(PeerConnection peer, BlockId blockId, long blockTime) {
+        logger.info("update peer {} block both we have {}", peer.getNode().getHost(), blockId.getString());
         peer.setHeadBlockWeBothHave(blockId);
-        long time = ((BlockMessage) del.getData(blockId, MessageTypes.BLOCK)).getBlockCapsule()
-                .getTimeStamp();
-        peer.setHeadBlockTimeWeBothHave(time);
+        peer.setHeadBlockTimeWeBothHave(blockTime);
         peer.setLastBlockUpdateTime(System.currentTimeMillis());
     }
 
+    private void updateBlockWeBothHave(PeerConnection peer, BlockId blockId) throws StoreException {
+        // block 전체를 decode하지 않고 header의 timestamp만 사용함.
+        long time = ((BlockMessage) del.getData(blockId, MessageTypes.BLOCK)).getTimeStamp();
+        updateBlockWeBothHave(peer, blockId, time);
+    }
+
     public Collection<PeerConnection> getActivePeer() {
         return pool.getActivePeers();
     }
@@ -1297,13 +1321,14 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
 
         if (!peer.getAdvObjWeRequested().isEmpty()) {
             peer.getAdvObjWeRequested().keySet().forEach(item -> {
-                if (getActivePeer().stream()
+                List<PeerConnection> advertisers = getActivePeer().stream()
                         .filter(peerConnection -> !peerConnection.equals(peer))
                         .filter(peerConnection -> peerConnection.getInvToUs().contains(item.getHash()))
-                        .findFirst()
-                        .isPresent()) {
-                    advObjToFetch.put(item.getHash(), new PriorItem(item,
-                            fetchSequenceCounter.incrementAndGet()));
+                        .collect(Collectors.toList());
+                if (!advertisers.isEmpty()) {
+                    PriorItem priorItem = new PriorItem(item, fetchSequenceCounter.incrementAndGet());
+                    advertisers.forEach(priorItem::addAdvertiser);
+                    advObjToFetch.put(item.getHash(), priorItem);
                 }
             });
         }
@@ -1311,7 +1336,6 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
 
     public void shutDown() {
         logExecutor.shutdown();
-        trxsHandlePool.shutdown();
         disconnectInactiveExecutor.shutdown();
         cleanInventoryExecutor.shutdown();
         broadPool.shutdown();
@@ -1336,6 +1360,9 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
 
         private long time;
 
+        // 이 item을 알려준 peer 목록. fetch 요청은 이 peer들에게만 보냄.
+        private final Set<PeerConnection> advertisers = ConcurrentHashMap.newKeySet();
+
         public PriorItem(Item item, long count) {
             this.item = item;
             this.count = count;
@@ -1354,6 +1381,14 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
             this.time = Time.getCurrentMillis();
         }
 
+        public void addAdvertiser(PeerConnection peer) {
+            advertisers.add(peer);
+        }
+
+        public boolean isAdvertisedBy(PeerConnection peer) {
+            return advertisers.contains(peer);
+        }
+
         @Override
         public int compareTo(final PriorItem o) {
             if (!this.item.getType().equals(o.getItem().getType())) {
@@ -1,6 +1,10 @@
 package com.wizbl.core.net.node;
 
+import com.codahale.metrics.Gauge;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db.SignatureVerifier;
+import com.wizbl.core.exception.ValidateSignatureException;
 import com.wizbl.core.net.message.TransactionMessage;
 import com.wizbl.core.net.message.TransactionsMessage;
 import com.wizbl.core.net.peer.PeerConnection;
@@ -10,9 +14,14 @@ import com.wizbl.protos.Protocol.Transaction;
 import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -20,6 +29,9 @@ public class TrxHandler {
 
   private NodeImpl nodeImpl;
 
+  @Autowired
+  private SignatureVerifier signatureVerifier;
+
   private static final int MAX_TRX_SIZE = 50_000;
 
   private static final int MAX_SMART_CONTRACT_SUBMIT_SIZE = 100;
@@ -30,6 +42,9 @@ public class TrxHandler {
 
   private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue();
 
+  // trxHandlePool에 제출되었지만 아직 처리가 끝나지 않은 transaction 수
+  private final AtomicInteger queuedTrxCount = new AtomicInteger();
+
   private final int threadNum = Args.getInstance().getValidateSignThreadNum();
   private final ExecutorService trxHandlePool = new ThreadPoolExecutor(threadNum, threadNum, 0L,
           TimeUnit.MILLISECONDS, queue);
@@ -43,6 +58,9 @@ public class TrxHandler {
    */
   public void init(NodeImpl nodeImpl) {
     this.nodeImpl = nodeImpl;
+    MetricsUtil.gauge("net.trxHandler.queuedTrx", (Gauge<Integer>) queuedTrxCount::get);
+    MetricsUtil.gauge("net.trxHandler.smartContractQueue", (Gauge<Integer>) smartContractQueue::size);
+    MetricsUtil.gauge("net.trxHandler.poolQueue", (Gauge<Integer>) queue::size);
     handleSmartContract();
   }
 
@@ -58,7 +76,14 @@ public class TrxHandler {
             logger.warn("Drop smart contract {} from peer {}.");
             continue;
           }
-          trxHandlePool.submit(() -> nodeImpl.onHandleTransactionMessage(event.getPeer(), event.getMsg()));
+          queuedTrxCount.incrementAndGet();
+          trxHandlePool.submit(() -> {
+            try {
+              nodeImpl.onHandleTransactionMessage(event.getPeer(), event.getMsg());
+            } finally {
+              queuedTrxCount.decrementAndGet();
+            }
+          });
         }
       } catch (Exception e) {
         logger.error("Handle smart contract exception", e);
@@ -70,33 +95,70 @@ public class TrxHandler {
    * peer로부터 전달받은 Transaction 관련 메시지를 처리하는 메소드 <br/>
    * requested한 작업인 경우에만 해당 transaction을 처리하고 있음. <br/>
    * transaction type에 따라서 TriggerSmartContract or CreateSmartContract인 경우에는 smartContractQueue에 transaction을 저장하고,
-   * 나머지 transaction의 경우에는 onHandleTransactionMessage에서 해당 transaction을 처리함.
+   * 나머지 transaction의 경우에는 서명을 한꺼번에 검증한 후 onHandleTransactionMessage에서 해당 transaction을 처리함.
    * @param peer
    * @param msg
    */
   public void handleTransactionsMessage(PeerConnection peer, TransactionsMessage msg) {
-    for (Transaction trx : msg.getTransactions().getTransactionsList()) {
-      Item item = new Item(new TransactionMessage(trx).getMessageId(), InventoryType.TRX);
-      if (!peer.getAdvObjWeRequested().containsKey(item)) {
-        logger.warn("Receive trx {} from peer {} without fetch request.", msg.getMessageId(), peer.getInetAddress());
-        peer.setSyncFlag(false);
-        peer.disconnect(ReasonCode.BAD_PROTOCOL);
-        return;
-      }
-      peer.getAdvObjWeRequested().remove(item); // item 요청 내역 삭제
-      int type = trx.getRawData().getContract(0).getType().getNumber();
-      if (type == ContractType.TriggerSmartContract_VALUE || type == ContractType.CreateSmartContract_VALUE) {
-        if (!smartContractQueue.offer(new TrxEvent(peer, new TransactionMessage(trx)))) {
-          logger.warn("Add smart contract failed, smartContractQueue size {} queueSize {}", smartContractQueue.size(), queue.size());
+    List<TransactionMessage> trxMessages = new ArrayList<>();
+    try {
+      for (Transaction trx : msg.getTransactions().getTransactionsList()) {
+        TransactionMessage trxMessage = new TransactionMessage(trx);
+        Item item = new Item(trxMessage.getMessageId(), InventoryType.TRX);
+        if (!peer.getAdvObjWeRequested().containsKey(item)) {
+          logger.warn("Receive trx {} from peer {} without fetch request.", msg.getMessageId(), peer.getInetAddress());
+          peer.setSyncFlag(false);
+          peer.disconnect(ReasonCode.BAD_PROTOCOL);
+          return;
+        }
+        peer.getAdvObjWeRequested().remove(item); // item 요청 내역 삭제
+        int type = trx.getRawData().getContract(0).getType().getNumber();
+        if (type == ContractType.TriggerSmartContract_VALUE || type == ContractType.CreateSmartContract_VALUE) {
+          if (!smartContractQueue.offer(new TrxEvent(peer, trxMessage))) {
+            logger.warn("Add smart contract failed, smartContractQueue size {} queueSize {}", smartContractQueue.size(), queue.size());
+          }
+        } else {
+          trxMessages.add(trxMessage);
         }
-      } else {
-        trxHandlePool.submit(() -> nodeImpl.onHandleTransactionMessage(peer, new TransactionMessage(trx)));
       }
+    } finally {
+      submitTransactions(peer, trxMessages);
+    }
+  }
+
+  /**
+   * 서명은 SignatureVerifier에서 batch로 검증하고, 검증된 transaction을 순서대로 처리함. <br/>
+   * 잘못된 서명이 있으면 검증을 중단하며, 해당 transaction은 onHandleTransactionMessage에서 다시 검증되어 peer가 처리됨.
+   */
+  private void submitTransactions(PeerConnection peer, List<TransactionMessage> trxMessages) {
+    if (trxMessages.isEmpty()) {
+      return;
     }
+
+    queuedTrxCount.addAndGet(trxMessages.size());
+    trxHandlePool.submit(() -> {
+      try {
+        signatureVerifier.verify(trxMessages.stream()
+            .map(TransactionMessage::getTransactionCapsule)
+            .collect(Collectors.toList()));
+      } catch (ValidateSignatureException e) {
+        logger.debug("Batch signature verification from peer {} failed: {}", peer.getInetAddress(), e.getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      for (TransactionMessage trxMessage : trxMessages) {
+        try {
+          nodeImpl.onHandleTransactionMessage(peer, trxMessage);
+        } finally {
+          queuedTrxCount.decrementAndGet();
+        }
+      }
+    });
   }
 
   public boolean isBusy() {
-    return queue.size() + smartContractQueue.size() > MAX_TRX_SIZE;
+    return queuedTrxCount.get() + smartContractQueue.size() > MAX_TRX_SIZE;
   }
 
   class TrxEvent {
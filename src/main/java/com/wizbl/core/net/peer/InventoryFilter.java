@@ -0,0 +1,146 @@
+package com.wizbl.core.net.peer;
+
+import com.codahale.metrics.Meter;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.wizbl.common.utils.MetricsUtil;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.common.utils.Time;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 이미 주고받은 inventory(transaction hash)를 기억하기 위한 시간 단위로 교체되는 Bloom filter. <br/>
+ * current, previous 두 세대의 filter를 유지하며, window 시간이 지나거나 current가 자기 크기(capacity)만큼
+ * 채워지면 current를 previous로 옮기고 새 filter를 만듦. <br/>
+ * filter는 처음 put할 때 MIN_CAPACITY 크기로 만들고, 교체할 때 이전 세대에 들어온 양에 맞춰 크기를 정함
+ * (가득 차서 교체되면 두 배, 시간이 지나서 교체되면 들어온 수의 두 배, 최대 expectedInsertions).
+ * 따라서 transaction을 주고받지 않는 peer는 bit 배열을 거의 할당하지 않음. <br/>
+ * hash 마다 객체를 만들지 않고 크기가 고정된 bit 배열만 사용하므로 transaction이 몰려도 heap 사용량이 늘지 않음. <br/>
+ * mightContain()은 false positive가 있을 수 있으므로(expectedFpp), 정확해야 하는 요청 관리에는 사용하지 않음.
+ */
+public class InventoryFilter {
+
+  // 처음 만드는 세대의 크기. fpp 1e-6 기준 약 3.6KB
+  static final long MIN_CAPACITY = 1024;
+
+  private static final Funnel<Sha256Hash> HASH_FUNNEL =
+      (hash, into) -> into.putBytes(hash.getBytes());
+
+  private static final Meter rotateMeter = MetricsUtil.meter("net.inventoryFilter.rotate");
+
+  private final long expectedInsertions;
+
+  private final double fpp;
+
+  private final long windowMillis;
+
+  // 아직 put하지 않았거나 clear() 이후이면 null
+  private volatile Generation current;
+
+  private volatile Generation previous;
+
+  public InventoryFilter(long expectedInsertions, double fpp, long windowMillis) {
+    this.expectedInsertions = Math.max(expectedInsertions, 1);
+    this.fpp = fpp;
+    this.windowMillis = windowMillis;
+  }
+
+  public void put(Sha256Hash hash) {
+    Generation generation = current;
+    if (generation == null || generation.isExpired()) {
+      generation = rotate(generation);
+    }
+    if (generation.filter.put(hash)) {
+      generation.count.incrementAndGet();
+    }
+  }
+
+  public boolean mightContain(Sha256Hash hash) {
+    Generation current = this.current;
+    Generation previous = this.previous;
+    return current != null && current.filter.mightContain(hash)
+        || previous != null && previous.filter.mightContain(hash);
+  }
+
+  public synchronized void clear() {
+    current = null;
+    previous = null;
+  }
+
+  /**
+   * 두 세대에 추가된 hash 수. 같은 hash가 두 세대에 모두 있으면 중복으로 계산됨.
+   */
+  public long approximateElementCount() {
+    return generations().mapToLong(generation -> generation.count.get()).sum();
+  }
+
+  /**
+   * 현재 채워진 정도에 따른 false positive 확률 추정치. 두 세대 중 큰 값을 반환함.
+   */
+  public double expectedFpp() {
+    return generations().mapToDouble(generation -> generation.filter.expectedFpp()).max()
+        .orElse(0);
+  }
+
+  /**
+   * 할당된 세대들의 bit 배열 크기(byte)
+   */
+  public long memorySize() {
+    return generations().mapToLong(generation -> bitSize(generation.capacity, fpp) / 8).sum();
+  }
+
+  private Stream<Generation> generations() {
+    return Stream.of(current, previous).filter(Objects::nonNull);
+  }
+
+  private synchronized Generation rotate(Generation expired) {
+    if (current == expired) {
+      previous = expired;
+      current = new Generation(expired == null ? Math.min(MIN_CAPACITY, expectedInsertions)
+          : nextCapacity(expired));
+      if (expired != null) {
+        rotateMeter.mark();
+      }
+    }
+    return current;
+  }
+
+  /**
+   * 교체되는 세대에 들어온 양으로 다음 세대의 크기를 정함.
+   */
+  private long nextCapacity(Generation expired) {
+    long count = expired.count.get();
+    long capacity = count >= expired.capacity ? expired.capacity * 2 : count * 2;
+    return Math.max(Math.min(MIN_CAPACITY, expectedInsertions),
+        Math.min(capacity, expectedInsertions));
+  }
+
+  /**
+   * BloomFilter.create()가 사용하는 bit 수 계산식과 같음.
+   */
+  static long bitSize(long n, double p) {
+    return (long) (-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+  }
+
+  private class Generation {
+
+    private final long capacity;
+
+    private final BloomFilter<Sha256Hash> filter;
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final long createTime = Time.getCurrentMillis();
+
+    private Generation(long capacity) {
+      this.capacity = capacity;
+      this.filter = BloomFilter.create(HASH_FUNNEL, capacity, fpp);
+    }
+
+    private boolean isExpired() {
+      return count.get() >= capacity || Time.getCurrentMillis() - createTime >= windowMillis;
+    }
+  }
+}
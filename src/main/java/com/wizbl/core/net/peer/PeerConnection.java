@@ -1,6 +1,8 @@
 package com.wizbl.core.net.peer;
 
+import static com.wizbl.core.config.Parameter.NetConstants.INVENTORY_FILTER_FPP;
 import static com.wizbl.core.config.Parameter.NetConstants.MAX_INVENTORY_SIZE_IN_MINUTES;
+import static com.wizbl.core.config.Parameter.NetConstants.NET_MAX_TRX_PER_SECOND;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -29,6 +31,7 @@ import com.wizbl.core.capsule.BlockCapsule.BlockId;
 import com.wizbl.core.config.Parameter.NodeConstant;
 import com.wizbl.core.config.args.Args;
 import com.wizbl.core.net.node.Item;
+import com.wizbl.protos.Protocol.Inventory.InventoryType;
 
 @Slf4j
 @Component
@@ -59,20 +62,74 @@ public class PeerConnection extends Channel {
 
   private Queue<Sha256Hash> invWeAdv = new LinkedBlockingQueue<>();
 
+  // block inventory는 양이 적고 block id 확인에 정확해야 하므로 map에 저장하고,
+  // transaction inventory는 InventoryFilter에 저장함. 응답을 기다리는 요청(advObjWeRequested)은 map으로 관리함.
   private Map<Sha256Hash, Long> advObjSpreadToUs = new ConcurrentHashMap<>();
 
   private Map<Sha256Hash, Long> advObjWeSpread = new ConcurrentHashMap<>();
 
+  private InventoryFilter trxSpreadToUs = newTrxInventoryFilter();
+
+  private InventoryFilter trxWeSpread = newTrxInventoryFilter();
+
   private Map<Item, Long> advObjWeRequested = new ConcurrentHashMap<>();
 
   private boolean advInhibit = false;
 
-  public Map<Sha256Hash, Long> getAdvObjSpreadToUs() {
-    return advObjSpreadToUs;
+  /**
+   * MAX_INVENTORY_SIZE_IN_MINUTES 동안 netMaxTrxPerSecond 만큼 transaction이 들어오는 것을 기준으로 최대 크기를 정함.
+   * 실제 filter는 peer가 주고받는 양에 맞춰 작게 시작해서 늘어남.
+   */
+  public static InventoryFilter newTrxInventoryFilter() {
+    long maxTrxPerSecond = Args.getInstance().getNetMaxTrxPerSecond() > 0
+        ? Args.getInstance().getNetMaxTrxPerSecond() : NET_MAX_TRX_PER_SECOND;
+    return new InventoryFilter(MAX_INVENTORY_SIZE_IN_MINUTES * 60 * maxTrxPerSecond,
+        INVENTORY_FILTER_FPP, MAX_INVENTORY_SIZE_IN_MINUTES * 60 * 1000L);
+  }
+
+  /**
+   * peer가 우리에게 알려준 inventory 인지 여부. transaction은 false positive가 있을 수 있음.
+   */
+  public boolean isAdvObjSpreadToUs(Sha256Hash id, InventoryType type) {
+    return type == InventoryType.TRX ? trxSpreadToUs.mightContain(id)
+        : advObjSpreadToUs.containsKey(id);
+  }
+
+  public void addAdvObjSpreadToUs(Sha256Hash id, InventoryType type) {
+    if (type == InventoryType.TRX) {
+      trxSpreadToUs.put(id);
+    } else {
+      advObjSpreadToUs.put(id, Time.getCurrentMillis());
+    }
+  }
+
+  /**
+   * 우리가 peer에게 알려준 inventory 인지 여부. transaction은 false positive가 있을 수 있음.
+   */
+  public boolean isAdvObjWeSpread(Sha256Hash id, InventoryType type) {
+    return type == InventoryType.TRX ? trxWeSpread.mightContain(id)
+        : advObjWeSpread.containsKey(id);
+  }
+
+  public void addAdvObjWeSpread(Sha256Hash id, InventoryType type) {
+    if (type == InventoryType.TRX) {
+      trxWeSpread.put(id);
+    } else {
+      advObjWeSpread.put(id, Time.getCurrentMillis());
+    }
+  }
+
+  public void clearAdvObjWeSpread() {
+    advObjWeSpread.clear();
+    trxWeSpread.clear();
   }
 
-  public Map<Sha256Hash, Long> getAdvObjWeSpread() {
-    return advObjWeSpread;
+  public InventoryFilter getTrxSpreadToUs() {
+    return trxSpreadToUs;
+  }
+
+  public InventoryFilter getTrxWeSpread() {
+    return trxWeSpread;
   }
 
   public boolean isAdvInhibit() {
@@ -157,6 +214,9 @@ public class PeerConnection extends Channel {
     return this.helloMessage;
   }
 
+  /**
+   * block inventory map에서 오래된 항목을 제거함. transaction inventory는 InventoryFilter가 스스로 교체됨.
+   */
   public void cleanInvGarbage() {
     long oldestTimestamp =
         Time.getCurrentMillis() - MAX_INVENTORY_SIZE_IN_MINUTES * 60 * 1000;
@@ -181,12 +241,6 @@ public class PeerConnection extends Channel {
     }
   }
 
-  public boolean isAdvInvFull() {
-    return advObjSpreadToUs.size() > MAX_INVENTORY_SIZE_IN_MINUTES
-        * 60
-        * Args.getInstance().getNetMaxTrxPerSecond();
-  }
-
   public boolean isBanned() {
     return banned;
   }
@@ -138,6 +138,8 @@ public class FullNodeHttpApiService implements Service {
   @Autowired
   private GetNodeInfoServlet getNodeInfoServlet;
   @Autowired
+  private GetMetricsServlet getMetricsServlet;
+  @Autowired
   private UpdateSettingServlet updateSettingServlet;
   @Autowired
   private UpdateEnergyLimitServlet updateEnergyLimitServlet;
@@ -236,6 +238,7 @@ public class FullNodeHttpApiService implements Service {
       context.addServlet(new ServletHolder(getChainParametersServlet), "/getchainparameters");
       context.addServlet(new ServletHolder(getAccountResourceServlet), "/getaccountresource");
       context.addServlet(new ServletHolder(getNodeInfoServlet), "/getnodeinfo");
+      context.addServlet(new ServletHolder(getMetricsServlet), "/getmetrics");
       context.addServlet(new ServletHolder(updateSettingServlet), "/updatesetting");
       context.addServlet(new ServletHolder(updateEnergyLimitServlet), "/updateenergylimit");
       context.addServlet(new ServletHolder(getDelegatedResourceServlet), "/getdelegatedresource");
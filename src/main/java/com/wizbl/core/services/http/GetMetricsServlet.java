@@ -0,0 +1,122 @@
+package com.wizbl.core.services.http;
+
+import com.alibaba.fastjson.JSONObject;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metered;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.wizbl.common.utils.MetricsUtil;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * MetricsUtil에 등록된 metric을 json으로 반환함. <br/>
+ * prefix 파라미터를 지정하면 이름이 prefix로 시작하는 metric만 반환함. (예: /getmetrics?prefix=db.) <br/>
+ * timer의 시간 단위는 ms, rate의 단위는 초당 횟수임.
+ */
+@Component
+@Slf4j
+public class GetMetricsServlet extends HttpServlet {
+
+  private static final double DURATION_FACTOR = 1.0 / TimeUnit.MILLISECONDS.toNanos(1);
+
+  protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+    try {
+      response.getWriter().println(getMetrics(request.getParameter("prefix")).toJSONString());
+    } catch (Exception e) {
+      logger.error("", e);
+      try {
+        response.getWriter().println(Util.printErrorMsg(e));
+      } catch (IOException ioe) {
+        logger.debug("IOException: {}", ioe.getMessage());
+      }
+    }
+  }
+
+  protected void doPost(HttpServletRequest request, HttpServletResponse response) {
+    doGet(request, response);
+  }
+
+  private JSONObject getMetrics(String prefix) {
+    MetricRegistry registry = MetricsUtil.getRegistry();
+    JSONObject gauges = new JSONObject(true);
+    for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+      if (matches(entry.getKey(), prefix)) {
+        gauges.put(entry.getKey(), entry.getValue().getValue());
+      }
+    }
+    JSONObject counters = new JSONObject(true);
+    for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+      if (matches(entry.getKey(), prefix)) {
+        counters.put(entry.getKey(), entry.getValue().getCount());
+      }
+    }
+    JSONObject histograms = new JSONObject(true);
+    for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+      if (matches(entry.getKey(), prefix)) {
+        JSONObject json = new JSONObject(true);
+        json.put("count", entry.getValue().getCount());
+        putSnapshot(json, entry.getValue().getSnapshot(), 1.0);
+        histograms.put(entry.getKey(), json);
+      }
+    }
+    JSONObject meters = new JSONObject(true);
+    for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+      if (matches(entry.getKey(), prefix)) {
+        JSONObject json = new JSONObject(true);
+        putRates(json, entry.getValue());
+        meters.put(entry.getKey(), json);
+      }
+    }
+    JSONObject timers = new JSONObject(true);
+    for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+      if (matches(entry.getKey(), prefix)) {
+        JSONObject json = new JSONObject(true);
+        putRates(json, entry.getValue());
+        putSnapshot(json, entry.getValue().getSnapshot(), DURATION_FACTOR);
+        timers.put(entry.getKey(), json);
+      }
+    }
+
+    JSONObject metrics = new JSONObject(true);
+    metrics.put("gauges", gauges);
+    metrics.put("counters", counters);
+    metrics.put("histograms", histograms);
+    metrics.put("meters", meters);
+    metrics.put("timers", timers);
+    return metrics;
+  }
+
+  private static boolean matches(String name, String prefix) {
+    return StringUtils.isEmpty(prefix) || name.startsWith(prefix);
+  }
+
+  private static void putRates(JSONObject json, Metered metered) {
+    json.put("count", metered.getCount());
+    json.put("meanRate", metered.getMeanRate());
+    json.put("m1Rate", metered.getOneMinuteRate());
+    json.put("m5Rate", metered.getFiveMinuteRate());
+    json.put("m15Rate", metered.getFifteenMinuteRate());
+  }
+
+  private static void putSnapshot(JSONObject json, Snapshot snapshot, double factor) {
+    json.put("min", snapshot.getMin() * factor);
+    json.put("max", snapshot.getMax() * factor);
+    json.put("mean", snapshot.getMean() * factor);
+    json.put("p50", snapshot.getMedian() * factor);
+    json.put("p75", snapshot.get75thPercentile() * factor);
+    json.put("p95", snapshot.get95thPercentile() * factor);
+    json.put("p99", snapshot.get99thPercentile() * factor);
+  }
+}
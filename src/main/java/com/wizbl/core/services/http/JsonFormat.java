@@ -332,7 +332,7 @@ public class JsonFormat {
   /**
    * Convert an unsigned 32-bit integer to a string.
    */
-  private static String unsignedToString(int value) {
+  static String unsignedToString(int value) {
     if (value >= 0) {
       return Integer.toString(value);
     } else {
@@ -346,7 +346,7 @@ public class JsonFormat {
   /**
    * Convert an unsigned 64-bit integer to a string.
    */
-  private static String unsignedToString(long value) {
+  static String unsignedToString(long value) {
     if (value >= 0) {
       return Long.toString(value);
     } else {
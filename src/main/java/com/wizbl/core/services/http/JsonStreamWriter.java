@@ -0,0 +1,401 @@
+package com.wizbl.core.services.http;
+
+import com.alibaba.fastjson.JSON;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.UnknownFieldSet;
+import com.wizbl.api.GrpcAPI.BlockList;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.capsule.BlockCapsule.BlockId;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.protos.Contract.AccountCreateContract;
+import com.wizbl.protos.Contract.AccountUpdateContract;
+import com.wizbl.protos.Contract.AssetIssueContract;
+import com.wizbl.protos.Contract.CreateSmartContract;
+import com.wizbl.protos.Contract.ExchangeCreateContract;
+import com.wizbl.protos.Contract.ExchangeInjectContract;
+import com.wizbl.protos.Contract.ExchangeTransactionContract;
+import com.wizbl.protos.Contract.ExchangeWithdrawContract;
+import com.wizbl.protos.Contract.FreezeBalanceContract;
+import com.wizbl.protos.Contract.ParticipateAssetIssueContract;
+import com.wizbl.protos.Contract.ProposalApproveContract;
+import com.wizbl.protos.Contract.ProposalCreateContract;
+import com.wizbl.protos.Contract.ProposalDeleteContract;
+import com.wizbl.protos.Contract.TransferAssetContract;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Contract.TriggerSmartContract;
+import com.wizbl.protos.Contract.UnfreezeAssetContract;
+import com.wizbl.protos.Contract.UnfreezeBalanceContract;
+import com.wizbl.protos.Contract.UpdateAssetContract;
+import com.wizbl.protos.Contract.UpdateEnergyLimitContract;
+import com.wizbl.protos.Contract.UpdateSettingContract;
+import com.wizbl.protos.Contract.WithdrawBalanceContract;
+import com.wizbl.protos.Protocol.Block;
+import com.wizbl.protos.Protocol.BlockHeader;
+import com.wizbl.protos.Protocol.Transaction;
+import com.wizbl.protos.Protocol.Transaction.Contract;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Block, Transaction을 중간 문자열이나 JSONObject를 만들지 않고 한 번에 json으로 출력함. <br/>
+ * 기존 방식(JsonFormat.printToString -> JSONObject.parseObject -> 값 교체 -> toJSONString)에서 추가하던
+ * blockID, size, txID, contract_address와 해석한 contract parameter도 같은 pass에서 출력함. <br/>
+ * 출력하는 json 값과 문자열의 escape는 기존과 같으며 공백 없는 compact 형식으로 출력함. key 순서는
+ * fastjson(HashMap)의 순서 대신 proto field 순서이고, 추가하는 field는 각 object의 마지막에 출력함.
+ */
+@Slf4j
+public class JsonStreamWriter {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * parameter를 해석해서 value로 출력하는 contract 종류. 목록에 없는 종류는 type_url만 출력함.
+   * (VoteAssetContract, VoteWitnessContract, WitnessCreateContract, WitnessUpdateContract는 기존처럼 제외함)
+   */
+  private static final Map<ContractType, Class<? extends Message>> CONTRACT_TYPES =
+      new EnumMap<>(ContractType.class);
+
+  static {
+    CONTRACT_TYPES.put(ContractType.AccountCreateContract, AccountCreateContract.class);
+    CONTRACT_TYPES.put(ContractType.TransferContract, TransferContract.class);
+    CONTRACT_TYPES.put(ContractType.TransferAssetContract, TransferAssetContract.class);
+    CONTRACT_TYPES.put(ContractType.AssetIssueContract, AssetIssueContract.class);
+    CONTRACT_TYPES
+        .put(ContractType.ParticipateAssetIssueContract, ParticipateAssetIssueContract.class);
+    CONTRACT_TYPES.put(ContractType.AccountUpdateContract, AccountUpdateContract.class);
+    CONTRACT_TYPES.put(ContractType.FreezeBalanceContract, FreezeBalanceContract.class);
+    CONTRACT_TYPES.put(ContractType.UnfreezeBalanceContract, UnfreezeBalanceContract.class);
+    CONTRACT_TYPES.put(ContractType.UnfreezeAssetContract, UnfreezeAssetContract.class);
+    CONTRACT_TYPES.put(ContractType.WithdrawBalanceContract, WithdrawBalanceContract.class);
+    CONTRACT_TYPES.put(ContractType.UpdateAssetContract, UpdateAssetContract.class);
+    CONTRACT_TYPES.put(ContractType.CreateSmartContract, CreateSmartContract.class);
+    CONTRACT_TYPES.put(ContractType.TriggerSmartContract, TriggerSmartContract.class);
+    CONTRACT_TYPES.put(ContractType.ProposalCreateContract, ProposalCreateContract.class);
+    CONTRACT_TYPES.put(ContractType.ProposalApproveContract, ProposalApproveContract.class);
+    CONTRACT_TYPES.put(ContractType.ProposalDeleteContract, ProposalDeleteContract.class);
+    CONTRACT_TYPES.put(ContractType.ExchangeCreateContract, ExchangeCreateContract.class);
+    CONTRACT_TYPES.put(ContractType.ExchangeInjectContract, ExchangeInjectContract.class);
+    CONTRACT_TYPES.put(ContractType.ExchangeWithdrawContract, ExchangeWithdrawContract.class);
+    CONTRACT_TYPES
+        .put(ContractType.ExchangeTransactionContract, ExchangeTransactionContract.class);
+    CONTRACT_TYPES.put(ContractType.UpdateSettingContract, UpdateSettingContract.class);
+    CONTRACT_TYPES.put(ContractType.UpdateEnergyLimitContract, UpdateEnergyLimitContract.class);
+  }
+
+  private final Appendable out;
+
+  public JsonStreamWriter(Appendable out) {
+    this.out = out;
+  }
+
+  /**
+   * {"block":[...]} 형식으로 출력함. block이 없어도 빈 배열을 출력함.
+   */
+  public void writeBlockList(BlockList list) throws IOException {
+    out.append("{\"block\":[");
+    for (int i = 0; i < list.getBlockCount(); i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      writeBlock(list.getBlock(i));
+    }
+    out.append("]}");
+  }
+
+  /**
+   * block의 field와 blockID, size를 출력함. transactions는 writeTransaction 형식으로 출력함.
+   */
+  public void writeBlock(Block block) throws IOException {
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<FieldDescriptor, Object> entry : block.getAllFields().entrySet()) {
+      FieldDescriptor field = entry.getKey();
+      first = separate(first);
+      if (field.getNumber() == Block.TRANSACTIONS_FIELD_NUMBER) {
+        writeName("transactions");
+        out.append('[');
+        for (int i = 0; i < block.getTransactionsCount(); i++) {
+          if (i > 0) {
+            out.append(',');
+          }
+          writeTransaction(block.getTransactions(i));
+        }
+        out.append(']');
+      } else {
+        writeField(field, entry.getValue());
+      }
+    }
+    first = writeUnknownFields(block.getUnknownFields(), first);
+
+    BlockHeader.raw header = block.getBlockHeader().getRawData();
+    BlockId blockId = new BlockId(Sha256Hash.of(header.toByteArray()), header.getNumber());
+    separate(first);
+    writeName("blockID");
+    writeHex(blockId.getBytes());
+    out.append(',');
+    writeName("size");
+    out.append(Integer.toString(transactionsStringSize(block.getTransactionsList())));
+    out.append('}');
+  }
+
+  /**
+   * transaction의 field와 contract_address(CreateSmartContract인 경우), txID를 출력함. <br/>
+   * raw_data.contract는 type과 해석한 parameter만 출력하며, parameter를 해석할 수 없는 contract는 제외함.
+   */
+  public void writeTransaction(Transaction transaction) throws IOException {
+    byte[] txId = Sha256Hash.hash(transaction.getRawData().toByteArray());
+    String contractAddress = null;
+
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<FieldDescriptor, Object> entry : transaction.getAllFields().entrySet()) {
+      FieldDescriptor field = entry.getKey();
+      first = separate(first);
+      if (field.getNumber() == Transaction.RAW_DATA_FIELD_NUMBER) {
+        writeName("raw_data");
+        contractAddress = writeRawData(transaction.getRawData(), txId);
+      } else {
+        writeField(field, entry.getValue());
+      }
+    }
+    first = writeUnknownFields(transaction.getUnknownFields(), first);
+
+    if (contractAddress != null) {
+      first = separate(first);
+      writeName("contract_address");
+      out.append('"').append(contractAddress).append('"');
+    }
+    separate(first);
+    writeName("txID");
+    writeHex(txId);
+    out.append('}');
+  }
+
+  /**
+   * @return 마지막 CreateSmartContract로 생성되는 contract address(hex), 없으면 null
+   */
+  private String writeRawData(Transaction.raw rawData, byte[] txId) throws IOException {
+    String contractAddress = null;
+    boolean contractWritten = false;
+
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<FieldDescriptor, Object> entry : rawData.getAllFields().entrySet()) {
+      FieldDescriptor field = entry.getKey();
+      first = separate(first);
+      if (field.getNumber() == Transaction.raw.CONTRACT_FIELD_NUMBER) {
+        writeName("contract");
+        contractAddress = writeContracts(rawData.getContractList(), txId);
+        contractWritten = true;
+      } else {
+        writeField(field, entry.getValue());
+      }
+    }
+    first = writeUnknownFields(rawData.getUnknownFields(), first);
+
+    if (!contractWritten) {
+      separate(first);
+      writeName("contract");
+      out.append("[]");
+    }
+    out.append('}');
+    return contractAddress;
+  }
+
+  private String writeContracts(List<Contract> contracts, byte[] txId) throws IOException {
+    String contractAddress = null;
+    out.append('[');
+    boolean first = true;
+    for (Contract contract : contracts) {
+      Message value = null;
+      Class<? extends Message> type = CONTRACT_TYPES.get(contract.getType());
+      if (type != null) {
+        try {
+          value = contract.getParameter().unpack(type);
+        } catch (InvalidProtocolBufferException e) {
+          logger.debug("InvalidProtocolBufferException: {}", e.getMessage());
+          continue;
+        }
+        if (value instanceof CreateSmartContract) {
+          byte[] ownerAddress = ((CreateSmartContract) value).getOwnerAddress().toByteArray();
+          contractAddress = ByteArray
+              .toHexString(Util.generateContractAddress(txId, ownerAddress));
+        }
+      }
+
+      first = separate(first);
+      out.append('{');
+      writeName("parameter");
+      out.append('{');
+      if (value != null) {
+        writeName("value");
+        writeMessage(value);
+        out.append(',');
+      }
+      writeName("type_url");
+      writeString(contract.getParameter().getTypeUrl());
+      out.append("},");
+      writeName("type");
+      writeString(contract.getType().name());
+      out.append('}');
+    }
+    out.append(']');
+    return contractAddress;
+  }
+
+  /**
+   * 기존 방식의 size 값(List&lt;TransactionCapsule&gt;.toString()의 byte 길이)을 전체 목록 문자열을 만들지 않고
+   * transaction마다 TransactionCapsule.toString()의 길이를 더해서 계산함. <br/>
+   * List.toString()은 "[" + 각 원소를 ", "로 연결 + "]" 형식임. TransactionCapsule.toString()에 포함되는
+   * byte[], ByteString의 기본 toString()은 identityHashCode를 포함하므로 기존과 같이 호출할 때마다 몇 byte씩
+   * 달라질 수 있음.
+   */
+  private static int transactionsStringSize(List<Transaction> transactions) {
+    int size = 2;
+    for (int i = 0; i < transactions.size(); i++) {
+      if (i > 0) {
+        size += 2;
+      }
+      size += new TransactionCapsule(transactions.get(i)).toString().getBytes().length;
+    }
+    return size;
+  }
+
+  public void writeMessage(Message message) throws IOException {
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+      first = separate(first);
+      writeField(entry.getKey(), entry.getValue());
+    }
+    writeUnknownFields(message.getUnknownFields(), first);
+    out.append('}');
+  }
+
+  private void writeField(FieldDescriptor field, Object value) throws IOException {
+    if (field.isExtension()) {
+      writeName(field.getFullName());
+    } else if (field.getType() == FieldDescriptor.Type.GROUP) {
+      writeName(field.getMessageType().getName());
+    } else {
+      writeName(field.getName());
+    }
+
+    if (field.isRepeated()) {
+      out.append('[');
+      boolean first = true;
+      for (Object element : (List<?>) value) {
+        first = separate(first);
+        writeValue(field, element);
+      }
+      out.append(']');
+    } else {
+      writeValue(field, value);
+    }
+  }
+
+  private void writeValue(FieldDescriptor field, Object value) throws IOException {
+    switch (field.getType()) {
+      case INT32:
+      case INT64:
+      case SINT32:
+      case SINT64:
+      case SFIXED32:
+      case SFIXED64:
+      case FLOAT:
+      case DOUBLE:
+      case BOOL:
+        out.append(value.toString());
+        break;
+      case UINT32:
+      case FIXED32:
+        out.append(JsonFormat.unsignedToString((Integer) value));
+        break;
+      case UINT64:
+      case FIXED64:
+        out.append(JsonFormat.unsignedToString((Long) value));
+        break;
+      case STRING:
+        writeString((String) value);
+        break;
+      case BYTES:
+        writeHex((ByteString) value);
+        break;
+      case ENUM:
+        writeString(((EnumValueDescriptor) value).getName());
+        break;
+      case MESSAGE:
+      case GROUP:
+        writeMessage((Message) value);
+        break;
+      default:
+    }
+  }
+
+  private boolean writeUnknownFields(UnknownFieldSet unknownFields, boolean first)
+      throws IOException {
+    if (unknownFields.asMap().isEmpty()) {
+      return first;
+    }
+    separate(first);
+    JsonFormat.printUnknownFields(unknownFields, new JsonFormat.JsonGenerator(out));
+    return false;
+  }
+
+  /**
+   * 첫 번째 원소가 아니면 ','를 출력함.
+   *
+   * @return 항상 false (다음 원소는 첫 번째가 아님)
+   */
+  private boolean separate(boolean first) throws IOException {
+    if (!first) {
+      out.append(',');
+    }
+    return false;
+  }
+
+  private void writeName(String name) throws IOException {
+    out.append('"').append(name).append("\":");
+  }
+
+  /**
+   * 기존 출력은 fastjson의 toJSONString()이 escape한 문자열이므로, escape가 필요할 수 있는 문자(제어 문자,
+   * '"', '\\', ASCII 이외의 문자)가 있으면 fastjson으로 출력함.
+   */
+  private void writeString(String value) throws IOException {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x20 || c >= 0x7f || c == '"' || c == '\\') {
+        out.append(JSON.toJSONString(value));
+        return;
+      }
+    }
+    out.append('"').append(value).append('"');
+  }
+
+  private void writeHex(byte[] value) throws IOException {
+    out.append('"');
+    for (byte b : value) {
+      out.append(HEX[(b >> 4) & 0x0f]).append(HEX[b & 0x0f]);
+    }
+    out.append('"');
+  }
+
+  private void writeHex(ByteString value) throws IOException {
+    out.append('"');
+    for (int i = 0; i < value.size(); i++) {
+      byte b = value.byteAt(i);
+      out.append(HEX[(b >> 4) & 0x0f]).append(HEX[b & 0x0f]);
+    }
+    out.append('"');
+  }
+}
@@ -3,7 +3,6 @@ package com.wizbl.core.services.http;
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.google.protobuf.Any;
-import com.google.protobuf.InvalidProtocolBufferException;
 import com.wizbl.api.GrpcAPI.BlockList;
 import com.wizbl.api.GrpcAPI.EasyTransferResponse;
 import com.wizbl.api.GrpcAPI.TransactionExtention;
@@ -12,7 +11,6 @@ import com.wizbl.common.crypto.Hash;
 import com.wizbl.common.utils.ByteArray;
 import com.wizbl.common.utils.Sha256Hash;
 import com.wizbl.core.Constant;
-import com.wizbl.core.capsule.BlockCapsule;
 import com.wizbl.core.capsule.TransactionCapsule;
 import com.wizbl.core.services.http.JsonFormat.ParseException;
 import com.wizbl.protos.Contract.*;
@@ -21,6 +19,7 @@ import com.wizbl.protos.Protocol.SmartContract;
 import com.wizbl.protos.Protocol.Transaction;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.util.List;
 
 
@@ -34,31 +33,45 @@ public class Util {
   }
 
   public static String printBlockList(BlockList list) {
-    List<Block> blocks = list.getBlockList();
-    JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(list));
-    JSONArray jsonArray = new JSONArray();
-    blocks.stream().forEach(block -> {
-      jsonArray.add(printBlockToJSON(block));
-    });
-    jsonObject.put("block", jsonArray);
+    StringBuilder builder = new StringBuilder();
+    try {
+      printBlockList(list, builder);
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Writing to a StringBuilder threw an IOException (should never happen).", e);
+    }
+    return builder.toString();
+  }
 
-    return jsonObject.toJSONString();
+  /**
+   * block 목록을 json으로 output에 바로 출력함. 출력 중 예외가 발생하면 output에 일부만 기록된 상태로 남으므로,
+   * 응답 전체가 올바른 json이어야 하는 servlet에서는 printBlockList(BlockList)를 사용함.
+   */
+  public static void printBlockList(BlockList list, Appendable output) throws IOException {
+    new JsonStreamWriter(output).writeBlockList(list);
   }
 
   public static String printBlock(Block block) {
-    return printBlockToJSON(block).toJSONString();
+    StringBuilder builder = new StringBuilder();
+    try {
+      printBlock(block, builder);
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Writing to a StringBuilder threw an IOException (should never happen).", e);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * block을 json으로 output에 바로 출력함. 출력 중 예외가 발생하면 output에 일부만 기록된 상태로 남으므로,
+   * 응답 전체가 올바른 json이어야 하는 servlet에서는 printBlock(Block)을 사용함.
+   */
+  public static void printBlock(Block block, Appendable output) throws IOException {
+    new JsonStreamWriter(output).writeBlock(block);
   }
 
   public static JSONObject printBlockToJSON(Block block) {
-    BlockCapsule blockCapsule = new BlockCapsule(block);
-    String blockID = ByteArray.toHexString(blockCapsule.getBlockId().getBytes());
-    JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(block));
-    jsonObject.put("blockID", blockID);
-    if (!blockCapsule.getTransactions().isEmpty()) {
-      jsonObject.put("transactions", printTransactionListToJSON(blockCapsule.getTransactions()));
-    }
-    jsonObject.put("size", blockCapsule.getTransactions().toString().getBytes().length);
-    return jsonObject;
+    return JSONObject.parseObject(printBlock(block));
   }
 
   public static String printTransactionList(TransactionList list) {
@@ -88,7 +101,14 @@ public class Util {
   }
 
   public static String printTransaction(Transaction transaction) {
-    return printTransactionToJSON(transaction).toJSONString();
+    StringBuilder builder = new StringBuilder();
+    try {
+      new JsonStreamWriter(builder).writeTransaction(transaction);
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Writing to a StringBuilder threw an IOException (should never happen).", e);
+    }
+    return builder.toString();
   }
 
   public static String printTransactionExtention(TransactionExtention transactionExtention) {
@@ -103,7 +123,13 @@ public class Util {
   public static byte[] generateContractAddress(Transaction trx, byte[] ownerAddress) {
     // get tx hash
     byte[] txRawDataHash = Sha256Hash.of(trx.getRawData().toByteArray()).getBytes();
+    return generateContractAddress(txRawDataHash, ownerAddress);
+  }
 
+  /**
+   * @param txRawDataHash transaction raw data의 hash(txID)
+   */
+  public static byte[] generateContractAddress(byte[] txRawDataHash, byte[] ownerAddress) {
     // combine
     byte[] combined = new byte[txRawDataHash.length + ownerAddress.length];
     System.arraycopy(txRawDataHash, 0, combined, 0, txRawDataHash.length);
@@ -112,172 +138,12 @@ public class Util {
     return Hash.sha3omit12(combined);
   }
 
+  /**
+   * JsonStreamWriter.writeTransaction의 출력을 JSONObject로 변환함. raw_data.contract에는 해석한 parameter,
+   * 최상위에는 txID(와 CreateSmartContract인 경우 contract_address)가 들어있음.
+   */
   public static JSONObject printTransactionToJSON(Transaction transaction) {
-    JSONObject jsonTransaction = JSONObject.parseObject(JsonFormat.printToString(transaction));
-    JSONArray contracts = new JSONArray();
-    transaction.getRawData().getContractList().stream().forEach(contract -> {
-      try {
-        JSONObject contractJson = null;
-        Any contractParameter = contract.getParameter();
-        switch (contract.getType()) {
-          case AccountCreateContract:
-            AccountCreateContract accountCreateContract = contractParameter
-                .unpack(AccountCreateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(accountCreateContract));
-            break;
-          case TransferContract:
-            TransferContract transferContract = contractParameter.unpack(TransferContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(transferContract));
-            break;
-          case TransferAssetContract:
-            TransferAssetContract transferAssetContract = contractParameter
-                .unpack(TransferAssetContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(transferAssetContract));
-            break;
-//          case VoteAssetContract:
-//            VoteAssetContract voteAssetContract = contractParameter.unpack(VoteAssetContract.class);
-//            contractJson = JSONObject.parseObject(JsonFormat.printToString(voteAssetContract));
-//            break;
-//          case VoteWitnessContract:
-//            VoteWitnessContract voteWitnessContract = contractParameter
-//                .unpack(VoteWitnessContract.class);
-//            contractJson = JSONObject.parseObject(JsonFormat.printToString(voteWitnessContract));
-//            break;
-//          case WitnessCreateContract:
-//            WitnessCreateContract witnessCreateContract = contractParameter
-//                .unpack(WitnessCreateContract.class);
-//            contractJson = JSONObject.parseObject(JsonFormat.printToString(witnessCreateContract));
-//            break;
-          case AssetIssueContract:
-            AssetIssueContract assetIssueContract = contractParameter
-                .unpack(AssetIssueContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(assetIssueContract));
-            break;
-//          case WitnessUpdateContract:
-//            WitnessUpdateContract witnessUpdateContract = contractParameter
-//                .unpack(WitnessUpdateContract.class);
-//            contractJson = JSONObject.parseObject(JsonFormat.printToString(witnessUpdateContract));
-//            break;
-          case ParticipateAssetIssueContract:
-            ParticipateAssetIssueContract participateAssetIssueContract = contractParameter
-                .unpack(ParticipateAssetIssueContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(participateAssetIssueContract));
-            break;
-          case AccountUpdateContract:
-            AccountUpdateContract accountUpdateContract = contractParameter
-                .unpack(AccountUpdateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(accountUpdateContract));
-            break;
-          case FreezeBalanceContract:
-            FreezeBalanceContract freezeBalanceContract = contractParameter
-                .unpack(FreezeBalanceContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(freezeBalanceContract));
-            break;
-          case UnfreezeBalanceContract:
-            UnfreezeBalanceContract unfreezeBalanceContract = contractParameter
-                .unpack(UnfreezeBalanceContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(unfreezeBalanceContract));
-            break;
-          case UnfreezeAssetContract:
-            UnfreezeAssetContract unfreezeAssetContract = contractParameter
-                .unpack(UnfreezeAssetContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(unfreezeAssetContract));
-            break;
-          case WithdrawBalanceContract:
-            WithdrawBalanceContract withdrawBalanceContract = contractParameter
-                .unpack(WithdrawBalanceContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(withdrawBalanceContract));
-            break;
-          case UpdateAssetContract:
-            UpdateAssetContract updateAssetContract = contractParameter
-                .unpack(UpdateAssetContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(updateAssetContract));
-            break;
-          case CreateSmartContract:
-            CreateSmartContract deployContract = contractParameter
-                .unpack(CreateSmartContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(deployContract));
-            byte[] ownerAddress = deployContract.getOwnerAddress().toByteArray();
-            byte[] contractAddress = generateContractAddress(transaction, ownerAddress);
-            jsonTransaction.put("contract_address", ByteArray.toHexString(contractAddress));
-            break;
-          case TriggerSmartContract:
-            TriggerSmartContract triggerSmartContract = contractParameter
-                .unpack(TriggerSmartContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(triggerSmartContract));
-            break;
-          case ProposalCreateContract:
-            ProposalCreateContract proposalCreateContract = contractParameter
-                .unpack(ProposalCreateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(proposalCreateContract));
-            break;
-          case ProposalApproveContract:
-            ProposalApproveContract proposalApproveContract = contractParameter
-                .unpack(ProposalApproveContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(proposalApproveContract));
-            break;
-          case ProposalDeleteContract:
-            ProposalDeleteContract proposalDeleteContract = contractParameter
-                .unpack(ProposalDeleteContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(proposalDeleteContract));
-            break;
-          case ExchangeCreateContract:
-            ExchangeCreateContract exchangeCreateContract = contractParameter
-                .unpack(ExchangeCreateContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(exchangeCreateContract));
-            break;
-          case ExchangeInjectContract:
-            ExchangeInjectContract exchangeInjectContract = contractParameter
-                .unpack(ExchangeInjectContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(exchangeInjectContract));
-            break;
-          case ExchangeWithdrawContract:
-            ExchangeWithdrawContract exchangeWithdrawContract = contractParameter
-                .unpack(ExchangeWithdrawContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(exchangeWithdrawContract));
-            break;
-          case ExchangeTransactionContract:
-            ExchangeTransactionContract exchangeTransactionContract = contractParameter
-                .unpack(ExchangeTransactionContract.class);
-            contractJson = JSONObject
-                .parseObject(JsonFormat.printToString(exchangeTransactionContract));
-            break;
-          case UpdateSettingContract:
-            UpdateSettingContract updateSettingContract = contractParameter
-                .unpack(UpdateSettingContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(updateSettingContract));
-            break;
-          case UpdateEnergyLimitContract:
-            UpdateEnergyLimitContract updateEnergyLimitContract = contractParameter
-                .unpack(UpdateEnergyLimitContract.class);
-            contractJson = JSONObject.parseObject(JsonFormat.printToString(updateEnergyLimitContract));
-            break;
-          // todo add other contract
-          default:
-        }
-        JSONObject parameter = new JSONObject();
-        parameter.put("value", contractJson);
-        parameter.put("type_url", contract.getParameterOrBuilder().getTypeUrl());
-        JSONObject jsonContract = new JSONObject();
-        jsonContract.put("parameter", parameter);
-        jsonContract.put("type", contract.getType());
-        contracts.add(jsonContract);
-      } catch (InvalidProtocolBufferException e) {
-        logger.debug("InvalidProtocolBufferException: {}", e.getMessage());
-      }
-    });
-
-    JSONObject rawData = JSONObject.parseObject(jsonTransaction.get("raw_data").toString());
-    rawData.put("contract", contracts);
-    jsonTransaction.put("raw_data", rawData);
-    String txID = ByteArray.toHexString(Sha256Hash.hash(transaction.getRawData().toByteArray()));
-    jsonTransaction.put("txID", txID);
-    return jsonTransaction;
+    return JSONObject.parseObject(printTransaction(transaction));
   }
 
   public static Transaction packTransaction(String strTransaction) {
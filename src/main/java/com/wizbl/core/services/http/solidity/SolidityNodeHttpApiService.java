@@ -17,6 +17,7 @@ import com.wizbl.core.services.http.GetBlockByNumServlet;
 import com.wizbl.core.services.http.GetDelegatedResourceAccountIndexServlet;
 import com.wizbl.core.services.http.GetDelegatedResourceServlet;
 import com.wizbl.core.services.http.GetExchangeByIdServlet;
+import com.wizbl.core.services.http.GetMetricsServlet;
 import com.wizbl.core.services.http.GetNodeInfoServlet;
 import com.wizbl.core.services.http.GetNowBlockServlet;
 import com.wizbl.core.services.http.GetPaginatedAssetIssueListServlet;
@@ -74,6 +75,8 @@ public class SolidityNodeHttpApiService implements Service {
 
   @Autowired
   private GetNodeInfoServlet getNodeInfoServlet;
+  @Autowired
+  private GetMetricsServlet getMetricsServlet;
 
   @Override
   public void init() {
@@ -134,6 +137,7 @@ public class SolidityNodeHttpApiService implements Service {
       }
 
       context.addServlet(new ServletHolder(getNodeInfoServlet), "/wallet/getnodeinfo");
+      context.addServlet(new ServletHolder(getMetricsServlet), "/wallet/getmetrics");
 
       server.start();
     } catch (Exception e) {
@@ -10,7 +10,9 @@ import com.wizbl.core.capsule.WitnessCapsule;
 import com.wizbl.core.config.Parameter.ChainConstant;
 import com.wizbl.core.config.args.Args;
 import com.wizbl.core.db.AccountStore;
+import com.wizbl.core.db.DynamicPropertiesStore;
 import com.wizbl.core.db.Manager;
+import com.wizbl.core.db.VoteDeltaStore;
 import com.wizbl.core.db.VotesStore;
 import com.wizbl.core.db.WitnessStore;
 import com.wizbl.core.exception.HeaderNotFound;
@@ -260,65 +262,88 @@ public class WitnessController {
 //    }
   }
 
+  /**
+   * VotesStore에서 현재 vote epoch에 기록된 entry를 모두 읽어 witness 별 투표 수 변화를 다시 계산함. <br/>
+   * VoteDeltaStore의 tally를 처음 만들거나 검증할 때만 사용함.
+   */
   private Map<ByteString, Long> countVote(VotesStore votesStore) {
     final Map<ByteString, Long> countWitness = Maps.newHashMap();
+    // VotesStore.iterator()는 현재 vote epoch의 entry만 반환함.
     Iterator<Map.Entry<byte[], VotesCapsule>> dbIterator = votesStore.iterator();
 
     long sizeCount = 0;
     while (dbIterator.hasNext()) {
       Entry<byte[], VotesCapsule> next = dbIterator.next();
       VotesCapsule votes = next.getValue();
-
-//      logger.info("there is account ,account address is {}",
-//          account.createReadableString());
-
-      // TODO add vote reward
-      // long reward = Math.round(sum.get() * this.manager.getDynamicPropertiesStore()
-      //    .getVoteRewardRate());
-      //account.setBalance(account.getBalance() + reward);
-      //accountStore.put(account.createDbKey(), account);
-
-      votes.getOldVotes().forEach(vote -> {
-        //TODO validate witness //active_witness
-        ByteString voteAddress = vote.getVoteAddress();
-        long voteCount = vote.getVoteCount();
-        if (countWitness.containsKey(voteAddress)) {
-          countWitness.put(voteAddress, countWitness.get(voteAddress) - voteCount);
-        } else {
-          countWitness.put(voteAddress, -voteCount);
-        }
-      });
-      votes.getNewVotes().forEach(vote -> {
-        //TODO validate witness //active_witness
-        ByteString voteAddress = vote.getVoteAddress();
-        long voteCount = vote.getVoteCount();
-        if (countWitness.containsKey(voteAddress)) {
-          countWitness.put(voteAddress, countWitness.get(voteAddress) + voteCount);
-        } else {
-          countWitness.put(voteAddress, voteCount);
-        }
-      });
-
+      votes.getOldVotes().forEach(vote ->
+          countWitness.merge(vote.getVoteAddress(), -vote.getVoteCount(), Long::sum));
+      votes.getNewVotes().forEach(vote ->
+          countWitness.merge(vote.getVoteAddress(), vote.getVoteCount(), Long::sum));
 
       sizeCount++;
-      votesStore.delete(next.getKey());
     }
     logger.info("there is {} new votes in this epoch", sizeCount);
 
     return countWitness;
   }
 
+  /**
+   * VOTE_EPOCH가 없는 DB(vote tally 도입 이전의 DB)는 VotesStore를 한 번 다시 계산하여 VoteDeltaStore를 채움.
+   */
+  public void initVoteTally() {
+    DynamicPropertiesStore dynamicPropertiesStore = manager.getDynamicPropertiesStore();
+    try {
+      dynamicPropertiesStore.getVoteEpoch();
+      return;
+    } catch (IllegalArgumentException e) {
+      logger.info("VOTE_EPOCH not found, rebuild the vote tally from VotesStore.");
+    }
+
+    // 이전 DB의 entry는 epoch가 0이고 maintenance마다 삭제되었으므로 모두 현재 주기의 투표임.
+    VoteDeltaStore voteDeltaStore = manager.getVoteDeltaStore();
+    voteDeltaStore.clear();
+    countVote(manager.getVotesStore()).forEach(voteDeltaStore::addVoteCount);
+    dynamicPropertiesStore.saveVoteEpoch(0);
+  }
+
+  /**
+   * 이번 maintenance 주기의 witness 별 투표 수 변화를 반환하고 다음 주기를 시작함. <br/>
+   * vote epoch를 증가시켜 이전 주기의 entry가 보이지 않도록 함. 이전 주기의 entry는 VotesStore에서 put으로 덮어씀.
+   */
+  private Map<ByteString, Long> takeVoteTally() {
+    VoteDeltaStore voteDeltaStore = manager.getVoteDeltaStore();
+    Map<ByteString, Long> countWitness = voteDeltaStore.getAllVoteCounts();
+
+    if (Args.getInstance().isVoteTallyVerification()) {
+      Map<ByteString, Long> recount = countVote(manager.getVotesStore());
+      if (!withoutZero(recount).equals(withoutZero(countWitness))) {
+        logger.error("vote tally mismatch, tally:{}, recount:{}", countWitness, recount);
+        countWitness = recount;
+      }
+    }
+
+    voteDeltaStore.clear();
+    DynamicPropertiesStore dynamicPropertiesStore = manager.getDynamicPropertiesStore();
+    dynamicPropertiesStore.saveVoteEpoch(manager.getVotesStore().getCurrentEpoch() + 1);
+    return countWitness;
+  }
+
+  private static Map<ByteString, Long> withoutZero(Map<ByteString, Long> counts) {
+    Map<ByteString, Long> result = Maps.newHashMap(counts);
+    result.values().removeIf(voteCount -> voteCount == 0);
+    return result;
+  }
+
   /**
    * update witness.
    */
   public void updateWitness() {
     WitnessStore witnessStore = manager.getWitnessStore();
-    VotesStore votesStore = manager.getVotesStore();
     AccountStore accountStore = manager.getAccountStore();
 
     tryRemoveThePowerOfTheGr();
 
-    Map<ByteString, Long> countWitness = countVote(votesStore);
+    Map<ByteString, Long> countWitness = takeVoteTally();
 
     //Only possible during the initialization phase
     if (countWitness.isEmpty()) {
@@ -0,0 +1,109 @@
+package com.wizbl.program;
+
+import static org.fusesource.leveldbjni.JniDBFactory.factory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map.Entry;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LevelDB로 저장된 database를 RocksDB로 변환하는 offline 도구 <br/>
+ * usage : DBConvert {src database directory} {dst database directory} [name ...] <br/>
+ *  - name을 지정하지 않으면 src 하위의 모든 database를 변환함. <br/>
+ *  - 변환이 끝난 후 storage.properties에 engine = "ROCKSDB"를 설정하고 dst를 db.directory로 사용함.
+ */
+public class DBConvert {
+
+  private static final Logger logger = LoggerFactory.getLogger("DBConvert");
+  private static final int BATCH_SIZE = 10_000;
+
+  static {
+    RocksDB.loadLibrary();
+  }
+
+  private final File srcDir;
+  private final File dstDir;
+
+  public DBConvert(File srcDir, File dstDir) {
+    this.srcDir = srcDir;
+    this.dstDir = dstDir;
+  }
+
+  public long convert(String dbName) throws IOException, RocksDBException {
+    File src = new File(srcDir, dbName);
+    File dst = new File(dstDir, dbName);
+    if (!dst.getParentFile().exists() && !dst.getParentFile().mkdirs()) {
+      throw new IOException("Make directory failed: " + dst.getParent());
+    }
+
+    long count = 0;
+    org.iq80.leveldb.Options levelDbOptions = new org.iq80.leveldb.Options()
+        .createIfMissing(false);
+    try (DB levelDb = factory.open(src, levelDbOptions);
+        DBIterator iterator = levelDb.iterator();
+        Options options = new Options().setCreateIfMissing(true);
+        RocksDB rocksDb = RocksDB.open(options, dst.getPath());
+        WriteOptions writeOptions = new WriteOptions().setSync(false)) {
+      WriteBatch batch = new WriteBatch();
+      try {
+        for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
+          Entry<byte[], byte[]> entry = iterator.peekNext();
+          batch.put(entry.getKey(), entry.getValue());
+          if (++count % BATCH_SIZE == 0) {
+            rocksDb.write(writeOptions, batch);
+            batch.close();
+            batch = new WriteBatch();
+          }
+        }
+        rocksDb.write(writeOptions, batch);
+      } finally {
+        batch.close();
+      }
+      rocksDb.compactRange();
+    }
+    return count;
+  }
+
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.out.println("usage: DBConvert <src database directory> <dst database directory> [name ...]");
+      System.exit(1);
+    }
+
+    File srcDir = new File(args[0]);
+    File dstDir = new File(args[1]);
+    String[] dbNames;
+    if (args.length > 2) {
+      dbNames = new String[args.length - 2];
+      System.arraycopy(args, 2, dbNames, 0, dbNames.length);
+    } else {
+      dbNames = srcDir.list((dir, name) -> new File(dir, name).isDirectory());
+    }
+    if (dbNames == null || dbNames.length == 0) {
+      logger.error("no database found in {}", srcDir);
+      System.exit(1);
+    }
+
+    DBConvert convert = new DBConvert(srcDir, dstDir);
+    for (String dbName : dbNames) {
+      long start = System.currentTimeMillis();
+      try {
+        long count = convert.convert(dbName);
+        logger.info("convert {} done, count:{}, cost:{}ms", dbName, count,
+            System.currentTimeMillis() - start);
+      } catch (IOException | RocksDBException e) {
+        logger.error("convert " + dbName + " failed", e);
+        System.exit(1);
+      }
+    }
+  }
+}
@@ -4,6 +4,7 @@ import ch.qos.logback.classic.Level;
 import com.wizbl.common.application.Application;
 import com.wizbl.common.application.ApplicationFactory;
 import com.wizbl.common.application.Brte2ApplicationContext;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.core.Constant;
 import com.wizbl.core.config.DefaultConfig;
 import com.wizbl.core.config.args.Args;
@@ -47,6 +48,10 @@ public class FullNode {
       logger.info("not in debug mode, it will check energy time");
     }
 
+    if (cfgArgs.isMetricsJmxEnable()) {
+      MetricsUtil.startJmxReporter();
+    }
+
     DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
     beanFactory.setAllowCircularReferences(false);
     Brte2ApplicationContext context = new Brte2ApplicationContext(beanFactory);
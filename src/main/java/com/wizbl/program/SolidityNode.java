@@ -1,6 +1,11 @@
 package com.wizbl.program;
 
 import ch.qos.logback.classic.Level;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Slf4jReporter;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.wizbl.common.application.Application;
 import com.wizbl.common.application.ApplicationFactory;
 import com.wizbl.common.application.Brte2ApplicationContext;
@@ -8,11 +13,14 @@ import com.wizbl.common.overlay.client.DatabaseGrpcClient;
 import com.wizbl.common.overlay.discover.DiscoverServer;
 import com.wizbl.common.overlay.discover.node.NodeManager;
 import com.wizbl.common.overlay.server.ChannelManager;
+import com.wizbl.common.utils.MetricsUtil;
 import com.wizbl.core.Constant;
 import com.wizbl.core.capsule.BlockCapsule;
 import com.wizbl.core.config.DefaultConfig;
 import com.wizbl.core.config.args.Args;
 import com.wizbl.core.db.Manager;
+import com.wizbl.core.db.SignatureVerifier;
+import com.wizbl.core.exception.ItemNotFoundException;
 import com.wizbl.core.services.RpcApiService;
 import com.wizbl.core.services.http.solidity.SolidityNodeHttpApiService;
 import com.wizbl.protos.Protocol.Block;
@@ -23,7 +31,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.util.StringUtils;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.wizbl.core.config.Parameter.ChainConstant.BLOCK_PRODUCED_INTERVAL;
@@ -33,32 +46,66 @@ public class SolidityNode {
 
   private final Manager dbManager;
 
+  private final SignatureVerifier signatureVerifier;
+
   private final DatabaseGrpcClient databaseGrpcClient;
 
   private final AtomicLong ID = new AtomicLong();
 
   private final AtomicLong remoteBlockNum = new AtomicLong();
 
-  private final LinkedBlockingDeque<Block> blockQueue = new LinkedBlockingDeque(100);
+  // 요청 순서(block number 순서)대로 저장되므로, 응답이 먼저 도착한 block도 번호 순서대로 처리됨.
+  private final LinkedBlockingDeque<Future<BlockCapsule>> blockQueue;
+
+  // TrustNode에 동시에 요청하는 getBlock의 수
+  private final int fetchWindow;
+
+  private final boolean validateSign;
+
+  private final ExecutorService fetchExecutor;
+
+  private final Meter processMeter = MetricsUtil.meter("solidity.processBlock");
+
+  private final Timer fetchTimer = MetricsUtil.timer("solidity.fetchBlock");
 
   private final int exceptionSleepTime = 1000;
 
+  // 같은 block의 조회, 서명 검증, 적용을 다시 시도하는 최대 횟수. 넘으면 solid node를 종료함.
+  private static final int MAX_BLOCK_RETRY = 10;
+
   private final boolean flag = true;
 
-  public SolidityNode(Manager dbManager) {
+  public SolidityNode(Manager dbManager, SignatureVerifier signatureVerifier) {
     this.dbManager = dbManager;
+    this.signatureVerifier = signatureVerifier;
     resolveCompatibilityIssueIfUsingFullNodeDatabase();
     ID.set(dbManager.getDynamicPropertiesStore().getLatestSolidifiedBlockNum());
     // databaseGrpcClient : config 파일에 설정한 TrustNode의 database에 연결하기 위한 client
     databaseGrpcClient = new DatabaseGrpcClient(Args.getInstance().getTrustNodeAddr());
     remoteBlockNum.set(getLastSolidityBlockNum());
+
+    fetchWindow = Math.max(1, Args.getInstance().getSolidityFetchWindow());
+    validateSign = Args.getInstance().isSolidityValidateSign();
+    blockQueue = new LinkedBlockingDeque<>(fetchWindow);
+    fetchExecutor = Executors.newFixedThreadPool(fetchWindow,
+        new ThreadFactoryBuilder().setNameFormat("solidity-fetch-%d").setDaemon(true).build());
+    MetricsUtil.gauge("solidity.queueDepth", (Gauge<Integer>) blockQueue::size);
+    MetricsUtil.gauge("solidity.remoteBlockNum", (Gauge<Long>) remoteBlockNum::get);
   }
 
   private void start() {
     try {
       new Thread(() -> getBlock()).start();
       new Thread(() -> processBlock()).start();
-      logger.info( "Success to start solid node, ID: {}, remoteBlockNum: {}.", ID.get(), remoteBlockNum);
+      Slf4jReporter.forRegistry(MetricsUtil.getRegistry())
+          .filter((name, metric) -> name.startsWith("solidity."))
+          .outputTo(logger)
+          .convertRatesTo(TimeUnit.SECONDS)
+          .convertDurationsTo(TimeUnit.MILLISECONDS)
+          .build()
+          .start(1, TimeUnit.MINUTES);
+      logger.info("Success to start solid node, ID: {}, remoteBlockNum: {}, fetchWindow: {}.",
+          ID.get(), remoteBlockNum, fetchWindow);
     } catch (Exception e) {
       logger.error("Failed to start solid node, address: {}.", Args.getInstance().getTrustNodeAddr());
       System.exit(0);
@@ -66,7 +113,8 @@ public class SolidityNode {
   }
 
   /**
-   * blockQueue에 TrustNode에서 조회한 block 정보를 저장하는 메서드
+   * TrustNode에 block 조회를 요청하고, 결과(Future)를 요청 순서대로 blockQueue에 저장하는 메서드 <br/>
+   * blockQueue의 크기가 fetchWindow이므로 처리되지 않은 block이 fetchWindow 개 이상 쌓이면 다음 요청을 보내지 않음.
    */
   private void getBlock() {
     long blockNum = ID.incrementAndGet();
@@ -77,8 +125,8 @@ public class SolidityNode {
           remoteBlockNum.set(getLastSolidityBlockNum());
           continue;
         }
-        Block block = getBlockByNum(blockNum);
-        blockQueue.put(block);
+        final long num = blockNum;
+        blockQueue.put(fetchExecutor.submit(() -> refetchBlock(num)));
         blockNum = ID.incrementAndGet();
       } catch (Exception e) {
         logger.error("Failed to get block {}, reason: {}.", blockNum, e.getMessage());
@@ -87,42 +135,122 @@ public class SolidityNode {
     }
   }
 
+  /**
+   * block을 조회하여 BlockCapsule로 변환하고, 처리 thread가 block을 적용하는 동안 transaction 서명을 미리 검증함.
+   */
+  private BlockCapsule fetchBlock(long blockNum) throws Exception {
+    BlockCapsule blockCapsule;
+    try (Timer.Context ignored = fetchTimer.time()) {
+      blockCapsule = new BlockCapsule(getBlockByNum(blockNum));
+    }
+    if (validateSign) {
+      // 검증된 transaction은 isVerified가 true로 설정되며, pushVerifiedBlock에서 검증 결과를 그대로 사용함.
+      signatureVerifier.verify(blockCapsule.getTransactions());
+      blockCapsule.transactionsPreVerified = true;
+    }
+    return blockCapsule;
+  }
+
   private void processBlock() {
     while (flag) {
+      Future<BlockCapsule> future;
+      try {
+        future = blockQueue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      BlockCapsule blockCapsule;
       try {
-        Block block = blockQueue.take();
-        loopProcessBlock(block);
+        // 앞선 block의 응답이 도착할 때까지 기다리므로 block number 순서대로 처리됨.
+        blockCapsule = future.get();
+      } catch (ExecutionException e) {
+        // block을 건너뛰면 이후 block을 적용할 수 없으므로 종료함.
+        // (TrustNode에 block이 없으면 ItemNotFoundException, 서명 검증이 계속 실패하면 IllegalStateException)
+        shutdownOnFailure(e.getCause().getMessage(), e.getCause());
+        return;
       } catch (Exception e) {
-        logger.error(e.getMessage());
-        sleep(exceptionSleepTime);
+        shutdownOnFailure("Failed to fetch block.", e);
+        return;
       }
+      loopProcessBlock(blockCapsule);
     }
   }
 
   /**
    * 검증된 block을 Node의 DB에 저장,
    * 최신의 solid block number를 Node의 DB에 저장
-   * @param block
+   * @param blockCapsule
    */
-  private void loopProcessBlock(Block block) {
+  private void loopProcessBlock(BlockCapsule blockCapsule) {
+    int retry = 0;
     while (flag) {
-      long blockNum = block.getBlockHeader().getRawData().getNumber();
+      long blockNum = blockCapsule.getNum();
       try {
-        dbManager.pushVerifiedBlock(new BlockCapsule(block));
+        dbManager.pushVerifiedBlock(blockCapsule);
         dbManager.getDynamicPropertiesStore().saveLatestSolidifiedBlockNum(blockNum);
+        processMeter.mark();
         logger.info("Success to process block: {}, blockQueueSize: {}.", blockNum, blockQueue.size());
         return;
       } catch (Exception e) {
-        logger.error("Failed to process block {}.", new BlockCapsule(block), e);
+        logger.error("Failed to process block {}.", blockCapsule, e);
+        if (++retry >= MAX_BLOCK_RETRY) {
+          shutdownOnFailure("Failed to process block " + blockNum + " " + retry + " times.", e);
+          return;
+        }
         sleep(exceptionSleepTime);
-        block = getBlockByNum(blockNum);
+        try {
+          blockCapsule = refetchBlock(blockNum);
+        } catch (ItemNotFoundException | IllegalStateException refetchException) {
+          shutdownOnFailure(refetchException.getMessage(), refetchException.getCause());
+          return;
+        }
       }
     }
   }
 
+  /**
+   * 서명 검증이 실패하면 같은 block을 MAX_BLOCK_RETRY 번까지 다시 조회함.
+   * 조회 자체의 재시도는 getBlockByNum에서 하므로, TrustNode에 block이 없으면 바로 ItemNotFoundException을 던짐.
+   *
+   * @throws ItemNotFoundException TrustNode에서 block을 받지 못한 경우
+   * @throws IllegalStateException MAX_BLOCK_RETRY 번 모두 서명 검증이 실패한 경우
+   */
+  private BlockCapsule refetchBlock(long blockNum) throws ItemNotFoundException {
+    Exception last = null;
+    for (int retry = 0; retry < MAX_BLOCK_RETRY; retry++) {
+      try {
+        return fetchBlock(blockNum);
+      } catch (ItemNotFoundException e) {
+        throw e;
+      } catch (Exception e) {
+        last = e;
+        logger.error("Failed to get block: {}, retry: {}, reason: {}.", blockNum, retry, e.getMessage());
+        sleep(exceptionSleepTime);
+      }
+    }
+    throw new IllegalStateException(
+        "Failed to get block " + blockNum + " " + MAX_BLOCK_RETRY + " times.", last);
+  }
 
-  private Block getBlockByNum(long blockNum) {
-    while (true) {
+  /**
+   * 같은 block이 계속 실패하면 더 진행할 수 없으므로, 멈춘 채로 두지 않고 오류를 남긴 뒤 종료함. <br/>
+   * TrustNode의 block이 잘못된 경우이므로 trustNode 설정을 확인해야 함.
+   */
+  private void shutdownOnFailure(String reason, Throwable cause) {
+    logger.error("Solid node stopped: {} trustNode: {}.", reason, Args.getInstance().getTrustNodeAddr(),
+        cause);
+    System.exit(1);
+  }
+
+  /**
+   * TrustNode에서 block을 조회함. 요청한 번호의 block을 받지 못하면 MAX_BLOCK_RETRY 번까지 다시 요청함.
+   *
+   * @throws ItemNotFoundException MAX_BLOCK_RETRY 번 모두 요청한 번호의 block을 받지 못한 경우
+   */
+  private Block getBlockByNum(long blockNum) throws ItemNotFoundException {
+    Exception last = null;
+    for (int retry = 0; retry < MAX_BLOCK_RETRY; retry++) {
       try {
         long time = System.currentTimeMillis();
         Block block = databaseGrpcClient.getBlock(blockNum);
@@ -130,15 +258,16 @@ public class SolidityNode {
         if (num == blockNum) {
           logger.info("Success to get block: {}, cost: {}ms.", blockNum, System.currentTimeMillis() - time);
           return block;
-        }else {
-          logger.warn("Get block id not the same , {}, {}.", num, blockNum);
-          sleep(exceptionSleepTime);
         }
-      }catch (Exception e){
-        logger.error("Failed to get block: {}, reason: {}.", blockNum, e.getMessage());
-        sleep(exceptionSleepTime);
+        logger.warn("Get block id not the same , {}, {}, retry: {}.", num, blockNum, retry);
+      } catch (Exception e) {
+        last = e;
+        logger.error("Failed to get block: {}, retry: {}, reason: {}.", blockNum, retry, e.getMessage());
       }
+      sleep(exceptionSleepTime);
     }
+    throw new ItemNotFoundException(
+        "Block " + blockNum + " not found on trustNode after " + MAX_BLOCK_RETRY + " tries.", last);
   }
 
   /**
@@ -199,6 +328,10 @@ public class SolidityNode {
     }
     cfgArgs.setSolidityNode(true);
 
+    if (cfgArgs.isMetricsJmxEnable()) {
+      MetricsUtil.startJmxReporter();
+    }
+
     ApplicationContext context = new Brte2ApplicationContext(DefaultConfig.class);
 
     if (cfgArgs.isHelp()) {
@@ -227,7 +360,8 @@ public class SolidityNode {
     NodeManager nodeManager = context.getBean(NodeManager.class);
     nodeManager.close();
 
-    SolidityNode node = new SolidityNode(appT.getDbManager());
+    SolidityNode node = new SolidityNode(appT.getDbManager(),
+        context.getBean(SignatureVerifier.class));
     node.start();
 
     rpcApiService.blockUntilShutdown();
@@ -211,4 +211,21 @@ public class ECKeyTest {
 
         assertEquals(key, ECKey.fromNodeId(key.getNodeId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSignatureToAddressFromRawBytes() throws SignatureException {
+        ECKey key = ECKey.fromPrivate(privateKey);
+        byte[] messageHash = Hash.sha3("raw signature".getBytes());
+        ECDSASignature signature = key.sign(messageHash);
+
+        byte[] raw = signature.toByteArray();
+        assertArrayEquals(key.getAddress(), ECKey.signatureToAddress(messageHash, raw));
+        assertArrayEquals(ECKey.signatureToAddress(messageHash, signature.toBase64()),
+                ECKey.signatureToAddress(messageHash, raw));
+    }
+
+    @Test(expected = SignatureException.class)
+    public void testSignatureToAddressFromTruncatedBytes() throws SignatureException {
+        ECKey.signatureToAddress(new byte[32], new byte[64]);
+    }
+}
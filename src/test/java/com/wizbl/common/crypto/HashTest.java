@@ -0,0 +1,56 @@
+package com.wizbl.common.crypto;
+
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+import java.nio.ByteBuffer;
+
+public class HashTest {
+
+    private static final byte[] EMPTY_SHA3 =
+            Hex.decode("c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470");
+
+    private static final byte[] ABC_SHA3 =
+            Hex.decode("4e03657aea45a94fc7d47ba826c8d667c0d1e6e33a64a036ec44f58fa12d6c45");
+
+    @Test
+    public void testSha3() {
+        Assert.assertArrayEquals(EMPTY_SHA3, Hash.sha3(new byte[0]));
+        Assert.assertArrayEquals(ABC_SHA3, Hash.sha3("abc".getBytes()));
+        Assert.assertArrayEquals(ABC_SHA3, Hash.sha3("ab".getBytes(), "c".getBytes()));
+        Assert.assertArrayEquals(ABC_SHA3, Hash.sha3("xabcx".getBytes(), 1, 3));
+    }
+
+    @Test
+    public void testSha3WithoutCopy() {
+        Assert.assertArrayEquals(ABC_SHA3, Hash.sha3(ByteString.copyFromUtf8("abc")));
+        Assert.assertArrayEquals(ABC_SHA3, Hash.sha3(ByteBuffer.wrap("xabcx".getBytes(), 1, 3)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(3);
+        direct.put("abc".getBytes());
+        direct.flip();
+        Assert.assertArrayEquals(ABC_SHA3, Hash.sha3(direct));
+
+        byte[] large = new byte[10_000];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        ByteBuffer largeDirect = ByteBuffer.allocateDirect(large.length);
+        largeDirect.put(large);
+        largeDirect.flip();
+        Assert.assertArrayEquals(Hash.sha3(large), Hash.sha3(largeDirect));
+    }
+
+    @Test
+    public void testDigestReusedAfterFailure() {
+        try {
+            Hash.sha3(new byte[4], 2, 8);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // 중간에 실패한 입력이 다음 hash에 섞이지 않아야 함
+        }
+        Assert.assertArrayEquals(ABC_SHA3, Hash.sha3("abc".getBytes()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.wizbl.common.overlay.server;
+
+import com.google.common.collect.Lists;
+import com.wizbl.common.overlay.discover.node.Node;
+import com.wizbl.common.overlay.discover.node.statistics.NodeStatistics;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.capsule.BlockCapsule;
+import com.wizbl.core.net.message.BlockMessage;
+import com.wizbl.core.net.message.InventoryMessage;
+import com.wizbl.core.net.message.MessageTypes;
+import com.wizbl.protos.Protocol.Inventory.InventoryType;
+import com.google.protobuf.ByteString;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class MessageQueueTest {
+
+    private EmbeddedChannel embeddedChannel;
+    private MessageQueue messageQueue;
+
+    @Before
+    public void init() {
+        embeddedChannel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        ChannelHandlerContext ctx = embeddedChannel.pipeline().firstContext();
+
+        Channel channel = Mockito.mock(Channel.class);
+        Mockito.when(channel.getNodeStatistics())
+                .thenReturn(new NodeStatistics(new Node(new byte[64], "127.0.0.1", 18888)));
+
+        messageQueue = new MessageQueue();
+        messageQueue.setChannel(channel);
+        messageQueue.activate(ctx);
+    }
+
+    @After
+    public void destroy() {
+        messageQueue.close();
+        embeddedChannel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testBlockMessageIsSentFirst() {
+        InventoryMessage trxInv = new InventoryMessage(
+                Lists.newArrayList(Sha256Hash.of(new byte[]{1})), InventoryType.TRX);
+        BlockMessage block = new BlockMessage(
+                new BlockCapsule(1, Sha256Hash.ZERO_HASH, 0L, ByteString.copyFrom(new byte[21])));
+
+        messageQueue.sendMessage(trxInv);
+        messageQueue.sendMessage(block);
+        Assert.assertEquals(2, messageQueue.getBacklog());
+
+        embeddedChannel.runPendingTasks();
+        Assert.assertEquals(0, messageQueue.getBacklog());
+
+        ByteBuf first = embeddedChannel.readOutbound();
+        ByteBuf second = embeddedChannel.readOutbound();
+        Assert.assertEquals(MessageTypes.BLOCK.asByte(), first.getByte(first.readerIndex()));
+        Assert.assertEquals(MessageTypes.INVENTORY.asByte(), second.getByte(second.readerIndex()));
+        first.release();
+        second.release();
+    }
+
+    @Test
+    public void testBatchLimit() {
+        for (int i = 0; i < 100; i++) {
+            messageQueue.sendMessage(new InventoryMessage(
+                    Lists.newArrayList(Sha256Hash.of(new byte[]{(byte) i})), InventoryType.BLOCK));
+        }
+        embeddedChannel.runPendingTasks();
+        Assert.assertEquals(0, messageQueue.getBacklog());
+        Assert.assertEquals(100, embeddedChannel.outboundMessages().size());
+    }
+}
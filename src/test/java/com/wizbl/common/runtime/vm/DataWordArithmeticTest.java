@@ -0,0 +1,235 @@
+package com.wizbl.common.runtime.vm;
+
+import com.wizbl.common.utils.ByteUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * DataWord 산술 연산(UInt256)의 결과가 BigInteger로 계산한 결과와 bit 단위로 같은지 검증함. <br/>
+ * 피연산자는 0, 1, 최댓값, 부호 경계, 2의 거듭제곱 근처 값, 32bit digit 경계 값(나눗셈 보정 경로),
+ * 임의 길이의 임의 값을 섞어서 생성함.
+ */
+public class DataWordArithmeticTest {
+
+    private static final int ITERATIONS = 20_000;
+
+    private static final BigInteger MAX_VALUE = DataWord.MAX_VALUE;
+
+    private static final int[] EDGE_DIGITS = {
+            0, 1, 2, 0x7fffffff, 0x80000000, 0x80000001, 0xfffffffe, 0xffffffff
+    };
+
+    private final Random random = new Random(0);
+
+    private byte[] randomWord() {
+        byte[] data = new byte[32];
+        switch (random.nextInt(8)) {
+            case 0:
+                break;
+            case 1:
+                data[31] = (byte) random.nextInt(4);
+                break;
+            case 2:
+                java.util.Arrays.fill(data, (byte) 0xff);
+                break;
+            case 3: {
+                // 2^n, 2^n - 1, -2^n
+                BigInteger value = BigInteger.ONE.shiftLeft(random.nextInt(256));
+                value = value.add(BigInteger.valueOf(random.nextInt(3) - 1)).and(MAX_VALUE);
+                data = ByteUtil.copyToArray(value);
+                break;
+            }
+            case 4:
+                for (int i = 0; i < 8; i++) {
+                    int digit = EDGE_DIGITS[random.nextInt(EDGE_DIGITS.length)];
+                    data[i * 4] = (byte) (digit >>> 24);
+                    data[i * 4 + 1] = (byte) (digit >>> 16);
+                    data[i * 4 + 2] = (byte) (digit >>> 8);
+                    data[i * 4 + 3] = (byte) digit;
+                }
+                break;
+            default: {
+                int width = 1 + random.nextInt(32);
+                byte[] value = new byte[width];
+                random.nextBytes(value);
+                System.arraycopy(value, 0, data, 32 - width, width);
+                break;
+            }
+        }
+        return data;
+    }
+
+    private static BigInteger unsigned(byte[] data) {
+        return new BigInteger(1, data);
+    }
+
+    private static BigInteger signed(byte[] data) {
+        return new BigInteger(data);
+    }
+
+    private static void assertWord(BigInteger expected, DataWord actual, String op, byte[]... operands) {
+        byte[] expectedData = ByteUtil.copyToArray(expected.and(MAX_VALUE));
+        if (!java.util.Arrays.equals(expectedData, actual.getData())) {
+            Assert.fail(describe(op, operands) + " expected: " + Hex.toHexString(expectedData)
+                    + " actual: " + Hex.toHexString(actual.getData()));
+        }
+    }
+
+    private static String describe(String op, byte[]... operands) {
+        StringBuilder builder = new StringBuilder(op);
+        for (byte[] operand : operands) {
+            builder.append(' ').append(Hex.toHexString(operand));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testAddSubMul() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] a = randomWord();
+            byte[] b = randomWord();
+
+            DataWord add = new DataWord(a.clone());
+            add.add(new DataWord(b.clone()));
+            assertWord(unsigned(a).add(unsigned(b)), add, "add", a, b);
+
+            DataWord sub = new DataWord(a.clone());
+            sub.sub(new DataWord(b.clone()));
+            assertWord(unsigned(a).subtract(unsigned(b)), sub, "sub", a, b);
+
+            DataWord mul = new DataWord(a.clone());
+            mul.mul(new DataWord(b.clone()));
+            assertWord(unsigned(a).multiply(unsigned(b)), mul, "mul", a, b);
+        }
+    }
+
+    @Test
+    public void testDivMod() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] a = randomWord();
+            byte[] b = randomWord();
+            boolean zero = unsigned(b).signum() == 0;
+
+            DataWord div = new DataWord(a.clone());
+            div.div(new DataWord(b.clone()));
+            assertWord(zero ? BigInteger.ZERO : unsigned(a).divide(unsigned(b)), div, "div", a, b);
+
+            DataWord mod = new DataWord(a.clone());
+            mod.mod(new DataWord(b.clone()));
+            assertWord(zero ? BigInteger.ZERO : unsigned(a).mod(unsigned(b)), mod, "mod", a, b);
+
+            DataWord sDiv = new DataWord(a.clone());
+            sDiv.sDiv(new DataWord(b.clone()));
+            assertWord(zero ? BigInteger.ZERO : signed(a).divide(signed(b)), sDiv, "sDiv", a, b);
+
+            BigInteger sModExpected = BigInteger.ZERO;
+            if (!zero) {
+                sModExpected = signed(a).abs().mod(signed(b).abs());
+                sModExpected = signed(a).signum() == -1 ? sModExpected.negate() : sModExpected;
+            }
+            DataWord sMod = new DataWord(a.clone());
+            sMod.sMod(new DataWord(b.clone()));
+            assertWord(sModExpected, sMod, "sMod", a, b);
+        }
+    }
+
+    @Test
+    public void testAddModMulMod() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] a = randomWord();
+            byte[] b = randomWord();
+            byte[] n = randomWord();
+            boolean zero = unsigned(n).signum() == 0;
+
+            DataWord addmod = new DataWord(a.clone());
+            addmod.addmod(new DataWord(b.clone()), new DataWord(n.clone()));
+            BigInteger addmodExpected = zero ? BigInteger.ZERO
+                    : unsigned(a).add(unsigned(b)).mod(unsigned(n));
+            assertWord(addmodExpected, addmod, "addmod", a, b, n);
+
+            DataWord mulmod = new DataWord(a.clone());
+            mulmod.mulmod(new DataWord(b.clone()), new DataWord(n.clone()));
+            BigInteger mulmodExpected = zero ? BigInteger.ZERO
+                    : unsigned(a).multiply(unsigned(b)).mod(unsigned(n));
+            assertWord(mulmodExpected, mulmod, "mulmod", a, b, n);
+        }
+    }
+
+    @Test
+    public void testExp() {
+        BigInteger modulus = DataWord._2_256;
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            byte[] a = randomWord();
+            byte[] b = randomWord();
+
+            DataWord exp = new DataWord(a.clone());
+            exp.exp(new DataWord(b.clone()));
+            assertWord(unsigned(a).modPow(unsigned(b), modulus), exp, "exp", a, b);
+        }
+    }
+
+    @Test
+    public void testNotAndCompare() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] a = randomWord();
+            byte[] b = randomWord();
+
+            DataWord not = new DataWord(a.clone());
+            not.bnot();
+            assertWord(MAX_VALUE.subtract(unsigned(a)), not, "not", a);
+
+            if (unsigned(a).compareTo(unsigned(b)) != new DataWord(a).compareTo(new DataWord(b))) {
+                Assert.fail(describe("compare", a, b));
+            }
+            if (signed(a).compareTo(signed(b)) != new DataWord(a).sCompareTo(new DataWord(b))) {
+                Assert.fail(describe("sCompare", a, b));
+            }
+        }
+    }
+
+    @Test
+    public void testDivisionCorrectionStep() {
+        // Knuth Algorithm D에서 추정한 몫의 digit이 1 커서 되돌리는 경우(Hacker's Delight 예제)
+        BigInteger u = new BigInteger("800000000000fffe00000000", 16);
+        BigInteger v = new BigInteger("0000800000000003", 16);
+        DataWord div = new DataWord(ByteUtil.copyToArray(u));
+        div.div(new DataWord(ByteUtil.copyToArray(v)));
+        assertWord(u.divide(v), div, "div");
+
+        DataWord mod = new DataWord(ByteUtil.copyToArray(u));
+        mod.mod(new DataWord(ByteUtil.copyToArray(v)));
+        assertWord(u.mod(v), mod, "mod");
+    }
+
+    @Test
+    public void testSelfOperand() {
+        byte[] a = randomWord();
+        a[0] = (byte) 0x9c;
+        DataWord word = new DataWord(a.clone());
+        word.mul(word);
+        assertWord(unsigned(a).multiply(unsigned(a)), word, "mul", a);
+
+        word = new DataWord(a.clone());
+        word.sub(word);
+        Assert.assertTrue(word.isZero());
+    }
+
+    @Test
+    public void testSharedArrayIsNotOverwritten() {
+        // DataWord(byte[])는 32 byte 배열을 복사하지 않으므로 연산 결과가 원래 배열에 기록되면 안 됨.
+        byte[] a = randomWord();
+        byte[] b = randomWord();
+        byte[] shared = a.clone();
+
+        DataWord word = new DataWord(shared);
+        word.add(new DataWord(b));
+        word.mul(new DataWord(b));
+        word.bnot();
+        Assert.assertArrayEquals(a, shared);
+        Assert.assertArrayEquals(a, new DataWord(shared).getData());
+    }
+}
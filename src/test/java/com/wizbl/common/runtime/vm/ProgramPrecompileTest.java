@@ -0,0 +1,51 @@
+package com.wizbl.common.runtime.vm;
+
+import com.wizbl.common.runtime.vm.program.ProgramPrecompile;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+public class ProgramPrecompileTest {
+
+    @Test
+    public void testJumpDest() {
+        // PUSH1 0x5b JUMPDEST PUSH2 0x5b5b JUMPDEST
+        byte[] code = Hex.decode("605b5b615b5b5b");
+        ProgramPrecompile precompile = ProgramPrecompile.compile(code);
+
+        Assert.assertFalse(precompile.hasJumpDest(1));
+        Assert.assertTrue(precompile.hasJumpDest(2));
+        Assert.assertFalse(precompile.hasJumpDest(4));
+        Assert.assertFalse(precompile.hasJumpDest(5));
+        Assert.assertTrue(precompile.hasJumpDest(6));
+        Assert.assertFalse(precompile.hasJumpDest(7));
+        Assert.assertFalse(precompile.hasJumpDest(-1));
+    }
+
+    @Test
+    public void testCachedByCode() {
+        byte[] code = Hex.decode("600a5b6001900380600257");
+        ProgramPrecompile first = ProgramPrecompile.getInstance(code);
+        ProgramPrecompile second = ProgramPrecompile.getInstance(code.clone());
+        Assert.assertSame(first, second);
+        Assert.assertTrue(second.hasJumpDest(2));
+
+        byte[] other = code.clone();
+        other[2] = 0x00;
+        ProgramPrecompile changed = ProgramPrecompile.getInstance(other);
+        Assert.assertNotSame(first, changed);
+        Assert.assertFalse(changed.hasJumpDest(2));
+    }
+
+    @Test
+    public void testCacheKeyIsCopied() {
+        byte[] code = Hex.decode("6001805b600257");
+        byte[] original = code.clone();
+        ProgramPrecompile first = ProgramPrecompile.getInstance(code);
+
+        // 조회에 사용한 배열을 변경해도 cache에 저장된 key는 바뀌지 않음.
+        code[3] = 0x00;
+        Assert.assertSame(first, ProgramPrecompile.getInstance(original));
+        Assert.assertNotSame(first, ProgramPrecompile.getInstance(code));
+    }
+}
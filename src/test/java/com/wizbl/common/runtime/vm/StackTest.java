@@ -0,0 +1,90 @@
+package com.wizbl.common.runtime.vm;
+
+import com.wizbl.common.runtime.vm.program.Stack;
+import com.wizbl.common.runtime.vm.program.listener.ProgramListenerAdaptor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EmptyStackException;
+
+public class StackTest {
+
+    @Test
+    public void testPushPopOrder() {
+        Stack stack = new Stack();
+        for (int i = 0; i < 10; i++) {
+            stack.push(new DataWord(i));
+        }
+        Assert.assertEquals(10, stack.size());
+        Assert.assertEquals(new DataWord(9), stack.peek());
+        Assert.assertEquals(new DataWord(0), stack.get(0));
+
+        stack.swap(stack.size() - 1, 0);
+        Assert.assertEquals(new DataWord(0), stack.pop());
+        for (int i = 8; i > 0; i--) {
+            Assert.assertEquals(new DataWord(i), stack.pop());
+        }
+        Assert.assertEquals(new DataWord(9), stack.pop());
+        Assert.assertTrue(stack.isEmpty());
+    }
+
+    @Test(expected = EmptyStackException.class)
+    public void testPopEmpty() {
+        new Stack().pop();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOverflow() {
+        Stack stack = new Stack();
+        for (int i = 0; i <= Stack.MAX_SIZE; i++) {
+            stack.push(new DataWord(i));
+        }
+    }
+
+    @Test
+    public void testRecycledWordIsReset() {
+        Stack stack = new Stack();
+        DataWord word = new DataWord(0xff);
+        stack.recycle(word);
+
+        DataWord reused = stack.newWord();
+        Assert.assertSame(word, reused);
+        Assert.assertTrue(reused.isZero());
+
+        reused.getData()[31] = 7;
+        DataWord copy = stack.copyOf(reused);
+        Assert.assertEquals(reused, copy);
+        copy.add(new DataWord(1));
+        Assert.assertEquals(new DataWord(7), reused);
+    }
+
+    @Test
+    public void testListenerHooks() {
+        final int[] counts = new int[3];
+        Stack stack = new Stack();
+        stack.setProgramListener(new ProgramListenerAdaptor() {
+            @Override
+            public void onStackPush(DataWord value) {
+                counts[0]++;
+            }
+
+            @Override
+            public void onStackPop() {
+                counts[1]++;
+            }
+
+            @Override
+            public void onStackSwap(int from, int to) {
+                counts[2]++;
+            }
+        });
+
+        stack.push(new DataWord(1));
+        stack.push(new DataWord(2));
+        stack.swap(0, 1);
+        stack.swap(1, 1);
+        stack.pop();
+
+        Assert.assertArrayEquals(new int[]{2, 1, 1}, counts);
+    }
+}
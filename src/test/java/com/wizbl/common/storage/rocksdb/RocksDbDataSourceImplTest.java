@@ -0,0 +1,108 @@
+package com.wizbl.common.storage.rocksdb;
+
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.Constant;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db.common.iterator.DBIterator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.IndexType;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+public class RocksDbDataSourceImplTest {
+
+  private static final String dbPath = "output-rocksDb-test";
+  private RocksDbDataSourceImpl dataSourceTest;
+
+  private byte[] key1 = "00000001aa".getBytes();
+  private byte[] key2 = "00000002aa".getBytes();
+  private byte[] key3 = "00000003aa".getBytes();
+  private byte[] value1 = "10000".getBytes();
+  private byte[] value2 = "20000".getBytes();
+  private byte[] value3 = "30000".getBytes();
+
+  @Before
+  public void initDb() {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    dataSourceTest = new RocksDbDataSourceImpl(dbPath + File.separator, "test_rocksDb");
+    dataSourceTest.initDB();
+  }
+
+  @After
+  public void destroy() {
+    dataSourceTest.closeDB();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Test
+  public void testPutGetDelete() {
+    dataSourceTest.putData(key1, value1);
+    Assert.assertArrayEquals(value1, dataSourceTest.getData(key1));
+
+    dataSourceTest.deleteData(key1);
+    Assert.assertNull(dataSourceTest.getData(key1));
+  }
+
+  @Test
+  public void testUpdateByBatchAndRange() {
+    Map<byte[], byte[]> rows = new HashMap<>();
+    rows.put(key1, value1);
+    rows.put(key2, value2);
+    rows.put(key3, value3);
+    dataSourceTest.updateByBatch(rows);
+
+    Assert.assertEquals(3, dataSourceTest.getTotal());
+    Assert.assertEquals(2, dataSourceTest.getlatestValues(2).size());
+    Assert.assertEquals(2, dataSourceTest.getNext(key2, 5).size());
+    Assert.assertEquals(2, dataSourceTest.getValuesPrev(key2, 5).size());
+
+    int count = 0;
+    try (DBIterator iterator = dataSourceTest.iterator()) {
+      while (iterator.hasNext()) {
+        Assert.assertNotNull(iterator.next().getValue());
+        count++;
+      }
+    } catch (Exception e) {
+      Assert.fail(e.getMessage());
+    }
+    Assert.assertEquals(3, count);
+  }
+
+  @Test
+  public void testResetDb() {
+    dataSourceTest.putData(key1, value1);
+    dataSourceTest.resetDb();
+    Assert.assertEquals(0, dataSourceTest.getTotal());
+  }
+
+  @Test
+  public void testReopenWithPartitionedIndex() {
+    Assert.assertEquals(IndexType.kTwoLevelIndexSearch, dataSourceTest.getTableConfig().indexType());
+    Assert.assertTrue(dataSourceTest.getTableConfig().partitionFilters());
+    dataSourceTest.putData(key1, value1);
+
+    // closeDB는 options가 참조하는 bloom filter도 해제함.
+    BloomFilter bloomFilter = dataSourceTest.getBloomFilter();
+    dataSourceTest.closeDB();
+    Assert.assertFalse(bloomFilter.isOwningHandle());
+    Assert.assertNull(dataSourceTest.getBloomFilter());
+
+    for (int i = 0; i < 3; i++) {
+      dataSourceTest.initDB();
+      Assert.assertArrayEquals(value1, dataSourceTest.getData(key1));
+      Assert.assertNotSame(bloomFilter, dataSourceTest.getBloomFilter());
+      bloomFilter = dataSourceTest.getBloomFilter();
+      dataSourceTest.closeDB();
+    }
+    dataSourceTest.initDB();
+  }
+}
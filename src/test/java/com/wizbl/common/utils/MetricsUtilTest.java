@@ -0,0 +1,39 @@
+package com.wizbl.common.utils;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsUtilTest {
+
+  @Test
+  public void testSharedMetrics() {
+    Timer timer = MetricsUtil.timer("test.metrics.timer");
+    Assert.assertSame(timer, MetricsUtil.timer("test.metrics.timer"));
+    timer.time().stop();
+    Assert.assertEquals(1, MetricsUtil.getRegistry().getTimers().get("test.metrics.timer").getCount());
+  }
+
+  @Test
+  public void testGaugeIsReplaced() {
+    MetricsUtil.gauge("test.metrics.gauge", (Gauge<Integer>) () -> 1);
+    MetricsUtil.gauge("test.metrics.gauge", (Gauge<Integer>) () -> 2);
+    Assert.assertEquals(2, MetricsUtil.getRegistry().getGauges().get("test.metrics.gauge").getValue());
+  }
+
+  @Test
+  public void testJmxReporter() throws Exception {
+    MetricsUtil.timer("test.metrics.jmx");
+    MetricsUtil.startJmxReporter();
+    MetricsUtil.startJmxReporter();
+    try {
+      Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(
+          new ObjectName(MetricsUtil.JMX_DOMAIN, "name", "test.metrics.jmx")));
+    } finally {
+      MetricsUtil.stopJmxReporter();
+    }
+  }
+}
@@ -1,8 +1,10 @@
 package com.wizbl.common.utils;
 
+import com.google.protobuf.ByteString;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
@@ -23,6 +25,29 @@ public class Sha256HashTest {
 
     }
 
+    @Test
+    public void testHashWithoutCopy() {
+        byte[] input = ByteArray.fromHexString("A0E11973395042BA3C0B52B4CDF4E15EA77818F275");
+        byte[] expected = Sha256Hash.hash(input);
+
+        Assert.assertEquals(Sha256Hash.hash(ByteString.copyFrom(input)), expected);
+        Assert.assertEquals(Sha256Hash.hash(ByteString.copyFrom(input, 0, 10)
+                .concat(ByteString.copyFrom(input, 10, input.length - 10))), expected);
+
+        ByteBuffer heap = ByteBuffer.allocate(input.length + 4);
+        heap.position(2);
+        heap.put(input);
+        heap.flip();
+        heap.position(2);
+        Assert.assertEquals(Sha256Hash.hash(heap.slice()), expected);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+        direct.put(input);
+        direct.flip();
+        Assert.assertEquals(Sha256Hash.hash(direct), expected);
+        Assert.assertFalse(direct.hasRemaining());
+    }
+
     @Test
     public void testMultiThreadingHash() {
         byte[] input = ByteArray.fromHexString("A0E11973395042BA3C0B52B4CDF4E15EA77818F275");
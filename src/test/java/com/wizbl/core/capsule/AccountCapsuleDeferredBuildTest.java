@@ -0,0 +1,81 @@
+package com.wizbl.core.capsule;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.protos.Protocol.Account;
+import com.wizbl.protos.Protocol.AccountType;
+import com.wizbl.protos.Protocol.Vote;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AccountCapsuleDeferredBuildTest {
+
+  private static AccountCapsule newAccount() {
+    return new AccountCapsule(ByteString.copyFrom(new byte[21]), AccountType.Normal);
+  }
+
+  @Test
+  public void testSettersAreVisibleBeforeBuild() {
+    AccountCapsule capsule = newAccount();
+    capsule.setBalance(100L);
+    capsule.setEnergyUsage(7L);
+    capsule.addStorageUsage(3L);
+    capsule.addStorageUsage(4L);
+    capsule.putFreeAssetNetUsageV2("1000001", 5L);
+
+    Assert.assertEquals(100L, capsule.getBalance());
+    Assert.assertEquals(7L, capsule.getEnergyUsage());
+    Assert.assertEquals(7L, capsule.getStorageUsage());
+    Assert.assertEquals(5L, capsule.getFreeAssetNetUsageV2("1000001"));
+
+    Account account = capsule.getInstance();
+    Assert.assertEquals(100L, account.getBalance());
+    Assert.assertEquals(7L, account.getAccountResource().getEnergyUsage());
+    Assert.assertEquals(7L, account.getAccountResource().getStorageUsage());
+    Assert.assertEquals(5L, account.getFreeAssetNetUsageV2OrDefault("1000001", 0));
+  }
+
+  @Test
+  public void testBuiltInstanceIsNotChangedBySetters() {
+    AccountCapsule capsule = newAccount();
+    capsule.setBalance(1L);
+    capsule.addAssetV2("1000001".getBytes(), 10L);
+    capsule.setStorageUsage(1L);
+    Account first = capsule.getInstance();
+
+    capsule.setBalance(2L);
+    capsule.addAssetV2("1000002".getBytes(), 20L);
+    capsule.setStorageUsage(2L);
+    Account second = capsule.getInstance();
+
+    Assert.assertEquals(1L, first.getBalance());
+    Assert.assertEquals(1, first.getAssetV2Count());
+    Assert.assertEquals(1L, first.getAccountResource().getStorageUsage());
+    Assert.assertEquals(2L, second.getBalance());
+    Assert.assertEquals(2, second.getAssetV2Count());
+    Assert.assertEquals(2L, second.getAccountResource().getStorageUsage());
+    Assert.assertSame(second, capsule.getInstance());
+  }
+
+  @Test
+  public void testGetDataMatchesEagerBuild() {
+    AccountCapsule capsule = newAccount();
+    capsule.setBalance(10L);
+    capsule.setLatestConsumeTime(20L);
+    capsule.setFrozenForBandwidth(30L, 40L);
+    capsule.addVotes(ByteString.copyFrom(new byte[]{1}), 50L);
+
+    Account expected = Account.newBuilder()
+        .setType(AccountType.Normal)
+        .setAddress(ByteString.copyFrom(new byte[21]))
+        .setBalance(10L)
+        .setLatestConsumeTime(20L)
+        .addFrozen(Account.Frozen.newBuilder().setFrozenBalance(30L).setExpireTime(40L))
+        .addVotes(Vote.newBuilder()
+            .setVoteAddress(ByteString.copyFrom(new byte[]{1})).setVoteCount(50L))
+        .build();
+    Assert.assertArrayEquals(expected.toByteArray(), capsule.getData());
+
+    capsule.setInstance(expected.toBuilder().setBalance(0L).build());
+    Assert.assertEquals(0L, capsule.getBalance());
+  }
+}
@@ -9,6 +9,7 @@ import com.wizbl.core.config.args.Args;
 import com.wizbl.core.exception.BadItemException;
 import com.wizbl.protos.Contract.TransferContract;
 import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import com.wizbl.protos.Protocol.Transaction.Result.contractResult;
 import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
@@ -108,6 +109,46 @@ public class BlockCapsuleTest {
 
     }
 
+    @Test
+    public void testAssemblySize() throws Exception {
+        BlockCapsule blockCapsule = new BlockCapsule(2, Sha256Hash.ZERO_HASH, 5678,
+                ByteString.copyFrom("1234567".getBytes()));
+        for (long i = 1; i <= 100; i++) {
+            TransferContract transferContract = TransferContract.newBuilder()
+                    .setAmount(i)
+                    .setOwnerAddress(ByteString.copyFrom("0x0000000000000000000".getBytes()))
+                    .build();
+            blockCapsule.addTransaction(
+                    new TransactionCapsule(transferContract, ContractType.TransferContract));
+            Assert.assertEquals(i, blockCapsule.getTransactions().size());
+        }
+        int size = blockCapsule.getSerializedSize();
+        Assert.assertEquals(blockCapsule.getInstance().getSerializedSize(), size);
+        Assert.assertEquals(100, blockCapsule.getInstance().getTransactionsCount());
+        Assert.assertEquals(100, new BlockCapsule(blockCapsule.getData()).getTransactions().size());
+    }
+
+    @Test
+    public void testMerkleRootIgnoresChangedCapsule() {
+        BlockCapsule blockCapsule = new BlockCapsule(2, Sha256Hash.ZERO_HASH, 5678,
+                ByteString.copyFrom("1234567".getBytes()));
+        for (long i = 1; i <= 10; i++) {
+            TransferContract transferContract = TransferContract.newBuilder()
+                    .setAmount(i)
+                    .setOwnerAddress(ByteString.copyFrom("0x0000000000000000000".getBytes()))
+                    .build();
+            blockCapsule.addTransaction(
+                    new TransactionCapsule(transferContract, ContractType.TransferContract));
+        }
+        blockCapsule.setMerkleRoot();
+        Sha256Hash merkleRoot = blockCapsule.getMerkleRoot();
+        Assert.assertEquals(merkleRoot, new BlockCapsule(blockCapsule.getData()).calcMerkleRoot());
+
+        // block에 추가된 후 capsule이 바뀌어도 block의 transaction으로 계산해야 함.
+        blockCapsule.getTransactions().get(0).setResultCode(contractResult.REVERT);
+        Assert.assertEquals(merkleRoot, blockCapsule.calcMerkleRoot());
+    }
+
     @Test
     public void testValidate() {
 
@@ -0,0 +1,42 @@
+package com.wizbl.core.capsule.utils;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.capsule.BlockCapsule;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.Block;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockUtilTest {
+
+  private static TransactionCapsule newTransaction(long amount) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setAmount(amount)
+        .setOwnerAddress(ByteString.copyFrom(new byte[21]))
+        .setToAddress(ByteString.copyFrom(new byte[21]))
+        .build();
+    return new TransactionCapsule(contract, ContractType.TransferContract);
+  }
+
+  @Test
+  public void testParseTransaction() throws InvalidProtocolBufferException {
+    BlockCapsule blockCapsule = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 0,
+        ByteString.copyFrom("witness".getBytes()));
+    for (int i = 0; i < 5; i++) {
+      blockCapsule.addTransaction(newTransaction(i + 1));
+    }
+    blockCapsule.setMerkleRoot();
+    byte[] data = blockCapsule.getData();
+    Block block = blockCapsule.getInstance();
+
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(block.getTransactions(i), BlockUtil.parseTransaction(data, i));
+    }
+    Assert.assertNull(BlockUtil.parseTransaction(data, 5));
+    Assert.assertNull(BlockUtil.parseTransaction(data, -1));
+  }
+}
@@ -169,4 +169,18 @@ public class MerkleTreeTest {
             pareTree(root, hashList, maxRank, 0, 0);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testComputeRoot() {
+        Assert.assertEquals(Sha256Hash.ZERO_HASH, MerkleTree.computeRoot(getHash(0)));
+        int[] hashNums = {1, 2, 3, 127, 128, 129,
+                MerkleTree.PARALLEL_THRESHOLD * 2 - 1, MerkleTree.PARALLEL_THRESHOLD * 2 + 1, 5000};
+        for (int hashNum : hashNums) {
+            List<Sha256Hash> hashList = getHash(hashNum);
+            Sha256Hash expected = MerkleTree.getInstance().createTree(hashList).getRoot().getHash();
+            Assert.assertEquals(expected, MerkleTree.computeRoot(hashList));
+            // 입력 list는 변경되지 않아야 함.
+            Assert.assertEquals(getHash(hashNum), hashList);
+        }
+    }
+}
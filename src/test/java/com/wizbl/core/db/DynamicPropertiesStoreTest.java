@@ -0,0 +1,76 @@
+package com.wizbl.core.db;
+
+import com.wizbl.common.application.Brte2ApplicationContext;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.Constant;
+import com.wizbl.core.config.DefaultConfig;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.db2.core.ISession;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+
+public class DynamicPropertiesStoreTest {
+
+  private static final String dbPath = "output_DynamicPropertiesStore_test";
+  private static final Brte2ApplicationContext context;
+  private static DynamicPropertiesStore dynamicPropertiesStore;
+  private static RevokingDatabase revokingDatabase;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new Brte2ApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dynamicPropertiesStore = context.getBean(DynamicPropertiesStore.class);
+    revokingDatabase = context.getBean(Manager.class).getRevokingStore();
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Test
+  public void testWriteThrough() {
+    dynamicPropertiesStore.saveEnergyFee(100L);
+    Assert.assertEquals(100L, dynamicPropertiesStore.getEnergyFee());
+    dynamicPropertiesStore.saveEnergyFee(200L);
+    Assert.assertEquals(200L, dynamicPropertiesStore.getEnergyFee());
+
+    dynamicPropertiesStore.saveBlockFilledSlotsIndex(-1);
+    Assert.assertEquals(-1, dynamicPropertiesStore.getBlockFilledSlotsIndex());
+    dynamicPropertiesStore.saveBlockFilledSlotsIndex(3);
+    Assert.assertEquals(3, dynamicPropertiesStore.getBlockFilledSlotsIndex());
+  }
+
+  @Test
+  public void testRevoke() {
+    dynamicPropertiesStore.saveLatestBlockHeaderNumber(10L);
+    Assert.assertEquals(10L, dynamicPropertiesStore.getLatestBlockHeaderNumber());
+
+    try (ISession session = revokingDatabase.buildSession()) {
+      dynamicPropertiesStore.saveLatestBlockHeaderNumber(11L);
+      Assert.assertEquals(11L, dynamicPropertiesStore.getLatestBlockHeaderNumber());
+      session.revoke();
+    }
+    Assert.assertEquals(10L, dynamicPropertiesStore.getLatestBlockHeaderNumber());
+
+    try (ISession session = revokingDatabase.buildSession()) {
+      dynamicPropertiesStore.saveLatestBlockHeaderNumber(12L);
+      Assert.assertEquals(12L, dynamicPropertiesStore.getLatestBlockHeaderNumber());
+      session.commit();
+    }
+    Assert.assertEquals(12L, dynamicPropertiesStore.getLatestBlockHeaderNumber());
+
+    revokingDatabase.fastPop();
+    Assert.assertEquals(10L, dynamicPropertiesStore.getLatestBlockHeaderNumber());
+  }
+}
@@ -0,0 +1,84 @@
+package com.wizbl.core.db;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.application.Brte2ApplicationContext;
+import com.wizbl.common.crypto.ECKey;
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.Constant;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.core.config.DefaultConfig;
+import com.wizbl.core.config.args.Args;
+import com.wizbl.core.exception.ValidateSignatureException;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SignatureVerifierTest {
+
+  private static final String dbPath = "output_SignatureVerifier_test";
+  private static final Brte2ApplicationContext context;
+  private static SignatureVerifier signatureVerifier;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new Brte2ApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    signatureVerifier = context.getBean(SignatureVerifier.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static List<TransactionCapsule> createTransactions(ECKey owner, int count) {
+    List<TransactionCapsule> transactions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      TransferContract contract = TransferContract.newBuilder()
+          .setOwnerAddress(ByteString.copyFrom(owner.getAddress()))
+          .setToAddress(ByteString.copyFrom(new ECKey().getAddress()))
+          .setAmount(i + 1)
+          .build();
+      TransactionCapsule trx = new TransactionCapsule(contract, ContractType.TransferContract);
+      trx.sign(owner.getPrivKeyBytes());
+      transactions.add(trx);
+    }
+    return transactions;
+  }
+
+  @Test
+  public void testVerify() throws Exception {
+    signatureVerifier.verify(createTransactions(new ECKey(), 100));
+    Assert.assertTrue(signatureVerifier.getBatchTimer().getCount() > 0);
+  }
+
+  @Test
+  public void testVerifyFailFast() throws Exception {
+    List<TransactionCapsule> transactions = createTransactions(new ECKey(), 100);
+    // 다른 key로 서명한 transaction을 중간에 섞음
+    TransactionCapsule bad = createTransactions(new ECKey(), 1).get(0);
+    TransactionCapsule forged = new TransactionCapsule(bad.getInstance().toBuilder()
+        .setSignature(0, transactions.get(0).getInstance().getSignature(0))
+        .build());
+    transactions.set(50, forged);
+
+    try {
+      signatureVerifier.verify(transactions);
+      Assert.fail("expected ValidateSignatureException");
+    } catch (ValidateSignatureException e) {
+      // expected
+    }
+  }
+}
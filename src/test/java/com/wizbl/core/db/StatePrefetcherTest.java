@@ -0,0 +1,79 @@
+package com.wizbl.core.db;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.core.Wallet;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Contract.TriggerSmartContract;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class StatePrefetcherTest {
+
+  private static final byte[] OWNER = ByteArray
+      .fromHexString(Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc");
+  private static final byte[] TO = ByteArray
+      .fromHexString(Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1abc");
+
+  @Test
+  public void testTransferAddresses() {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(OWNER))
+        .setToAddress(ByteString.copyFrom(TO))
+        .setAmount(100)
+        .build();
+    TransactionCapsule trx = new TransactionCapsule(contract, ContractType.TransferContract);
+
+    List<byte[]> addresses = StatePrefetcher
+        .getAccessedAddresses(trx.getInstance().getRawData().getContract(0));
+    Assert.assertEquals(2, addresses.size());
+    Assert.assertArrayEquals(OWNER, addresses.get(0));
+    Assert.assertArrayEquals(TO, addresses.get(1));
+  }
+
+  @Test
+  public void testTriggerContractAddresses() {
+    TriggerSmartContract contract = TriggerSmartContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(OWNER))
+        .setContractAddress(ByteString.copyFrom(TO))
+        .build();
+    TransactionCapsule trx = new TransactionCapsule(contract, ContractType.TriggerSmartContract);
+
+    List<byte[]> addresses = StatePrefetcher
+        .getAccessedAddresses(trx.getInstance().getRawData().getContract(0));
+    Assert.assertEquals(2, addresses.size());
+    Assert.assertArrayEquals(OWNER, addresses.get(0));
+    Assert.assertArrayEquals(TO, addresses.get(1));
+    Assert.assertArrayEquals(TO,
+        StatePrefetcher.getContractAddress(trx.getInstance().getRawData().getContract(0)));
+  }
+
+  @Test
+  public void testPrefetchDoesNotRunForSmallBlock() {
+    StatePrefetcher prefetcher = new StatePrefetcher(null, 2);
+    TransactionCapsule trx = new TransactionCapsule(TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(OWNER))
+        .setToAddress(ByteString.copyFrom(TO))
+        .setAmount(100)
+        .build(), ContractType.TransferContract);
+    Assert.assertSame(StatePrefetcher.Prefetch.NONE,
+        prefetcher.prefetch(Collections.singletonList(trx)));
+  }
+
+  @Test
+  public void testCancelPrefetch() {
+    StatePrefetcher.Prefetch prefetch = new StatePrefetcher.Prefetch();
+    Assert.assertFalse(prefetch.isCancelled());
+    prefetch.cancel();
+    Assert.assertTrue(prefetch.isCancelled());
+
+    // 공유되는 NONE은 cancel()로 바뀌지 않음.
+    StatePrefetcher.Prefetch.NONE.cancel();
+    Assert.assertFalse(StatePrefetcher.Prefetch.NONE.isCancelled());
+  }
+}
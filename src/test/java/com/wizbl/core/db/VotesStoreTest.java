@@ -65,4 +65,95 @@ public class VotesStoreTest {
 //    Assert.assertEquals(votesCapsule.getAddress(), votesSource.getAddress());
 //    Assert.assertEquals(null, votesSource.getAddress());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void voteTally() {
+        VoteDeltaStore voteDeltaStore = context.getBean(VoteDeltaStore.class);
+        DynamicPropertiesStore dynamicPropertiesStore = context.getBean(DynamicPropertiesStore.class);
+        ByteString witnessA = ByteString.copyFromUtf8("witnessA");
+        ByteString witnessB = ByteString.copyFromUtf8("witnessB");
+        ByteString voter = ByteString.copyFromUtf8("voter");
+
+        List<Vote> oldVotes = new ArrayList<>();
+        oldVotes.add(Vote.newBuilder().setVoteAddress(witnessA).setVoteCount(10).build());
+        VotesCapsule votesCapsule = new VotesCapsule(voter, oldVotes);
+        votesCapsule.addNewVotes(witnessB, 30);
+        votesStore.put(votesCapsule.createDbKey(), votesCapsule);
+        Assert.assertEquals(-10, voteDeltaStore.getVoteCount(witnessA));
+        Assert.assertEquals(30, voteDeltaStore.getVoteCount(witnessB));
+
+        // 같은 주기에 다시 투표하면 이전 투표의 변화량을 되돌림.
+        votesCapsule = votesStore.get(voter.toByteArray());
+        votesCapsule.clearNewVotes();
+        votesCapsule.addNewVotes(witnessA, 25);
+        votesStore.put(votesCapsule.createDbKey(), votesCapsule);
+        Assert.assertEquals(15, voteDeltaStore.getVoteCount(witnessA));
+        Assert.assertEquals(0, voteDeltaStore.getVoteCount(witnessB));
+
+        // 다음 주기가 시작되면 이전 주기의 entry는 보이지 않음.
+        voteDeltaStore.clear();
+        dynamicPropertiesStore.saveVoteEpoch(votesStore.getCurrentEpoch() + 1);
+        Assert.assertNull(votesStore.get(voter.toByteArray()));
+        Assert.assertFalse(votesStore.has(voter.toByteArray()));
+        Assert.assertTrue(voteDeltaStore.getAllVoteCounts().isEmpty());
+    }
+
+    @Test
+    public void deleteRevertsVoteTally() {
+        VoteDeltaStore voteDeltaStore = context.getBean(VoteDeltaStore.class);
+        ByteString witnessA = ByteString.copyFromUtf8("deleteWitnessA");
+        ByteString witnessB = ByteString.copyFromUtf8("deleteWitnessB");
+        ByteString voter = ByteString.copyFromUtf8("deleteVoter");
+
+        List<Vote> oldVotes = new ArrayList<>();
+        oldVotes.add(Vote.newBuilder().setVoteAddress(witnessA).setVoteCount(10).build());
+        VotesCapsule votesCapsule = new VotesCapsule(voter, oldVotes);
+        votesCapsule.addNewVotes(witnessB, 30);
+        votesStore.put(votesCapsule.createDbKey(), votesCapsule);
+        Assert.assertEquals(-10, voteDeltaStore.getVoteCount(witnessA));
+        Assert.assertEquals(30, voteDeltaStore.getVoteCount(witnessB));
+
+        votesStore.delete(voter.toByteArray());
+        Assert.assertNull(votesStore.get(voter.toByteArray()));
+        Assert.assertEquals(0, voteDeltaStore.getVoteCount(witnessA));
+        Assert.assertEquals(0, voteDeltaStore.getVoteCount(witnessB));
+
+        // 없는 entry를 삭제해도 tally는 변하지 않음.
+        votesStore.delete(voter.toByteArray());
+        Assert.assertEquals(0, voteDeltaStore.getVoteCount(witnessA));
+        Assert.assertEquals(0, voteDeltaStore.getVoteCount(witnessB));
+        voteDeltaStore.clear();
+    }
+
+    @Test
+    public void expiredVotesAreAbsentAfterEpochRollover() {
+        VoteDeltaStore voteDeltaStore = context.getBean(VoteDeltaStore.class);
+        DynamicPropertiesStore dynamicPropertiesStore = context.getBean(DynamicPropertiesStore.class);
+        ByteString witness = ByteString.copyFromUtf8("rolloverWitness");
+        ByteString voter = ByteString.copyFromUtf8("rolloverVoter");
+
+        VotesCapsule votesCapsule = new VotesCapsule(voter, new ArrayList<>());
+        votesCapsule.addNewVotes(witness, 20);
+        votesStore.put(votesCapsule.createDbKey(), votesCapsule);
+        Assert.assertNotNull(votesStore.get(voter.toByteArray()));
+
+        // 다음 주기로 넘어가면 이전 주기의 entry는 삭제하지 않아도 보이지 않음.
+        voteDeltaStore.clear();
+        dynamicPropertiesStore.saveVoteEpoch(votesStore.getCurrentEpoch() + 1);
+        Assert.assertNull(votesStore.get(voter.toByteArray()));
+        Assert.assertFalse(votesStore.has(voter.toByteArray()));
+        Assert.assertNotNull(votesStore.getIgnoreEpoch(voter.toByteArray()));
+        Assert.assertFalse(votesStore.iterator().hasNext());
+        Assert.assertEquals(0, voteDeltaStore.getVoteCount(witness));
+
+        // 새 주기의 투표는 이전 주기의 entry를 덮어쓰며, tally에는 새 투표만 반영됨.
+        votesCapsule = new VotesCapsule(voter, new ArrayList<>());
+        votesCapsule.addNewVotes(witness, 5);
+        votesStore.put(votesCapsule.createDbKey(), votesCapsule);
+        Assert.assertEquals(5, voteDeltaStore.getVoteCount(witness));
+        Assert.assertEquals(votesStore.getCurrentEpoch(),
+                votesStore.getIgnoreEpoch(voter.toByteArray()).getEpoch());
+        Assert.assertTrue(votesStore.iterator().hasNext());
+        voteDeltaStore.clear();
+    }
+}
@@ -0,0 +1,127 @@
+package com.wizbl.core.db2;
+
+import com.wizbl.common.utils.FileUtil;
+import com.wizbl.core.db2.common.CheckpointJournal;
+import com.wizbl.core.db2.common.CheckpointJournal.Record;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class CheckpointJournalTest {
+
+  private static final String dbPath = "output_checkpointJournal_test";
+  private final Path path = Paths.get(dbPath, "checkpoint", "checkpoint.journal");
+  private CheckpointJournal journal;
+
+  @Before
+  public void init() throws IOException {
+    journal = new CheckpointJournal(path, false);
+    journal.open();
+  }
+
+  @After
+  public void destroy() {
+    journal.close();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private void reopen() throws IOException {
+    journal.close();
+    journal = new CheckpointJournal(path, false);
+    journal.open();
+  }
+
+  @Test
+  public void testReplayAfterReopen() throws IOException {
+    Assert.assertTrue(journal.isEmpty());
+    journal.begin();
+    journal.append("account", "k1".getBytes(), "v1".getBytes());
+    journal.append("witness", "k2".getBytes(), new byte[]{2});
+    journal.commit();
+
+    reopen();
+    List<Record> records = journal.replay();
+    Assert.assertEquals(2, records.size());
+    Assert.assertEquals("account", records.get(0).getDbName());
+    Assert.assertArrayEquals("k1".getBytes(), records.get(0).getKey());
+    Assert.assertArrayEquals("v1".getBytes(), records.get(0).getValue());
+    Assert.assertEquals("witness", records.get(1).getDbName());
+    Assert.assertArrayEquals(new byte[]{2}, records.get(1).getValue());
+  }
+
+  @Test
+  public void testTruncate() throws IOException {
+    journal.begin();
+    journal.append("account", "k1".getBytes(), "v1".getBytes());
+    journal.commit();
+    journal.truncate();
+
+    reopen();
+    Assert.assertTrue(journal.isEmpty());
+    Assert.assertTrue(journal.replay().isEmpty());
+  }
+
+  @Test
+  public void testUncommitted() throws IOException {
+    journal.begin();
+    journal.append("account", "k1".getBytes(), "v1".getBytes());
+
+    reopen();
+    Assert.assertTrue(journal.replay().isEmpty());
+  }
+
+  @Test
+  public void testCorruptedFrame() throws IOException {
+    journal.begin();
+    journal.append("account", "k1".getBytes(), "v1".getBytes());
+    journal.commit();
+    journal.close();
+
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      // 첫 번째 frame의 payload 마지막 byte를 변경함.
+      file.seek(17 + 17 + 4 + 7 + 4 + 2 + 1);
+      file.write('x');
+    }
+
+    journal = new CheckpointJournal(path, false);
+    journal.open();
+    Assert.assertFalse(journal.isEmpty());
+    Assert.assertTrue(journal.replay().isEmpty());
+  }
+
+  @Test
+  public void testGrow() throws IOException {
+    byte[] value = new byte[1024];
+    journal.begin();
+    for (int i = 0; i < 10_000; i++) {
+      journal.append("account", ("key" + i).getBytes(), value);
+    }
+    journal.commit();
+
+    reopen();
+    List<Record> records = journal.replay();
+    Assert.assertEquals(10_000, records.size());
+    Assert.assertArrayEquals("key9999".getBytes(), records.get(9_999).getKey());
+  }
+
+  @Test
+  public void testCloseTwice() throws IOException {
+    journal.begin();
+    journal.append("account", "k1".getBytes(), "v1".getBytes());
+    journal.commit();
+    journal.close();
+    journal.close();
+
+    journal = new CheckpointJournal(path, false);
+    journal.open();
+    Assert.assertEquals(1, journal.replay().size());
+  }
+}
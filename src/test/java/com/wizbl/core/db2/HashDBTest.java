@@ -0,0 +1,194 @@
+package com.wizbl.core.db2;
+
+import com.wizbl.core.db.common.WrappedByteArray;
+import com.wizbl.core.db2.common.HashDB;
+import com.wizbl.core.db2.common.Key;
+import com.wizbl.core.db2.common.KeyBloomFilter;
+import com.wizbl.core.db2.common.Value;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HashDBTest {
+
+  private static byte[] randomKey(Random random) {
+    byte[] key = new byte[1 + random.nextInt(40)];
+    random.nextBytes(key);
+    return key;
+  }
+
+  @Test
+  public void testAgainstHashMap() {
+    Random random = new Random(0);
+    HashDB db = new HashDB();
+    Map<WrappedByteArray, byte[]> expected = new HashMap<>();
+    byte[][] keys = new byte[2_000][];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = randomKey(random);
+    }
+
+    for (int i = 0; i < 50_000; i++) {
+      byte[] key = keys[random.nextInt(keys.length)];
+      if (random.nextInt(4) == 0) {
+        db.remove(key);
+        expected.remove(WrappedByteArray.of(key));
+      } else {
+        byte[] value = new byte[]{(byte) i};
+        db.put(key, Value.of(Value.Operator.PUT, value));
+        expected.put(WrappedByteArray.of(key), value);
+      }
+    }
+
+    Assert.assertEquals(expected.size(), db.size());
+    for (byte[] key : keys) {
+      Value value = db.get(key);
+      byte[] bytes = expected.get(WrappedByteArray.of(key));
+      if (bytes == null) {
+        Assert.assertNull(value);
+      } else {
+        Assert.assertArrayEquals(bytes, value.getBytes());
+      }
+    }
+
+    int count = 0;
+    for (Map.Entry<Key, Value> e : db) {
+      Assert.assertArrayEquals(expected.get(WrappedByteArray.of(e.getKey().getBytes())),
+          e.getValue().getBytes());
+      count++;
+    }
+    Assert.assertEquals(expected.size(), count);
+  }
+
+  @Test
+  public void testKeyIsCopied() {
+    HashDB db = new HashDB();
+    byte[] key = "key".getBytes();
+    db.put(key, Value.of(Value.Operator.PUT, "value".getBytes()));
+    key[0] = 'x';
+    Assert.assertNotNull(db.get("key".getBytes()));
+    Assert.assertNull(db.get(key));
+  }
+
+  @Test
+  public void testMerge() {
+    HashDB to = new HashDB();
+    HashDB from = new HashDB();
+    to.put("a".getBytes(), Value.of(Value.Operator.PUT, "1".getBytes()));
+    to.put("b".getBytes(), Value.of(Value.Operator.PUT, "2".getBytes()));
+    from.put("b".getBytes(), Value.of(Value.Operator.DELETE, null));
+    from.put("c".getBytes(), Value.of(Value.Operator.PUT, "3".getBytes()));
+
+    to.merge(from);
+    Assert.assertEquals(3, to.size());
+    Assert.assertArrayEquals("1".getBytes(), to.get("a".getBytes()).getBytes());
+    Assert.assertNull(to.get("b".getBytes()).getBytes());
+    Assert.assertArrayEquals("3".getBytes(), to.get("c".getBytes()).getBytes());
+  }
+
+  @Test
+  public void testCompactAfterRemove() {
+    HashDB db = new HashDB();
+    byte[] value = new byte[]{1};
+    for (int i = 0; i < 10_000; i++) {
+      db.put(("key-" + i).getBytes(), Value.of(Value.Operator.PUT, value));
+    }
+    int arenaPosition = db.getArenaPosition();
+
+    // 삭제된 key의 공간이 사용 중인 공간의 절반을 넘으면 arena가 정리됨.
+    for (int i = 0; i < 9_000; i++) {
+      db.remove(("key-" + i).getBytes());
+    }
+    Assert.assertEquals(1_000, db.size());
+    Assert.assertTrue(db.getArenaPosition() < arenaPosition / 2);
+    for (int i = 0; i < 10_000; i++) {
+      Assert.assertEquals(i >= 9_000, db.get(("key-" + i).getBytes()) != null);
+    }
+
+    // 같은 key의 추가/삭제를 반복해도 arena가 계속 커지지 않음.
+    for (int round = 0; round < 100; round++) {
+      for (int i = 0; i < 1_000; i++) {
+        db.put(("tmp-" + i).getBytes(), Value.of(Value.Operator.PUT, value));
+      }
+      for (int i = 0; i < 1_000; i++) {
+        db.remove(("tmp-" + i).getBytes());
+      }
+    }
+    Assert.assertEquals(1_000, db.size());
+    Assert.assertTrue(db.getArenaPosition() < arenaPosition);
+  }
+
+  @Test
+  public void testConcurrentReadDuringRemove() throws InterruptedException {
+    Random random = new Random(2);
+    HashDB db = new HashDB();
+    byte[][] stable = new byte[1_000][];
+    for (int i = 0; i < stable.length; i++) {
+      stable[i] = ("stable-" + i).getBytes();
+      db.put(stable[i], Value.of(Value.Operator.PUT, stable[i]));
+    }
+
+    // writer는 다른 key를 추가/삭제하여 backward shift, resize, arena 정리를 계속 발생시킴.
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread writer = new Thread(() -> {
+      byte[][] keys = new byte[2_000][];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = randomKey(random);
+      }
+      while (running.get()) {
+        for (byte[] key : keys) {
+          db.put(key, Value.of(Value.Operator.PUT, key));
+        }
+        for (byte[] key : keys) {
+          db.remove(key);
+        }
+      }
+    });
+    writer.start();
+
+    AtomicReference<byte[]> missed = new AtomicReference<>();
+    try {
+      for (int round = 0; round < 200 && missed.get() == null; round++) {
+        for (byte[] key : stable) {
+          Value value = db.get(key);
+          if (value == null) {
+            missed.set(key);
+            break;
+          }
+          Assert.assertArrayEquals(key, value.getBytes());
+        }
+      }
+    } finally {
+      running.set(false);
+      writer.join();
+    }
+    Assert.assertNull("stable key was missed", missed.get());
+  }
+
+  @Test
+  public void testKeyBloomFilter() {
+    Random random = new Random(1);
+    KeyBloomFilter filter = new KeyBloomFilter(1_000);
+    byte[][] keys = new byte[1_000][];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = randomKey(random);
+      filter.add(keys[i]);
+    }
+    for (byte[] key : keys) {
+      Assert.assertTrue(filter.mightContain(key));
+    }
+    Assert.assertFalse(filter.isSaturated());
+
+    int falsePositive = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (filter.mightContain(randomKey(random))) {
+        falsePositive++;
+      }
+    }
+    Assert.assertTrue(falsePositive < 500);
+  }
+}
@@ -21,6 +21,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -228,6 +231,96 @@ public class RevokingDbWithCacheNewValueTest {
         }
     }
 
+    @Test
+    public synchronized void testIteratorAndSize() {
+        revokingDatabase = new TestSnapshotManager();
+        revokingDatabase.enable();
+        brte2Database = new TestRevokingBrte2Store("testRevokingDBWithCacheNewValue-testIteratorAndSize");
+        revokingDatabase.add(brte2Database.getRevokingDB());
+        while (revokingDatabase.size() != 0) {
+            revokingDatabase.pop();
+        }
+
+        // session 없이 root(LevelDB)에 직접 기록함.
+        ProtoCapsuleTest root1 = new ProtoCapsuleTest("iterator1".getBytes());
+        ProtoCapsuleTest root3 = new ProtoCapsuleTest("iterator3".getBytes());
+        brte2Database.put(root1.getData(), root1);
+        brte2Database.put(root3.getData(), root3);
+        Assert.assertEquals(2, brte2Database.size());
+
+        SessionOptional dialog = SessionOptional.instance().setValue(revokingDatabase.buildSession());
+        ProtoCapsuleTest layer2 = new ProtoCapsuleTest("iterator2".getBytes());
+        ProtoCapsuleTest layer4 = new ProtoCapsuleTest("iterator4".getBytes());
+        brte2Database.put(layer4.getData(), layer4);
+        brte2Database.put(layer2.getData(), layer2);
+        try (ISession tmpSession = revokingDatabase.buildSession()) {
+            brte2Database.delete(root3.getData());
+            brte2Database.put(root1.getData(), new ProtoCapsuleTest("iterator1".getBytes()));
+            tmpSession.merge();
+        }
+
+        List<String> keys = new ArrayList<>();
+        brte2Database.forEach(e -> keys.add(new String(e.getKey())));
+        Assert.assertEquals(Arrays.asList("iterator1", "iterator2", "iterator4"), keys);
+        Assert.assertEquals(3, brte2Database.size());
+
+        dialog.reset();
+        Assert.assertEquals(2, brte2Database.size());
+        keys.clear();
+        brte2Database.forEach(e -> keys.add(new String(e.getKey())));
+        Assert.assertEquals(Arrays.asList("iterator1", "iterator3"), keys);
+    }
+
+    @Test
+    public synchronized void testSizeAcrossLayers() {
+        revokingDatabase = new TestSnapshotManager();
+        revokingDatabase.enable();
+        brte2Database = new TestRevokingBrte2Store("testRevokingDBWithCacheNewValue-testSizeAcrossLayers");
+        revokingDatabase.add(brte2Database.getRevokingDB());
+        while (revokingDatabase.size() != 0) {
+            revokingDatabase.pop();
+        }
+
+        ProtoCapsuleTest a = new ProtoCapsuleTest("sizeA".getBytes());
+        ProtoCapsuleTest b = new ProtoCapsuleTest("sizeB".getBytes());
+        ProtoCapsuleTest c = new ProtoCapsuleTest("sizeC".getBytes());
+        brte2Database.put(a.getData(), a);
+        Assert.assertEquals(1, brte2Database.size());
+
+        SessionOptional dialog = SessionOptional.instance().setValue(revokingDatabase.buildSession());
+        brte2Database.put(b.getData(), b);
+        brte2Database.put(a.getData(), a);
+        // 없는 key를 삭제해도 변하지 않음.
+        brte2Database.delete(c.getData());
+        Assert.assertEquals(2, brte2Database.size());
+
+        try (ISession tmpSession = revokingDatabase.buildSession()) {
+            brte2Database.delete(b.getData());
+            brte2Database.put(c.getData(), c);
+            brte2Database.delete(a.getData());
+            Assert.assertEquals(1, brte2Database.size());
+            tmpSession.merge();
+        }
+        Assert.assertEquals(1, brte2Database.size());
+
+        // 같은 계층에서 생성 후 삭제한 key는 남지 않음.
+        brte2Database.delete(c.getData());
+        Assert.assertEquals(0, brte2Database.size());
+        Assert.assertFalse(brte2Database.iterator().hasNext());
+        brte2Database.put(a.getData(), a);
+        Assert.assertEquals(1, brte2Database.size());
+
+        dialog.reset();
+        Assert.assertEquals(1, brte2Database.size());
+
+        // 세어 둔 이후 root에 직접 기록하는 경우
+        brte2Database.put(b.getData(), b);
+        brte2Database.put(b.getData(), b);
+        Assert.assertEquals(2, brte2Database.size());
+        brte2Database.delete(a.getData());
+        brte2Database.delete(a.getData());
+        Assert.assertEquals(1, brte2Database.size());
+    }
 
     public static class TestRevokingBrte2Store extends Brte2StoreWithRevoking<ProtoCapsuleTest> {
 
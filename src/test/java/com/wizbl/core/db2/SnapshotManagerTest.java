@@ -3,7 +3,6 @@ package com.wizbl.core.db2;
 import com.wizbl.common.application.Application;
 import com.wizbl.common.application.ApplicationFactory;
 import com.wizbl.common.application.Brte2ApplicationContext;
-import com.wizbl.common.storage.leveldb.LevelDbDataSourceImpl;
 import com.wizbl.common.utils.FileUtil;
 import com.wizbl.core.Constant;
 import com.wizbl.core.config.DefaultConfig;
@@ -11,6 +10,7 @@ import com.wizbl.core.config.args.Args;
 import com.wizbl.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingBrte2Store;
 import com.wizbl.core.db2.RevokingDbWithCacheNewValueTest.TestSnapshotManager;
 import com.wizbl.core.db2.SnapshotRootTest.ProtoCapsuleTest;
+import com.wizbl.core.db2.common.CheckpointJournal;
 import com.wizbl.core.db2.core.ISession;
 import com.wizbl.core.db2.core.SnapshotManager;
 import com.wizbl.core.exception.BadItemException;
@@ -22,6 +22,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 // TEST CLEAR
 @Slf4j
@@ -42,10 +44,15 @@ public class SnapshotManagerTest {
         revokingDatabase.enable();
         brte2Database = new TestRevokingBrte2Store("testSnapshotManager-test");
         revokingDatabase.add(brte2Database.getRevokingDB());
-        LevelDbDataSourceImpl tmpLevelDbDataSource =
-                new LevelDbDataSourceImpl(Args.getInstance().getOutputDirectoryByDbName("testSnapshotManager-tmp"), "testSnapshotManagerTmp");
-        tmpLevelDbDataSource.initDB();
-        revokingDatabase.setTmpLevelDbDataSource(tmpLevelDbDataSource);
+        CheckpointJournal checkpointJournal = new CheckpointJournal(
+                Paths.get(Args.getInstance().getOutputDirectoryByDbName("testSnapshotManager-tmp"),
+                        "testSnapshotManagerTmp", "checkpoint.journal"), false);
+        try {
+            checkpointJournal.open();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        revokingDatabase.setCheckpointJournal(checkpointJournal);
     }
 
     @After
@@ -56,7 +63,7 @@ public class SnapshotManagerTest {
         context.destroy();
         brte2Database.close();
         FileUtil.deleteDir(new File("output_revokingStore_test"));
-        revokingDatabase.getTmpLevelDbDataSource().closeDB();
+        revokingDatabase.getCheckpointJournal().close();
         brte2Database.close();
     }
 
@@ -84,6 +91,36 @@ public class SnapshotManagerTest {
                 brte2Database.get(protoCapsule.getData()));
     }
 
+    @Test
+    public synchronized void testSizeAfterRefresh() {
+        while (revokingDatabase.size() != 0) {
+            revokingDatabase.pop();
+        }
+
+        revokingDatabase.setMaxFlushCount(0);
+        revokingDatabase.setUnChecked(false);
+        revokingDatabase.setMaxSize(5);
+        // root의 key 수를 먼저 세어 두면 이후에는 flush한 계층의 증감으로만 갱신됨.
+        Assert.assertEquals(0, brte2Database.size());
+        for (int i = 1; i < 11; i++) {
+            ProtoCapsuleTest testProtoCapsule = new ProtoCapsuleTest(("size" + i).getBytes());
+            try (ISession tmpSession = revokingDatabase.buildSession()) {
+                brte2Database.put(testProtoCapsule.getData(), testProtoCapsule);
+                brte2Database.delete(("size" + (i - 1)).getBytes());
+                tmpSession.commit();
+            }
+        }
+        Assert.assertEquals(1, brte2Database.size());
+
+        revokingDatabase.flush();
+        Assert.assertEquals(1, brte2Database.size());
+        long count = 0;
+        for (Object ignored : brte2Database) {
+            count++;
+        }
+        Assert.assertEquals(count, brte2Database.size());
+    }
+
     @Test
     public synchronized void testClose() {
         while (revokingDatabase.size() != 0) {
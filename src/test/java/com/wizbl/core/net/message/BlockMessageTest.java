@@ -0,0 +1,75 @@
+package com.wizbl.core.net.message;
+
+import com.google.protobuf.ByteString;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.capsule.BlockCapsule;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.core.exception.BadItemException;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import io.netty.buffer.ByteBuf;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockMessageTest {
+
+    private static final byte[] OWNER = ByteArray.fromHexString("a0548794500882809695a8a687866e76d4271a1abc");
+
+    private BlockCapsule blockCapsule;
+
+    @Before
+    public void init() {
+        blockCapsule = new BlockCapsule(7, Sha256Hash.ZERO_HASH, 21000L, ByteString.copyFrom(OWNER));
+        for (int i = 0; i < 3; i++) {
+            blockCapsule.addTransaction(new TransactionCapsule(TransferContract.newBuilder()
+                    .setOwnerAddress(ByteString.copyFrom(OWNER))
+                    .setToAddress(ByteString.copyFrom(OWNER))
+                    .setAmount(i + 1)
+                    .build(), ContractType.TransferContract));
+        }
+        blockCapsule.setMerkleRoot();
+    }
+
+    @Test
+    public void testOfStoredData() throws BadItemException {
+        byte[] data = blockCapsule.getData();
+        BlockMessage message = BlockMessage.ofStoredData(data);
+
+        Assert.assertEquals(blockCapsule.getBlockId(), message.getBlockId());
+        Assert.assertEquals(blockCapsule.getBlockId(), message.getMessageId());
+        Assert.assertEquals(21000L, message.getTimeStamp());
+        Assert.assertSame(data, message.getData());
+        Assert.assertEquals(new BlockMessage(blockCapsule).toString(), message.toString());
+
+        BlockCapsule parsed = message.getBlockCapsule();
+        Assert.assertSame(parsed, message.getBlockCapsule());
+        Assert.assertEquals(3, parsed.getTransactions().size());
+        Assert.assertEquals(blockCapsule.getInstance(), parsed.getInstance());
+    }
+
+    @Test
+    public void testParseHeader() throws BadItemException {
+        byte[] data = blockCapsule.getData();
+        Assert.assertEquals(blockCapsule.getInstance().getBlockHeader(), BlockCapsule.parseHeader(data));
+        Assert.assertEquals(3, BlockCapsule.countTransactions(data));
+        Assert.assertEquals(0, BlockCapsule.countTransactions(new byte[0]));
+    }
+
+    @Test(expected = BadItemException.class)
+    public void testBrokenData() throws BadItemException {
+        BlockMessage.ofStoredData(new byte[]{0x0a, 0x7f, 0x01});
+    }
+
+    @Test
+    public void testSendData() {
+        BlockMessage message = new BlockMessage(blockCapsule);
+        ByteBuf buf = message.getSendData();
+        Assert.assertEquals(message.getData().length + 1, buf.readableBytes());
+        Assert.assertEquals(MessageTypes.BLOCK.asByte(), buf.readByte());
+        byte[] payload = new byte[buf.readableBytes()];
+        buf.readBytes(payload);
+        Assert.assertArrayEquals(message.getData(), payload);
+    }
+}
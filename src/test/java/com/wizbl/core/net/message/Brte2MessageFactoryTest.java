@@ -0,0 +1,91 @@
+package com.wizbl.core.net.message;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.core.exception.P2pException;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Protocol.Transaction;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import java.util.Arrays;
+import org.apache.commons.lang3.ArrayUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Brte2MessageFactoryTest {
+
+    private static final byte[] OWNER = ByteArray.fromHexString("a0548794500882809695a8a687866e76d4271a1abc");
+
+    private final Brte2MessageFactory factory = new Brte2MessageFactory();
+
+    private Transaction newTransaction(long amount) {
+        return new TransactionCapsule(TransferContract.newBuilder()
+                .setOwnerAddress(ByteString.copyFrom(OWNER))
+                .setToAddress(ByteString.copyFrom(OWNER))
+                .setAmount(amount)
+                .build(), ContractType.TransferContract).getInstance().toBuilder()
+                .addSignature(ByteString.copyFrom(new byte[65]))
+                .build();
+    }
+
+    @Test
+    public void testCreateWithType() throws Exception {
+        TransactionsMessage sent = new TransactionsMessage(
+                Lists.newArrayList(newTransaction(1L), newTransaction(2L)));
+        byte[] rawData = sent.getData().clone();
+
+        Brte2Message received = factory.create(MessageTypes.TRXS.asByte(), rawData);
+        Assert.assertTrue(received instanceof TransactionsMessage);
+        Assert.assertSame(rawData, received.getData());
+        Assert.assertEquals(sent.getTransactions(), ((TransactionsMessage) received).getTransactions());
+
+        Brte2Message fromFrame = factory.create(ArrayUtils.add(sent.getData(), 0, MessageTypes.TRXS.asByte()));
+        Assert.assertEquals(sent.getTransactions(), ((TransactionsMessage) fromFrame).getTransactions());
+    }
+
+    @Test
+    public void testTransactionsAreCopied() throws Exception {
+        TransactionsMessage sent = new TransactionsMessage(
+                Lists.newArrayList(newTransaction(1L), newTransaction(2L)));
+        byte[] rawData = sent.getData().clone();
+        TransactionsMessage received = (TransactionsMessage) factory.create(MessageTypes.TRXS.asByte(),
+                rawData);
+
+        // 각 transaction은 frame을 참조하지 않으므로 frame이 변경되어도 영향이 없음.
+        Arrays.fill(rawData, (byte) 0);
+        Assert.assertEquals(sent.getTransactions(), received.getTransactions());
+    }
+
+    @Test
+    public void testTransactionMessage() throws Exception {
+        Transaction trx = newTransaction(3L);
+        TransactionMessage received = (TransactionMessage) factory.create(MessageTypes.TRX.asByte(),
+                trx.toByteArray());
+        Assert.assertEquals(trx, received.getTransactionCapsule().getInstance());
+        Assert.assertEquals(new TransactionMessage(trx).getMessageId(), received.getMessageId());
+    }
+
+    @Test
+    public void testBlocksMessageParsedLazily() throws Exception {
+        BlocksMessage received = (BlocksMessage) factory.create(MessageTypes.BLOCKS.asByte(),
+                new byte[]{0x0a, 0x7f});
+        try {
+            received.getBlocks();
+            Assert.fail();
+        } catch (P2pException e) {
+            Assert.assertEquals(P2pException.TypeEnum.PARSE_MESSAGE_FAILED, e.getType());
+        }
+    }
+
+    @Test
+    public void testBrokenData() {
+        try {
+            factory.create(MessageTypes.TRXS.asByte(), new byte[]{0x0a, 0x7f});
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertTrue(e instanceof P2pException);
+            Assert.assertEquals(P2pException.TypeEnum.PARSE_MESSAGE_FAILED, ((P2pException) e).getType());
+        }
+    }
+}
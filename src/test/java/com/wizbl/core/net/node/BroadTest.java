@@ -94,15 +94,15 @@ public class BroadTest {
 
         boolean result = true;
         for (PeerConnection peerConnection : activePeers) {
-            if (!peerConnection.getAdvObjWeSpread().containsKey(blockId)) {
+            if (!peerConnection.isAdvObjWeSpread(blockId, InventoryType.BLOCK)) {
                 result &= false;
             }
-            if (!peerConnection.getAdvObjWeSpread().containsKey(transactionId)) {
+            if (!peerConnection.isAdvObjWeSpread(transactionId, InventoryType.TRX)) {
                 result &= false;
             }
         }
         for (PeerConnection peerConnection : activePeers) {
-            peerConnection.getAdvObjWeSpread().clear();
+            peerConnection.clearAdvObjWeSpread();
         }
         Assert.assertTrue(result);
         return new Condition(blockId, transactionId);
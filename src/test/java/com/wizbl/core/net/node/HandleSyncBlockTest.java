@@ -93,12 +93,12 @@ public class HandleSyncBlockTest {
 
         boolean result = true;
         for (PeerConnection peerConnection : activePeers) {
-            if (!peerConnection.getAdvObjWeSpread().containsKey(blockId)) {
+            if (!peerConnection.isAdvObjWeSpread(blockId, Protocol.Inventory.InventoryType.BLOCK)) {
                 result &= false;
             }
         }
         for (PeerConnection peerConnection : activePeers) {
-            peerConnection.getAdvObjWeSpread().clear();
+            peerConnection.clearAdvObjWeSpread();
         }
         Assert.assertTrue(result);
         return new Condition(blockId);
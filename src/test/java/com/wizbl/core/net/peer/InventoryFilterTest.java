@@ -0,0 +1,98 @@
+package com.wizbl.core.net.peer;
+
+import com.wizbl.common.utils.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InventoryFilterTest {
+
+    private static Sha256Hash hash(int i) {
+        return Sha256Hash.of(new byte[]{(byte) (i >> 8), (byte) i});
+    }
+
+    @Test
+    public void testPutAndContain() {
+        InventoryFilter filter = new InventoryFilter(1000, 0.000_001, 60_000);
+        for (int i = 0; i < 500; i++) {
+            filter.put(hash(i));
+        }
+        for (int i = 0; i < 500; i++) {
+            Assert.assertTrue(filter.mightContain(hash(i)));
+        }
+        int falsePositive = 0;
+        for (int i = 500; i < 1500; i++) {
+            if (filter.mightContain(hash(i))) {
+                falsePositive++;
+            }
+        }
+        Assert.assertTrue(falsePositive <= 1);
+        Assert.assertEquals(500, filter.approximateElementCount());
+        Assert.assertTrue(filter.expectedFpp() < 0.000_001);
+
+        filter.clear();
+        Assert.assertFalse(filter.mightContain(hash(0)));
+        Assert.assertEquals(0, filter.approximateElementCount());
+    }
+
+    @Test
+    public void testRotateBySize() {
+        InventoryFilter filter = new InventoryFilter(100, 0.000_001, 60_000);
+        for (int i = 0; i < 150; i++) {
+            filter.put(hash(i));
+        }
+        // 0~99는 previous, 100~149는 current 세대에 있음.
+        Assert.assertTrue(filter.mightContain(hash(0)));
+        Assert.assertTrue(filter.mightContain(hash(149)));
+
+        for (int i = 150; i < 250; i++) {
+            filter.put(hash(i));
+        }
+        // 두 번 교체되면 처음 세대는 제거됨.
+        Assert.assertFalse(filter.mightContain(hash(0)));
+        Assert.assertTrue(filter.mightContain(hash(100)));
+        Assert.assertTrue(filter.mightContain(hash(249)));
+    }
+
+    @Test
+    public void testRotateByTime() throws InterruptedException {
+        InventoryFilter filter = new InventoryFilter(1000, 0.000_001, 50);
+        filter.put(hash(1));
+        Thread.sleep(60);
+        filter.put(hash(2));
+        Assert.assertTrue(filter.mightContain(hash(1)));
+        Thread.sleep(60);
+        filter.put(hash(3));
+        Assert.assertFalse(filter.mightContain(hash(1)));
+        Assert.assertTrue(filter.mightContain(hash(2)));
+    }
+
+    @Test
+    public void testMemorySize() {
+        InventoryFilter filter = new InventoryFilter(84_000, 0.000_001, 60_000);
+        // 처음 put할 때까지 filter를 할당하지 않음.
+        Assert.assertEquals(0, filter.memorySize());
+        Assert.assertFalse(filter.mightContain(hash(0)));
+
+        filter.put(hash(0));
+        long minSize = InventoryFilter.bitSize(InventoryFilter.MIN_CAPACITY, 0.000_001) / 8;
+        Assert.assertEquals(minSize, filter.memorySize());
+        Assert.assertTrue(filter.memorySize() < 8 * 1024);
+    }
+
+    @Test
+    public void testGrowWhenFull() {
+        InventoryFilter filter = new InventoryFilter(84_000, 0.000_001, 60_000);
+        int total = (int) InventoryFilter.MIN_CAPACITY * 3;
+        for (int i = 0; i < total; i++) {
+            filter.put(hash(i));
+        }
+        // MIN_CAPACITY 세대가 가득 차면 두 배 크기의 세대로 교체되므로 모든 hash가 남아 있음.
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(filter.mightContain(hash(i)));
+        }
+        Assert.assertEquals(total, filter.approximateElementCount());
+        Assert.assertEquals((InventoryFilter.bitSize(InventoryFilter.MIN_CAPACITY, 0.000_001)
+                + InventoryFilter.bitSize(InventoryFilter.MIN_CAPACITY * 2, 0.000_001)) / 8,
+                filter.memorySize());
+    }
+}
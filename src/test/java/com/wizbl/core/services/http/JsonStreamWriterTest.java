@@ -0,0 +1,305 @@
+package com.wizbl.core.services.http;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.wizbl.api.GrpcAPI.BlockList;
+import com.wizbl.common.crypto.ECKey;
+import com.wizbl.common.utils.ByteArray;
+import com.wizbl.common.utils.Sha256Hash;
+import com.wizbl.core.capsule.BlockCapsule;
+import com.wizbl.core.capsule.TransactionCapsule;
+import com.wizbl.protos.Contract;
+import com.wizbl.protos.Contract.CreateSmartContract;
+import com.wizbl.protos.Contract.TransferAssetContract;
+import com.wizbl.protos.Contract.TransferContract;
+import com.wizbl.protos.Contract.VoteWitnessContract;
+import com.wizbl.protos.Protocol.Block;
+import com.wizbl.protos.Protocol.SmartContract;
+import com.wizbl.protos.Protocol.Transaction;
+import com.wizbl.protos.Protocol.Transaction.Contract.ContractType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class JsonStreamWriterTest {
+
+    private static final byte[] OWNER = ByteArray.fromHexString("a0548794500882809695a8a687866e76d4271a1abc");
+    private static final byte[] TO = ByteArray.fromHexString("a0ef2a63d3df3a0b7ee5b2b6ad84a7f8e5e6a9a6ba");
+
+    // escape 방식이 다를 수 있는 문자를 모두 포함하는 contract 이름
+    private static final String SPECIAL_NAME = "\"q\" \\ / \b\f\n\r\t \u0001\u001f\u007f 한글 \uD83D\uDE00 \u2028";
+
+    /**
+     * JsonStreamWriter 이전의 Util.printTransactionToJSON()이 parameter를 해석하던 contract 종류
+     */
+    private static final Map<ContractType, Class<? extends Message>> LEGACY_TYPES =
+            new EnumMap<>(ContractType.class);
+
+    static {
+        LEGACY_TYPES.put(ContractType.AccountCreateContract, Contract.AccountCreateContract.class);
+        LEGACY_TYPES.put(ContractType.TransferContract, Contract.TransferContract.class);
+        LEGACY_TYPES.put(ContractType.TransferAssetContract, Contract.TransferAssetContract.class);
+        LEGACY_TYPES.put(ContractType.AssetIssueContract, Contract.AssetIssueContract.class);
+        LEGACY_TYPES.put(ContractType.ParticipateAssetIssueContract,
+                Contract.ParticipateAssetIssueContract.class);
+        LEGACY_TYPES.put(ContractType.AccountUpdateContract, Contract.AccountUpdateContract.class);
+        LEGACY_TYPES.put(ContractType.FreezeBalanceContract, Contract.FreezeBalanceContract.class);
+        LEGACY_TYPES.put(ContractType.UnfreezeBalanceContract, Contract.UnfreezeBalanceContract.class);
+        LEGACY_TYPES.put(ContractType.UnfreezeAssetContract, Contract.UnfreezeAssetContract.class);
+        LEGACY_TYPES.put(ContractType.WithdrawBalanceContract, Contract.WithdrawBalanceContract.class);
+        LEGACY_TYPES.put(ContractType.UpdateAssetContract, Contract.UpdateAssetContract.class);
+        LEGACY_TYPES.put(ContractType.CreateSmartContract, Contract.CreateSmartContract.class);
+        LEGACY_TYPES.put(ContractType.TriggerSmartContract, Contract.TriggerSmartContract.class);
+        LEGACY_TYPES.put(ContractType.ProposalCreateContract, Contract.ProposalCreateContract.class);
+        LEGACY_TYPES.put(ContractType.ProposalApproveContract, Contract.ProposalApproveContract.class);
+        LEGACY_TYPES.put(ContractType.ProposalDeleteContract, Contract.ProposalDeleteContract.class);
+        LEGACY_TYPES.put(ContractType.ExchangeCreateContract, Contract.ExchangeCreateContract.class);
+        LEGACY_TYPES.put(ContractType.ExchangeInjectContract, Contract.ExchangeInjectContract.class);
+        LEGACY_TYPES.put(ContractType.ExchangeWithdrawContract, Contract.ExchangeWithdrawContract.class);
+        LEGACY_TYPES.put(ContractType.ExchangeTransactionContract,
+                Contract.ExchangeTransactionContract.class);
+        LEGACY_TYPES.put(ContractType.UpdateSettingContract, Contract.UpdateSettingContract.class);
+        LEGACY_TYPES.put(ContractType.UpdateEnergyLimitContract, Contract.UpdateEnergyLimitContract.class);
+    }
+
+    private Transaction transfer;
+    private Transaction create;
+    private BlockCapsule blockCapsule;
+
+    @Before
+    public void init() {
+        transfer = new TransactionCapsule(TransferContract.newBuilder()
+                .setOwnerAddress(ByteString.copyFrom(OWNER))
+                .setToAddress(ByteString.copyFrom(TO))
+                .setAmount(100L)
+                .build(), ContractType.TransferContract).getInstance().toBuilder()
+                .addSignature(ByteString.copyFrom(new byte[65]))
+                .build();
+        create = new TransactionCapsule(CreateSmartContract.newBuilder()
+                .setOwnerAddress(ByteString.copyFrom(OWNER))
+                .setNewContract(SmartContract.newBuilder().setName("test \"contract\"\n")
+                        .setBytecode(ByteString.copyFrom(ByteArray.fromHexString("6080604052"))))
+                .build(), ContractType.CreateSmartContract).getInstance();
+
+        blockCapsule = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 1000L, ByteString.copyFrom(OWNER));
+        blockCapsule.addTransaction(new TransactionCapsule(transfer));
+        blockCapsule.addTransaction(new TransactionCapsule(create));
+        blockCapsule.setMerkleRoot();
+    }
+
+    @Test
+    public void testTransaction() {
+        JSONObject json = JSONObject.parseObject(Util.printTransaction(transfer));
+
+        Assert.assertEquals(ByteArray.toHexString(Sha256Hash.hash(transfer.getRawData().toByteArray())),
+                json.getString("txID"));
+        Assert.assertEquals(ByteArray.toHexString(new byte[65]), json.getJSONArray("signature").getString(0));
+        Assert.assertNull(json.get("contract_address"));
+
+        JSONObject rawData = json.getJSONObject("raw_data");
+        Assert.assertEquals(transfer.getRawData().getTimestamp(), rawData.getLongValue("timestamp"));
+        JSONObject contract = rawData.getJSONArray("contract").getJSONObject(0);
+        Assert.assertEquals("TransferContract", contract.getString("type"));
+        JSONObject parameter = contract.getJSONObject("parameter");
+        Assert.assertEquals(transfer.getRawData().getContract(0).getParameter().getTypeUrl(),
+                parameter.getString("type_url"));
+        Assert.assertEquals(100L, parameter.getJSONObject("value").getLongValue("amount"));
+        Assert.assertEquals(ByteArray.toHexString(TO), parameter.getJSONObject("value").getString("to_address"));
+    }
+
+    @Test
+    public void testCreateSmartContract() {
+        JSONObject json = JSONObject.parseObject(Util.printTransaction(create));
+
+        Assert.assertEquals(ByteArray.toHexString(Util.generateContractAddress(create, OWNER)),
+                json.getString("contract_address"));
+        JSONObject value = json.getJSONObject("raw_data").getJSONArray("contract").getJSONObject(0)
+                .getJSONObject("parameter").getJSONObject("value");
+        Assert.assertEquals("test \"contract\"\n", value.getJSONObject("new_contract").getString("name"));
+        Assert.assertEquals("6080604052", value.getJSONObject("new_contract").getString("bytecode"));
+    }
+
+    @Test
+    public void testContractWithoutValue() {
+        Transaction emptyRaw = Transaction.newBuilder()
+                .setRawData(Transaction.raw.newBuilder().setTimestamp(1L))
+                .build();
+        JSONObject json = JSONObject.parseObject(Util.printTransaction(emptyRaw));
+        Assert.assertEquals(0, json.getJSONObject("raw_data").getJSONArray("contract").size());
+
+        Transaction vote = Transaction.newBuilder()
+                .setRawData(Transaction.raw.newBuilder().addContract(Transaction.Contract.newBuilder()
+                        .setType(ContractType.VoteWitnessContract)))
+                .build();
+        JSONObject contract = JSONObject.parseObject(Util.printTransaction(vote))
+                .getJSONObject("raw_data").getJSONArray("contract").getJSONObject(0);
+        Assert.assertEquals("VoteWitnessContract", contract.getString("type"));
+        Assert.assertNull(contract.getJSONObject("parameter").get("value"));
+        Assert.assertEquals("", contract.getJSONObject("parameter").getString("type_url"));
+    }
+
+    @Test
+    public void testBlock() {
+        Block block = blockCapsule.getInstance();
+        JSONObject json = JSONObject.parseObject(Util.printBlock(block));
+
+        Assert.assertEquals(ByteArray.toHexString(blockCapsule.getBlockId().getBytes()),
+                json.getString("blockID"));
+        assertLegacySize(blockCapsule, json.getIntValue("size"));
+        Assert.assertEquals(JSONObject.parseObject(JsonFormat.printToString(block.getBlockHeader())),
+                json.getJSONObject("block_header"));
+
+        JSONArray transactions = json.getJSONArray("transactions");
+        Assert.assertEquals(2, transactions.size());
+        Assert.assertEquals(Util.printTransactionToJSON(transfer), transactions.getJSONObject(0));
+        Assert.assertEquals(Util.printTransactionToJSON(create), transactions.getJSONObject(1));
+    }
+
+    @Test
+    public void testBlockList() {
+        Assert.assertEquals("{\"block\":[]}", Util.printBlockList(BlockList.getDefaultInstance()));
+
+        Block empty = new BlockCapsule(2, Sha256Hash.ZERO_HASH, 2000L, ByteString.copyFrom(OWNER))
+                .getInstance();
+        BlockList list = BlockList.newBuilder().addBlock(blockCapsule.getInstance()).addBlock(empty).build();
+        JSONArray blocks = JSONObject.parseObject(Util.printBlockList(list)).getJSONArray("block");
+        Assert.assertEquals(2, blocks.size());
+        Assert.assertEquals(Util.printBlockToJSON(blockCapsule.getInstance()), blocks.getJSONObject(0));
+        Assert.assertNull(blocks.getJSONObject(1).get("transactions"));
+        Assert.assertEquals(2, blocks.getJSONObject(1).getIntValue("size"));
+    }
+
+    @Test
+    public void testSameAsLegacyOutput() {
+        ECKey owner = ECKey.fromPrivate(Sha256Hash.of("owner".getBytes()).getBytes());
+        ByteString ownerAddress = ByteString.copyFrom(owner.getAddress());
+
+        TransactionCapsule signedTransfer = new TransactionCapsule(TransferContract.newBuilder()
+                .setOwnerAddress(ownerAddress)
+                .setToAddress(ByteString.copyFrom(TO))
+                .setAmount(Long.MAX_VALUE)
+                .build(), ContractType.TransferContract);
+        signedTransfer.sign(owner.getPrivKeyBytes());
+        TransactionCapsule signedAsset = new TransactionCapsule(TransferAssetContract.newBuilder()
+                .setAssetName(ByteString.copyFrom("1000001".getBytes()))
+                .setOwnerAddress(ownerAddress)
+                .setToAddress(ByteString.copyFrom(TO))
+                .setAmount(-1L)
+                .build(), ContractType.TransferAssetContract);
+        signedAsset.sign(owner.getPrivKeyBytes());
+        TransactionCapsule signedCreate = new TransactionCapsule(CreateSmartContract.newBuilder()
+                .setOwnerAddress(ownerAddress)
+                .setNewContract(SmartContract.newBuilder().setName(SPECIAL_NAME)
+                        .setBytecode(ByteString.copyFrom(ByteArray.fromHexString("6080604052"))))
+                .build(), ContractType.CreateSmartContract);
+        signedCreate.sign(owner.getPrivKeyBytes());
+        // contract가 두 개이고 서명은 하나인 transaction. 두 번째 contract는 parameter를 해석하지 않음.
+        Transaction multiContract = transfer.toBuilder()
+                .setRawData(transfer.getRawData().toBuilder().addContract(Transaction.Contract.newBuilder()
+                        .setType(ContractType.VoteWitnessContract)
+                        .setParameter(Any.pack(VoteWitnessContract.newBuilder()
+                                .setOwnerAddress(ownerAddress).build()))))
+                .build();
+
+        BlockCapsule block = new BlockCapsule(3, Sha256Hash.ZERO_HASH, 3000L, ownerAddress);
+        block.addTransaction(signedTransfer);
+        block.addTransaction(signedAsset);
+        block.addTransaction(signedCreate);
+        block.addTransaction(new TransactionCapsule(multiContract));
+        block.setMerkleRoot();
+        block.sign(owner.getPrivKeyBytes());
+        Block empty = new BlockCapsule(4, Sha256Hash.ZERO_HASH, 4000L, ownerAddress).getInstance();
+
+        List<Block> blocks = Arrays.asList(block.getInstance(), empty, blockCapsule.getInstance());
+        for (Block b : blocks) {
+            String legacy = legacyPrintBlock(b);
+            String streamed = Util.printBlock(b);
+
+            JSONObject expected = JSONObject.parseObject(legacy);
+            JSONObject actual = JSONObject.parseObject(streamed);
+            expected.remove("size");
+            assertLegacySize(new BlockCapsule(b), (Integer) actual.remove("size"));
+            Assert.assertEquals(expected, actual);
+        }
+
+        // 문자열은 기존 출력과 같은 byte로 escape 되어야 함.
+        String escaped = JSON.toJSONString(SPECIAL_NAME);
+        Assert.assertTrue(legacyPrintBlock(block.getInstance()).contains(escaped));
+        Assert.assertTrue(Util.printBlock(block.getInstance()).contains(escaped));
+        Assert.assertTrue(Util.printBlockList(BlockList.newBuilder().addBlock(block.getInstance()).build())
+                .contains(escaped));
+    }
+
+    /**
+     * 기존 size 값과 비교함. byte[], ByteString의 toString()에 포함되는 identityHashCode(16진수 1~8자리)는
+     * 호출할 때마다 길이가 달라질 수 있으므로 그 차이만큼은 허용함.
+     */
+    private static void assertLegacySize(BlockCapsule blockCapsule, int size) {
+        String legacy = blockCapsule.getTransactions().toString();
+        int identityHashes = legacy.split("\\[B@|ByteString@", -1).length - 1;
+        Assert.assertEquals(legacy.getBytes().length, size, 7 * identityHashes);
+    }
+
+    /**
+     * JsonStreamWriter 이전의 Util.printBlock()
+     * (JsonFormat.printToString -> JSONObject.parseObject -> 값 추가 -> toJSONString)
+     */
+    private static String legacyPrintBlock(Block block) {
+        BlockCapsule blockCapsule = new BlockCapsule(block);
+        JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(block));
+        jsonObject.put("blockID", ByteArray.toHexString(blockCapsule.getBlockId().getBytes()));
+        if (!blockCapsule.getTransactions().isEmpty()) {
+            JSONArray transactions = new JSONArray();
+            blockCapsule.getTransactions().forEach(
+                    transactionCapsule -> transactions.add(legacyPrintTransactionToJSON(transactionCapsule.getInstance())));
+            jsonObject.put("transactions", transactions);
+        }
+        jsonObject.put("size", blockCapsule.getTransactions().toString().getBytes().length);
+        return jsonObject.toJSONString();
+    }
+
+    private static JSONObject legacyPrintTransactionToJSON(Transaction transaction) {
+        JSONObject jsonTransaction = JSONObject.parseObject(JsonFormat.printToString(transaction));
+        JSONArray contracts = new JSONArray();
+        for (Transaction.Contract contract : transaction.getRawData().getContractList()) {
+            try {
+                JSONObject contractJson = null;
+                Class<? extends Message> type = LEGACY_TYPES.get(contract.getType());
+                if (type != null) {
+                    Message value = contract.getParameter().unpack(type);
+                    contractJson = JSONObject.parseObject(JsonFormat.printToString(value));
+                    if (value instanceof CreateSmartContract) {
+                        byte[] ownerAddress = ((CreateSmartContract) value).getOwnerAddress().toByteArray();
+                        jsonTransaction.put("contract_address",
+                                ByteArray.toHexString(Util.generateContractAddress(transaction, ownerAddress)));
+                    }
+                }
+                JSONObject parameter = new JSONObject();
+                parameter.put("value", contractJson);
+                parameter.put("type_url", contract.getParameterOrBuilder().getTypeUrl());
+                JSONObject jsonContract = new JSONObject();
+                jsonContract.put("parameter", parameter);
+                jsonContract.put("type", contract.getType());
+                contracts.add(jsonContract);
+            } catch (InvalidProtocolBufferException e) {
+                // 기존처럼 해석할 수 없는 contract는 제외함.
+            }
+        }
+
+        JSONObject rawData = JSONObject.parseObject(jsonTransaction.get("raw_data").toString());
+        rawData.put("contract", contracts);
+        jsonTransaction.put("raw_data", rawData);
+        jsonTransaction.put("txID", ByteArray.toHexString(Sha256Hash.hash(transaction.getRawData().toByteArray())));
+        return jsonTransaction;
+    }
+}